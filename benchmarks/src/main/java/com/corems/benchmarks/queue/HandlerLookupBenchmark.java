@@ -0,0 +1,66 @@
+package com.corems.benchmarks.queue;
+
+import com.corems.common.queue.poller.MessageHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Handler lookup by message type. A type decoded off the wire is a new string whose hash is computed on
+ * the first lookup, so the decoded case is the one the poller pays for on every message.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HandlerLookupBenchmark {
+
+    @Param({"4", "64"})
+    public int handlerCount;
+
+    private Map<String, MessageHandler> hashHandlers;
+    private Map<String, MessageHandler> immutableHandlers;
+    private String cachedType;
+    private byte[] wireType;
+
+    @Setup
+    public void setUp() {
+        hashHandlers = new HashMap<>();
+        for (int i = 0; i < handlerCount; i++) {
+            hashHandlers.put(QueueFixtures.handlerType(i), message -> { });
+        }
+        immutableHandlers = Map.copyOf(hashHandlers);
+        cachedType = QueueFixtures.handlerType(handlerCount - 1);
+        wireType = cachedType.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public MessageHandler hashMapCachedType() {
+        return hashHandlers.get(cachedType);
+    }
+
+    @Benchmark
+    public MessageHandler hashMapDecodedType() {
+        return hashHandlers.get(new String(wireType, StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public MessageHandler immutableMapDecodedType() {
+        return immutableHandlers.get(new String(wireType, StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,87 @@
+package com.corems.benchmarks.queue;
+
+import com.corems.common.queue.QueueMessage;
+import com.corems.common.queue.clients.InMemoryQueueClient;
+import com.corems.common.queue.config.QueueProperties;
+import com.corems.common.queue.metrics.QueueMetrics;
+import com.corems.common.queue.poller.GenericQueuePoller;
+import com.corems.common.queue.poller.MessageHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * End-to-end throughput of publish, poll and handle through the in-memory client and a running poller.
+ * Each invocation publishes a batch and waits until the poller has handled all of it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InMemoryThroughputBenchmark {
+    private static final int BATCH = 1000;
+
+    @Param({"1", "4"})
+    public int concurrency;
+
+    @Param({"false", "true"})
+    public boolean virtualThreads;
+
+    private final AtomicLong handled = new AtomicLong();
+    private InMemoryQueueClient client;
+    private GenericQueuePoller poller;
+    private QueueMessage[] batch;
+    private long published;
+
+    @Setup
+    public void setUp() {
+        QueueProperties.InMemoryProperties props = new QueueProperties.InMemoryProperties();
+        props.setDefaultQueue("bench");
+        props.setConcurrency(concurrency);
+        props.setVirtualThreads(virtualThreads);
+        props.setCapacity(BATCH * 2);
+
+        client = new InMemoryQueueClient(props, null, QueueMetrics.noop());
+        MessageHandler handler = message -> handled.incrementAndGet();
+        poller = new GenericQueuePoller(client, Map.of(QueueFixtures.EMAIL_TYPE, handler));
+
+        batch = new QueueMessage[BATCH];
+        for (int i = 0; i < BATCH; i++) {
+            batch[i] = QueueFixtures.emailMessage();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        poller.close();
+        client.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void publishAndHandle() {
+        for (QueueMessage message : batch) {
+            client.send(message);
+        }
+        published += BATCH;
+        while (handled.get() < published) {
+            Thread.onSpinWait();
+        }
+    }
+}
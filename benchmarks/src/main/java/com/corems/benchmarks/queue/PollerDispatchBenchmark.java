@@ -0,0 +1,102 @@
+package com.corems.benchmarks.queue;
+
+import com.corems.common.queue.QueueMessage;
+import com.corems.common.queue.config.QueueProperties;
+import com.corems.common.queue.idempotency.IdempotencyGuard;
+import com.corems.common.queue.idempotency.InMemoryIdempotencyGuard;
+import com.corems.common.queue.metrics.QueueMetrics;
+import com.corems.common.queue.poller.GenericQueuePoller;
+import com.corems.common.queue.poller.MessageHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per message overhead of {@link GenericQueuePoller#pollOnce()} on the calling thread: source selection,
+ * handler lookup, idempotency claim, metrics and the handler call, against a client that always has a message.
+ * {@code processMessage} measures the same dispatch through the protected hook, without the poll.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PollerDispatchBenchmark {
+
+    @Param({"1", "32"})
+    public int handlerCount;
+
+    @Param({"false", "true"})
+    public boolean idempotency;
+
+    @Param({"false", "true"})
+    public boolean recordMetrics;
+
+    private DispatchPoller poller;
+    private ReplayQueueClient client;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        QueueProperties.InMemoryProperties props = new QueueProperties.InMemoryProperties();
+        props.setDefaultQueue("bench");
+        props.setConcurrency(1);
+
+        QueueMetrics metrics = recordMetrics ? new QueueMetrics(new SimpleMeterRegistry()) : QueueMetrics.noop();
+        client = new ReplayQueueClient(props, QueueFixtures.emailMessage(), metrics);
+        client.setUniqueIds(idempotency);
+
+        Map<String, MessageHandler> handlers = new HashMap<>();
+        for (int i = 0; i < handlerCount; i++) {
+            handlers.put(QueueFixtures.handlerType(i), (QueueMessage message) -> blackhole.consume(message.getPayload()));
+        }
+        IdempotencyGuard guard = idempotency
+                ? new InMemoryIdempotencyGuard(100_000, TimeUnit.HOURS.toMillis(1))
+                : IdempotencyGuard.none();
+        poller = new DispatchPoller(client, handlers, guard);
+    }
+
+    @TearDown
+    public void tearDown() {
+        poller.close();
+    }
+
+    @Benchmark
+    public void pollOnce() {
+        poller.pollOnce();
+    }
+
+    @Benchmark
+    public void processMessage() {
+        poller.dispatch(client.poll("bench").orElseThrow());
+    }
+
+    /**
+     * Calls the protected per message hook directly.
+     */
+    static final class DispatchPoller extends GenericQueuePoller {
+
+        DispatchPoller(ReplayQueueClient client, Map<String, MessageHandler> handlers, IdempotencyGuard guard) {
+            super(client, handlers, Map.of(), false, guard);
+        }
+
+        void dispatch(QueueMessage message) {
+            processMessage("bench", message);
+        }
+    }
+}
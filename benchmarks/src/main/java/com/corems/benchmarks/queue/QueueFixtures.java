@@ -0,0 +1,48 @@
+package com.corems.benchmarks.queue;
+
+import com.corems.common.queue.QueueMessage;
+import com.corems.common.queue.QueuePriority;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Messages shaped like the ones communication-ms publishes, so the numbers reflect real payload sizes.
+ */
+final class QueueFixtures {
+    static final String EMAIL_TYPE = "email";
+
+    private QueueFixtures() {
+    }
+
+    static QueueMessage emailMessage() {
+        EmailPayload payload = new EmailPayload();
+        payload.setUuid(UUID.randomUUID().toString());
+        payload.setRecipient("jane.doe@example.com");
+        payload.setSubject("Your order has shipped");
+        payload.setBody("Hello Jane, your order #100042 is on its way and should arrive within three business days.");
+
+        QueueMessage message = new QueueMessage();
+        message.setId(UUID.randomUUID().toString());
+        message.setType(EMAIL_TYPE);
+        message.setPriority(QueuePriority.TRANSACTIONAL);
+        message.setHeaders(Map.of("traceparent", "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01"));
+        message.setPayload(payload);
+        return message;
+    }
+
+    static String handlerType(int index) {
+        return index == 0 ? EMAIL_TYPE : "type-" + index;
+    }
+
+    @Getter
+    @Setter
+    public static class EmailPayload {
+        private String uuid;
+        private String recipient;
+        private String subject;
+        private String body;
+    }
+}
@@ -0,0 +1,72 @@
+package com.corems.benchmarks.queue;
+
+import com.corems.common.queue.QueueMessage;
+import com.corems.common.queue.config.WireFormat;
+import com.corems.common.queue.converter.QueueMessageConverter;
+import com.corems.common.queue.converter.QueuePayloadTypeRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.SimpleMessageConverter;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode and decode cost of a queue message in each wire format, including payload type resolution.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QueueMessageConverterBenchmark {
+
+    @Param({"JSON", "CBOR"})
+    public WireFormat wireFormat;
+
+    private QueueMessageConverter converter;
+    private QueueMessage message;
+    private byte[] encodedBody;
+    private String contentType;
+
+    @Setup
+    public void setUp() {
+        QueuePayloadTypeRegistry registry = new QueuePayloadTypeRegistry();
+        registry.register(QueueFixtures.EMAIL_TYPE, QueueFixtures.EmailPayload.class);
+        converter = new QueueMessageConverter(wireFormat, registry, new SimpleMessageConverter());
+        message = QueueFixtures.emailMessage();
+
+        Message encoded = converter.toMessage(message, new MessageProperties());
+        encodedBody = encoded.getBody();
+        contentType = encoded.getMessageProperties().getContentType();
+    }
+
+    @Benchmark
+    public Message encode() {
+        return converter.toMessage(message, new MessageProperties());
+    }
+
+    @Benchmark
+    public Object decode() {
+        // Fresh properties per call, as a delivery from the broker would have
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(contentType);
+        return converter.fromMessage(new Message(encodedBody, properties));
+    }
+
+    @Benchmark
+    public Object roundTrip() {
+        return converter.fromMessage(converter.toMessage(message, new MessageProperties()));
+    }
+}
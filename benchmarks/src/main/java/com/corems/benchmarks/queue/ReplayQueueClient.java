@@ -0,0 +1,64 @@
+package com.corems.benchmarks.queue;
+
+import com.corems.common.queue.QueueClient;
+import com.corems.common.queue.QueueMessage;
+import com.corems.common.queue.config.QueueProperties;
+import com.corems.common.queue.metrics.QueueMetrics;
+
+import java.util.Optional;
+
+/**
+ * Client stand-in that hands out the same message on every poll, so a benchmark through the poller
+ * measures dispatch and nothing of the broker or queue data structure.
+ */
+final class ReplayQueueClient implements QueueClient {
+    private final QueueProperties.InMemoryProperties props;
+    private final Optional<QueueMessage> message;
+    private final QueueMetrics metrics;
+    private long sequence;
+    private boolean uniqueIds;
+
+    ReplayQueueClient(QueueProperties.InMemoryProperties props, QueueMessage message, QueueMetrics metrics) {
+        this.props = props;
+        this.message = Optional.of(message);
+        this.metrics = metrics;
+    }
+
+    /**
+     * Give every poll a fresh id, as needed when an idempotency guard would otherwise skip the replays.
+     */
+    void setUniqueIds(boolean uniqueIds) {
+        this.uniqueIds = uniqueIds;
+    }
+
+    @Override
+    public QueueProperties.InMemoryProperties getProperties() {
+        return props;
+    }
+
+    @Override
+    public QueueMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public void send(QueueMessage message) {
+    }
+
+    @Override
+    public void send(String destination, QueueMessage message) {
+    }
+
+    @Override
+    public Optional<QueueMessage> poll() {
+        return poll(props.getDefaultQueue());
+    }
+
+    @Override
+    public Optional<QueueMessage> poll(String destination) {
+        if (uniqueIds) {
+            message.get().setId(Long.toString(sequence++));
+        }
+        return message;
+    }
+}
@@ -0,0 +1,31 @@
+package com.corems.common.queue;
+
+import java.util.List;
+
+/**
+ * Per-message results of a batch publish, in the same order as the submitted messages.
+ */
+public record BatchSendResult(List<SendResult> results) {
+
+    public BatchSendResult {
+        results = results == null ? List.of() : List.copyOf(results);
+    }
+
+    public boolean allAcked() {
+        return results.stream().allMatch(SendResult::acked);
+    }
+
+    public long ackedCount() {
+        return results.stream().filter(SendResult::acked).count();
+    }
+
+    /**
+     * Messages that were not confirmed by the broker and can be safely retried.
+     */
+    public List<QueueMessage> failedMessages() {
+        return results.stream()
+                .filter(r -> !r.acked())
+                .map(SendResult::message)
+                .toList();
+    }
+}
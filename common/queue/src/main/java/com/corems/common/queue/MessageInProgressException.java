@@ -0,0 +1,12 @@
+package com.corems.common.queue;
+
+/**
+ * Thrown by a consumer when another delivery of the same message id is still being handled, so the message is
+ * neither done nor failed. Providers put the delivery back without counting an attempt.
+ */
+public class MessageInProgressException extends IllegalStateException {
+
+    public MessageInProgressException(String messageId) {
+        super("Message id=" + messageId + " is already being handled");
+    }
+}
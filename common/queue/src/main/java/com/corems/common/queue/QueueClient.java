@@ -1,8 +1,13 @@
 package com.corems.common.queue;
 
 import com.corems.common.queue.config.QueueClientProperties;
+import com.corems.common.queue.metrics.QueueMetrics;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 public interface QueueClient {
     /**
@@ -10,6 +15,13 @@ public interface QueueClient {
      */
     QueueClientProperties getProperties();
 
+    /**
+     * Instrumentation used by this client and by pollers consuming through it.
+     */
+    default QueueMetrics getMetrics() {
+        return QueueMetrics.global();
+    }
+
     /**
      * Send a message to the default destination (exchange/routing configured in properties).
      */
@@ -20,6 +32,37 @@ public interface QueueClient {
      */
     void send(String destination, QueueMessage message);
 
+    /**
+     * Send many messages to a destination and wait until each of them is confirmed or rejected.
+     * Results are reported per message so callers can retry only the failures. Blocks the calling thread;
+     * use {@link #sendBatchAsync(String, List)} to keep it free.
+     */
+    default BatchSendResult sendBatch(String destination, List<QueueMessage> messages) {
+        return sendBatchAsync(destination, messages).join();
+    }
+
+    /**
+     * Asynchronous variant of {@link #sendBatch(String, List)}. Returns without waiting on the broker; the future
+     * completes once every message has been confirmed or rejected. Providers without pipelined confirms send the
+     * messages one by one on a virtual thread.
+     */
+    default CompletableFuture<BatchSendResult> sendBatchAsync(String destination, List<QueueMessage> messages) {
+        return CompletableFuture.supplyAsync(() -> {
+            List<SendResult> results = new ArrayList<>();
+            if (messages != null) {
+                for (QueueMessage message : messages) {
+                    try {
+                        send(destination, message);
+                        results.add(SendResult.ack(message));
+                    } catch (Exception e) {
+                        results.add(SendResult.nack(message, e.getMessage()));
+                    }
+                }
+            }
+            return new BatchSendResult(results);
+        }, task -> Thread.ofVirtual().name("queue-batch-send").start(task));
+    }
+
     /**
      * Poll a destination for a single message synchronously with timeout from default queue from config.
      * Returns Optional.empty() when no message is available within timeout.
@@ -34,4 +77,52 @@ public interface QueueClient {
      * The destination parameter is provider-specific: it can be a queue name, routing key, or topic.
      */
     Optional<QueueMessage> poll(String destination);
+
+    /**
+     * Poll a destination waiting at most {@code timeoutMs}; 0 returns immediately when the destination is empty.
+     * Providers without a per-call timeout fall back to {@link #poll(String)}.
+     */
+    default Optional<QueueMessage> poll(String destination, long timeoutMs) {
+        return poll(destination);
+    }
+
+    /**
+     * Subscribe to a destination and have messages pushed to the consumer as the broker delivers them.
+     * The consumer runs on provider-managed threads. Providers that only support polling throw
+     * UnsupportedOperationException.
+     */
+    default QueueSubscription subscribe(String destination, Consumer<QueueMessage> consumer) {
+        throw new UnsupportedOperationException("Push consumption is not supported by " + getClass().getSimpleName());
+    }
+
+    /**
+     * Whether {@link #send(String, QueueMessage)} holds a message back until its {@link QueueMessage#getNotBefore()}.
+     * Providers without delayed delivery reject messages that are not due.
+     */
+    default boolean supportsDelayedDelivery() {
+        return false;
+    }
+
+    /**
+     * Schedule a failed message for another attempt. The default re-sends it to the destination immediately;
+     * providers with delayed delivery route it through a backoff tier chosen by {@link QueueMessage#getAttempts()}.
+     */
+    default void retry(String destination, QueueMessage message) {
+        send(destination, message);
+    }
+
+    /**
+     * Park a message that exhausted its retries so it can be inspected and replayed later.
+     * Returns false when the provider has no dead-letter storage and the message is dropped.
+     */
+    default boolean deadLetter(String destination, QueueMessage message, String reason) {
+        return false;
+    }
+
+    /**
+     * Move up to {@code max} parked messages back to the destination. Returns the number of replayed messages.
+     */
+    default int replayDeadLetters(String destination, int max) {
+        throw new UnsupportedOperationException("Dead-letter replay is not supported by " + getClass().getSimpleName());
+    }
 }
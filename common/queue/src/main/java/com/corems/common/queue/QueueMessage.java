@@ -17,7 +17,14 @@ public class QueueMessage implements Serializable {
     private String type;
     private Object payload;
     private int attempts = 0;
+    private QueuePriority priority = QueuePriority.NORMAL;
     private Map<String, String> headers;
     private Instant createdAt = Instant.now();
+    // Earliest delivery time; null delivers right away
+    private Instant notBefore;
+
+    public boolean isDue(Instant now) {
+        return notBefore == null || !notBefore.isAfter(now);
+    }
 }
 
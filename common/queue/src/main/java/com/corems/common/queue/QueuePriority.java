@@ -0,0 +1,27 @@
+package com.corems.common.queue;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Priority class of a message. Each class can be routed to its own destination (lane) so that bulk traffic
+ * does not delay transactional messages; the default weight sets its share of consumption when all lanes are busy.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum QueuePriority {
+    TRANSACTIONAL(6),
+    NORMAL(3),
+    BULK(1);
+
+    private final int defaultWeight;
+
+    public static QueuePriority fromString(String s) {
+        if (s == null) return NORMAL;
+        return switch (s.trim().toLowerCase()) {
+            case "transactional", "high", "critical" -> TRANSACTIONAL;
+            case "bulk", "low" -> BULK;
+            default -> NORMAL;
+        };
+    }
+}
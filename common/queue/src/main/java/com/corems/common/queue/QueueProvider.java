@@ -10,7 +10,7 @@ import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
 
 @Slf4j
-public final class QueueProvider {
+public final class QueueProvider implements AutoCloseable {
     @Getter
     private final QueueProperties queueProperties;
     private final Map<SupportedQueueProvider, QueueClient> providers = new ConcurrentHashMap<>();
@@ -60,4 +60,22 @@ public final class QueueProvider {
         }
         return client;
     }
+
+    /**
+     * Close the registered clients that hold resources, such as the in-memory client's scheduler thread and
+     * spill files. Called by the container when the provider bean is destroyed, after the pollers using it.
+     */
+    @Override
+    public void close() {
+        providers.forEach((type, client) -> {
+            if (client instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    log.warn("Failed to close QueueClient for provider type: {}", type, e);
+                }
+            }
+        });
+        providers.clear();
+    }
 }
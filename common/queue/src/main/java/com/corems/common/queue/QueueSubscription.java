@@ -0,0 +1,15 @@
+package com.corems.common.queue;
+
+/**
+ * Handle for an active push subscription created by {@link QueueClient#subscribe}.
+ * Closing it stops message delivery and releases the underlying consumer resources.
+ */
+public interface QueueSubscription extends AutoCloseable {
+
+    String getDestination();
+
+    boolean isActive();
+
+    @Override
+    void close();
+}
@@ -0,0 +1,16 @@
+package com.corems.common.queue;
+
+/**
+ * Outcome of publishing a single message as part of a batch.
+ * When {@code acked} is false, {@code reason} describes why the broker (or client) rejected the message.
+ */
+public record SendResult(QueueMessage message, boolean acked, String reason) {
+
+    public static SendResult ack(QueueMessage message) {
+        return new SendResult(message, true, null);
+    }
+
+    public static SendResult nack(QueueMessage message, String reason) {
+        return new SendResult(message, false, reason);
+    }
+}
@@ -1,16 +1,18 @@
 package com.corems.common.queue;
 
 /**
- * Enum of supported queue providers. Only RabbitMQ is supported for now.
+ * Enum of supported queue providers: RabbitMQ, and an in-process queue for single-node deployments and tests.
  */
 public enum SupportedQueueProvider {
-    RABBIT_MQ;
+    RABBIT_MQ,
+    IN_MEMORY;
 
     public static SupportedQueueProvider fromString(String s) {
         if (s == null) return null;
         String v = s.trim().toLowerCase();
         return switch (v) {
             case "rabbitmq", "rabbit_mq", "rabbit-mq", "rabbit" -> RABBIT_MQ;
+            case "inmemory", "in_memory", "in-memory", "memory" -> IN_MEMORY;
             default -> null;
         };
     }
@@ -0,0 +1,332 @@
+package com.corems.common.queue.clients;
+
+import com.corems.common.exception.ServiceException;
+import com.corems.common.exception.handler.DefaultExceptionReasonCodes;
+import com.corems.common.queue.QueueClient;
+import com.corems.common.queue.QueueMessage;
+import com.corems.common.queue.config.QueueProperties;
+import com.corems.common.queue.metrics.QueueMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process {@link QueueClient} for single-node deployments and tests that should not need a broker.
+ * <p>
+ * Each destination is a bounded lock-free queue; producers claim a slot with a CAS on the size counter and
+ * never block. When a destination is full, messages go to an optional memory-mapped spill log and are consumed
+ * from there once the in-memory messages are drained; without spill a full destination rejects the send.
+ * Messages live only as long as the process, so this provider gives asynchronous dispatch, not durability.
+ * <p>
+ * Messages with a future {@code notBefore} wait in a single {@link DelayQueue} ordered by due time and are
+ * moved to their destination by one scheduler thread when due.
+ */
+@Slf4j
+public class InMemoryQueueClient implements QueueClient, AutoCloseable {
+    private static final String DEAD_LETTER_SUFFIX = ".dlq";
+
+    private final QueueProperties.InMemoryProperties props;
+    private final MessageConverter spillConverter;
+    private final QueueMetrics metrics;
+    private final Map<String, Destination> destinations = new ConcurrentHashMap<>();
+    private final DelayQueue<ScheduledMessage> scheduled = new DelayQueue<>();
+    private final AtomicBoolean schedulerStarted = new AtomicBoolean();
+    private volatile Thread scheduler;
+
+    public static void validate(QueueProperties.InMemoryProperties inMemoryProps) {
+        if (inMemoryProps == null) {
+            throw new IllegalArgumentException("In-memory provider config missing under queue.providers.inMemory");
+        }
+        if (inMemoryProps.getDefaultQueue() == null || inMemoryProps.getDefaultQueue().isBlank()) {
+            throw new IllegalArgumentException("In-memory queue must define defaultQueue (queue.providers.inMemory.defaultQueue)");
+        }
+        if (inMemoryProps.getCapacity() <= 0) {
+            throw new IllegalArgumentException("In-memory queue capacity is invalid: " + inMemoryProps.getCapacity());
+        }
+        if (inMemoryProps.isSpillEnabled() && (inMemoryProps.getSpillDirectory() == null || inMemoryProps.getSpillDirectory().isBlank())) {
+            throw new IllegalArgumentException("In-memory queue spill requires spillDirectory (queue.providers.inMemory.spillDirectory)");
+        }
+    }
+
+    public static InMemoryQueueClient createInMemoryQueueClient(QueueProperties.InMemoryProperties inMemoryProps, MessageConverter converter) {
+        return createInMemoryQueueClient(inMemoryProps, converter, QueueMetrics.global());
+    }
+
+    public static InMemoryQueueClient createInMemoryQueueClient(QueueProperties.InMemoryProperties inMemoryProps, MessageConverter converter, QueueMetrics metrics) {
+        validate(inMemoryProps);
+        log.info("Using in-memory queue, capacity={} per destination, spill={}", inMemoryProps.getCapacity(),
+                inMemoryProps.isSpillEnabled() ? inMemoryProps.getSpillDirectory() : "disabled");
+        return new InMemoryQueueClient(inMemoryProps, converter, metrics);
+    }
+
+    public InMemoryQueueClient(QueueProperties.InMemoryProperties props, MessageConverter spillConverter) {
+        this(props, spillConverter, QueueMetrics.global());
+    }
+
+    public InMemoryQueueClient(QueueProperties.InMemoryProperties props, MessageConverter spillConverter, QueueMetrics metrics) {
+        this.props = props;
+        this.spillConverter = spillConverter;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public QueueProperties.InMemoryProperties getProperties() {
+        return props;
+    }
+
+    @Override
+    public QueueMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public void send(QueueMessage message) throws ServiceException {
+        send(props.getPriorityDestination(message.getPriority()), message);
+    }
+
+    @Override
+    public boolean supportsDelayedDelivery() {
+        return true;
+    }
+
+    @Override
+    public void send(String destination, QueueMessage message) throws ServiceException {
+        String dest = resolveDestination(destination);
+        if (!message.isDue(Instant.now())) {
+            schedule(dest, message);
+            return;
+        }
+        long start = metrics.start();
+        boolean accepted = destination(dest).offer(message);
+        metrics.recordPublish(dest, message.getType(), start, accepted);
+        if (!accepted) {
+            log.error("In-memory queue '{}' is full, rejecting message id={}", dest, message.getId());
+            throw ServiceException.of(DefaultExceptionReasonCodes.SERVER_ERROR, "Queue is full.");
+        }
+        log.debug("Sent message to in-memory queue='{}' id={}", dest, message.getId());
+    }
+
+    private void schedule(String dest, QueueMessage message) {
+        if (scheduled.size() >= props.getScheduledCapacity()) {
+            metrics.recordPublish(dest, message.getType(), metrics.start(), false);
+            log.error("In-memory scheduled queue is full, rejecting message id={}", message.getId());
+            throw ServiceException.of(DefaultExceptionReasonCodes.SERVER_ERROR, "Scheduled queue is full.");
+        }
+        startScheduler();
+        scheduled.offer(new ScheduledMessage(dest, message, message.getNotBefore().toEpochMilli()));
+        log.debug("Scheduled message id={} for in-memory queue='{}' at {}", message.getId(), dest, message.getNotBefore());
+    }
+
+    private void startScheduler() {
+        if (schedulerStarted.compareAndSet(false, true)) {
+            scheduler = Thread.ofPlatform().name("inmemory-queue-scheduler").daemon().start(this::runScheduler);
+        }
+    }
+
+    private void runScheduler() {
+        while (!Thread.currentThread().isInterrupted()) {
+            ScheduledMessage due;
+            try {
+                due = scheduled.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            if (!destination(due.destination()).offer(due.message())) {
+                // Destination is full: try again after a poll interval instead of dropping the message
+                log.warn("In-memory queue '{}' is full, delaying scheduled message id={}", due.destination(), due.message().getId());
+                scheduled.offer(new ScheduledMessage(due.destination(), due.message(), System.currentTimeMillis() + props.getPollIntervalMs()));
+            }
+        }
+    }
+
+    /**
+     * Number of messages waiting for their delivery time, across destinations.
+     */
+    public int scheduledSize() {
+        return scheduled.size();
+    }
+
+    @Override
+    public Optional<QueueMessage> poll() {
+        return poll(props.getDefaultQueue());
+    }
+
+    @Override
+    public Optional<QueueMessage> poll(String destination) {
+        return poll(destination, props.getPollIntervalMs());
+    }
+
+    @Override
+    public Optional<QueueMessage> poll(String destination, long timeoutMs) {
+        String dest = resolveDestination(destination);
+        try {
+            QueueMessage message = destination(dest).poll(timeoutMs);
+            metrics.recordPoll(dest, message == null);
+            return Optional.ofNullable(message);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public boolean deadLetter(String destination, QueueMessage message, String reason) {
+        String dlq = resolveDestination(destination) + DEAD_LETTER_SUFFIX;
+        if (!destination(dlq).offer(message)) {
+            return false;
+        }
+        log.warn("Moved message id={} to in-memory dead-letter queue '{}' after {} attempts: {}",
+                message.getId(), dlq, message.getAttempts(), reason);
+        return true;
+    }
+
+    @Override
+    public int replayDeadLetters(String destination, int max) {
+        String dest = resolveDestination(destination);
+        Destination dlq = destination(dest + DEAD_LETTER_SUFFIX);
+        int replayed = 0;
+        while (replayed < max) {
+            QueueMessage message = dlq.pollNow();
+            if (message == null) {
+                break;
+            }
+            message.setAttempts(0);
+            send(dest, message);
+            replayed++;
+        }
+        return replayed;
+    }
+
+    /**
+     * Number of messages waiting in the destination, including spilled ones.
+     */
+    public int size(String destination) {
+        return destination(resolveDestination(destination)).size();
+    }
+
+    @Override
+    public void close() {
+        Thread current = scheduler;
+        if (current != null) {
+            current.interrupt();
+        }
+        destinations.values().forEach(Destination::close);
+    }
+
+    private String resolveDestination(String destination) {
+        return (destination == null || destination.isEmpty()) ? props.getDefaultQueue() : destination;
+    }
+
+    private Destination destination(String name) {
+        return destinations.computeIfAbsent(name, this::createDestination);
+    }
+
+    private Destination createDestination(String name) {
+        MappedSpillLog spill = null;
+        if (props.isSpillEnabled()) {
+            try {
+                spill = new MappedSpillLog(Path.of(props.getSpillDirectory(), name + ".spill"), props.getSpillFileSizeBytes(), spillConverter);
+            } catch (IOException e) {
+                log.error("Failed to open spill log for in-memory queue '{}', continuing without spill", name, e);
+            }
+        }
+        Destination destination = new Destination(props.getCapacity(), spill);
+        metrics.registerDepth(name, destination::size);
+        return destination;
+    }
+
+    private record ScheduledMessage(String destination, QueueMessage message, long dueAtMs) implements Delayed {
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(dueAtMs - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(dueAtMs, ((ScheduledMessage) other).dueAtMs);
+        }
+    }
+
+    private static final class Destination {
+        private final Queue<QueueMessage> buffer = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger buffered = new AtomicInteger();
+        // One permit per available message; lets consumers wait for a message without spinning
+        private final Semaphore available = new Semaphore(0);
+        private final int capacity;
+        private final MappedSpillLog spill;
+
+        private Destination(int capacity, MappedSpillLog spill) {
+            this.capacity = capacity;
+            this.spill = spill;
+        }
+
+        boolean offer(QueueMessage message) {
+            // Once messages have spilled, keep appending there so they are not overtaken by newer ones
+            if ((spill == null || spill.isEmpty()) && tryClaimSlot()) {
+                buffer.offer(message);
+                available.release();
+                return true;
+            }
+            if (spill != null && spill.append(message)) {
+                available.release();
+                return true;
+            }
+            return false;
+        }
+
+        private boolean tryClaimSlot() {
+            int current;
+            do {
+                current = buffered.get();
+                if (current >= capacity) {
+                    return false;
+                }
+            } while (!buffered.compareAndSet(current, current + 1));
+            return true;
+        }
+
+        QueueMessage poll(long timeoutMs) throws InterruptedException {
+            if (!available.tryAcquire(timeoutMs, TimeUnit.MILLISECONDS)) {
+                return null;
+            }
+            return take();
+        }
+
+        QueueMessage pollNow() {
+            return available.tryAcquire() ? take() : null;
+        }
+
+        private QueueMessage take() {
+            QueueMessage message = buffer.poll();
+            if (message != null) {
+                buffered.decrementAndGet();
+                return message;
+            }
+            return spill == null ? null : spill.poll();
+        }
+
+        int size() {
+            return buffered.get() + (spill == null ? 0 : spill.size());
+        }
+
+        void close() {
+            if (spill != null) spill.close();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.corems.common.queue.clients;
+
+import com.corems.common.queue.QueueMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Append log over a memory-mapped file, used by {@link InMemoryQueueClient} to hold messages that do not fit
+ * in the in-memory buffer. Records are {@code [int length][short contentTypeLength][contentType][body]} and are
+ * read back in append order. The file is an overflow area, not a durable store: it is truncated on open.
+ * Only the overflow path goes through here, so methods are simply synchronized.
+ */
+@Slf4j
+class MappedSpillLog implements AutoCloseable {
+    private final Path file;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final MessageConverter converter;
+    private int writePosition;
+    private int readPosition;
+    private volatile int count;
+
+    MappedSpillLog(Path file, long sizeBytes, MessageConverter converter) throws IOException {
+        if (sizeBytes <= 0 || sizeBytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Spill file size must be between 1 and " + Integer.MAX_VALUE + " bytes: " + sizeBytes);
+        }
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        this.file = file;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, sizeBytes);
+        this.converter = converter;
+        log.info("Opened queue spill log {} ({} bytes)", file, sizeBytes);
+    }
+
+    boolean isEmpty() {
+        return count == 0;
+    }
+
+    int size() {
+        return count;
+    }
+
+    /**
+     * Append a message. Returns false when the log has no room left for it.
+     */
+    synchronized boolean append(QueueMessage message) {
+        Message encoded = converter.toMessage(message, new MessageProperties());
+        byte[] contentType = String.valueOf(encoded.getMessageProperties().getContentType()).getBytes(StandardCharsets.UTF_8);
+        byte[] body = encoded.getBody();
+        int recordLength = Integer.BYTES + Short.BYTES + contentType.length + body.length;
+        if (writePosition + recordLength > buffer.capacity()) {
+            return false;
+        }
+        buffer.putInt(writePosition, body.length);
+        buffer.putShort(writePosition + Integer.BYTES, (short) contentType.length);
+        buffer.put(writePosition + Integer.BYTES + Short.BYTES, contentType);
+        buffer.put(writePosition + Integer.BYTES + Short.BYTES + contentType.length, body);
+        writePosition += recordLength;
+        count++;
+        return true;
+    }
+
+    /**
+     * Remove and return the oldest message, or null when the log is empty.
+     */
+    synchronized QueueMessage poll() {
+        if (count == 0) {
+            return null;
+        }
+        int bodyLength = buffer.getInt(readPosition);
+        short contentTypeLength = buffer.getShort(readPosition + Integer.BYTES);
+        byte[] contentType = new byte[contentTypeLength];
+        byte[] body = new byte[bodyLength];
+        buffer.get(readPosition + Integer.BYTES + Short.BYTES, contentType);
+        buffer.get(readPosition + Integer.BYTES + Short.BYTES + contentTypeLength, body);
+        readPosition += Integer.BYTES + Short.BYTES + contentTypeLength + bodyLength;
+        if (--count == 0) {
+            // Fully drained: start over at the beginning of the file instead of compacting
+            readPosition = 0;
+            writePosition = 0;
+        }
+
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(new String(contentType, StandardCharsets.UTF_8));
+        return (QueueMessage) converter.fromMessage(new Message(body, properties));
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            channel.close();
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Failed to close queue spill log {}: {}", file, e.getMessage());
+        }
+    }
+}
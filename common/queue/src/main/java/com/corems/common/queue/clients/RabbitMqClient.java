@@ -2,23 +2,57 @@ package com.corems.common.queue.clients;
 
 import com.corems.common.exception.ServiceException;
 import com.corems.common.exception.handler.DefaultExceptionReasonCodes;
+import com.corems.common.queue.BatchSendResult;
+import com.corems.common.queue.MessageInProgressException;
 import com.corems.common.queue.QueueClient;
 import com.corems.common.queue.QueueMessage;
+import com.corems.common.queue.QueueSubscription;
+import com.corems.common.queue.SendResult;
 import com.corems.common.queue.config.QueueProperties;
+import com.corems.common.queue.metrics.QueueMetrics;
+import com.rabbitmq.client.Channel;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.AcknowledgeMode;
+import org.springframework.amqp.core.Message;
 import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.api.ChannelAwareMessageListener;
 import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 @Slf4j
 public class RabbitMqClient implements QueueClient {
 
+    static final String ATTEMPTS_HEADER = "x-corems-attempts";
+    static final String FAILURE_REASON_HEADER = "x-corems-failure-reason";
+    private static final String RETRY_QUEUE_SUFFIX = ".retry.";
+    private static final String DEAD_LETTER_QUEUE_SUFFIX = ".dlq";
+    private static final String DELAY_QUEUE_SUFFIX = ".delay.";
+    private static final String DELAY_NOT_CONFIGURED = "Delayed delivery is not configured (queue.providers.rabbitMq.delayTiersMs).";
+    private static final Executor BATCH_PUBLISHER = task -> Thread.ofVirtual().name("rabbitmq-batch-publish").start(task);
+
     private final RabbitTemplate rabbitTemplate;
+    private final RabbitTemplate receiveTemplate;
     private final QueueProperties.RabbitMqProperties props;
+    private final QueueMetrics metrics;
 
     public static void validate(QueueProperties.RabbitMqProperties rabbitProp) {
         if (rabbitProp == null) {
@@ -42,12 +76,22 @@ public class RabbitMqClient implements QueueClient {
     }
 
     public static RabbitMqClient createRabbitMqClient(QueueProperties.RabbitMqProperties rabbitProps, MessageConverter converter) {
+        return createRabbitMqClient(rabbitProps, converter, QueueMetrics.global());
+    }
+
+    public static RabbitMqClient createRabbitMqClient(QueueProperties.RabbitMqProperties rabbitProps, MessageConverter converter, QueueMetrics metrics) {
         validate(rabbitProps);
 
-        final RabbitTemplate rt = getRabbitTemplate(rabbitProps, converter);
+        final CachingConnectionFactory connectionFactory = getConnectionFactory(rabbitProps);
+        final RabbitTemplate rt = getRabbitTemplate(connectionFactory, converter, rabbitProps.isSeparatePublisherConnection());
+        // Polling receives stay on the consumer connection so they do not compete with publishers for channels
+        final RabbitTemplate receiveTemplate = rabbitProps.isSeparatePublisherConnection()
+                ? getRabbitTemplate(connectionFactory, converter, false)
+                : rt;
         final List<String> queuesToCheck = getQueues(rabbitProps);
 
-        RabbitMqClient rabbitMqClient = new RabbitMqClient(rt, rabbitProps);
+        RabbitMqClient rabbitMqClient = new RabbitMqClient(rt, receiveTemplate, rabbitProps, metrics);
+        registerChannelPoolMetrics(metrics, connectionFactory, rabbitProps.isSeparatePublisherConnection());
 
         if (rabbitProps.getExchange() != null && !rabbitProps.getExchange().isBlank()) {
             try {
@@ -73,9 +117,93 @@ public class RabbitMqClient implements QueueClient {
             return null;
         });
 
+        if (rabbitProps.isDeadLetterEnabled()) {
+            declareRetryTopology(rt, rabbitProps, queuesToCheck);
+        }
+        if (rabbitProps.getDelayTiersMs() != null && !rabbitProps.getDelayTiersMs().isEmpty()) {
+            declareDelayTopology(rt, rabbitProps, queuesToCheck);
+        }
+
         return rabbitMqClient;
     }
 
+    /**
+     * Declare the retry tiers and the terminal dead-letter queue for every consumed queue. Each tier holds
+     * failed messages for its TTL and then dead-letters them back to the original queue through the default exchange.
+     */
+    private static void declareRetryTopology(RabbitTemplate rt, QueueProperties.RabbitMqProperties rabbitProps, List<String> queues) {
+        for (String q : queues) {
+            for (Long delay : new LinkedHashSet<>(rabbitProps.getRetryDelaysMs())) {
+                declareOrVerify(rt, retryQueueName(q, delay), expiringInto(q, delay));
+            }
+            declareOrVerify(rt, deadLetterQueueName(q), null);
+            log.info("Using RabbitMQ retry tiers {} and dead-letter queue for: {}", rabbitProps.getRetryDelaysMs(), q);
+        }
+    }
+
+    /**
+     * Declare the staging queues for scheduled messages. Like the retry tiers they expire into the original
+     * queue; a message that is still not due when it comes back is staged again on a smaller tier.
+     */
+    private static void declareDelayTopology(RabbitTemplate rt, QueueProperties.RabbitMqProperties rabbitProps, List<String> queues) {
+        for (String q : queues) {
+            for (Long delay : new LinkedHashSet<>(rabbitProps.getDelayTiersMs())) {
+                declareOrVerify(rt, delayQueueName(q, delay), expiringInto(q, delay));
+            }
+            log.info("Using RabbitMQ delay tiers {} for: {}", rabbitProps.getDelayTiersMs(), q);
+        }
+    }
+
+    private static Map<String, Object> expiringInto(String queue, long delayMs) {
+        return Map.of(
+                "x-message-ttl", delayMs,
+                "x-dead-letter-exchange", "",
+                "x-dead-letter-routing-key", queue);
+    }
+
+    /**
+     * Declare a queue, falling back to checking that it exists. Declaring needs the configure permission on the
+     * queue name and fails with PRECONDITION_FAILED when the queue exists with other arguments; in both cases a
+     * queue provisioned by an operator is used as is. Each attempt runs on its own channel, since the broker
+     * closes a channel whose declaration it refused.
+     */
+    static void declareOrVerify(RabbitTemplate rt, String queue, Map<String, Object> args) {
+        try {
+            rt.execute(channel -> channel.queueDeclare(queue, true, false, false, args));
+            return;
+        } catch (Exception declareFailure) {
+            try {
+                rt.execute(channel -> channel.queueDeclarePassive(queue));
+            } catch (Exception ex) {
+                throw new IllegalStateException("RabbitMQ queue '" + queue + "' does not exist and could not be declared; "
+                        + "grant the service user configure permission on it or create it beforehand: "
+                        + rootMessage(declareFailure), ex);
+            }
+            log.warn("Could not declare RabbitMQ queue '{}', using the existing queue as it is (its TTL and dead-letter "
+                    + "arguments are not checked): {}", queue, rootMessage(declareFailure));
+        }
+    }
+
+    private static String rootMessage(Throwable ex) {
+        Throwable root = ex;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        return root.getMessage() != null ? root.getMessage() : root.getClass().getSimpleName();
+    }
+
+    static String delayQueueName(String queue, long delayMs) {
+        return queue + DELAY_QUEUE_SUFFIX + delayMs;
+    }
+
+    static String retryQueueName(String queue, long delayMs) {
+        return queue + RETRY_QUEUE_SUFFIX + delayMs;
+    }
+
+    static String deadLetterQueueName(String queue) {
+        return queue + DEAD_LETTER_QUEUE_SUFFIX;
+    }
+
     private static List<String> getQueues(QueueProperties.RabbitMqProperties rabbitProps) {
         List<String> queuesToCheck = new ArrayList<>();
         if (rabbitProps.getDefaultQueue() != null && !rabbitProps.getDefaultQueue().isBlank()) {
@@ -88,10 +216,17 @@ public class RabbitMqClient implements QueueClient {
                 }
             }
         }
+        if (rabbitProps.getPriorityQueues() != null) {
+            for (String q : rabbitProps.getPriorityQueues().values()) {
+                if (q != null && !q.isBlank() && !queuesToCheck.contains(q)) {
+                    queuesToCheck.add(q);
+                }
+            }
+        }
         return queuesToCheck;
     }
 
-    private static RabbitTemplate getRabbitTemplate(QueueProperties.RabbitMqProperties rabbitProps, MessageConverter converter) {
+    private static CachingConnectionFactory getConnectionFactory(QueueProperties.RabbitMqProperties rabbitProps) {
         CachingConnectionFactory connectionFactory = new CachingConnectionFactory(rabbitProps.getHost(), rabbitProps.getPort());
         if (rabbitProps.getUsername() != null && !rabbitProps.getUsername().isBlank()) {
             connectionFactory.setUsername(rabbitProps.getUsername());
@@ -99,15 +234,63 @@ public class RabbitMqClient implements QueueClient {
         if (rabbitProps.getPassword() != null && !rabbitProps.getPassword().isBlank()) {
             connectionFactory.setPassword(rabbitProps.getPassword());
         }
+        // Correlated confirms (the default) let batch publishes pipeline messages and collect acks per message
+        connectionFactory.setPublisherConfirmType(rabbitProps.getConfirmType());
+        connectionFactory.setChannelCacheSize(rabbitProps.getChannelCacheSize());
+        // With a checkout timeout the cache size becomes a hard limit and callers wait for a free channel
+        connectionFactory.setChannelCheckoutTimeout(rabbitProps.getChannelCheckoutTimeoutMs());
+        connectionFactory.setRequestedHeartBeat(rabbitProps.getHeartbeatSeconds());
+        connectionFactory.setConnectionTimeout(rabbitProps.getConnectionTimeoutMs());
+        // Spring recovers connections and consumers itself; client recovery on top of it is opt-in
+        connectionFactory.getRabbitConnectionFactory().setAutomaticRecoveryEnabled(rabbitProps.isAutomaticRecovery());
+        connectionFactory.getRabbitConnectionFactory().setNetworkRecoveryInterval(rabbitProps.getRecoveryIntervalMs());
+        return connectionFactory;
+    }
 
+    private static RabbitTemplate getRabbitTemplate(CachingConnectionFactory connectionFactory, MessageConverter converter,
+                                                    boolean usePublisherConnection) {
         RabbitTemplate rt = new RabbitTemplate(connectionFactory);
         rt.setMessageConverter(converter);
+        rt.setUsePublisherConnection(usePublisherConnection);
         return rt;
     }
 
+    private static void registerChannelPoolMetrics(QueueMetrics metrics, CachingConnectionFactory connectionFactory,
+                                                   boolean separatePublisherConnection) {
+        metrics.registerChannelPool("consumer", connectionFactory.getChannelCacheSize(), () -> idleChannels(connectionFactory));
+        if (separatePublisherConnection
+                && connectionFactory.getPublisherConnectionFactory() instanceof CachingConnectionFactory publisher) {
+            metrics.registerChannelPool("publisher", publisher.getChannelCacheSize(), () -> idleChannels(publisher));
+        }
+    }
+
+    private static int idleChannels(CachingConnectionFactory connectionFactory) {
+        Properties cache = connectionFactory.getCacheProperties();
+        return parseInt(cache.getProperty("idleChannelsNotTx")) + parseInt(cache.getProperty("idleChannelsTx"));
+    }
+
+    private static int parseInt(String value) {
+        try {
+            return value == null ? 0 : Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
     public RabbitMqClient(RabbitTemplate rabbitTemplate, QueueProperties.RabbitMqProperties props) {
+        this(rabbitTemplate, props, QueueMetrics.global());
+    }
+
+    public RabbitMqClient(RabbitTemplate rabbitTemplate, QueueProperties.RabbitMqProperties props, QueueMetrics metrics) {
+        this(rabbitTemplate, rabbitTemplate, props, metrics);
+    }
+
+    public RabbitMqClient(RabbitTemplate rabbitTemplate, RabbitTemplate receiveTemplate,
+                          QueueProperties.RabbitMqProperties props, QueueMetrics metrics) {
         this.rabbitTemplate = rabbitTemplate;
+        this.receiveTemplate = receiveTemplate;
         this.props = props;
+        this.metrics = metrics;
     }
 
     @Override
@@ -115,43 +298,463 @@ public class RabbitMqClient implements QueueClient {
         return props;
     }
 
+    @Override
+    public QueueMetrics getMetrics() {
+        return metrics;
+    }
+
     @Override
     public void send(QueueMessage message) throws ServiceException {
-        send(props.getDefaultQueue(), message);
+        send(props.getPriorityDestination(message.getPriority()), message);
+    }
+
+    /**
+     * Delayed delivery goes through the staging queues, so it needs {@code delayTiersMs}.
+     */
+    @Override
+    public boolean supportsDelayedDelivery() {
+        return props.getDelayTiersMs() != null && !props.getDelayTiersMs().isEmpty();
     }
 
     @Override
     public void send(String destination, QueueMessage message) throws ServiceException {
-        String exchange = props.getExchange() == null ? "" : props.getExchange();
-        String dest = (destination == null || destination.isEmpty()) ? props.getDefaultQueue() : destination;
+        String dest = resolveDestination(destination);
+        String staging = stagingQueue(dest, message);
+        String exchange = staging == null ? resolveExchange() : "";
+        long start = metrics.start();
         try {
-            rabbitTemplate.convertAndSend(exchange, dest, message);
-            log.info("Sent message to exchange='{}' queue='{}' id={}", exchange, dest, message.getId());
+            rabbitTemplate.convertAndSend(exchange, staging == null ? dest : staging, message);
+            metrics.recordPublish(dest, message.getType(), start, true);
+            log.debug("Sent message to exchange='{}' queue='{}' id={}", exchange, dest, message.getId());
         } catch (Exception e) {
+            metrics.recordPublish(dest, message.getType(), start, false);
             log.error("Failed to send message id={}", message.getId(), e);
             throw ServiceException.of(DefaultExceptionReasonCodes.SERVER_ERROR, "Failed to send message.");
         }
     }
 
+    /**
+     * Publish all messages on a single channel without waiting between them and collect the publisher confirms.
+     * Publishing runs on a virtual thread, so the caller is never blocked; the future completes when every message
+     * is acked, nacked or its confirm timed out.
+     */
     @Override
-    public Optional<QueueMessage> poll() {
+    public CompletableFuture<BatchSendResult> sendBatchAsync(String destination, List<QueueMessage> messages) {
+        if (messages == null || messages.isEmpty()) {
+            return CompletableFuture.completedFuture(new BatchSendResult(List.of()));
+        }
+        if (props.getConfirmType() == CachingConnectionFactory.ConfirmType.SIMPLE) {
+            return CompletableFuture.supplyAsync(() -> sendBatchWithSimpleConfirms(destination, messages), BATCH_PUBLISHER);
+        }
+        if (props.getConfirmType() != CachingConnectionFactory.ConfirmType.CORRELATED) {
+            // Without confirms a message counts as sent once it is published
+            return QueueClient.super.sendBatchAsync(destination, messages);
+        }
+
+        String exchange = resolveExchange();
+        String dest = resolveDestination(destination);
+        long start = metrics.start();
+        return CompletableFuture.supplyAsync(() -> publishCorrelated(exchange, dest, messages), BATCH_PUBLISHER)
+                // Every future completes on its own: confirmed, rejected or timed out
+                .thenCompose(futures -> CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                        .thenApply(ignored -> {
+                            BatchSendResult result = new BatchSendResult(futures.stream().map(CompletableFuture::join).toList());
+                            metrics.recordBatchPublish(dest, start, result.ackedCount(), messages.size() - result.ackedCount());
+                            log.info("Sent batch to exchange='{}' queue='{}': {} acked, {} failed",
+                                    exchange, dest, result.ackedCount(), messages.size() - result.ackedCount());
+                            return result;
+                        }));
+    }
+
+    /**
+     * Publish the batch with one correlation per message and return a future per message that completes with its
+     * confirm. Messages that cannot be routed, or were not reached because the channel failed, are already nacked.
+     */
+    private List<CompletableFuture<SendResult>> publishCorrelated(String exchange, String dest, List<QueueMessage> messages) {
+        List<Route> routes = routes(exchange, dest, messages);
+        CorrelationData[] correlations = new CorrelationData[messages.size()];
+        AtomicInteger reached = new AtomicInteger();
+        String publishError = null;
         try {
-            QueueMessage msg = (QueueMessage) rabbitTemplate.receiveAndConvert(props.getDefaultQueue(), props.getPollIntervalMs());
-            return Optional.ofNullable(msg);
+            rabbitTemplate.invoke(ops -> {
+                for (int i = 0; i < messages.size(); i++) {
+                    Route route = routes.get(i);
+                    if (route.error() == null) {
+                        QueueMessage message = messages.get(i);
+                        CorrelationData correlation = new CorrelationData(message.getId());
+                        ops.convertAndSend(route.exchange(), route.routingKey(), message, correlation);
+                        correlations[i] = correlation;
+                    }
+                    reached.incrementAndGet();
+                }
+                return null;
+            });
         } catch (Exception e) {
-            log.error("Failed to poll destination={}", props.getDefaultQueue(), e);
-            return Optional.empty();
+            log.error("Batch publish to queue='{}' interrupted after {} of {} messages", dest, reached.get(), messages.size(), e);
+            publishError = "Failed to publish message: " + e.getMessage();
+        }
+
+        long confirmTimeoutMs = props.getConfirmTimeoutMs();
+        List<CompletableFuture<SendResult>> futures = new ArrayList<>(messages.size());
+        for (int i = 0; i < messages.size(); i++) {
+            QueueMessage message = messages.get(i);
+            if (routes.get(i).error() != null) {
+                futures.add(CompletableFuture.completedFuture(SendResult.nack(message, routes.get(i).error())));
+            } else if (correlations[i] != null) {
+                futures.add(correlations[i].getFuture()
+                        .orTimeout(confirmTimeoutMs, TimeUnit.MILLISECONDS)
+                        .handle((confirm, ex) -> toSendResult(message, confirm, ex)));
+            } else {
+                futures.add(CompletableFuture.completedFuture(SendResult.nack(message, publishError)));
+            }
+        }
+        return futures;
+    }
+
+    /**
+     * Publish the batch on one channel and wait once for the broker to confirm all of it. Cheaper than
+     * correlated confirms, but a single nack or timeout fails the whole published batch. Messages that cannot be
+     * routed are nacked on their own and not published.
+     */
+    private BatchSendResult sendBatchWithSimpleConfirms(String destination, List<QueueMessage> messages) {
+        String exchange = resolveExchange();
+        String dest = resolveDestination(destination);
+        List<Route> routes = routes(exchange, dest, messages);
+        long start = metrics.start();
+        String reason = null;
+        try {
+            Boolean confirmed = rabbitTemplate.invoke(ops -> {
+                for (int i = 0; i < messages.size(); i++) {
+                    Route route = routes.get(i);
+                    if (route.error() == null) {
+                        ops.convertAndSend(route.exchange(), route.routingKey(), messages.get(i));
+                    }
+                }
+                return ops.waitForConfirms(props.getConfirmTimeoutMs());
+            });
+            if (!Boolean.TRUE.equals(confirmed)) {
+                reason = "Publisher confirm not received";
+            }
+        } catch (Exception e) {
+            log.error("Batch publish to queue='{}' failed", dest, e);
+            reason = "Failed to publish message: " + e.getMessage();
+        }
+        List<SendResult> results = new ArrayList<>(messages.size());
+        for (int i = 0; i < messages.size(); i++) {
+            String failure = routes.get(i).error() != null ? routes.get(i).error() : reason;
+            results.add(failure == null ? SendResult.ack(messages.get(i)) : SendResult.nack(messages.get(i), failure));
         }
+        BatchSendResult result = new BatchSendResult(results);
+        metrics.recordBatchPublish(dest, start, result.ackedCount(), messages.size() - result.ackedCount());
+        return result;
+    }
+
+    private static SendResult toSendResult(QueueMessage message, CorrelationData.Confirm confirm, Throwable ex) {
+        if (ex != null) {
+            String reason = ex instanceof TimeoutException ? "Publisher confirm timed out" : ex.getMessage();
+            return SendResult.nack(message, reason);
+        }
+        if (confirm != null && confirm.isAck()) {
+            return SendResult.ack(message);
+        }
+        String reason = confirm == null || confirm.getReason() == null ? "Rejected by broker" : confirm.getReason();
+        return SendResult.nack(message, reason);
+    }
+
+    /**
+     * Where each message of a batch is published, resolved before the first publish so that a message that cannot
+     * be staged fails on its own instead of aborting the rest of the batch.
+     */
+    private List<Route> routes(String exchange, String dest, List<QueueMessage> messages) {
+        Instant now = Instant.now();
+        List<Route> routes = new ArrayList<>(messages.size());
+        for (QueueMessage message : messages) {
+            if (message.isDue(now)) {
+                routes.add(new Route(exchange, dest, null));
+            } else if (!supportsDelayedDelivery()) {
+                routes.add(new Route(null, null, DELAY_NOT_CONFIGURED));
+            } else {
+                routes.add(new Route("", stagingQueue(dest, message), null));
+            }
+        }
+        return routes;
+    }
+
+    private record Route(String exchange, String routingKey, String error) {}
+
+    /**
+     * Delay queue for a message that is not due yet, or null when it can be delivered now. Picks the largest
+     * tier that does not overshoot the remaining delay (the smallest tier when none fits), so a message is never
+     * delivered early and at most one smallest tier late.
+     */
+    String stagingQueue(String queue, QueueMessage message) {
+        Instant now = Instant.now();
+        if (message.isDue(now)) {
+            return null;
+        }
+        List<Long> tiers = props.getDelayTiersMs();
+        if (tiers == null || tiers.isEmpty()) {
+            throw ServiceException.of(DefaultExceptionReasonCodes.INVALID_REQUEST, DELAY_NOT_CONFIGURED);
+        }
+        long remainingMs = Duration.between(now, message.getNotBefore()).toMillis();
+        long tier = tiers.stream().mapToLong(Long::longValue).filter(t -> t <= remainingMs).max()
+                .orElseGet(() -> tiers.stream().mapToLong(Long::longValue).min().getAsLong());
+        return delayQueueName(queue, tier);
+    }
+
+    /**
+     * Put a message that arrived before its delivery time back on a delay tier. Returns false if it is due.
+     */
+    private boolean restageIfEarly(String queue, QueueMessage message) {
+        if (message.isDue(Instant.now()) || props.getDelayTiersMs() == null || props.getDelayTiersMs().isEmpty()) {
+            return false;
+        }
+        String staging = stagingQueue(queue, message);
+        rabbitTemplate.convertAndSend("", staging, message, m -> {
+            m.getMessageProperties().setHeader(ATTEMPTS_HEADER, message.getAttempts());
+            return m;
+        });
+        log.debug("Message id={} is due at {}, staged on '{}'", message.getId(), message.getNotBefore(), staging);
+        return true;
+    }
+
+    private String resolveExchange() {
+        return props.getExchange() == null ? "" : props.getExchange();
+    }
+
+    private String resolveDestination(String destination) {
+        return (destination == null || destination.isEmpty()) ? props.getDefaultQueue() : destination;
+    }
+
+    @Override
+    public Optional<QueueMessage> poll() {
+        return poll(props.getDefaultQueue());
     }
 
     @Override
     public Optional<QueueMessage> poll(String destination) {
+        return poll(destination, props.getPollIntervalMs());
+    }
+
+    @Override
+    public Optional<QueueMessage> poll(String destination, long timeoutMs) {
         try {
-            QueueMessage msg = (QueueMessage) rabbitTemplate.receiveAndConvert(destination, props.getPollIntervalMs());
+            QueueMessage msg = (QueueMessage) receiveTemplate.receiveAndConvert(destination, timeoutMs);
+            if (msg != null && restageIfEarly(destination, msg)) {
+                msg = null;
+            }
+            metrics.recordPoll(destination, msg == null);
             return Optional.ofNullable(msg);
         } catch (Exception e) {
             log.error("Failed to poll destination={}", destination, e);
             return Optional.empty();
         }
     }
+
+    /**
+     * Register a broker consumer on the destination. The broker pushes up to prefetchCount unacknowledged
+     * messages to the consumer, so there is no round trip per message and no empty polls while idle.
+     * Deliveries are acknowledged manually: a message is acked only after the consumer returns, and a consumer
+     * exception moves it to the next retry tier (or the dead-letter queue) before the ack.
+     */
+    @Override
+    public QueueSubscription subscribe(String destination, Consumer<QueueMessage> consumer) {
+        String queue = resolveDestination(destination);
+
+        SimpleMessageListenerContainer container = new SimpleMessageListenerContainer(rabbitTemplate.getConnectionFactory());
+        container.setQueueNames(queue);
+        container.setPrefetchCount(props.getPrefetchCount());
+        container.setAcknowledgeMode(AcknowledgeMode.MANUAL);
+        // Do not requeue messages the consumer fails on, otherwise a poison message is redelivered in a hot loop
+        container.setDefaultRequeueRejected(false);
+        int concurrency = Math.max(props.getConcurrency(), 1);
+        container.setConcurrentConsumers(concurrency);
+        if (props.isVirtualThreads()) {
+            SimpleAsyncTaskExecutor taskExecutor = new SimpleAsyncTaskExecutor("rabbitmq-consumer-");
+            taskExecutor.setVirtualThreads(true);
+            container.setTaskExecutor(taskExecutor);
+        }
+        // Container stop waits for in-flight deliveries to complete before closing channels
+        container.setShutdownTimeout(props.getShutdownTimeoutMs());
+        container.setRecoveryInterval(props.getRecoveryIntervalMs());
+        container.setMessageListener((ChannelAwareMessageListener) (message, channel) -> handleDelivery(queue, message, channel, consumer));
+        container.start();
+
+        log.info("Subscribed to RabbitMQ queue='{}' with prefetch={}, consumers={}, virtualThreads={}",
+                queue, props.getPrefetchCount(), concurrency, props.isVirtualThreads());
+        return new RabbitQueueSubscription(queue, container);
+    }
+
+    void handleDelivery(String queue, Message message, Channel channel, Consumer<QueueMessage> consumer) throws IOException {
+        long deliveryTag = message.getMessageProperties().getDeliveryTag();
+        int attempts = getAttempts(message);
+        QueueMessage qm = null;
+        try {
+            qm = (QueueMessage) rabbitTemplate.getMessageConverter().fromMessage(message);
+            qm.setAttempts(attempts);
+            if (!restageIfEarly(queue, qm)) {
+                consumer.accept(qm);
+            }
+            channel.basicAck(deliveryTag, false);
+            return;
+        } catch (MessageInProgressException ex) {
+            requeueInProgress(queue, message, channel, qm);
+            return;
+        } catch (Exception ex) {
+            log.error("Failed handling message id={} from queue='{}' (attempt {}): {}",
+                    qm == null ? null : qm.getId(), queue, attempts + 1, ex.getMessage());
+            message.getMessageProperties().setHeader(FAILURE_REASON_HEADER, String.valueOf(ex.getMessage()));
+        }
+
+        if (!props.isDeadLetterEnabled()) {
+            // Leave the message to the queue's own dead-letter policy, if any
+            channel.basicNack(deliveryTag, false, false);
+            metrics.dropped(queue, qm == null ? null : qm.getType());
+            return;
+        }
+
+        try {
+            routeFailed(queue, message, attempts + 1, qm == null ? null : qm.getType());
+            channel.basicAck(deliveryTag, false);
+        } catch (Exception e) {
+            log.error("Failed to route message from queue='{}' to retry or dead-letter queue, requeueing", queue, e);
+            channel.basicNack(deliveryTag, false, true);
+        }
+    }
+
+    /**
+     * Another consumer is handling the same message: hand the delivery back without counting an attempt, through
+     * the smallest delay tier when there is one so it is not redelivered straight away.
+     */
+    private void requeueInProgress(String queue, Message message, Channel channel, QueueMessage qm) throws IOException {
+        long deliveryTag = message.getMessageProperties().getDeliveryTag();
+        metrics.deferred(queue, qm.getType());
+        if (supportsDelayedDelivery()) {
+            long tier = props.getDelayTiersMs().stream().mapToLong(Long::longValue).min().getAsLong();
+            try {
+                rabbitTemplate.send("", delayQueueName(queue, tier), message);
+                channel.basicAck(deliveryTag, false);
+                log.info("Message id={} is being handled by another consumer, staged it for {} ms", qm.getId(), tier);
+                return;
+            } catch (Exception e) {
+                log.warn("Failed to stage in-progress message id={}, requeueing it", qm.getId(), e);
+            }
+        }
+        channel.basicNack(deliveryTag, false, true);
+        log.info("Message id={} is being handled by another consumer, requeued it", qm.getId());
+    }
+
+    private void routeFailed(String queue, Message message, int attempts, String type) {
+        message.getMessageProperties().setHeader(ATTEMPTS_HEADER, attempts);
+        if (props.getRetryCount() > attempts) {
+            String target = nextRetryQueue(queue, attempts);
+            rabbitTemplate.send("", target, message);
+            metrics.retried(queue, type);
+            log.info("Moved message from queue='{}' to '{}' for retry {}", queue, target, attempts);
+        } else {
+            rabbitTemplate.send("", deadLetterQueueName(queue), message);
+            metrics.deadLettered(queue, type);
+            log.warn("Moved message from queue='{}' to dead-letter queue after {} attempts", queue, attempts);
+        }
+    }
+
+    private String nextRetryQueue(String queue, int attempts) {
+        List<Long> delays = props.getRetryDelaysMs();
+        if (delays == null || delays.isEmpty()) {
+            return queue;
+        }
+        return retryQueueName(queue, delays.get(Math.min(attempts, delays.size()) - 1));
+    }
+
+    private static int getAttempts(Message message) {
+        Object header = message.getMessageProperties().getHeader(ATTEMPTS_HEADER);
+        return header instanceof Number n ? n.intValue() : 0;
+    }
+
+    /**
+     * Publish a consumed message to the delayed retry tier for its attempt count. Used by pollers, which
+     * have already acknowledged the message on receive.
+     */
+    @Override
+    public void retry(String destination, QueueMessage message) {
+        String queue = resolveDestination(destination);
+        if (!props.isDeadLetterEnabled()) {
+            send(queue, message);
+            return;
+        }
+        String target = nextRetryQueue(queue, Math.max(message.getAttempts(), 1));
+        try {
+            rabbitTemplate.convertAndSend("", target, message, m -> {
+                m.getMessageProperties().setHeader(ATTEMPTS_HEADER, message.getAttempts());
+                return m;
+            });
+            log.info("Moved message id={} from queue='{}' to '{}' for retry {}", message.getId(), queue, target, message.getAttempts());
+        } catch (Exception e) {
+            log.error("Failed to schedule retry for message id={}", message.getId(), e);
+            throw ServiceException.of(DefaultExceptionReasonCodes.SERVER_ERROR, "Failed to schedule message retry.");
+        }
+    }
+
+    @Override
+    public boolean deadLetter(String destination, QueueMessage message, String reason) {
+        if (!props.isDeadLetterEnabled()) {
+            return false;
+        }
+        String dlq = deadLetterQueueName(resolveDestination(destination));
+        try {
+            rabbitTemplate.convertAndSend("", dlq, message, m -> {
+                m.getMessageProperties().setHeader(ATTEMPTS_HEADER, message.getAttempts());
+                m.getMessageProperties().setHeader(FAILURE_REASON_HEADER, String.valueOf(reason));
+                return m;
+            });
+            log.warn("Moved message id={} to dead-letter queue '{}' after {} attempts", message.getId(), dlq, message.getAttempts());
+            return true;
+        } catch (Exception e) {
+            log.error("Failed to dead-letter message id={}", message.getId(), e);
+            return false;
+        }
+    }
+
+    /**
+     * Move up to {@code max} parked messages from the dead-letter queue back to the destination with their
+     * attempt count reset. Messages are forwarded as raw AMQP messages, without conversion.
+     */
+    @Override
+    public int replayDeadLetters(String destination, int max) {
+        String queue = resolveDestination(destination);
+        String dlq = deadLetterQueueName(queue);
+        int replayed = 0;
+        while (replayed < max) {
+            Message message = rabbitTemplate.receive(dlq);
+            if (message == null) {
+                break;
+            }
+            message.getMessageProperties().getHeaders().remove(ATTEMPTS_HEADER);
+            message.getMessageProperties().getHeaders().remove(FAILURE_REASON_HEADER);
+            rabbitTemplate.send("", queue, message);
+            replayed++;
+        }
+        log.info("Replayed {} message(s) from '{}' to '{}'", replayed, dlq, queue);
+        return replayed;
+    }
+
+    private record RabbitQueueSubscription(String destination, SimpleMessageListenerContainer container) implements QueueSubscription {
+
+        @Override
+        public String getDestination() {
+            return destination;
+        }
+
+        @Override
+        public boolean isActive() {
+            return container.isRunning();
+        }
+
+        @Override
+        public void close() {
+            container.stop();
+            container.destroy();
+            log.info("Unsubscribed from RabbitMQ queue='{}'", destination);
+        }
+    }
 }
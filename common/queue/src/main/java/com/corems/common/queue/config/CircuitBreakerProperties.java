@@ -0,0 +1,17 @@
+package com.corems.common.queue.config;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Per message type circuit breaker on the consumer. After {@code failureThreshold} consecutive handler failures
+ * the type is not handled for {@code openMs}; each failed trial afterwards doubles the pause up to {@code maxOpenMs}.
+ */
+@Getter
+@Setter
+public class CircuitBreakerProperties {
+    private boolean enabled = false;
+    private int failureThreshold = 5;
+    private long openMs = 30000L;
+    private long maxOpenMs = 300000L;
+}
@@ -0,0 +1,11 @@
+package com.corems.common.queue.config;
+
+/**
+ * How a consumer receives messages from a destination.
+ * POLL issues a receive-with-timeout per message; PUSH registers a broker consumer that delivers messages
+ * up to the configured prefetch without a round trip per message.
+ */
+public enum ConsumerMode {
+    POLL,
+    PUSH
+}
@@ -1,13 +1,26 @@
 package com.corems.common.queue.config;
 
 import com.corems.common.queue.QueueProvider;
+import com.corems.common.queue.clients.InMemoryQueueClient;
 import com.corems.common.queue.clients.RabbitMqClient;
 import com.corems.common.queue.SupportedQueueProvider;
+import com.corems.common.queue.converter.QueueMessageConverter;
+import com.corems.common.queue.converter.QueuePayloadTypeRegistry;
+import com.corems.common.queue.idempotency.IdempotencyGuard;
+import com.corems.common.queue.idempotency.IdempotencyStore;
+import com.corems.common.queue.idempotency.InMemoryIdempotencyGuard;
+import com.corems.common.queue.idempotency.JdbcIdempotencyGuard;
+import com.corems.common.queue.metrics.QueueMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
 import org.springframework.amqp.support.converter.JacksonJsonMessageConverter;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import javax.sql.DataSource;
+
 /**
  * Auto-configuration to expose a configured QueueProvider based on `QueueProperties`.
  */
@@ -21,14 +34,60 @@ public class CoreMsQueueAutoConfiguration {
     }
 
     @Bean
-    public QueueProvider queueProvider(QueueProperties props, JacksonJsonMessageConverter converter) {
+    public QueuePayloadTypeRegistry queuePayloadTypeRegistry() {
+        return new QueuePayloadTypeRegistry();
+    }
+
+    @Bean
+    public QueueMessageConverter coremsQueueMessageConverter(QueueProperties props,
+                                                             QueuePayloadTypeRegistry typeRegistry,
+                                                             JacksonJsonMessageConverter jacksonConverter) {
+        return new QueueMessageConverter(props.getWireFormat(), typeRegistry, jacksonConverter);
+    }
+
+    @Bean
+    public QueueMetrics queueMetrics(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new QueueMetrics(meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+    }
+
+    @Bean
+    public IdempotencyGuard queueIdempotencyGuard(QueueProperties props, ObjectProvider<DataSource> dataSource) {
+        QueueProperties.Idempotency idempotency = props.getIdempotency();
+        if (idempotency == null || !idempotency.isEnabled()) {
+            return IdempotencyGuard.none();
+        }
+        if (idempotency.getStore() == IdempotencyStore.JDBC) {
+            DataSource ds = dataSource.getIfAvailable();
+            if (ds == null) {
+                throw new IllegalArgumentException("queue.idempotency.store=jdbc requires a DataSource");
+            }
+            return new JdbcIdempotencyGuard(ds, idempotency.getTableName(), idempotency.getMaxEntries(),
+                    idempotency.getTtlMs(), idempotency.getLeaseMs(), idempotency.isInitializeSchema());
+        }
+        return new InMemoryIdempotencyGuard(idempotency.getMaxEntries(), idempotency.getTtlMs(), idempotency.getLeaseMs());
+    }
+
+    // Destroyed through QueueProvider#close, which closes the clients it created
+    @Bean
+    public QueueProvider queueProvider(QueueProperties props, QueueMessageConverter converter, QueueMetrics metrics) {
         QueueProvider provider = new QueueProvider(props);
 
+        if (!props.isEnabled()) {
+            return provider;
+        }
+
         QueueProperties.RabbitMqProperties rabbitProps = props.getProviders().getRabbitMq();
-        if (props.isEnabled() && rabbitProps != null) {
+        if (props.getProvider() == SupportedQueueProvider.RABBIT_MQ && rabbitProps != null) {
             provider.registerProvider(
                     SupportedQueueProvider.RABBIT_MQ,
-                    RabbitMqClient.createRabbitMqClient(rabbitProps, converter));
+                    RabbitMqClient.createRabbitMqClient(rabbitProps, converter, metrics));
+        }
+
+        QueueProperties.InMemoryProperties inMemoryProps = props.getProviders().getInMemory();
+        if (props.getProvider() == SupportedQueueProvider.IN_MEMORY) {
+            provider.registerProvider(
+                    SupportedQueueProvider.IN_MEMORY,
+                    InMemoryQueueClient.createInMemoryQueueClient(inMemoryProps, converter, metrics));
         }
 
         return provider;
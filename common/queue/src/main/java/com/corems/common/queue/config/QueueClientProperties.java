@@ -1,7 +1,70 @@
 package com.corems.common.queue.config;
 
+import com.corems.common.queue.QueuePriority;
+
+import java.util.Map;
+
 public interface QueueClientProperties {
     int getRetryCount();
     long getPollIntervalMs();
     String getDefaultQueue();
+
+    default ConsumerMode getConsumerMode() {
+        return ConsumerMode.POLL;
+    }
+
+    /**
+     * Maximum number of messages handled at the same time by one consumer.
+     */
+    default int getConcurrency() {
+        return 1;
+    }
+
+    /**
+     * Run each message on its own virtual thread (still bounded by concurrency).
+     */
+    default boolean isVirtualThreads() {
+        return false;
+    }
+
+    /**
+     * Optional per message type caps on concurrent handling, keyed by QueueMessage.type.
+     */
+    default Map<String, Integer> getTypeConcurrency() {
+        return Map.of();
+    }
+
+    /**
+     * How long stop() waits for in-flight messages to finish before interrupting them.
+     */
+    default long getShutdownTimeoutMs() {
+        return 10000L;
+    }
+
+    /**
+     * Optional destination per priority lane. Priorities without a lane use the default queue.
+     */
+    default Map<QueuePriority, String> getPriorityQueues() {
+        return Map.of();
+    }
+
+    /**
+     * Optional consumption weight per priority lane, overriding {@link QueuePriority#getDefaultWeight()}.
+     */
+    default Map<QueuePriority, Integer> getPriorityWeights() {
+        return Map.of();
+    }
+
+    /**
+     * Per message type consumer circuit breaker, disabled unless configured.
+     */
+    default CircuitBreakerProperties getCircuitBreaker() {
+        return new CircuitBreakerProperties();
+    }
+
+    default String getPriorityDestination(QueuePriority priority) {
+        Map<QueuePriority, String> lanes = getPriorityQueues();
+        String lane = lanes == null || priority == null ? null : lanes.get(priority);
+        return lane == null || lane.isBlank() ? getDefaultQueue() : lane;
+    }
 }
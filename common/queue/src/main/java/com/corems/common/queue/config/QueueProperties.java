@@ -1,13 +1,18 @@
 package com.corems.common.queue.config;
 
+import com.corems.common.queue.QueuePriority;
 import com.corems.common.queue.SupportedQueueProvider;
+import com.corems.common.queue.idempotency.IdempotencyStore;
 import lombok.Getter;
 import lombok.Setter;
+import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.validation.annotation.Validated;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @ConfigurationProperties(prefix = "queue")
 @Validated
@@ -17,12 +22,27 @@ public class QueueProperties {
 
     private boolean enabled = false;
     private SupportedQueueProvider provider = SupportedQueueProvider.RABBIT_MQ;
+    private WireFormat wireFormat = WireFormat.JSON;
     private Providers providers = new Providers();
+    private Idempotency idempotency = new Idempotency();
 
     @Getter
     @Setter
     public static class Providers {
         private RabbitMqProperties rabbitMq = new RabbitMqProperties();
+        private InMemoryProperties inMemory = new InMemoryProperties();
+    }
+
+    @Getter
+    @Setter
+    public static class Idempotency {
+        private boolean enabled = false;
+        private IdempotencyStore store = IdempotencyStore.MEMORY;
+        private int maxEntries = 100_000;
+        private long ttlMs = 3_600_000;
+        private long leaseMs = 300_000;
+        private String tableName = "queue_processed_message";
+        private boolean initializeSchema = true;
     }
 
     @Getter
@@ -37,5 +57,48 @@ public class QueueProperties {
         private List<String> requiredQueues = new ArrayList<>();
         private long pollIntervalMs = 1000L;
         private int retryCount = 1;
+        private long confirmTimeoutMs = 5000L;
+        private CachingConnectionFactory.ConfirmType confirmType = CachingConnectionFactory.ConfirmType.CORRELATED;
+        private int channelCacheSize = 25;
+        private long channelCheckoutTimeoutMs = 0L;
+        private boolean separatePublisherConnection = true;
+        private int heartbeatSeconds = 60;
+        private int connectionTimeoutMs = 60000;
+        private boolean automaticRecovery = false;
+        private long recoveryIntervalMs = 5000L;
+        private ConsumerMode consumerMode = ConsumerMode.POLL;
+        private int prefetchCount = 10;
+        private int concurrency = 1;
+        private boolean virtualThreads = false;
+        private Map<String, Integer> typeConcurrency = new HashMap<>();
+        private long shutdownTimeoutMs = 10000L;
+        // Retry tiers and dead-letter queues are declared at startup, which needs configure permission on them
+        private boolean deadLetterEnabled = false;
+        private List<Long> retryDelaysMs = new ArrayList<>(List.of(1000L, 10000L, 60000L));
+        // Staging queues for messages with notBefore; empty leaves delayed delivery off and declares nothing
+        private List<Long> delayTiersMs = new ArrayList<>();
+        private Map<QueuePriority, String> priorityQueues = new HashMap<>();
+        private Map<QueuePriority, Integer> priorityWeights = new HashMap<>();
+        private CircuitBreakerProperties circuitBreaker = new CircuitBreakerProperties();
+    }
+
+    @Getter
+    @Setter
+    public static class InMemoryProperties implements QueueClientProperties {
+        private String defaultQueue = "corems.default";
+        private long pollIntervalMs = 1000L;
+        private int retryCount = 1;
+        private int capacity = 10000;
+        private int concurrency = 1;
+        private boolean virtualThreads = false;
+        private Map<String, Integer> typeConcurrency = new HashMap<>();
+        private long shutdownTimeoutMs = 10000L;
+        private boolean spillEnabled = false;
+        private String spillDirectory = "";
+        private long spillFileSizeBytes = 64L * 1024 * 1024;
+        private int scheduledCapacity = 100000;
+        private Map<QueuePriority, String> priorityQueues = new HashMap<>();
+        private Map<QueuePriority, Integer> priorityWeights = new HashMap<>();
+        private CircuitBreakerProperties circuitBreaker = new CircuitBreakerProperties();
     }
 }
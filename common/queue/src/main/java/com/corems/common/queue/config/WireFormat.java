@@ -0,0 +1,17 @@
+package com.corems.common.queue.config;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Encoding used for outgoing queue messages. Consumers pick the decoder from the message content type,
+ * so producers can switch format without a coordinated deploy.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum WireFormat {
+    JSON("application/json"),
+    CBOR("application/cbor");
+
+    private final String contentType;
+}
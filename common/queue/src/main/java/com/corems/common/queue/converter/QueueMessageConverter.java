@@ -0,0 +1,130 @@
+package com.corems.common.queue.converter;
+
+import com.corems.common.queue.QueueMessage;
+import com.corems.common.queue.QueuePriority;
+import com.corems.common.queue.config.WireFormat;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * {@link MessageConverter} for {@link QueueMessage} with a configurable wire format.
+ * <p>
+ * Outgoing messages are encoded in the configured {@link WireFormat}. Incoming messages are decoded by their
+ * content type, so JSON and CBOR producers can coexist during a rollout. Payloads whose message type is
+ * registered in {@link QueuePayloadTypeRegistry} are bound directly to the registered class.
+ * Anything else is handed to the fallback converter.
+ */
+public class QueueMessageConverter implements MessageConverter {
+    // Type id header read by Spring's JSON converters, kept so consumers that still use them can decode our JSON
+    static final String TYPE_ID_HEADER = "__TypeId__";
+    private static final TypeReference<Map<String, String>> HEADERS_TYPE = new TypeReference<>() { };
+
+    private final WireFormat wireFormat;
+    private final QueuePayloadTypeRegistry typeRegistry;
+    private final MessageConverter fallback;
+    private final ObjectMapper jsonMapper;
+    private final ObjectMapper cborMapper;
+
+    public QueueMessageConverter(WireFormat wireFormat, QueuePayloadTypeRegistry typeRegistry, MessageConverter fallback) {
+        this.wireFormat = wireFormat == null ? WireFormat.JSON : wireFormat;
+        this.typeRegistry = typeRegistry;
+        this.fallback = fallback;
+        this.jsonMapper = configure(new ObjectMapper());
+        this.cborMapper = configure(new CBORMapper());
+    }
+
+    private static ObjectMapper configure(ObjectMapper mapper) {
+        return mapper.registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    @Override
+    public Message toMessage(Object object, MessageProperties messageProperties) throws MessageConversionException {
+        if (!(object instanceof QueueMessage qm)) {
+            return fallback.toMessage(object, messageProperties);
+        }
+        try {
+            byte[] body = mapperFor(wireFormat).writeValueAsBytes(qm);
+            messageProperties.setContentType(wireFormat.getContentType());
+            messageProperties.setContentLength(body.length);
+            messageProperties.setHeader(TYPE_ID_HEADER, QueueMessage.class.getName());
+            return new Message(body, messageProperties);
+        } catch (IOException e) {
+            throw new MessageConversionException("Failed to encode message id=" + qm.getId(), e);
+        }
+    }
+
+    @Override
+    public Object fromMessage(Message message) throws MessageConversionException {
+        MessageProperties properties = message.getMessageProperties();
+        WireFormat format = resolveFormat(properties.getContentType());
+        Object typeId = properties.getHeader(TYPE_ID_HEADER);
+        if (format == null || (typeId != null && !QueueMessage.class.getName().equals(typeId.toString()))) {
+            return fallback.fromMessage(message);
+        }
+        try {
+            return decode(mapperFor(format), message.getBody());
+        } catch (IOException e) {
+            throw new MessageConversionException("Failed to decode " + format + " queue message", e);
+        }
+    }
+
+    private QueueMessage decode(ObjectMapper mapper, byte[] body) throws IOException {
+        JsonNode root = mapper.readTree(body);
+        QueueMessage qm = new QueueMessage();
+        qm.setId(root.path("id").textValue());
+        qm.setType(root.path("type").textValue());
+        qm.setAttempts(root.path("attempts").asInt(0));
+        qm.setPriority(QueuePriority.fromString(root.path("priority").textValue()));
+
+        JsonNode headers = root.get("headers");
+        if (headers != null && !headers.isNull()) {
+            qm.setHeaders(mapper.convertValue(headers, HEADERS_TYPE));
+        }
+        JsonNode createdAt = root.get("createdAt");
+        if (createdAt != null && !createdAt.isNull()) {
+            qm.setCreatedAt(mapper.treeToValue(createdAt, Instant.class));
+        }
+        JsonNode notBefore = root.get("notBefore");
+        if (notBefore != null && !notBefore.isNull()) {
+            qm.setNotBefore(mapper.treeToValue(notBefore, Instant.class));
+        }
+
+        JsonNode payload = root.get("payload");
+        if (payload != null && !payload.isNull()) {
+            Class<?> payloadType = typeRegistry.resolve(qm.getType()).orElse(Object.class);
+            qm.setPayload(mapper.treeToValue(payload, payloadType));
+        }
+        return qm;
+    }
+
+    private ObjectMapper mapperFor(WireFormat format) {
+        return format == WireFormat.CBOR ? cborMapper : jsonMapper;
+    }
+
+    private static WireFormat resolveFormat(String contentType) {
+        if (contentType == null) {
+            return null;
+        }
+        for (WireFormat format : WireFormat.values()) {
+            if (contentType.startsWith(format.getContentType())) {
+                return format;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,30 @@
+package com.corems.common.queue.converter;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maps {@link com.corems.common.queue.QueueMessage#getType()} to the payload class, so the converter can decode
+ * payloads straight into the target type instead of a generic Map.
+ */
+@Slf4j
+public class QueuePayloadTypeRegistry {
+    private final Map<String, Class<?>> payloadTypes = new ConcurrentHashMap<>();
+
+    public void register(String messageType, Class<?> payloadType) {
+        Objects.requireNonNull(messageType, "messageType must not be null");
+        Objects.requireNonNull(payloadType, "payloadType must not be null");
+        Class<?> previous = payloadTypes.put(messageType, payloadType);
+        if (previous != null && previous != payloadType) {
+            log.warn("Payload type for message type '{}' replaced: {} -> {}", messageType, previous.getName(), payloadType.getName());
+        }
+    }
+
+    public Optional<Class<?>> resolve(String messageType) {
+        return messageType == null ? Optional.empty() : Optional.ofNullable(payloadTypes.get(messageType));
+    }
+}
@@ -0,0 +1,45 @@
+package com.corems.common.queue.idempotency;
+
+/**
+ * Consumer-side de-duplication keyed on {@code QueueMessage.id}. The poller claims an id before the handler
+ * runs, which takes a short in-progress lease on it, and marks it completed once the handler succeeded; only
+ * completed ids are skipped as duplicates. A failed handler releases the claim so the retried delivery is
+ * processed again, and the lease of a consumer that died mid-handler expires, so its message is not lost.
+ */
+public interface IdempotencyGuard {
+
+    enum Claim {
+        /** The caller owns the id and must complete or release it. */
+        ACQUIRED,
+        /** The id was already processed within the guard's window. */
+        COMPLETED,
+        /** Another delivery of the id is being handled right now. */
+        IN_PROGRESS
+    }
+
+    /**
+     * Claim a message id for processing. A null id is always acquired.
+     */
+    Claim claim(String messageId);
+
+    /**
+     * Claim a message id, returning whether the caller owns it.
+     */
+    default boolean tryAcquire(String messageId) {
+        return claim(messageId) == Claim.ACQUIRED;
+    }
+
+    /**
+     * Remember a claimed id as processed, so later deliveries within the guard's window are duplicates.
+     */
+    void complete(String messageId);
+
+    /**
+     * Forget a claimed id, typically because handling failed and the message will be delivered again.
+     */
+    void release(String messageId);
+
+    static IdempotencyGuard none() {
+        return NoopIdempotencyGuard.INSTANCE;
+    }
+}
@@ -0,0 +1,10 @@
+package com.corems.common.queue.idempotency;
+
+/**
+ * Where processed message ids are remembered. MEMORY is per instance; JDBC shares the window across
+ * instances through a table, with the in-memory window in front of it to keep lookups off the database.
+ */
+public enum IdempotencyStore {
+    MEMORY,
+    JDBC
+}
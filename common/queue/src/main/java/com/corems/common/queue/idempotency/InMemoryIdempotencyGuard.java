@@ -0,0 +1,131 @@
+package com.corems.common.queue.idempotency;
+
+import java.time.Clock;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Recent-id window held in memory. A claimed id holds an in-progress lease for {@code leaseMs}; once completed
+ * it is remembered for {@code ttlMs}. At most {@code maxEntries} ids are kept and the oldest are evicted first.
+ * Lookups and claims are a single {@link ConcurrentHashMap} operation, eviction is amortized over claims, so no
+ * lock is taken on the hot path.
+ */
+public class InMemoryIdempotencyGuard implements IdempotencyGuard {
+    private final Map<String, Mark> marks = new ConcurrentHashMap<>();
+    private final Queue<Entry> order = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final int maxEntries;
+    private final long ttlMs;
+    private final long leaseMs;
+    private final Clock clock;
+
+    public InMemoryIdempotencyGuard(int maxEntries, long ttlMs) {
+        this(maxEntries, ttlMs, ttlMs);
+    }
+
+    public InMemoryIdempotencyGuard(int maxEntries, long ttlMs, long leaseMs) {
+        this(maxEntries, ttlMs, leaseMs, Clock.systemUTC());
+    }
+
+    public InMemoryIdempotencyGuard(int maxEntries, long ttlMs, Clock clock) {
+        this(maxEntries, ttlMs, ttlMs, clock);
+    }
+
+    public InMemoryIdempotencyGuard(int maxEntries, long ttlMs, long leaseMs, Clock clock) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Idempotency maxEntries must be positive");
+        }
+        if (ttlMs <= 0) {
+            throw new IllegalArgumentException("Idempotency ttlMs must be positive");
+        }
+        if (leaseMs <= 0) {
+            throw new IllegalArgumentException("Idempotency leaseMs must be positive");
+        }
+        this.maxEntries = maxEntries;
+        this.ttlMs = ttlMs;
+        this.leaseMs = leaseMs;
+        this.clock = clock;
+    }
+
+    @Override
+    public Claim claim(String messageId) {
+        if (messageId == null) {
+            return Claim.ACQUIRED;
+        }
+        long now = clock.millis();
+        evict(now);
+
+        Mark lease = new Mark(now + leaseMs, false);
+        Mark existing = marks.putIfAbsent(messageId, lease);
+        if (existing != null) {
+            if (existing.expiresAt > now) {
+                return existing.completed ? Claim.COMPLETED : Claim.IN_PROGRESS;
+            }
+            if (!marks.replace(messageId, existing, lease)) {
+                // Another delivery took over the expired entry first
+                return Claim.IN_PROGRESS;
+            }
+        } else {
+            size.incrementAndGet();
+        }
+        order.add(new Entry(messageId, lease, now));
+        return Claim.ACQUIRED;
+    }
+
+    @Override
+    public void complete(String messageId) {
+        if (messageId == null) {
+            return;
+        }
+        long now = clock.millis();
+        Mark done = new Mark(now + ttlMs, true);
+        if (marks.put(messageId, done) == null) {
+            size.incrementAndGet();
+        }
+        order.add(new Entry(messageId, done, now));
+    }
+
+    @Override
+    public void release(String messageId) {
+        if (messageId != null && marks.remove(messageId) != null) {
+            size.decrementAndGet();
+        }
+    }
+
+    /**
+     * Whether the id is currently claimed or remembered as processed, without claiming it.
+     */
+    public boolean contains(String messageId) {
+        Mark mark = messageId == null ? null : marks.get(messageId);
+        return mark != null && mark.expiresAt > clock.millis();
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    private void evict(long now) {
+        // Entries are queued in the order they were written, so the head is the oldest; with leases and
+        // completed ids living for different periods it may outlive later entries, which is fine for a window
+        long retainMs = Math.max(ttlMs, leaseMs);
+        Entry head;
+        while ((head = order.peek()) != null && (size.get() >= maxEntries || now - head.writtenAt >= retainMs)) {
+            if (!order.remove(head)) {
+                continue;
+            }
+            // Entries of released or re-claimed ids are stale; only drop the map entry if it is still this mark
+            if (marks.remove(head.messageId, head.mark)) {
+                size.decrementAndGet();
+            }
+        }
+    }
+
+    private record Mark(long expiresAt, boolean completed) {
+    }
+
+    private record Entry(String messageId, Mark mark, long writtenAt) {
+    }
+}
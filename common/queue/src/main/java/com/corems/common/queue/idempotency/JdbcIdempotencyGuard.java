@@ -0,0 +1,211 @@
+package com.corems.common.queue.idempotency;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Clock;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Idempotency window shared across instances through a table keyed on the message id. The in-memory window
+ * answers repeats seen by this instance without a round trip; only first sightings reach the database, where
+ * the primary key decides which instance wins. A claim is stored as an in-progress lease that expires after
+ * {@code leaseMs}, so the message of an instance that died mid-handler can be claimed again; completing it
+ * extends the row to {@code ttlMs}. Expired rows are purged at most once per purge interval.
+ * <p>
+ * If the database is unreachable the guard lets messages through: a possible duplicate is preferred over
+ * stalling consumption.
+ */
+@Slf4j
+public class JdbcIdempotencyGuard implements IdempotencyGuard {
+    private static final Pattern TABLE_NAME = Pattern.compile("[A-Za-z_][A-Za-z0-9_.]*");
+    private static final long MAX_PURGE_INTERVAL_MS = 60_000;
+
+    private final DataSource dataSource;
+    private final InMemoryIdempotencyGuard local;
+    private final long ttlMs;
+    private final long leaseMs;
+    private final long purgeIntervalMs;
+    private final Clock clock;
+    private final AtomicLong lastPurge = new AtomicLong();
+    private final String insertSql;
+    private final String selectSql;
+    private final String reclaimSql;
+    private final String completeSql;
+    private final String deleteSql;
+    private final String purgeSql;
+
+    public JdbcIdempotencyGuard(DataSource dataSource, String tableName, int maxEntries, long ttlMs, long leaseMs,
+                                boolean initializeSchema) {
+        this(dataSource, tableName, new InMemoryIdempotencyGuard(maxEntries, ttlMs, leaseMs), ttlMs, leaseMs,
+                initializeSchema, Clock.systemUTC());
+    }
+
+    JdbcIdempotencyGuard(DataSource dataSource, String tableName, InMemoryIdempotencyGuard local, long ttlMs,
+                         long leaseMs, boolean initializeSchema, Clock clock) {
+        if (tableName == null || !TABLE_NAME.matcher(tableName).matches()) {
+            throw new IllegalArgumentException("Invalid idempotency table name: " + tableName);
+        }
+        this.dataSource = dataSource;
+        this.local = local;
+        this.ttlMs = ttlMs;
+        this.leaseMs = leaseMs;
+        this.purgeIntervalMs = Math.min(ttlMs, MAX_PURGE_INTERVAL_MS);
+        this.clock = clock;
+        this.insertSql = "INSERT INTO " + tableName + " (message_id, expires_at, completed) VALUES (?, ?, FALSE)";
+        this.selectSql = "SELECT expires_at, completed FROM " + tableName + " WHERE message_id = ?";
+        this.reclaimSql = "UPDATE " + tableName + " SET expires_at = ?, completed = FALSE WHERE message_id = ? AND expires_at = ?";
+        this.completeSql = "UPDATE " + tableName + " SET expires_at = ?, completed = TRUE WHERE message_id = ?";
+        this.deleteSql = "DELETE FROM " + tableName + " WHERE message_id = ?";
+        this.purgeSql = "DELETE FROM " + tableName + " WHERE expires_at < ?";
+        if (initializeSchema) {
+            createTable(tableName);
+        }
+    }
+
+    @Override
+    public Claim claim(String messageId) {
+        if (messageId == null) {
+            return Claim.ACQUIRED;
+        }
+        Claim localClaim = local.claim(messageId);
+        if (localClaim != Claim.ACQUIRED) {
+            return localClaim;
+        }
+        long now = clock.millis();
+        purgeExpired(now);
+        Claim claim;
+        try (Connection connection = dataSource.getConnection()) {
+            claim = claim(connection, messageId, now);
+        } catch (SQLException e) {
+            log.warn("Idempotency check failed for message id={}, processing it anyway: {}", messageId, e.getMessage());
+            return Claim.ACQUIRED;
+        }
+        // Keep the local window in line with the row another instance owns
+        if (claim == Claim.COMPLETED) {
+            local.complete(messageId);
+        } else if (claim == Claim.IN_PROGRESS) {
+            local.release(messageId);
+        }
+        return claim;
+    }
+
+    private Claim claim(Connection connection, String messageId, long now) throws SQLException {
+        long leaseUntil = now + leaseMs;
+        if (insert(connection, messageId, leaseUntil)) {
+            return Claim.ACQUIRED;
+        }
+        Row row = select(connection, messageId);
+        // Row vanished between insert and select (released or purged): treat as a fresh claim
+        if (row == null) {
+            return insert(connection, messageId, leaseUntil) ? Claim.ACQUIRED : Claim.IN_PROGRESS;
+        }
+        if (row.expiresAt > now) {
+            return row.completed ? Claim.COMPLETED : Claim.IN_PROGRESS;
+        }
+        return reclaim(connection, messageId, row.expiresAt, leaseUntil) ? Claim.ACQUIRED : Claim.IN_PROGRESS;
+    }
+
+    @Override
+    public void complete(String messageId) {
+        if (messageId == null) {
+            return;
+        }
+        local.complete(messageId);
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(completeSql)) {
+            statement.setLong(1, clock.millis() + ttlMs);
+            statement.setString(2, messageId);
+            statement.executeUpdate();
+        } catch (SQLException e) {
+            // The lease expires on its own; other instances may then process the message once more
+            log.warn("Failed to mark message id={} as processed: {}", messageId, e.getMessage());
+        }
+    }
+
+    @Override
+    public void release(String messageId) {
+        if (messageId == null) {
+            return;
+        }
+        local.release(messageId);
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(deleteSql)) {
+            statement.setString(1, messageId);
+            statement.executeUpdate();
+        } catch (SQLException e) {
+            log.warn("Failed to release idempotency claim for message id={}: {}", messageId, e.getMessage());
+        }
+    }
+
+    private boolean insert(Connection connection, String messageId, long expiresAt) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(insertSql)) {
+            statement.setString(1, messageId);
+            statement.setLong(2, expiresAt);
+            statement.executeUpdate();
+            return true;
+        } catch (SQLException e) {
+            if (isDuplicateKey(e)) {
+                return false;
+            }
+            throw e;
+        }
+    }
+
+    private Row select(Connection connection, String messageId) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(selectSql)) {
+            statement.setString(1, messageId);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() ? new Row(rs.getLong(1), rs.getBoolean(2)) : null;
+            }
+        }
+    }
+
+    private boolean reclaim(Connection connection, String messageId, long expiredAt, long expiresAt) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(reclaimSql)) {
+            statement.setLong(1, expiresAt);
+            statement.setString(2, messageId);
+            statement.setLong(3, expiredAt);
+            return statement.executeUpdate() == 1;
+        }
+    }
+
+    private void purgeExpired(long now) {
+        long last = lastPurge.get();
+        if (now - last < purgeIntervalMs || !lastPurge.compareAndSet(last, now)) {
+            return;
+        }
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(purgeSql)) {
+            statement.setLong(1, now);
+            int purged = statement.executeUpdate();
+            log.debug("Purged {} expired idempotency entries", purged);
+        } catch (SQLException e) {
+            log.warn("Failed to purge expired idempotency entries: {}", e.getMessage());
+        }
+    }
+
+    private void createTable(String tableName) {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS " + tableName
+                    + " (message_id VARCHAR(128) PRIMARY KEY, expires_at BIGINT NOT NULL, completed BOOLEAN NOT NULL)");
+        } catch (SQLException e) {
+            throw new IllegalStateException("Unable to create idempotency table " + tableName, e);
+        }
+    }
+
+    private static boolean isDuplicateKey(SQLException e) {
+        // SQLState class 23 is integrity constraint violation across Postgres, H2 and MySQL
+        return e.getSQLState() != null && e.getSQLState().startsWith("23");
+    }
+
+    private record Row(long expiresAt, boolean completed) {
+    }
+}
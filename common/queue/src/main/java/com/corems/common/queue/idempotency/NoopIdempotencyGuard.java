@@ -0,0 +1,21 @@
+package com.corems.common.queue.idempotency;
+
+final class NoopIdempotencyGuard implements IdempotencyGuard {
+    static final NoopIdempotencyGuard INSTANCE = new NoopIdempotencyGuard();
+
+    private NoopIdempotencyGuard() {
+    }
+
+    @Override
+    public Claim claim(String messageId) {
+        return Claim.ACQUIRED;
+    }
+
+    @Override
+    public void complete(String messageId) {
+    }
+
+    @Override
+    public void release(String messageId) {
+    }
+}
@@ -0,0 +1,195 @@
+package com.corems.common.queue.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Micrometer instrumentation shared by queue clients and pollers. Meters are tagged by destination and,
+ * where a message is involved, by {@code QueueMessage.type}:
+ * <ul>
+ *     <li>{@code corems.queue.publish} - publish latency per message, tagged with outcome</li>
+ *     <li>{@code corems.queue.publish.batch} - latency of a whole batch until all confirms arrived</li>
+ *     <li>{@code corems.queue.poll} - poll attempts, tagged {@code result=message|empty}</li>
+ *     <li>{@code corems.queue.handler} - handler duration histogram, tagged with outcome</li>
+ *     <li>{@code corems.queue.retries}, {@code corems.queue.dead.lettered}, {@code corems.queue.dropped}</li>
+ *     <li>{@code corems.queue.in.flight} and {@code corems.queue.depth} gauges</li>
+ * </ul>
+ */
+public class QueueMetrics {
+    private static final String UNKNOWN = "unknown";
+
+    private final MeterRegistry registry;
+    // Builders allocate tags on every lookup; handlers and publishes record on the hot path, so meters are kept
+    private final Map<MeterKey, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<MeterKey, Counter> counters = new ConcurrentHashMap<>();
+
+    public QueueMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Metrics reported to the global registry, which Spring Boot links to its configured registries.
+     */
+    public static QueueMetrics global() {
+        return new QueueMetrics(Metrics.globalRegistry);
+    }
+
+    /**
+     * Metrics that are recorded nowhere, for callers that were given no instrumentation.
+     */
+    public static QueueMetrics noop() {
+        return new QueueMetrics(new CompositeMeterRegistry());
+    }
+
+    public long start() {
+        return System.nanoTime();
+    }
+
+    public void recordPublish(String destination, String type, long startNanos, boolean success) {
+        timer(new MeterKey("corems.queue.publish", destination, type, outcome(success)), key ->
+                Timer.builder(key.name())
+                        .description("Time to publish a message to the queue")
+                        .tags("destination", key.destination(), "type", key.type(), "outcome", key.outcome()))
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordBatchPublish(String destination, long startNanos, int acked, int failed) {
+        timer(new MeterKey("corems.queue.publish.batch", destination, null, null), key ->
+                Timer.builder(key.name())
+                        .description("Time to publish a batch until every message is confirmed or rejected")
+                        .tags("destination", key.destination()))
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        publishedCounter(destination, true).increment(acked);
+        publishedCounter(destination, false).increment(failed);
+    }
+
+    private Counter publishedCounter(String destination, boolean success) {
+        return counter(new MeterKey("corems.queue.published", destination, null, outcome(success)), key ->
+                Counter.builder(key.name())
+                        .description("Messages published in batches")
+                        .tags("destination", key.destination(), "outcome", key.outcome()));
+    }
+
+    public void recordPoll(String destination, boolean empty) {
+        counter(new MeterKey("corems.queue.poll", destination, null, empty ? "empty" : "message"), key ->
+                Counter.builder(key.name())
+                        .description("Poll attempts; the empty share shows how often consumers poll an idle queue")
+                        .tags("destination", key.destination(), "result", key.outcome()))
+                .increment();
+    }
+
+    public void recordHandle(String destination, String type, long startNanos, boolean success) {
+        timer(new MeterKey("corems.queue.handler", destination, type, outcome(success)), key ->
+                Timer.builder(key.name())
+                        .description("Time spent in the message handler")
+                        .tags("destination", key.destination(), "type", key.type(), "outcome", key.outcome())
+                        .publishPercentileHistogram())
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void retried(String destination, String type) {
+        count("corems.queue.retries", "Messages scheduled for another attempt", destination, type);
+    }
+
+    public void deadLettered(String destination, String type) {
+        count("corems.queue.dead.lettered", "Messages parked in the dead-letter queue", destination, type);
+    }
+
+    public void dropped(String destination, String type) {
+        count("corems.queue.dropped", "Messages discarded after exhausting retries", destination, type);
+    }
+
+    public void duplicate(String destination, String type) {
+        count("corems.queue.duplicates", "Redelivered messages skipped by the idempotency guard", destination, type);
+    }
+
+    public void deferred(String destination, String type) {
+        count("corems.queue.deferred", "Messages put back without using an attempt: their type's circuit breaker is open or another consumer is handling them", destination, type);
+    }
+
+    /**
+     * Circuit breaker state of a message type: 0 closed, 1 half-open, 2 open.
+     */
+    public void registerCircuitState(String type, Supplier<Number> state) {
+        Gauge.builder("corems.queue.circuit.state", state)
+                .description("Consumer circuit breaker state per message type (0 closed, 1 half-open, 2 open)")
+                .tags("type", tag(type))
+                .register(registry);
+    }
+
+    /**
+     * Channel cache of one broker connection. Idle channels near zero while the cache size is reached means
+     * callers are opening throwaway channels or, with a checkout timeout, waiting for one.
+     */
+    public void registerChannelPool(String connection, int cacheSize, Supplier<Number> idleChannels) {
+        Gauge.builder("corems.queue.channels.idle", idleChannels)
+                .description("Idle cached channels on the broker connection")
+                .tags("connection", tag(connection))
+                .register(registry);
+        Gauge.builder("corems.queue.channels.cache.size", () -> cacheSize)
+                .description("Configured channel cache size of the broker connection")
+                .tags("connection", tag(connection))
+                .register(registry);
+    }
+
+    public void registerInFlight(String destination, Supplier<Number> inFlight) {
+        Gauge.builder("corems.queue.in.flight", inFlight)
+                .description("Messages taken from the queue and not yet finished, including those waiting for a concurrency slot or an open circuit")
+                .tags("destination", tag(destination))
+                .register(registry);
+    }
+
+    public void registerDepth(String destination, Supplier<Number> depth) {
+        Gauge.builder("corems.queue.depth", depth)
+                .description("Messages waiting in the destination")
+                .tags("destination", tag(destination))
+                .register(registry);
+    }
+
+    private void count(String name, String description, String destination, String type) {
+        counter(new MeterKey(name, destination, type, null), key ->
+                Counter.builder(key.name())
+                        .description(description)
+                        .tags("destination", key.destination(), "type", key.type()))
+                .increment();
+    }
+
+    private Timer timer(MeterKey key, Function<MeterKey, Timer.Builder> builder) {
+        Timer timer = timers.get(key);
+        return timer != null ? timer : timers.computeIfAbsent(key, k -> builder.apply(k).register(registry));
+    }
+
+    private Counter counter(MeterKey key, Function<MeterKey, Counter.Builder> builder) {
+        Counter counter = counters.get(key);
+        return counter != null ? counter : counters.computeIfAbsent(key, k -> builder.apply(k).register(registry));
+    }
+
+    private static String outcome(boolean success) {
+        return success ? "success" : "failure";
+    }
+
+    private static String tag(String value) {
+        return value == null || value.isEmpty() ? UNKNOWN : value;
+    }
+
+    /**
+     * Identity of a meter within this instance. Tag values are normalized up front, so equal keys always
+     * describe the same registered meter.
+     */
+    private record MeterKey(String name, String destination, String type, String outcome) {
+        private MeterKey {
+            destination = tag(destination);
+            type = tag(type);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.corems.common.queue.poller;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Consecutive-failure circuit breaker for one message type. While open, messages of the type are not handed to
+ * the handler; once the open period has passed a single trial message is let through (half-open) and its outcome
+ * closes the breaker or re-opens it with a doubled pause. The closed state is checked without locking.
+ */
+final class CircuitBreaker {
+
+    enum State {
+        CLOSED,
+        HALF_OPEN,
+        OPEN
+    }
+
+    private final int failureThreshold;
+    private final long baseOpenMs;
+    private final long maxOpenMs;
+    private final LongSupplier clock;
+
+    private volatile State state = State.CLOSED;
+    private volatile int consecutiveFailures;
+    private long openMs;
+    private long openUntil;
+    private boolean trialInFlight;
+
+    CircuitBreaker(int failureThreshold, long openMs, long maxOpenMs, LongSupplier clock) {
+        this.failureThreshold = Math.max(failureThreshold, 1);
+        this.baseOpenMs = Math.max(openMs, 1);
+        this.maxOpenMs = Math.max(maxOpenMs, this.baseOpenMs);
+        this.openMs = this.baseOpenMs;
+        this.clock = clock;
+    }
+
+    /**
+     * Whether a message may be handled now. A permit taken in half-open state must be followed by
+     * {@link #onSuccess()}, {@link #onFailure()} or {@link #release()}.
+     */
+    boolean tryAcquire() {
+        if (state == State.CLOSED) {
+            return true;
+        }
+        synchronized (this) {
+            if (state == State.CLOSED) {
+                return true;
+            }
+            if (state == State.OPEN) {
+                if (clock.getAsLong() < openUntil) {
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                trialInFlight = false;
+            }
+            if (trialInFlight) {
+                return false;
+            }
+            trialInFlight = true;
+            return true;
+        }
+    }
+
+    void onSuccess() {
+        if (state == State.CLOSED && consecutiveFailures == 0) {
+            return;
+        }
+        synchronized (this) {
+            state = State.CLOSED;
+            consecutiveFailures = 0;
+            openMs = baseOpenMs;
+            trialInFlight = false;
+        }
+    }
+
+    synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            open(Math.min(openMs * 2, maxOpenMs));
+        } else if (state == State.CLOSED && ++consecutiveFailures >= failureThreshold) {
+            open(openMs);
+        }
+    }
+
+    /**
+     * Give back a half-open trial permit when the message was not actually handled.
+     */
+    synchronized void release() {
+        trialInFlight = false;
+    }
+
+    synchronized long remainingOpenMs() {
+        return state == State.OPEN ? Math.max(openUntil - clock.getAsLong(), 0) : 0;
+    }
+
+    State getState() {
+        return state;
+    }
+
+    private void open(long duration) {
+        openMs = duration;
+        openUntil = clock.getAsLong() + duration;
+        trialInFlight = false;
+        state = State.OPEN;
+    }
+}
@@ -1,54 +1,235 @@
 package com.corems.common.queue.poller;
 
+import com.corems.common.queue.MessageInProgressException;
 import com.corems.common.queue.QueueClient;
 import com.corems.common.queue.QueueMessage;
+import com.corems.common.queue.QueuePriority;
+import com.corems.common.queue.QueueSubscription;
+import com.corems.common.queue.config.CircuitBreakerProperties;
+import com.corems.common.queue.config.ConsumerMode;
+import com.corems.common.queue.config.QueueClientProperties;
+import com.corems.common.queue.idempotency.IdempotencyGuard;
+import com.corems.common.queue.metrics.QueueMetrics;
 import lombok.extern.slf4j.Slf4j;
 
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
 
+/**
+ * Consumes one or more destinations and dispatches messages to handlers by {@link QueueMessage#getType()}.
+ * <p>
+ * With {@code concurrency <= 1} handlers run inline on the poll thread. Higher values (or virtual threads)
+ * hand messages to a worker pool, bounded so that no more than {@code concurrency} messages are in flight;
+ * {@code typeConcurrency} additionally caps how many messages of one type are handled at the same time.
+ * <p>
+ * Every destination, and every priority lane of the default queue, is a source for the same poll thread and
+ * worker pool. The next source is chosen by weighted round-robin so a busy destination cannot starve the
+ * others, while idle sources give their turn away.
+ * <p>
+ * With the circuit breaker enabled, a message type whose handler keeps failing is paused: polled messages of
+ * that type are scheduled for the end of the open period without using an attempt (or, when the provider has
+ * no delayed delivery, put back while their destination is not polled until then), and push deliveries wait,
+ * which lets the prefetch window fill up and stops the broker from delivering more.
+ */
 @Slf4j
 public class GenericQueuePoller implements AutoCloseable {
 
+    private static final long DEFAULT_SHUTDOWN_TIMEOUT_MS = 5000L;
+    private static final long SATURATED_BACKOFF_MS = 10L;
+    private static final long MIN_BREAKER_WAIT_MS = 50L;
+    private static final long MAX_BREAKER_WAIT_MS = 1000L;
+
     private final QueueClient queueClient;
-    private final Map<String, MessageHandler> handlers;
-    private final String destination;
+    private final List<Source> sources;
     private final AtomicBoolean running = new AtomicBoolean(false);
     private final ExecutorService pollExecutor;
+    private final ExecutorService workerExecutor;
+    private final int concurrency;
+    private final Semaphore inFlight;
+    private final Map<String, Semaphore> typeLimits;
+    private final long shutdownTimeoutMs;
+    private final QueueMetrics metrics;
+    private final IdempotencyGuard idempotencyGuard;
+    private final WeightedRoundRobin sourceSelector;
+    private final Map<String, CircuitBreaker> breakers;
+    private final long pollIntervalMs;
+    private final List<QueueSubscription> subscriptions = new CopyOnWriteArrayList<>();
 
     public GenericQueuePoller(QueueClient queueClient, Map<String, MessageHandler> handlers) {
         this(queueClient, handlers, Collections.emptyMap(), true);
     }
 
-    public GenericQueuePoller(QueueClient queueClient, Map<String, MessageHandler> handlers, Map<String, String> defaultDestination) {
-        this(queueClient, handlers, defaultDestination, true);
+    public GenericQueuePoller(QueueClient queueClient, Map<String, MessageHandler> handlers, Map<String, String> typeDestinations) {
+        this(queueClient, handlers, typeDestinations, true);
+    }
+
+    public GenericQueuePoller(QueueClient queueClient, Map<String, MessageHandler> handlers, Map<String, String> typeDestinations, boolean autoStart) {
+        this(queueClient, handlers, typeDestinations, autoStart, IdempotencyGuard.none());
+    }
+
+    /**
+     * @param typeDestinations message type to destination; handlers of unmapped types consume the default queue
+     */
+    public GenericQueuePoller(QueueClient queueClient, Map<String, MessageHandler> handlers, Map<String, String> typeDestinations,
+                              boolean autoStart, IdempotencyGuard idempotencyGuard) {
+        this(queueClient, toDestinations(queueClient.getProperties().getDefaultQueue(), handlers, typeDestinations),
+                autoStart, idempotencyGuard);
     }
 
-    public GenericQueuePoller(QueueClient queueClient, Map<String, MessageHandler> handlers, Map<String, String> defaultDestination, boolean autoStart) {
+    public GenericQueuePoller(QueueClient queueClient, List<QueueDestination> destinations, boolean autoStart,
+                              IdempotencyGuard idempotencyGuard) {
+        if (destinations == null || destinations.isEmpty()) {
+            throw new IllegalArgumentException("GenericQueuePoller requires at least one destination");
+        }
         this.queueClient = queueClient;
-        this.handlers = handlers;
-        this.destination = queueClient.getProperties().getDefaultQueue();
+        QueueClientProperties props = queueClient.getProperties();
         this.pollExecutor = Executors.newSingleThreadExecutor(r -> {
             Thread t = new Thread(r, "generic-queue-poller");
             t.setDaemon(true);
             return t;
         });
 
+        this.concurrency = Math.max(props.getConcurrency(), 1);
+        this.inFlight = new Semaphore(concurrency);
+        this.workerExecutor = createWorkerExecutor(concurrency, props.isVirtualThreads());
+        this.typeLimits = createTypeLimits(props.getTypeConcurrency());
+        this.shutdownTimeoutMs = props.getShutdownTimeoutMs() > 0 ? props.getShutdownTimeoutMs() : DEFAULT_SHUTDOWN_TIMEOUT_MS;
+        this.metrics = Optional.ofNullable(queueClient.getMetrics()).orElseGet(QueueMetrics::noop);
+        this.idempotencyGuard = idempotencyGuard == null ? IdempotencyGuard.none() : idempotencyGuard;
+
+        this.sources = createSources(props, destinations);
+        this.sourceSelector = new WeightedRoundRobin(sources.stream().map(s -> s.weight).toList());
+        sources.forEach(s -> metrics.registerInFlight(s.name, s.inProgress::get));
+        this.pollIntervalMs = props.getPollIntervalMs();
+        this.breakers = createBreakers(props.getCircuitBreaker(), sources);
+        breakers.forEach((type, breaker) -> metrics.registerCircuitState(type, () -> breaker.getState().ordinal()));
+
         if (autoStart) start();
     }
 
+    private static List<QueueDestination> toDestinations(String defaultQueue, Map<String, MessageHandler> handlers,
+                                                         Map<String, String> typeDestinations) {
+        Map<String, Map<String, MessageHandler>> byDestination = new LinkedHashMap<>();
+        byDestination.put(defaultQueue, new HashMap<>());
+        handlers.forEach((type, handler) -> {
+            String target = typeDestinations == null ? null : typeDestinations.get(type);
+            String name = target == null || target.isBlank() ? defaultQueue : target;
+            byDestination.computeIfAbsent(name, n -> new HashMap<>()).put(type, handler);
+        });
+        return byDestination.entrySet().stream()
+                .map(e -> QueueDestination.builder().name(e.getKey()).handlers(e.getValue()).build())
+                .toList();
+    }
+
+    /**
+     * One source per destination, except that the default queue is replaced by its priority lanes when they
+     * are configured. Lanes share the handlers and concurrency cap of the destination they split.
+     */
+    private static List<Source> createSources(QueueClientProperties props, List<QueueDestination> destinations) {
+        Map<QueuePriority, String> priorityQueues = props.getPriorityQueues();
+        Map<QueuePriority, Integer> priorityWeights = props.getPriorityWeights() == null ? Map.of() : props.getPriorityWeights();
+        boolean hasLanes = priorityQueues != null && !priorityQueues.isEmpty();
+
+        List<Source> sources = new ArrayList<>();
+        for (QueueDestination destination : destinations) {
+            if (destination.getName() == null || destination.getName().isBlank()) {
+                throw new IllegalArgumentException("Queue destination name must not be blank");
+            }
+            Map<String, MessageHandler> handlers = destination.getHandlers() == null ? Map.of() : destination.getHandlers();
+            Semaphore limit = destination.getConcurrency() > 0 ? new Semaphore(destination.getConcurrency()) : null;
+            int weight = Math.max(destination.getWeight(), 1);
+            if (!hasLanes || !destination.getName().equals(props.getDefaultQueue())) {
+                sources.add(new Source(destination.getName(), handlers, weight, limit));
+                continue;
+            }
+            Map<String, Integer> laneWeights = new LinkedHashMap<>();
+            for (QueuePriority priority : QueuePriority.values()) {
+                String lane = priorityQueues.get(priority);
+                String name = lane == null || lane.isBlank() ? destination.getName() : lane;
+                laneWeights.merge(name, priorityWeights.getOrDefault(priority, priority.getDefaultWeight()), Integer::sum);
+            }
+            laneWeights.forEach((name, laneWeight) -> sources.add(new Source(name, handlers, weight * laneWeight, limit)));
+        }
+        return List.copyOf(sources);
+    }
+
+    private static Map<String, CircuitBreaker> createBreakers(CircuitBreakerProperties config, List<Source> sources) {
+        if (config == null || !config.isEnabled()) {
+            return Map.of();
+        }
+        Map<String, CircuitBreaker> breakers = new HashMap<>();
+        for (Source source : sources) {
+            source.handlers.keySet().forEach(type -> breakers.computeIfAbsent(type, t -> new CircuitBreaker(
+                    config.getFailureThreshold(), config.getOpenMs(), config.getMaxOpenMs(), System::currentTimeMillis)));
+        }
+        return Map.copyOf(breakers);
+    }
+
+    private static ExecutorService createWorkerExecutor(int concurrency, boolean virtualThreads) {
+        if (virtualThreads) {
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("generic-queue-worker-", 0).factory());
+        }
+        if (concurrency <= 1) {
+            return null;
+        }
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(concurrency, r -> {
+            Thread t = new Thread(r, "generic-queue-worker-" + counter.getAndIncrement());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    private static Map<String, Semaphore> createTypeLimits(Map<String, Integer> typeConcurrency) {
+        Map<String, Semaphore> limits = new HashMap<>();
+        if (typeConcurrency != null) {
+            typeConcurrency.forEach((type, limit) -> {
+                if (limit != null && limit > 0) limits.put(type, new Semaphore(limit));
+            });
+        }
+        return Map.copyOf(limits);
+    }
+
     /**
-     * Start the background poll loop. Safe to call multiple times (idempotent).
+     * Start consuming. In PUSH consumer mode a broker subscription is registered per destination, otherwise
+     * the background poll loop is started. Safe to call multiple times (idempotent).
      */
     public void start() {
         if (running.compareAndSet(false, true)) {
+            if (queueClient.getProperties().getConsumerMode() == ConsumerMode.PUSH && subscribe()) {
+                return;
+            }
             pollExecutor.submit(this::runLoop);
-            log.info("GenericQueuePoller started for destination={}", destination);
+            log.info("GenericQueuePoller started for destinations={}", getDestinations());
+        }
+    }
+
+    private boolean subscribe() {
+        try {
+            for (Source source : sources) {
+                subscriptions.add(queueClient.subscribe(source.name, qm -> processPushedMessage(source, qm)));
+                log.info("GenericQueuePoller subscribed in push mode for destination={}", source.name);
+            }
+            return true;
+        } catch (UnsupportedOperationException ex) {
+            closeSubscriptions();
+            log.warn("Push consumption unavailable for destinations={}, falling back to polling: {}", getDestinations(), ex.getMessage());
+            return false;
         }
     }
 
@@ -67,14 +248,16 @@ public class GenericQueuePoller implements AutoCloseable {
                 }
             }
         }
-        log.info("GenericQueuePoller loop exiting for destination={}", destination);
+        log.info("GenericQueuePoller loop exiting for destinations={}", getDestinations());
     }
 
     /**
-     * Stop the background poll loop and shutdown the executor. This method blocks briefly while waiting for termination.
+     * Stop consuming and drain in order: first the subscriptions or poll loop so no new messages are taken,
+     * then wait up to shutdownTimeoutMs for in-flight handlers to finish before interrupting them.
      */
     public void stop() {
         if (running.compareAndSet(true, false)) {
+            closeSubscriptions();
             try {
                 pollExecutor.shutdownNow();
                 if (!pollExecutor.awaitTermination(5, TimeUnit.SECONDS)) {
@@ -83,7 +266,34 @@ public class GenericQueuePoller implements AutoCloseable {
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
             }
-            log.info("GenericQueuePoller stopped for destination={}", destination);
+            drainWorkers();
+            log.info("GenericQueuePoller stopped for destinations={}", getDestinations());
+        }
+    }
+
+    private void closeSubscriptions() {
+        for (QueueSubscription current : subscriptions) {
+            try {
+                current.close();
+            } catch (Exception e) {
+                log.warn("Failed to close subscription for destination={}: {}", current.getDestination(), e.getMessage());
+            }
+        }
+        subscriptions.clear();
+    }
+
+    private void drainWorkers() {
+        if (workerExecutor == null) return;
+        workerExecutor.shutdown();
+        try {
+            if (!workerExecutor.awaitTermination(shutdownTimeoutMs, TimeUnit.MILLISECONDS)) {
+                log.warn("GenericQueuePoller workers did not drain within {}ms, interrupting {} in-flight message(s)",
+                        shutdownTimeoutMs, getInFlightCount());
+                workerExecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            workerExecutor.shutdownNow();
+            Thread.currentThread().interrupt();
         }
     }
 
@@ -93,44 +303,402 @@ public class GenericQueuePoller implements AutoCloseable {
     }
 
     /**
-     * Single poll iteration: performs one blocking poll and processes the message if present.
+     * Number of messages currently handed to workers and not yet completed.
+     */
+    public int getInFlightCount() {
+        return concurrency - inFlight.availablePermits();
+    }
+
+    /**
+     * Destinations this poller consumes, including priority lanes.
+     */
+    public List<String> getDestinations() {
+        return sources.stream().map(s -> s.name).toList();
+    }
+
+    /**
+     * Single poll iteration: performs one poll across the destinations and processes the message if present.
+     * With a worker pool the message is handed off once an in-flight slot is available, so at most
+     * {@code concurrency} messages are taken from the queues before earlier ones complete.
      */
     public void pollOnce() {
-        try {
-            Optional<QueueMessage> maybe = queueClient.poll(destination);
-            if (maybe.isEmpty()) {
-                return;
+        if (workerExecutor == null) {
+            try {
+                Optional<Polled> maybe = pollNext();
+                if (maybe.isEmpty()) {
+                    return;
+                }
+
+                Polled polled = maybe.get();
+                try {
+                    processMessage(polled.source().name, polled.message());
+                } finally {
+                    polled.source().release();
+                }
+            } catch (Exception e) {
+                log.error("Unexpected error while polling queue", e);
             }
+            return;
+        }
+
+        try {
+            inFlight.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
 
-            QueueMessage qm = maybe.get();
-            processMessage(qm);
+        boolean dispatched = false;
+        try {
+            Optional<Polled> maybe = pollNext();
+            if (maybe.isPresent()) {
+                dispatched = dispatch(maybe.get());
+            }
         } catch (Exception e) {
             log.error("Unexpected error while polling queue", e);
+        } finally {
+            if (!dispatched) inFlight.release();
+        }
+    }
+
+    /**
+     * Take the next message. The weighted pick is tried first without waiting, then the other sources in order;
+     * only when all of them are empty does the poll wait, on the first source with a free slot. Sources at their
+     * concurrency cap are skipped. The returned source holds a slot that the caller releases after handling.
+     */
+    private Optional<Polled> pollNext() throws InterruptedException {
+        if (sources.size() == 1) {
+            Source source = sources.get(0);
+            long paused = source.pausedForMs();
+            if (paused > 0) {
+                TimeUnit.MILLISECONDS.sleep(paused);
+                return Optional.empty();
+            }
+            source.acquire();
+            return poll(source, -1);
+        }
+
+        int preferred = sourceSelector.next();
+        Optional<Polled> polled = tryPoll(sources.get(preferred));
+        for (int i = 0; polled.isEmpty() && i < sources.size(); i++) {
+            if (i != preferred) {
+                polled = tryPoll(sources.get(i));
+            }
+        }
+        if (polled.isPresent()) {
+            return polled;
+        }
+
+        for (Source source : sources) {
+            if (source.pausedForMs() == 0 && source.tryAcquire()) {
+                return poll(source, -1);
+            }
+        }
+        TimeUnit.MILLISECONDS.sleep(SATURATED_BACKOFF_MS);
+        return Optional.empty();
+    }
+
+    private Optional<Polled> tryPoll(Source source) {
+        return source.pausedForMs() == 0 && source.tryAcquire() ? poll(source, 0L) : Optional.empty();
+    }
+
+    private Optional<Polled> poll(Source source, long timeoutMs) {
+        Optional<QueueMessage> message = Optional.empty();
+        try {
+            message = timeoutMs < 0 ? queueClient.poll(source.name) : queueClient.poll(source.name, timeoutMs);
+            return message.map(qm -> new Polled(source, qm));
+        } finally {
+            if (message == null || message.isEmpty()) source.release();
+        }
+    }
+
+    private boolean dispatch(Polled polled) {
+        try {
+            workerExecutor.execute(() -> {
+                try {
+                    processMessage(polled.source().name, polled.message());
+                } finally {
+                    polled.source().release();
+                    inFlight.release();
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException ex) {
+            // Workers are already shutting down; the message has been received, so handle it here rather than lose it
+            try {
+                processMessage(polled.source().name, polled.message());
+            } finally {
+                polled.source().release();
+            }
+            return false;
         }
     }
 
+    /**
+     * Handle a message as if it was polled from the destination that consumes its type, the first destination
+     * when none has a handler for it.
+     */
     protected void processMessage(QueueMessage qm) {
+        Source source = sources.stream()
+                .filter(s -> s.handlers.containsKey(qm.getType()))
+                .findFirst()
+                .orElse(sources.get(0));
+        processMessage(source.name, qm);
+    }
+
+    /**
+     * Handle a polled message. The poll loop and the workers call this for every message they take, so
+     * subclasses can override it to wrap handling. The message was already taken off the queue, so failures
+     * are retried or dead-lettered through the client, back on the destination it was taken from; a message
+     * of a type without a handler is dead-lettered right away.
+     *
+     * @param destination destination or priority lane the message was taken from
+     */
+    protected void processMessage(String destination, QueueMessage qm) {
+        Source source = source(destination);
+        source.inProgress.incrementAndGet();
         try {
-            MessageHandler handler = handlers.get(qm.getType());
-            if (handler == null) {
-                log.error("No handler registered for message type={}", qm.getType());
-                return;
+            process(source, qm);
+        } finally {
+            source.inProgress.decrementAndGet();
+        }
+    }
+
+    private void process(Source source, QueueMessage qm) {
+        CircuitBreaker breaker = breakers.get(qm.getType());
+        if (breaker != null && !breaker.tryAcquire()) {
+            defer(source, qm, breaker);
+            return;
+        }
+        try {
+            if (!withTypeLimit(qm, () -> handleMessage(source, qm, breaker))) {
+                deadLetterUnhandled(source, qm);
             }
-            handler.handle(qm);
+        } catch (MessageInProgressException ex) {
+            requeueInProgress(source, qm);
         } catch (Exception ex) {
             log.error("Failed handling message id={}: {}", qm.getId(), ex.getMessage());
             qm.setAttempts(qm.getAttempts() + 1);
             int retryCount = queueClient.getProperties().getRetryCount();
             if (retryCount > qm.getAttempts()) {
                 try {
-                    queueClient.send(destination, qm);
-                    log.info("Re-enqueued message id={} for retry (destination={})", qm.getId(), destination);
+                    queueClient.retry(source.name, qm);
+                    metrics.retried(source.name, qm.getType());
+                    log.info("Scheduled retry for message id={} (destination={})", qm.getId(), source.name);
                 } catch (Exception e) {
-                    log.error("Failed to re-enqueue message id={}", qm.getId(), e);
+                    metrics.dropped(source.name, qm.getType());
+                    log.error("Failed to schedule retry for message id={}", qm.getId(), e);
                 }
+            } else if (queueClient.deadLetter(source.name, qm, ex.getMessage())) {
+                metrics.deadLettered(source.name, qm.getType());
             } else {
+                metrics.dropped(source.name, qm.getType());
                 log.warn("Dropping message id={} after {} attempts", qm.getId(), qm.getAttempts());
             }
         }
     }
+
+    /**
+     * Park a message nobody handles instead of letting it vanish or cycle through retries: it has already been taken
+     * off the queue, and no further attempt will find a handler for it.
+     */
+    private void deadLetterUnhandled(Source source, QueueMessage qm) {
+        if (queueClient.deadLetter(source.name, qm, "No handler registered for message type=" + qm.getType())) {
+            metrics.deadLettered(source.name, qm.getType());
+        } else {
+            metrics.dropped(source.name, qm.getType());
+            log.warn("Dropping message id={} of unhandled type={}", qm.getId(), qm.getType());
+        }
+    }
+
+    /**
+     * Put back a redelivered message whose id another consumer is still handling, without using an attempt:
+     * acking it would lose the message if that consumer dies before completing it.
+     */
+    private void requeueInProgress(Source source, QueueMessage qm) {
+        try {
+            queueClient.retry(source.name, qm);
+            metrics.deferred(source.name, qm.getType());
+            log.info("Message id={} is being handled by another consumer, requeued it", qm.getId());
+        } catch (Exception e) {
+            metrics.dropped(source.name, qm.getType());
+            log.error("Failed to requeue message id={} while it is in progress elsewhere", qm.getId(), e);
+        }
+    }
+
+    private Source source(String destination) {
+        for (Source source : sources) {
+            if (source.name.equals(destination)) {
+                return source;
+            }
+        }
+        throw new IllegalArgumentException("Destination is not consumed by this poller: " + destination);
+    }
+
+    /**
+     * Hold back a polled message of a paused type until its breaker may close, without using an attempt.
+     * With delayed delivery the message is scheduled for the end of the open period and only its destination's
+     * polling slows down briefly, so other types on it keep flowing. Without it the message is put back and the
+     * destination is not polled for the rest of the open period; re-publishing it on every poll would cycle
+     * paused messages through the broker for as long as the breaker stays open.
+     */
+    private void defer(Source source, QueueMessage qm, CircuitBreaker breaker) {
+        // A half-open breaker has no remaining open time while its trial message runs
+        long holdMs = Math.max(breaker.remainingOpenMs(), pollIntervalMs);
+        try {
+            if (queueClient.supportsDelayedDelivery()) {
+                source.pauseFor(Math.min(holdMs, pollIntervalMs));
+                Instant due = Instant.now().plusMillis(holdMs);
+                if (qm.isDue(due)) {
+                    qm.setNotBefore(due);
+                }
+                queueClient.send(source.name, qm);
+            } else {
+                source.pauseFor(holdMs);
+                queueClient.retry(source.name, qm);
+            }
+            metrics.deferred(source.name, qm.getType());
+            log.debug("Circuit open for type={}, deferred message id={} for {}ms", qm.getType(), qm.getId(), holdMs);
+        } catch (Exception e) {
+            metrics.dropped(source.name, qm.getType());
+            log.error("Failed to defer message id={} while circuit is open for type={}", qm.getId(), qm.getType(), e);
+        }
+    }
+
+    /**
+     * Handle a message delivered by a push subscription. Failures propagate so the provider can nack the
+     * delivery and route it through its own retry and dead-letter queues; a message of an unhandled type is
+     * dead-lettered right away, as in poll mode, and the delivery completes normally.
+     */
+    private void processPushedMessage(Source source, QueueMessage qm) {
+        source.inProgress.incrementAndGet();
+        try {
+            CircuitBreaker breaker = breakers.get(qm.getType());
+            if (breaker != null) {
+                awaitBreaker(breaker, qm.getType());
+            }
+            source.acquireUninterruptibly();
+            try {
+                if (!withTypeLimit(qm, () -> handleMessage(source, qm, breaker))) {
+                    deadLetterUnhandled(source, qm);
+                }
+            } finally {
+                source.release();
+            }
+        } finally {
+            source.inProgress.decrementAndGet();
+        }
+    }
+
+    private void awaitBreaker(CircuitBreaker breaker, String type) {
+        while (!breaker.tryAcquire()) {
+            long wait = Math.clamp(breaker.remainingOpenMs(), MIN_BREAKER_WAIT_MS, MAX_BREAKER_WAIT_MS);
+            try {
+                TimeUnit.MILLISECONDS.sleep(wait);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while circuit is open for message type=" + type, e);
+            }
+        }
+    }
+
+    private boolean withTypeLimit(QueueMessage qm, BooleanSupplier action) {
+        Semaphore typeLimit = typeLimits.get(qm.getType());
+        if (typeLimit == null) {
+            return action.getAsBoolean();
+        }
+        typeLimit.acquireUninterruptibly();
+        try {
+            return action.getAsBoolean();
+        } finally {
+            typeLimit.release();
+        }
+    }
+
+    private boolean handleMessage(Source source, QueueMessage qm, CircuitBreaker breaker) {
+        MessageHandler handler = source.handlers.get(qm.getType());
+        if (handler == null) {
+            log.error("No handler registered for message type={} on destination={}", qm.getType(), source.name);
+            if (breaker != null) breaker.release();
+            return false;
+        }
+        IdempotencyGuard.Claim claim = idempotencyGuard.claim(qm.getId());
+        if (claim != IdempotencyGuard.Claim.ACQUIRED) {
+            if (breaker != null) breaker.release();
+            if (claim == IdempotencyGuard.Claim.IN_PROGRESS) {
+                // In push mode this propagates to the provider, which puts the delivery back without counting an attempt
+                throw new MessageInProgressException(qm.getId());
+            }
+            metrics.duplicate(source.name, qm.getType());
+            log.info("Skipping duplicate message id={} type={}", qm.getId(), qm.getType());
+            return true;
+        }
+        long start = metrics.start();
+        boolean success = false;
+        try {
+            handler.handle(qm);
+            success = true;
+        } finally {
+            metrics.recordHandle(source.name, qm.getType(), start, success);
+            if (breaker != null) {
+                if (success) {
+                    breaker.onSuccess();
+                } else {
+                    breaker.onFailure();
+                }
+            }
+            if (success) {
+                idempotencyGuard.complete(qm.getId());
+            } else {
+                // The retry carries the same id, so it must not be mistaken for a duplicate
+                idempotencyGuard.release(qm.getId());
+            }
+        }
+        return true;
+    }
+
+    private static final class Source {
+        private final String name;
+        private final Map<String, MessageHandler> handlers;
+        private final int weight;
+        private final Semaphore limit;
+        // Messages taken from this source and not yet finished, reported as the in-flight gauge
+        private final AtomicInteger inProgress = new AtomicInteger();
+        private volatile long pausedUntil;
+
+        private Source(String name, Map<String, MessageHandler> handlers, int weight, Semaphore limit) {
+            this.name = name;
+            this.handlers = handlers;
+            this.weight = weight;
+            this.limit = limit;
+        }
+
+        private boolean tryAcquire() {
+            return limit == null || limit.tryAcquire();
+        }
+
+        private void acquire() throws InterruptedException {
+            if (limit != null) limit.acquire();
+        }
+
+        private void acquireUninterruptibly() {
+            if (limit != null) limit.acquireUninterruptibly();
+        }
+
+        private void release() {
+            if (limit != null) limit.release();
+        }
+
+        private void pauseFor(long ms) {
+            if (ms > 0) pausedUntil = Math.max(pausedUntil, System.currentTimeMillis() + ms);
+        }
+
+        private long pausedForMs() {
+            long until = pausedUntil;
+            return until == 0 ? 0 : Math.max(until - System.currentTimeMillis(), 0);
+        }
+    }
+
+    private record Polled(Source source, QueueMessage message) {
+    }
 }
@@ -0,0 +1,22 @@
+package com.corems.common.queue.poller;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.Map;
+
+/**
+ * One destination consumed by a {@link GenericQueuePoller}: its handlers by message type, its share of polls
+ * relative to the other destinations, and an optional cap on how many of its messages are handled at once.
+ * All destinations of a poller share the poll thread and worker pool.
+ */
+@Getter
+@Builder
+public class QueueDestination {
+    private final String name;
+    private final Map<String, MessageHandler> handlers;
+    @Builder.Default
+    private final int weight = 1;
+    // 0 leaves the destination bounded only by the poller's overall concurrency
+    private final int concurrency;
+}
@@ -0,0 +1,33 @@
+package com.corems.common.queue.poller;
+
+import java.util.List;
+
+/**
+ * Smooth weighted round-robin: over any window of {@code sum(weights)} picks each index is chosen exactly
+ * {@code weight} times, interleaved rather than in bursts. Not thread-safe; used from the single poll thread.
+ */
+final class WeightedRoundRobin {
+    private final int[] weights;
+    private final int[] current;
+    private final int total;
+
+    WeightedRoundRobin(List<Integer> weights) {
+        this.weights = weights.stream().mapToInt(w -> Math.max(w, 1)).toArray();
+        this.current = new int[this.weights.length];
+        int sum = 0;
+        for (int w : this.weights) sum += w;
+        this.total = sum;
+    }
+
+    int next() {
+        int selected = 0;
+        for (int i = 0; i < weights.length; i++) {
+            current[i] += weights[i];
+            if (current[i] > current[selected]) {
+                selected = i;
+            }
+        }
+        current[selected] -= total;
+        return selected;
+    }
+}
@@ -18,6 +18,7 @@ class QueueMessageTest {
         assertNull(message.getType());
         assertNull(message.getPayload());
         assertEquals(0, message.getAttempts());
+        assertEquals(QueuePriority.NORMAL, message.getPriority());
         assertNull(message.getHeaders());
         assertNotNull(message.getCreatedAt());
         assertTrue(message.getCreatedAt().isBefore(Instant.now().plusSeconds(1)));
@@ -148,4 +149,14 @@ class QueueMessageTest {
             return name.hashCode() + value;
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    void priorityFromString_MapsAliasesAndDefaultsToNormal() {
+        assertEquals(QueuePriority.TRANSACTIONAL, QueuePriority.fromString("transactional"));
+        assertEquals(QueuePriority.TRANSACTIONAL, QueuePriority.fromString("HIGH"));
+        assertEquals(QueuePriority.BULK, QueuePriority.fromString("bulk"));
+        assertEquals(QueuePriority.NORMAL, QueuePriority.fromString("normal"));
+        assertEquals(QueuePriority.NORMAL, QueuePriority.fromString(null));
+        assertEquals(QueuePriority.NORMAL, QueuePriority.fromString("unknown"));
+    }
+}
@@ -170,6 +170,18 @@ class QueueProviderTest {
         assertTrue(queueProvider.isEnabled());
     }
 
+    @Test
+    void close_ClosesRegisteredClientsThatHoldResources() throws Exception {
+        QueueClient closeableClient = mock(QueueClient.class, withSettings().extraInterfaces(AutoCloseable.class));
+        queueProvider.registerProvider(SupportedQueueProvider.IN_MEMORY, closeableClient);
+        queueProvider.registerProvider(SupportedQueueProvider.RABBIT_MQ, mockClient);
+
+        queueProvider.close();
+
+        verify((AutoCloseable) closeableClient).close();
+        assertThrows(ServiceException.class, () -> queueProvider.getProvider(SupportedQueueProvider.IN_MEMORY));
+    }
+
     @Test
     void getQueueProperties_ReturnsOriginalProperties() {
         assertEquals(queueProperties, queueProvider.getQueueProperties());
@@ -14,6 +14,14 @@ class SupportedQueueProviderTest {
         assertEquals(SupportedQueueProvider.RABBIT_MQ, SupportedQueueProvider.fromString("rabbit"));
     }
 
+    @Test
+    void fromString_WithInMemoryVariants_ReturnsInMemory() {
+        assertEquals(SupportedQueueProvider.IN_MEMORY, SupportedQueueProvider.fromString("inmemory"));
+        assertEquals(SupportedQueueProvider.IN_MEMORY, SupportedQueueProvider.fromString("In-Memory"));
+        assertEquals(SupportedQueueProvider.IN_MEMORY, SupportedQueueProvider.fromString("IN_MEMORY"));
+        assertEquals(SupportedQueueProvider.IN_MEMORY, SupportedQueueProvider.fromString("memory"));
+    }
+
     @Test
     void fromString_WithCaseInsensitiveInput_ReturnsRabbitMq() {
         assertEquals(SupportedQueueProvider.RABBIT_MQ, SupportedQueueProvider.fromString("RABBITMQ"));
@@ -56,8 +64,9 @@ class SupportedQueueProviderTest {
     @Test
     void enumValues_ContainsExpectedProviders() {
         SupportedQueueProvider[] values = SupportedQueueProvider.values();
-        assertEquals(1, values.length);
+        assertEquals(2, values.length);
         assertEquals(SupportedQueueProvider.RABBIT_MQ, values[0]);
+        assertEquals(SupportedQueueProvider.IN_MEMORY, values[1]);
     }
 
     @Test
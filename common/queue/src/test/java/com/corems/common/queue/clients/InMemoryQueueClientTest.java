@@ -0,0 +1,182 @@
+package com.corems.common.queue.clients;
+
+import com.corems.common.exception.ServiceException;
+import com.corems.common.queue.QueueMessage;
+import com.corems.common.queue.config.QueueProperties;
+import com.corems.common.queue.config.WireFormat;
+import com.corems.common.queue.converter.QueueMessageConverter;
+import com.corems.common.queue.converter.QueuePayloadTypeRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class InMemoryQueueClientTest {
+
+    @TempDir
+    Path tempDir;
+
+    private QueueProperties.InMemoryProperties properties;
+    private InMemoryQueueClient client;
+
+    @BeforeEach
+    void setUp() {
+        properties = new QueueProperties.InMemoryProperties();
+        properties.setDefaultQueue("test-queue");
+        properties.setPollIntervalMs(50L);
+        properties.setCapacity(2);
+        client = new InMemoryQueueClient(properties, mock(MessageConverter.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+    }
+
+    @Test
+    void validate_WithoutDefaultQueue_ThrowsException() {
+        properties.setDefaultQueue("");
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+            () -> InMemoryQueueClient.validate(properties));
+
+        assertTrue(exception.getMessage().contains("defaultQueue"));
+    }
+
+    @Test
+    void validate_WithSpillButNoDirectory_ThrowsException() {
+        properties.setSpillEnabled(true);
+
+        assertThrows(IllegalArgumentException.class, () -> InMemoryQueueClient.validate(properties));
+    }
+
+    @Test
+    void sendAndPoll_ReturnsMessagesInOrder() {
+        client.send(message("a"));
+        client.send("test-queue", message("b"));
+
+        assertEquals("a", client.poll().map(QueueMessage::getId).orElseThrow());
+        assertEquals("b", client.poll("test-queue").map(QueueMessage::getId).orElseThrow());
+        assertTrue(client.poll().isEmpty());
+    }
+
+    @Test
+    void poll_WithDifferentDestinations_KeepsThemSeparate() {
+        client.send("other-queue", message("a"));
+
+        assertTrue(client.poll("test-queue").isEmpty());
+        assertEquals("a", client.poll("other-queue").map(QueueMessage::getId).orElseThrow());
+    }
+
+    @Test
+    void send_WhenFullWithoutSpill_ThrowsServiceException() {
+        client.send(message("a"));
+        client.send(message("b"));
+
+        assertThrows(ServiceException.class, () -> client.send(message("c")));
+        assertEquals(2, client.size("test-queue"));
+    }
+
+    @Test
+    void send_WhenFullWithSpill_OverflowsToDiskAndKeepsOrder() {
+        properties.setSpillEnabled(true);
+        properties.setSpillDirectory(tempDir.toString());
+        properties.setSpillFileSizeBytes(64 * 1024);
+        client = new InMemoryQueueClient(properties, new QueueMessageConverter(WireFormat.CBOR, new QueuePayloadTypeRegistry(), mock(MessageConverter.class)));
+
+        for (String id : List.of("a", "b", "c", "d")) {
+            client.send(message(id));
+        }
+
+        assertEquals(4, client.size("test-queue"));
+        List<String> received = new ArrayList<>();
+        Optional<QueueMessage> next;
+        while ((next = client.poll()).isPresent()) {
+            received.add(next.get().getId());
+        }
+        assertEquals(List.of("a", "b", "c", "d"), received);
+    }
+
+    @Test
+    void poll_WaitsForMessageFromAnotherThread() throws Exception {
+        properties.setPollIntervalMs(2000L);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        CountDownLatch polling = new CountDownLatch(1);
+        try {
+            var future = executor.submit(() -> {
+                polling.countDown();
+                return client.poll();
+            });
+            assertTrue(polling.await(1, TimeUnit.SECONDS));
+            client.send(message("a"));
+
+            assertEquals("a", future.get(2, TimeUnit.SECONDS).map(QueueMessage::getId).orElseThrow());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void deadLetter_ThenReplay_MovesMessageBack() {
+        QueueMessage message = message("a");
+        message.setAttempts(3);
+
+        assertTrue(client.deadLetter(null, message, "boom"));
+        assertTrue(client.poll().isEmpty());
+
+        assertEquals(1, client.replayDeadLetters(null, 10));
+        QueueMessage replayed = client.poll().orElseThrow();
+        assertEquals("a", replayed.getId());
+        assertEquals(0, replayed.getAttempts());
+    }
+
+    @Test
+    void send_WithFutureNotBefore_DeliversWhenDue() throws InterruptedException {
+        QueueMessage delayed = message("later");
+        delayed.setNotBefore(Instant.now().plusMillis(200));
+        client.send(delayed);
+        client.send(message("now"));
+
+        assertEquals(1, client.scheduledSize());
+        assertEquals("now", client.poll().map(QueueMessage::getId).orElseThrow());
+        assertTrue(client.poll().isEmpty());
+
+        Optional<QueueMessage> due = client.poll("test-queue", 2000L);
+        assertEquals("later", due.map(QueueMessage::getId).orElseThrow());
+        assertFalse(due.get().getNotBefore().isAfter(Instant.now()));
+        assertEquals(0, client.scheduledSize());
+    }
+
+    @Test
+    void send_WhenScheduledCapacityReached_ThrowsServiceException() {
+        properties.setScheduledCapacity(1);
+        QueueMessage first = message("a");
+        first.setNotBefore(Instant.now().plusSeconds(60));
+        QueueMessage second = message("b");
+        second.setNotBefore(Instant.now().plusSeconds(60));
+        client.send(first);
+
+        assertThrows(ServiceException.class, () -> client.send(second));
+    }
+
+    private static QueueMessage message(String id) {
+        QueueMessage message = new QueueMessage();
+        message.setId(id);
+        message.setType("TEST_MESSAGE");
+        return message;
+    }
+}
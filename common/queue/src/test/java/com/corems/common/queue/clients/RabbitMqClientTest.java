@@ -1,17 +1,33 @@
 package com.corems.common.queue.clients;
 
 import com.corems.common.exception.ServiceException;
+import com.corems.common.queue.BatchSendResult;
+import com.corems.common.queue.MessageInProgressException;
 import com.corems.common.queue.QueueMessage;
+import com.corems.common.queue.QueuePriority;
 import com.corems.common.queue.config.QueueProperties;
+import com.corems.common.queue.metrics.QueueMetrics;
 
 import lombok.Getter;
 
 import org.junit.jupiter.api.BeforeEach;
+import com.rabbitmq.client.Channel;
 import org.junit.jupiter.api.Test;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.MessageConverter;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -32,6 +48,8 @@ class RabbitMqClientTest {
         properties.setDefaultQueue("test-queue");
         properties.setExchange("test-exchange");
         properties.setPollIntervalMs(1000L);
+        properties.setDeadLetterEnabled(true);
+        properties.setDelayTiersMs(List.of(1000L, 10000L, 60000L, 600000L, 3600000L));
         
         rabbitMqClient = new RabbitMqClient(mockRabbitTemplate, properties);
     }
@@ -143,6 +161,23 @@ class RabbitMqClientTest {
         verify(mockRabbitTemplate).convertAndSend(eq("test-exchange"), eq("test-queue"), eq(message));
     }
 
+    @Test
+    void send_WithPriorityLane_RoutesToLaneQueue() {
+        properties.getPriorityQueues().put(QueuePriority.BULK, "bulk-queue");
+        QueueMessage bulk = new QueueMessage();
+        bulk.setId("bulk-id");
+        bulk.setPriority(QueuePriority.BULK);
+        QueueMessage transactional = new QueueMessage();
+        transactional.setId("tx-id");
+        transactional.setPriority(QueuePriority.TRANSACTIONAL);
+
+        rabbitMqClient.send(bulk);
+        rabbitMqClient.send(transactional);
+
+        verify(mockRabbitTemplate).convertAndSend(eq("test-exchange"), eq("bulk-queue"), eq(bulk));
+        verify(mockRabbitTemplate).convertAndSend(eq("test-exchange"), eq("test-queue"), eq(transactional));
+    }
+
     @Test
     void send_WithSpecificDestination_CallsRabbitTemplate() {
         QueueMessage message = new QueueMessage();
@@ -281,6 +316,388 @@ class RabbitMqClientTest {
         verify(mockRabbitTemplate).convertAndSend(eq("test-exchange"), eq("user-events"), eq(message));
     }
 
+    @Test
+    void poll_WithSeparateReceiveTemplate_ReceivesOnConsumerConnection() {
+        RabbitTemplate receiveTemplate = mock(RabbitTemplate.class);
+        QueueMessage expectedMessage = message("received-id");
+        when(receiveTemplate.receiveAndConvert("test-queue", 1000L)).thenReturn(expectedMessage);
+        RabbitMqClient client = new RabbitMqClient(mockRabbitTemplate, receiveTemplate, properties, QueueMetrics.global());
+
+        Optional<QueueMessage> result = client.poll();
+
+        assertEquals(Optional.of(expectedMessage), result);
+        verify(mockRabbitTemplate, never()).receiveAndConvert(anyString(), anyLong());
+    }
+
+    @Test
+    void sendBatch_WithSimpleConfirms_WaitsOnceForTheWholeBatch() {
+        properties.setConfirmType(CachingConnectionFactory.ConfirmType.SIMPLE);
+        stubInvokeOnSameTemplate();
+        when(mockRabbitTemplate.waitForConfirms(5000L)).thenReturn(true);
+
+        BatchSendResult result = rabbitMqClient.sendBatch("batch-queue", List.of(message("a"), message("b")));
+
+        assertTrue(result.allAcked());
+        verify(mockRabbitTemplate, times(2)).convertAndSend(eq("test-exchange"), eq("batch-queue"), any(QueueMessage.class));
+        verify(mockRabbitTemplate).waitForConfirms(5000L);
+    }
+
+    @Test
+    void sendBatch_WithSimpleConfirmsNotReceived_NacksWholeBatch() {
+        properties.setConfirmType(CachingConnectionFactory.ConfirmType.SIMPLE);
+        stubInvokeOnSameTemplate();
+        when(mockRabbitTemplate.waitForConfirms(5000L)).thenReturn(false);
+
+        BatchSendResult result = rabbitMqClient.sendBatch("batch-queue", List.of(message("a"), message("b")));
+
+        assertEquals(0, result.ackedCount());
+        assertEquals(2, result.failedMessages().size());
+    }
+
+    @Test
+    void sendBatch_WhenAllConfirmed_ReportsAcks() {
+        stubInvokeOnSameTemplate();
+        doAnswer(invocation -> {
+            CorrelationData cd = invocation.getArgument(3);
+            cd.getFuture().complete(new CorrelationData.Confirm(true, null));
+            return null;
+        }).when(mockRabbitTemplate).convertAndSend(anyString(), anyString(), any(Object.class), any(CorrelationData.class));
+
+        BatchSendResult result = rabbitMqClient.sendBatch("batch-queue", List.of(message("a"), message("b"), message("c")));
+
+        assertTrue(result.allAcked());
+        assertEquals(3, result.ackedCount());
+        assertTrue(result.failedMessages().isEmpty());
+        verify(mockRabbitTemplate, times(1)).invoke(any(RabbitOperations.OperationsCallback.class));
+        verify(mockRabbitTemplate, times(3)).convertAndSend(eq("test-exchange"), eq("batch-queue"), any(Object.class), any(CorrelationData.class));
+    }
+
+    @Test
+    void sendBatch_WithBrokerNack_ReportsOnlyFailedMessages() {
+        stubInvokeOnSameTemplate();
+        doAnswer(invocation -> {
+            QueueMessage qm = invocation.getArgument(2);
+            CorrelationData cd = invocation.getArgument(3);
+            boolean ack = !"b".equals(qm.getId());
+            cd.getFuture().complete(new CorrelationData.Confirm(ack, ack ? null : "queue full"));
+            return null;
+        }).when(mockRabbitTemplate).convertAndSend(anyString(), anyString(), any(Object.class), any(CorrelationData.class));
+
+        BatchSendResult result = rabbitMqClient.sendBatch(null, List.of(message("a"), message("b"), message("c")));
+
+        assertFalse(result.allAcked());
+        assertEquals(2, result.ackedCount());
+        assertEquals(1, result.failedMessages().size());
+        assertEquals("b", result.failedMessages().get(0).getId());
+        assertEquals("queue full", result.results().get(1).reason());
+    }
+
+    @Test
+    void sendBatch_WhenPublishFails_NacksUnpublishedMessages() {
+        stubInvokeOnSameTemplate();
+        doAnswer(invocation -> {
+            QueueMessage qm = invocation.getArgument(2);
+            if ("b".equals(qm.getId())) {
+                throw new RuntimeException("Channel closed");
+            }
+            CorrelationData cd = invocation.getArgument(3);
+            cd.getFuture().complete(new CorrelationData.Confirm(true, null));
+            return null;
+        }).when(mockRabbitTemplate).convertAndSend(anyString(), anyString(), any(Object.class), any(CorrelationData.class));
+
+        BatchSendResult result = rabbitMqClient.sendBatch("batch-queue", List.of(message("a"), message("b"), message("c")));
+
+        assertEquals(1, result.ackedCount());
+        assertEquals(List.of("b", "c"), result.failedMessages().stream().map(QueueMessage::getId).toList());
+    }
+
+    @Test
+    void sendBatch_WithScheduledMessageAndNoDelayTiers_NacksOnlyThatMessage() {
+        properties.setDelayTiersMs(List.of());
+        stubInvokeOnSameTemplate();
+        doAnswer(invocation -> {
+            CorrelationData cd = invocation.getArgument(3);
+            cd.getFuture().complete(new CorrelationData.Confirm(true, null));
+            return null;
+        }).when(mockRabbitTemplate).convertAndSend(anyString(), anyString(), any(Object.class), any(CorrelationData.class));
+        QueueMessage scheduled = message("b");
+        scheduled.setNotBefore(Instant.now().plusSeconds(60));
+
+        BatchSendResult result = rabbitMqClient.sendBatch("batch-queue", List.of(message("a"), scheduled, message("c")));
+
+        assertEquals(2, result.ackedCount());
+        assertEquals(List.of("b"), result.failedMessages().stream().map(QueueMessage::getId).toList());
+        assertTrue(result.results().get(1).reason().contains("Delayed delivery is not configured"));
+        verify(mockRabbitTemplate, times(2)).convertAndSend(eq("test-exchange"), eq("batch-queue"), any(Object.class), any(CorrelationData.class));
+    }
+
+    @Test
+    void sendBatch_WithSimpleConfirmsAndUnstageableMessage_AcksTheRest() {
+        properties.setConfirmType(CachingConnectionFactory.ConfirmType.SIMPLE);
+        properties.setDelayTiersMs(List.of());
+        stubInvokeOnSameTemplate();
+        when(mockRabbitTemplate.waitForConfirms(5000L)).thenReturn(true);
+        QueueMessage scheduled = message("b");
+        scheduled.setNotBefore(Instant.now().plusSeconds(60));
+
+        BatchSendResult result = rabbitMqClient.sendBatch("batch-queue", List.of(message("a"), scheduled));
+
+        assertEquals(1, result.ackedCount());
+        assertEquals("b", result.failedMessages().get(0).getId());
+        verify(mockRabbitTemplate, times(1)).convertAndSend(eq("test-exchange"), eq("batch-queue"), any(QueueMessage.class));
+    }
+
+    @Test
+    void sendBatch_WhenConfirmNeverArrives_TimesOut() {
+        properties.setConfirmTimeoutMs(50L);
+        stubInvokeOnSameTemplate();
+
+        BatchSendResult result = rabbitMqClient.sendBatch("batch-queue", List.of(message("a")));
+
+        assertFalse(result.allAcked());
+        assertEquals("Publisher confirm timed out", result.results().get(0).reason());
+    }
+
+    @Test
+    void sendBatchAsync_BeforeConfirmsArrive_ReturnsPendingFuture() {
+        List<CorrelationData> correlations = new CopyOnWriteArrayList<>();
+        stubInvokeOnSameTemplate();
+        doAnswer(invocation -> {
+            correlations.add(invocation.getArgument(3));
+            return null;
+        }).when(mockRabbitTemplate).convertAndSend(anyString(), anyString(), any(Object.class), any(CorrelationData.class));
+
+        CompletableFuture<BatchSendResult> future = rabbitMqClient.sendBatchAsync("batch-queue", List.of(message("a"), message("b")));
+
+        verify(mockRabbitTemplate, timeout(1000).times(2)).convertAndSend(anyString(), anyString(), any(Object.class), any(CorrelationData.class));
+        assertFalse(future.isDone());
+        correlations.forEach(cd -> cd.getFuture().complete(new CorrelationData.Confirm(true, null)));
+        assertEquals(2, future.join().ackedCount());
+    }
+
+    @Test
+    void sendBatchAsync_WithSimpleConfirms_PublishesOffTheCallerThread() {
+        properties.setConfirmType(CachingConnectionFactory.ConfirmType.SIMPLE);
+        Thread caller = Thread.currentThread();
+        List<Thread> publishers = new CopyOnWriteArrayList<>();
+        when(mockRabbitTemplate.invoke(any(RabbitOperations.OperationsCallback.class))).thenAnswer(invocation -> {
+            publishers.add(Thread.currentThread());
+            return true;
+        });
+
+        BatchSendResult result = rabbitMqClient.sendBatchAsync("batch-queue", List.of(message("a"))).join();
+
+        assertTrue(result.allAcked());
+        assertEquals(1, publishers.size());
+        assertNotSame(caller, publishers.get(0));
+    }
+
+    @Test
+    void sendBatch_WithEmptyList_ReturnsWithoutPublishing() {
+        BatchSendResult result = rabbitMqClient.sendBatch("batch-queue", List.of());
+
+        assertTrue(result.results().isEmpty());
+        verifyNoInteractions(mockRabbitTemplate);
+    }
+
+    @Test
+    void handleDelivery_WhenConsumerSucceeds_AcksMessage() throws Exception {
+        Channel channel = mock(Channel.class);
+        Message amqpMessage = amqpMessage(null);
+        stubConverter(amqpMessage, message("a"));
+
+        rabbitMqClient.handleDelivery("test-queue", amqpMessage, channel, qm -> { });
+
+        verify(channel).basicAck(7L, false);
+        verify(mockRabbitTemplate, never()).send(anyString(), anyString(), any(Message.class));
+    }
+
+    @Test
+    void handleDelivery_WhenConsumerFails_MovesMessageToRetryTier() throws Exception {
+        properties.setRetryCount(3);
+        Channel channel = mock(Channel.class);
+        Message amqpMessage = amqpMessage(1);
+        stubConverter(amqpMessage, message("a"));
+
+        rabbitMqClient.handleDelivery("test-queue", amqpMessage, channel, qm -> {
+            assertEquals(1, qm.getAttempts());
+            throw new RuntimeException("boom");
+        });
+
+        verify(mockRabbitTemplate).send("", "test-queue.retry.10000", amqpMessage);
+        assertEquals(2, (Integer) amqpMessage.getMessageProperties().getHeader(RabbitMqClient.ATTEMPTS_HEADER));
+        verify(channel).basicAck(7L, false);
+    }
+
+    @Test
+    void handleDelivery_WhenRetriesExhausted_MovesMessageToDeadLetterQueue() throws Exception {
+        properties.setRetryCount(3);
+        Channel channel = mock(Channel.class);
+        Message amqpMessage = amqpMessage(2);
+        stubConverter(amqpMessage, message("a"));
+
+        rabbitMqClient.handleDelivery("test-queue", amqpMessage, channel, qm -> {
+            throw new RuntimeException("boom");
+        });
+
+        verify(mockRabbitTemplate).send("", "test-queue.dlq", amqpMessage);
+        assertEquals("boom", amqpMessage.getMessageProperties().getHeader(RabbitMqClient.FAILURE_REASON_HEADER));
+        verify(channel).basicAck(7L, false);
+    }
+
+    @Test
+    void handleDelivery_WhenMessageInProgress_StagesItWithoutCountingAnAttempt() throws Exception {
+        Channel channel = mock(Channel.class);
+        Message amqpMessage = amqpMessage(1);
+        stubConverter(amqpMessage, message("a"));
+
+        rabbitMqClient.handleDelivery("test-queue", amqpMessage, channel, qm -> {
+            throw new MessageInProgressException(qm.getId());
+        });
+
+        verify(mockRabbitTemplate).send("", "test-queue.delay.1000", amqpMessage);
+        assertEquals(1, (Integer) amqpMessage.getMessageProperties().getHeader(RabbitMqClient.ATTEMPTS_HEADER));
+        verify(channel).basicAck(7L, false);
+    }
+
+    @Test
+    void handleDelivery_WhenMessageInProgressWithoutDelayTiers_RequeuesIt() throws Exception {
+        properties.setDeadLetterEnabled(false);
+        properties.setDelayTiersMs(List.of());
+        Channel channel = mock(Channel.class);
+        Message amqpMessage = amqpMessage(null);
+        stubConverter(amqpMessage, message("a"));
+
+        rabbitMqClient.handleDelivery("test-queue", amqpMessage, channel, qm -> {
+            throw new MessageInProgressException(qm.getId());
+        });
+
+        verify(channel).basicNack(7L, false, true);
+        verify(mockRabbitTemplate, never()).send(anyString(), anyString(), any(Message.class));
+    }
+
+    @Test
+    void handleDelivery_WhenRoutingFails_RequeuesMessage() throws Exception {
+        Channel channel = mock(Channel.class);
+        Message amqpMessage = amqpMessage(null);
+        stubConverter(amqpMessage, message("a"));
+        doThrow(new RuntimeException("Channel closed")).when(mockRabbitTemplate).send(anyString(), anyString(), any(Message.class));
+
+        rabbitMqClient.handleDelivery("test-queue", amqpMessage, channel, qm -> {
+            throw new RuntimeException("boom");
+        });
+
+        verify(channel).basicNack(7L, false, true);
+        verify(channel, never()).basicAck(anyLong(), anyBoolean());
+    }
+
+    @Test
+    void declareOrVerify_WhenDeclarationIsRefused_FallsBackToExistingQueue() {
+        when(mockRabbitTemplate.execute(any()))
+            .thenThrow(new AmqpException("ACCESS_REFUSED - configure access to queue 'test-queue.dlq' refused"))
+            .thenReturn(null);
+
+        assertDoesNotThrow(() -> RabbitMqClient.declareOrVerify(mockRabbitTemplate, "test-queue.dlq", null));
+        verify(mockRabbitTemplate, times(2)).execute(any());
+    }
+
+    @Test
+    void declareOrVerify_WhenQueueIsMissingAndCannotBeDeclared_ThrowsWithPermissionHint() {
+        when(mockRabbitTemplate.execute(any()))
+            .thenThrow(new AmqpException("ACCESS_REFUSED"))
+            .thenThrow(new AmqpException("NOT_FOUND - no queue 'test-queue.dlq'"));
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+            () -> RabbitMqClient.declareOrVerify(mockRabbitTemplate, "test-queue.dlq", null));
+
+        assertTrue(exception.getMessage().contains("configure permission"));
+    }
+
+    @Test
+    void replayDeadLetters_MovesParkedMessagesBack() {
+        Message parked = amqpMessage(3);
+        when(mockRabbitTemplate.receive("test-queue.dlq")).thenReturn(parked).thenReturn(null);
+
+        int replayed = rabbitMqClient.replayDeadLetters(null, 10);
+
+        assertEquals(1, replayed);
+        assertNull(parked.getMessageProperties().getHeader(RabbitMqClient.ATTEMPTS_HEADER));
+        verify(mockRabbitTemplate).send("", "test-queue", parked);
+    }
+
+    @Test
+    void send_WithFutureNotBefore_StagesOnLargestFittingDelayTier() {
+        QueueMessage message = message("a");
+        message.setNotBefore(Instant.now().plusSeconds(90));
+
+        rabbitMqClient.send("test-queue", message);
+
+        verify(mockRabbitTemplate).convertAndSend(eq(""), eq("test-queue.delay.60000"), eq(message));
+    }
+
+    @Test
+    void stagingQueue_WithDelayBelowSmallestTier_UsesSmallestTier() {
+        QueueMessage message = message("a");
+        message.setNotBefore(Instant.now().plusMillis(300));
+
+        assertEquals("test-queue.delay.1000", rabbitMqClient.stagingQueue("test-queue", message));
+        message.setNotBefore(null);
+        assertNull(rabbitMqClient.stagingQueue("test-queue", message));
+    }
+
+    @Test
+    void send_WithFutureNotBeforeAndNoDelayTiers_ThrowsServiceException() {
+        properties.setDelayTiersMs(List.of());
+        QueueMessage message = message("a");
+        message.setNotBefore(Instant.now().plusSeconds(90));
+
+        assertThrows(ServiceException.class, () -> rabbitMqClient.send("test-queue", message));
+    }
+
+    @Test
+    void handleDelivery_WhenNotDue_RestagesWithoutCallingConsumer() throws Exception {
+        Channel channel = mock(Channel.class);
+        Message amqpMessage = amqpMessage(null);
+        QueueMessage early = message("a");
+        early.setNotBefore(Instant.now().plusSeconds(30));
+        stubConverter(amqpMessage, early);
+
+        rabbitMqClient.handleDelivery("test-queue", amqpMessage, channel, qm -> fail("Delivered before due"));
+
+        verify(mockRabbitTemplate).convertAndSend(eq(""), eq("test-queue.delay.10000"), eq(early), any(MessagePostProcessor.class));
+        verify(channel).basicAck(7L, false);
+    }
+
+    private static Message amqpMessage(Integer attempts) {
+        MessageProperties messageProperties = new MessageProperties();
+        messageProperties.setDeliveryTag(7L);
+        if (attempts != null) {
+            messageProperties.setHeader(RabbitMqClient.ATTEMPTS_HEADER, attempts);
+        }
+        return new Message(new byte[0], messageProperties);
+    }
+
+    private void stubConverter(Message amqpMessage, QueueMessage converted) {
+        MessageConverter converter = mock(MessageConverter.class);
+        when(converter.fromMessage(amqpMessage)).thenReturn(converted);
+        when(mockRabbitTemplate.getMessageConverter()).thenReturn(converter);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubInvokeOnSameTemplate() {
+        when(mockRabbitTemplate.invoke(any(RabbitOperations.OperationsCallback.class))).thenAnswer(invocation -> {
+            RabbitOperations.OperationsCallback<Object> callback = invocation.getArgument(0);
+            return callback.doInRabbit(mockRabbitTemplate);
+        });
+    }
+
+    private static QueueMessage message(String id) {
+        QueueMessage message = new QueueMessage();
+        message.setId(id);
+        message.setType("TEST_MESSAGE");
+        return message;
+    }
+
     @Getter
     private static class TestPayload {
         private final String name;
@@ -1,7 +1,9 @@
 package com.corems.common.queue.config;
 
 import com.corems.common.queue.SupportedQueueProvider;
+import com.corems.common.queue.idempotency.IdempotencyStore;
 import org.junit.jupiter.api.Test;
+import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
 
 import java.util.List;
 
@@ -15,8 +17,12 @@ class QueuePropertiesTest {
         
         assertFalse(properties.isEnabled());
         assertEquals(SupportedQueueProvider.RABBIT_MQ, properties.getProvider());
+        assertEquals(WireFormat.JSON, properties.getWireFormat());
         assertNotNull(properties.getProviders());
         assertNotNull(properties.getProviders().getRabbitMq());
+        assertFalse(properties.getIdempotency().isEnabled());
+        assertEquals(IdempotencyStore.MEMORY, properties.getIdempotency().getStore());
+        assertEquals(100_000, properties.getIdempotency().getMaxEntries());
     }
 
     @Test
@@ -53,6 +59,24 @@ class QueuePropertiesTest {
         assertTrue(rabbitProps.getRequiredQueues().isEmpty());
         assertEquals(1000L, rabbitProps.getPollIntervalMs());
         assertEquals(1, rabbitProps.getRetryCount());
+        assertEquals(5000L, rabbitProps.getConfirmTimeoutMs());
+        assertEquals(CachingConnectionFactory.ConfirmType.CORRELATED, rabbitProps.getConfirmType());
+        assertEquals(25, rabbitProps.getChannelCacheSize());
+        assertEquals(0L, rabbitProps.getChannelCheckoutTimeoutMs());
+        assertTrue(rabbitProps.isSeparatePublisherConnection());
+        assertEquals(60, rabbitProps.getHeartbeatSeconds());
+        assertEquals(60000, rabbitProps.getConnectionTimeoutMs());
+        assertFalse(rabbitProps.isAutomaticRecovery());
+        assertEquals(5000L, rabbitProps.getRecoveryIntervalMs());
+        assertEquals(ConsumerMode.POLL, rabbitProps.getConsumerMode());
+        assertEquals(10, rabbitProps.getPrefetchCount());
+        assertEquals(1, rabbitProps.getConcurrency());
+        assertFalse(rabbitProps.isVirtualThreads());
+        assertTrue(rabbitProps.getTypeConcurrency().isEmpty());
+        assertEquals(10000L, rabbitProps.getShutdownTimeoutMs());
+        assertFalse(rabbitProps.isDeadLetterEnabled());
+        assertEquals(List.of(1000L, 10000L, 60000L), rabbitProps.getRetryDelaysMs());
+        assertTrue(rabbitProps.getDelayTiersMs().isEmpty());
     }
 
     @Test
@@ -0,0 +1,109 @@
+package com.corems.common.queue.converter;
+
+import com.corems.common.queue.QueueMessage;
+import com.corems.common.queue.config.WireFormat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class QueueMessageConverterTest {
+
+    private QueuePayloadTypeRegistry registry;
+    private MessageConverter fallback;
+
+    @BeforeEach
+    void setUp() {
+        registry = new QueuePayloadTypeRegistry();
+        registry.register("TEST_MESSAGE", TestPayload.class);
+        fallback = mock(MessageConverter.class);
+    }
+
+    @Test
+    void toMessage_WithCbor_RoundTripsIntoRegisteredPayloadType() {
+        QueueMessageConverter converter = new QueueMessageConverter(WireFormat.CBOR, registry, fallback);
+
+        Message message = converter.toMessage(queueMessage(), new MessageProperties());
+        QueueMessage decoded = (QueueMessage) converter.fromMessage(message);
+
+        assertEquals("application/cbor", message.getMessageProperties().getContentType());
+        assertEquals("msg-1", decoded.getId());
+        assertEquals(2, decoded.getAttempts());
+        assertEquals(new TestPayload("John Doe", 30), decoded.getPayload());
+    }
+
+    @Test
+    void toMessage_WithNotBefore_RoundTripsDeliveryTime() {
+        QueueMessageConverter converter = new QueueMessageConverter(WireFormat.CBOR, registry, fallback);
+        QueueMessage qm = queueMessage();
+        qm.setNotBefore(Instant.parse("2030-01-01T10:00:00Z"));
+
+        QueueMessage decoded = (QueueMessage) converter.fromMessage(converter.toMessage(qm, new MessageProperties()));
+
+        assertEquals(Instant.parse("2030-01-01T10:00:00Z"), decoded.getNotBefore());
+    }
+
+    @Test
+    void toMessage_WithCbor_IsSmallerThanJson() {
+        Message cbor = new QueueMessageConverter(WireFormat.CBOR, registry, fallback).toMessage(queueMessage(), new MessageProperties());
+        Message json = new QueueMessageConverter(WireFormat.JSON, registry, fallback).toMessage(queueMessage(), new MessageProperties());
+
+        assertTrue(cbor.getBody().length < json.getBody().length);
+    }
+
+    @Test
+    void fromMessage_WithJsonFromLegacyProducer_DecodesWhenConfiguredForCbor() {
+        QueueMessageConverter converter = new QueueMessageConverter(WireFormat.CBOR, registry, fallback);
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType("application/json");
+        properties.setHeader("__TypeId__", QueueMessage.class.getName());
+        String json = "{\"id\":\"msg-1\",\"type\":\"TEST_MESSAGE\",\"payload\":{\"name\":\"Jane\",\"age\":41},"
+                + "\"attempts\":0,\"createdAt\":\"2024-01-01T00:00:00Z\"}";
+
+        QueueMessage decoded = (QueueMessage) converter.fromMessage(new Message(json.getBytes(StandardCharsets.UTF_8), properties));
+
+        assertEquals(new TestPayload("Jane", 41), decoded.getPayload());
+    }
+
+    @Test
+    void fromMessage_WithUnregisteredType_KeepsGenericPayload() {
+        QueueMessageConverter converter = new QueueMessageConverter(WireFormat.CBOR, registry, fallback);
+        QueueMessage qm = queueMessage();
+        qm.setType("OTHER");
+
+        QueueMessage decoded = (QueueMessage) converter.fromMessage(converter.toMessage(qm, new MessageProperties()));
+
+        assertEquals(Map.of("name", "John Doe", "age", 30), decoded.getPayload());
+    }
+
+    @Test
+    void fromMessage_WithUnknownContentType_DelegatesToFallback() {
+        QueueMessageConverter converter = new QueueMessageConverter(WireFormat.JSON, registry, fallback);
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType("text/plain");
+        Message message = new Message("hello".getBytes(StandardCharsets.UTF_8), properties);
+        when(fallback.fromMessage(message)).thenReturn("hello");
+
+        assertEquals("hello", converter.fromMessage(message));
+    }
+
+    private static QueueMessage queueMessage() {
+        QueueMessage qm = new QueueMessage();
+        qm.setId("msg-1");
+        qm.setType("TEST_MESSAGE");
+        qm.setAttempts(2);
+        qm.setPayload(new TestPayload("John Doe", 30));
+        return qm;
+    }
+
+    record TestPayload(String name, int age) {
+    }
+}
@@ -0,0 +1,119 @@
+package com.corems.common.queue.idempotency;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class InMemoryIdempotencyGuardTest {
+
+    private Clock clock;
+
+    @BeforeEach
+    void setUp() {
+        clock = mock(Clock.class);
+        when(clock.millis()).thenReturn(1_000L);
+    }
+
+    @Test
+    void tryAcquire_SameIdTwice_SecondIsDuplicate() {
+        InMemoryIdempotencyGuard guard = new InMemoryIdempotencyGuard(10, 60_000, clock);
+
+        assertTrue(guard.tryAcquire("id-1"));
+        assertFalse(guard.tryAcquire("id-1"));
+        assertTrue(guard.tryAcquire("id-2"));
+        assertEquals(2, guard.size());
+    }
+
+    @Test
+    void tryAcquire_NullId_IsNeverDuplicate() {
+        InMemoryIdempotencyGuard guard = new InMemoryIdempotencyGuard(10, 60_000, clock);
+
+        assertTrue(guard.tryAcquire(null));
+        assertTrue(guard.tryAcquire(null));
+        assertEquals(0, guard.size());
+    }
+
+    @Test
+    void release_AllowsIdToBeClaimedAgain() {
+        InMemoryIdempotencyGuard guard = new InMemoryIdempotencyGuard(10, 60_000, clock);
+        guard.tryAcquire("id-1");
+
+        guard.release("id-1");
+
+        assertFalse(guard.contains("id-1"));
+        assertTrue(guard.tryAcquire("id-1"));
+    }
+
+    @Test
+    void tryAcquire_AfterTtl_IdIsEvicted() {
+        InMemoryIdempotencyGuard guard = new InMemoryIdempotencyGuard(10, 60_000, clock);
+        guard.tryAcquire("id-1");
+
+        when(clock.millis()).thenReturn(61_000L);
+
+        assertFalse(guard.contains("id-1"));
+        assertTrue(guard.tryAcquire("id-1"));
+        assertEquals(1, guard.size());
+    }
+
+    @Test
+    void tryAcquire_OverCapacity_EvictsOldestFirst() {
+        InMemoryIdempotencyGuard guard = new InMemoryIdempotencyGuard(2, 60_000, clock);
+        guard.tryAcquire("id-1");
+        guard.tryAcquire("id-2");
+
+        guard.tryAcquire("id-3");
+
+        assertEquals(2, guard.size());
+        assertFalse(guard.contains("id-1"));
+        assertTrue(guard.contains("id-2"));
+        assertTrue(guard.contains("id-3"));
+    }
+
+    @Test
+    void claim_WhileLeaseIsHeld_ReportsInProgressUntilCompleted() {
+        InMemoryIdempotencyGuard guard = new InMemoryIdempotencyGuard(10, 60_000, 5_000, clock);
+
+        assertEquals(IdempotencyGuard.Claim.ACQUIRED, guard.claim("id-1"));
+        assertEquals(IdempotencyGuard.Claim.IN_PROGRESS, guard.claim("id-1"));
+
+        guard.complete("id-1");
+
+        assertEquals(IdempotencyGuard.Claim.COMPLETED, guard.claim("id-1"));
+        assertEquals(1, guard.size());
+    }
+
+    @Test
+    void claim_AfterLeaseExpiredWithoutCompletion_AcquiresAgain() {
+        InMemoryIdempotencyGuard guard = new InMemoryIdempotencyGuard(10, 60_000, 5_000, clock);
+        guard.claim("id-1");
+
+        when(clock.millis()).thenReturn(6_000L);
+
+        assertEquals(IdempotencyGuard.Claim.ACQUIRED, guard.claim("id-1"));
+    }
+
+    @Test
+    void claim_AfterCompletion_IsRememberedForTtlNotLease() {
+        InMemoryIdempotencyGuard guard = new InMemoryIdempotencyGuard(10, 60_000, 5_000, clock);
+        guard.claim("id-1");
+        guard.complete("id-1");
+
+        when(clock.millis()).thenReturn(30_000L);
+        assertEquals(IdempotencyGuard.Claim.COMPLETED, guard.claim("id-1"));
+
+        when(clock.millis()).thenReturn(61_000L);
+        assertEquals(IdempotencyGuard.Claim.ACQUIRED, guard.claim("id-1"));
+    }
+
+    @Test
+    void constructor_WithInvalidLimits_ThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> new InMemoryIdempotencyGuard(0, 60_000));
+        assertThrows(IllegalArgumentException.class, () -> new InMemoryIdempotencyGuard(10, 0));
+        assertThrows(IllegalArgumentException.class, () -> new InMemoryIdempotencyGuard(10, 60_000, 0));
+    }
+}
@@ -0,0 +1,95 @@
+package com.corems.common.queue.metrics;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueueMetricsTest {
+
+    private SimpleMeterRegistry registry;
+    private QueueMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        metrics = new QueueMetrics(registry);
+    }
+
+    @Test
+    void recordPublish_TagsByDestinationTypeAndOutcome() {
+        metrics.recordPublish("orders", "email", metrics.start(), true);
+        metrics.recordPublish("orders", "email", metrics.start(), false);
+
+        assertEquals(1, registry.get("corems.queue.publish")
+                .tags("destination", "orders", "type", "email", "outcome", "success").timer().count());
+        assertEquals(1, registry.get("corems.queue.publish")
+                .tags("destination", "orders", "type", "email", "outcome", "failure").timer().count());
+    }
+
+    @Test
+    void recordHandle_RepeatedCalls_ReuseRegisteredMeter() {
+        metrics.recordHandle("orders", "email", metrics.start(), true);
+        Timer first = registry.get("corems.queue.handler").tags("outcome", "success").timer();
+        int meters = registry.getMeters().size();
+
+        metrics.recordHandle("orders", "email", metrics.start(), true);
+        metrics.recordHandle("orders", "email", metrics.start(), true);
+
+        assertSame(first, registry.get("corems.queue.handler").tags("outcome", "success").timer());
+        assertEquals(meters, registry.getMeters().size());
+        assertEquals(3, first.count());
+    }
+
+    @Test
+    void recordPoll_SeparatesEmptyPolls() {
+        metrics.recordPoll("orders", true);
+        metrics.recordPoll("orders", true);
+        metrics.recordPoll("orders", false);
+
+        assertEquals(2.0, registry.get("corems.queue.poll").tags("result", "empty").counter().count());
+        assertEquals(1.0, registry.get("corems.queue.poll").tags("result", "message").counter().count());
+    }
+
+    @Test
+    void recordBatchPublish_CountsAckedAndFailedMessages() {
+        metrics.recordBatchPublish("orders", metrics.start(), 8, 2);
+
+        assertEquals(1, registry.get("corems.queue.publish.batch").timer().count());
+        assertEquals(8.0, registry.get("corems.queue.published").tags("outcome", "success").counter().count());
+        assertEquals(2.0, registry.get("corems.queue.published").tags("outcome", "failure").counter().count());
+    }
+
+    @Test
+    void counters_WithMissingType_UseUnknownTag() {
+        metrics.retried("orders", null);
+        metrics.deadLettered("orders", "sms");
+        metrics.dropped("orders", "sms");
+
+        assertEquals(1.0, registry.get("corems.queue.retries").tags("type", "unknown").counter().count());
+        assertEquals(1.0, registry.get("corems.queue.dead.lettered").tags("type", "sms").counter().count());
+        assertEquals(1.0, registry.get("corems.queue.dropped").tags("type", "sms").counter().count());
+    }
+
+    @Test
+    void registerChannelPool_ReportsIdleChannelsAndCacheSize() {
+        AtomicInteger idle = new AtomicInteger(4);
+        metrics.registerChannelPool("publisher", 25, idle::get);
+        idle.set(2);
+
+        assertEquals(2.0, registry.get("corems.queue.channels.idle").tags("connection", "publisher").gauge().value());
+        assertEquals(25.0, registry.get("corems.queue.channels.cache.size").tags("connection", "publisher").gauge().value());
+    }
+
+    @Test
+    void registerInFlight_ReportsCurrentValue() {
+        AtomicInteger inFlight = new AtomicInteger(3);
+        metrics.registerInFlight("orders", inFlight::get);
+
+        assertEquals(3.0, registry.get("corems.queue.in.flight").tags("destination", "orders").gauge().value());
+    }
+}
@@ -0,0 +1,81 @@
+package com.corems.common.queue.poller;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+
+    private final AtomicLong now = new AtomicLong(1_000L);
+
+    @Test
+    void onFailure_AtThreshold_OpensBreaker() {
+        CircuitBreaker breaker = new CircuitBreaker(3, 1_000L, 8_000L, now::get);
+
+        breaker.onFailure();
+        breaker.onFailure();
+        assertTrue(breaker.tryAcquire());
+        breaker.onFailure();
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+        assertEquals(1_000L, breaker.remainingOpenMs());
+    }
+
+    @Test
+    void onSuccess_ResetsConsecutiveFailures() {
+        CircuitBreaker breaker = new CircuitBreaker(2, 1_000L, 8_000L, now::get);
+
+        breaker.onFailure();
+        breaker.onSuccess();
+        breaker.onFailure();
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void tryAcquire_AfterOpenPeriod_LetsSingleTrialThrough() {
+        CircuitBreaker breaker = new CircuitBreaker(1, 1_000L, 8_000L, now::get);
+        breaker.onFailure();
+
+        now.addAndGet(1_000L);
+
+        assertTrue(breaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+
+        breaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    void onFailure_InHalfOpen_ReopensWithDoubledPauseUpToMax() {
+        CircuitBreaker breaker = new CircuitBreaker(1, 3_000L, 8_000L, now::get);
+        breaker.onFailure();
+
+        now.addAndGet(3_000L);
+        breaker.tryAcquire();
+        breaker.onFailure();
+        assertEquals(6_000L, breaker.remainingOpenMs());
+
+        now.addAndGet(6_000L);
+        breaker.tryAcquire();
+        breaker.onFailure();
+        assertEquals(8_000L, breaker.remainingOpenMs());
+    }
+
+    @Test
+    void release_ReturnsTrialPermit() {
+        CircuitBreaker breaker = new CircuitBreaker(1, 1_000L, 8_000L, now::get);
+        breaker.onFailure();
+        now.addAndGet(1_000L);
+        assertTrue(breaker.tryAcquire());
+
+        breaker.release();
+
+        assertTrue(breaker.tryAcquire());
+    }
+}
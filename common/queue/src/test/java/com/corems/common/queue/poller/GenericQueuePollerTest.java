@@ -2,17 +2,30 @@ package com.corems.common.queue.poller;
 
 import com.corems.common.queue.QueueClient;
 import com.corems.common.queue.QueueMessage;
+import com.corems.common.queue.QueuePriority;
+import com.corems.common.queue.QueueSubscription;
+import com.corems.common.queue.config.CircuitBreakerProperties;
+import com.corems.common.queue.config.ConsumerMode;
 import com.corems.common.queue.config.QueueClientProperties;
+import com.corems.common.queue.idempotency.IdempotencyGuard;
+import com.corems.common.queue.idempotency.InMemoryIdempotencyGuard;
+import com.corems.common.queue.metrics.QueueMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -130,7 +143,7 @@ class GenericQueuePollerTest {
     }
 
     @Test
-    void pollOnce_WithUnknownMessageType_LogsError() {
+    void pollOnce_WithUnknownMessageType_DeadLettersMessage() {
         QueueMessage message = new QueueMessage();
         message.setId("test-id");
         message.setType("UNKNOWN_MESSAGE");
@@ -141,8 +154,32 @@ class GenericQueuePollerTest {
         GenericQueuePoller poller = new GenericQueuePoller(mockQueueClient, handlers, Map.of(), false);
         poller.pollOnce();
         
-        // Should not call any handler
+        // Should not call any handler, and the already received message is parked rather than lost
         verifyNoInteractions(mockHandler);
+        verify(mockQueueClient).deadLetter(eq("test-queue"), same(message), contains("UNKNOWN_MESSAGE"));
+        verify(mockQueueClient, never()).retry(anyString(), any());
+        poller.close();
+    }
+
+    @Test
+    void processMessage_OverriddenInSubclass_WrapsEveryPolledMessage() throws Exception {
+        QueueMessage message = new QueueMessage();
+        message.setId("test-id");
+        message.setType("TEST_MESSAGE");
+        when(mockQueueClient.poll("test-queue")).thenReturn(Optional.of(message));
+        List<String> seen = new ArrayList<>();
+
+        GenericQueuePoller poller = new GenericQueuePoller(mockQueueClient, handlers, Map.of(), false) {
+            @Override
+            protected void processMessage(String destination, QueueMessage qm) {
+                seen.add(destination + ":" + qm.getId());
+                super.processMessage(destination, qm);
+            }
+        };
+        poller.pollOnce();
+
+        assertEquals(List.of("test-queue:test-id"), seen);
+        verify(mockHandler).handle(message);
         poller.close();
     }
 
@@ -159,9 +196,9 @@ class GenericQueuePollerTest {
         GenericQueuePoller poller = new GenericQueuePoller(mockQueueClient, handlers, Map.of(), false);
         poller.pollOnce();
         
-        // Should increment attempts and re-enqueue
+        // Should increment attempts and schedule a retry
         assertEquals(1, message.getAttempts());
-        verify(mockQueueClient).send("test-queue", message);
+        verify(mockQueueClient).retry("test-queue", message);
         poller.close();
     }
 
@@ -178,8 +215,10 @@ class GenericQueuePollerTest {
         GenericQueuePoller poller = new GenericQueuePoller(mockQueueClient, handlers, Map.of(), false);
         poller.pollOnce();
         
-        // Should not re-enqueue
+        // Should not re-enqueue, message is handed to the dead-letter queue instead
         verify(mockQueueClient, never()).send(anyString(), any(QueueMessage.class));
+        verify(mockQueueClient, never()).retry(anyString(), any(QueueMessage.class));
+        verify(mockQueueClient).deadLetter("test-queue", message, "Handler failed");
         poller.close();
     }
 
@@ -191,7 +230,7 @@ class GenericQueuePollerTest {
         message.setAttempts(0);
         
         doThrow(new RuntimeException("Handler failed")).when(mockHandler).handle(message);
-        doThrow(new RuntimeException("Send failed")).when(mockQueueClient).send(anyString(), any(QueueMessage.class));
+        doThrow(new RuntimeException("Send failed")).when(mockQueueClient).retry(anyString(), any(QueueMessage.class));
         when(mockQueueClient.poll("test-queue")).thenReturn(Optional.of(message));
         
         GenericQueuePoller poller = new GenericQueuePoller(mockQueueClient, handlers, Map.of(), false);
@@ -290,4 +329,454 @@ class GenericQueuePollerTest {
         
         poller.close();
     }
-}
\ No newline at end of file
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void start_InPushMode_SubscribesInsteadOfPolling() {
+        QueueSubscription subscription = mock(QueueSubscription.class);
+        AtomicReference<Consumer<QueueMessage>> consumerRef = new AtomicReference<>();
+        when(mockProperties.getConsumerMode()).thenReturn(ConsumerMode.PUSH);
+        when(mockQueueClient.subscribe(eq("test-queue"), any(Consumer.class))).thenAnswer(invocation -> {
+            consumerRef.set(invocation.getArgument(1));
+            return subscription;
+        });
+
+        GenericQueuePoller poller = new GenericQueuePoller(mockQueueClient, handlers);
+
+        QueueMessage message = new QueueMessage();
+        message.setId("pushed-id");
+        message.setType("TEST_MESSAGE");
+        consumerRef.get().accept(message);
+
+        verify(mockHandler).handle(message);
+        verify(mockQueueClient, never()).poll(anyString());
+
+        poller.close();
+        verify(subscription).close();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void start_InPushMode_WhenUnsupported_FallsBackToPolling() throws InterruptedException {
+        CountDownLatch pollCalled = new CountDownLatch(1);
+        when(mockProperties.getConsumerMode()).thenReturn(ConsumerMode.PUSH);
+        when(mockQueueClient.subscribe(anyString(), any(Consumer.class))).thenThrow(new UnsupportedOperationException("poll only"));
+        when(mockQueueClient.poll("test-queue")).thenAnswer(invocation -> {
+            pollCalled.countDown();
+            return Optional.empty();
+        });
+
+        GenericQueuePoller poller = new GenericQueuePoller(mockQueueClient, handlers);
+
+        assertTrue(pollCalled.await(2, TimeUnit.SECONDS));
+        poller.close();
+    }
+
+    @Test
+    void pollOnce_WithConcurrency_HandlesMessagesInParallel() throws Exception {
+        when(mockProperties.getConcurrency()).thenReturn(2);
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            bothStarted.countDown();
+            release.await(2, TimeUnit.SECONDS);
+            return null;
+        }).when(mockHandler).handle(any(QueueMessage.class));
+
+        QueueMessage message1 = new QueueMessage();
+        message1.setType("TEST_MESSAGE");
+        QueueMessage message2 = new QueueMessage();
+        message2.setType("TEST_MESSAGE");
+        when(mockQueueClient.poll("test-queue"))
+            .thenReturn(Optional.of(message1))
+            .thenReturn(Optional.of(message2));
+
+        GenericQueuePoller poller = new GenericQueuePoller(mockQueueClient, handlers, Map.of(), false);
+        poller.pollOnce();
+        poller.pollOnce();
+
+        assertTrue(bothStarted.await(2, TimeUnit.SECONDS));
+        assertEquals(2, poller.getInFlightCount());
+
+        release.countDown();
+        poller.close();
+        assertEquals(0, poller.getInFlightCount());
+    }
+
+    @Test
+    void pollOnce_WithTypeConcurrency_LimitsMessagesOfSameType() throws Exception {
+        when(mockProperties.getConcurrency()).thenReturn(4);
+        when(mockProperties.getTypeConcurrency()).thenReturn(Map.of("TEST_MESSAGE", 1));
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+        CountDownLatch handled = new CountDownLatch(3);
+        doAnswer(invocation -> {
+            maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+            Thread.sleep(30);
+            active.decrementAndGet();
+            handled.countDown();
+            return null;
+        }).when(mockHandler).handle(any(QueueMessage.class));
+
+        QueueMessage message = new QueueMessage();
+        message.setType("TEST_MESSAGE");
+        when(mockQueueClient.poll("test-queue")).thenReturn(Optional.of(message));
+
+        GenericQueuePoller poller = new GenericQueuePoller(mockQueueClient, handlers, Map.of(), false);
+        poller.pollOnce();
+        poller.pollOnce();
+        poller.pollOnce();
+
+        assertTrue(handled.await(2, TimeUnit.SECONDS));
+        assertEquals(1, maxActive.get());
+        poller.close();
+    }
+
+    @Test
+    void stop_WithVirtualThreads_WaitsForInFlightMessages() throws Exception {
+        when(mockProperties.getConcurrency()).thenReturn(2);
+        when(mockProperties.isVirtualThreads()).thenReturn(true);
+        when(mockProperties.getShutdownTimeoutMs()).thenReturn(2000L);
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicReference<Boolean> completed = new AtomicReference<>(false);
+        doAnswer(invocation -> {
+            started.countDown();
+            Thread.sleep(100);
+            completed.set(true);
+            return null;
+        }).when(mockHandler).handle(any(QueueMessage.class));
+
+        QueueMessage message = new QueueMessage();
+        message.setType("TEST_MESSAGE");
+        when(mockQueueClient.poll("test-queue"))
+            .thenReturn(Optional.of(message))
+            .thenReturn(Optional.empty());
+
+        GenericQueuePoller poller = new GenericQueuePoller(mockQueueClient, handlers, Map.of(), false);
+        poller.pollOnce();
+        assertTrue(started.await(2, TimeUnit.SECONDS));
+
+        poller.start();
+        poller.stop();
+
+        assertTrue(completed.get());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void start_InPushMode_WhenHandlerThrows_PropagatesToSubscription() {
+        AtomicReference<Consumer<QueueMessage>> consumerRef = new AtomicReference<>();
+        when(mockProperties.getConsumerMode()).thenReturn(ConsumerMode.PUSH);
+        when(mockQueueClient.subscribe(eq("test-queue"), any(Consumer.class))).thenAnswer(invocation -> {
+            consumerRef.set(invocation.getArgument(1));
+            return mock(QueueSubscription.class);
+        });
+        QueueMessage message = new QueueMessage();
+        message.setId("pushed-id");
+        message.setType("TEST_MESSAGE");
+        doThrow(new RuntimeException("Handler failed")).when(mockHandler).handle(message);
+
+        GenericQueuePoller poller = new GenericQueuePoller(mockQueueClient, handlers);
+
+        assertThrows(RuntimeException.class, () -> consumerRef.get().accept(message));
+        verify(mockQueueClient, never()).retry(anyString(), any(QueueMessage.class));
+        verify(mockQueueClient, never()).deadLetter(anyString(), any(QueueMessage.class), any());
+        poller.close();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void start_InPushMode_WithUnhandledType_DeadLettersWithoutThrowing() {
+        AtomicReference<Consumer<QueueMessage>> consumerRef = new AtomicReference<>();
+        when(mockProperties.getConsumerMode()).thenReturn(ConsumerMode.PUSH);
+        when(mockQueueClient.subscribe(eq("test-queue"), any(Consumer.class))).thenAnswer(invocation -> {
+            consumerRef.set(invocation.getArgument(1));
+            return mock(QueueSubscription.class);
+        });
+        when(mockQueueClient.deadLetter(anyString(), any(QueueMessage.class), any())).thenReturn(true);
+        QueueMessage message = new QueueMessage();
+        message.setId("pushed-id");
+        message.setType("UNKNOWN_MESSAGE");
+
+        GenericQueuePoller poller = new GenericQueuePoller(mockQueueClient, handlers);
+
+        assertDoesNotThrow(() -> consumerRef.get().accept(message));
+        verify(mockQueueClient).deadLetter(eq("test-queue"), same(message), contains("UNKNOWN_MESSAGE"));
+        verify(mockQueueClient, never()).retry(anyString(), any(QueueMessage.class));
+        poller.close();
+    }
+
+    @Test
+    void processMessage_RecordsHandlerAndRetryMetrics() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        when(mockQueueClient.getMetrics()).thenReturn(new QueueMetrics(registry));
+        QueueMessage ok = new QueueMessage();
+        ok.setType("TEST_MESSAGE");
+        QueueMessage failing = new QueueMessage();
+        failing.setType("TEST_MESSAGE");
+        doThrow(new RuntimeException("Handler failed")).when(mockHandler).handle(failing);
+        when(mockQueueClient.poll("test-queue"))
+            .thenReturn(Optional.of(ok))
+            .thenReturn(Optional.of(failing));
+
+        GenericQueuePoller poller = new GenericQueuePoller(mockQueueClient, handlers, Map.of(), false);
+        poller.pollOnce();
+        poller.pollOnce();
+
+        assertEquals(1, registry.get("corems.queue.handler").tags("outcome", "success").timer().count());
+        assertEquals(1, registry.get("corems.queue.handler").tags("outcome", "failure").timer().count());
+        assertEquals(1.0, registry.get("corems.queue.retries").tags("destination", "test-queue", "type", "TEST_MESSAGE").counter().count());
+        poller.close();
+    }
+
+    @Test
+    void pollOnce_WithPriorityLanes_ConsumesLanesByWeight() {
+        when(mockProperties.getPriorityQueues()).thenReturn(Map.of(
+            QueuePriority.TRANSACTIONAL, "tx-queue",
+            QueuePriority.BULK, "bulk-queue"));
+        when(mockProperties.getPriorityWeights()).thenReturn(Map.of());
+        Map<String, AtomicInteger> consumed = new HashMap<>();
+        for (String lane : List.of("tx-queue", "test-queue", "bulk-queue")) {
+            consumed.put(lane, new AtomicInteger());
+            when(mockQueueClient.poll(lane, 0L)).thenAnswer(invocation -> {
+                consumed.get(lane).incrementAndGet();
+                QueueMessage message = new QueueMessage();
+                message.setType("TEST_MESSAGE");
+                return Optional.of(message);
+            });
+        }
+
+        GenericQueuePoller poller = new GenericQueuePoller(mockQueueClient, handlers, Map.of(), false);
+        for (int i = 0; i < 100; i++) {
+            poller.pollOnce();
+        }
+
+        assertEquals(60, consumed.get("tx-queue").get());
+        assertEquals(30, consumed.get("test-queue").get());
+        assertEquals(10, consumed.get("bulk-queue").get());
+        verify(mockQueueClient, never()).poll(anyString());
+        poller.close();
+    }
+
+    @Test
+    void pollOnce_WithIdleLanes_FallsThroughToBusyLane() {
+        when(mockProperties.getPriorityQueues()).thenReturn(Map.of(
+            QueuePriority.TRANSACTIONAL, "tx-queue",
+            QueuePriority.BULK, "bulk-queue"));
+        when(mockQueueClient.poll(anyString(), eq(0L))).thenReturn(Optional.empty());
+        QueueMessage bulk = new QueueMessage();
+        bulk.setType("TEST_MESSAGE");
+        bulk.setPriority(QueuePriority.BULK);
+        when(mockQueueClient.poll("bulk-queue", 0L)).thenReturn(Optional.of(bulk));
+        doThrow(new RuntimeException("Handler failed")).when(mockHandler).handle(bulk);
+
+        GenericQueuePoller poller = new GenericQueuePoller(mockQueueClient, handlers, Map.of(), false);
+        poller.pollOnce();
+
+        verify(mockHandler).handle(bulk);
+        verify(mockQueueClient).retry("bulk-queue", bulk);
+        poller.close();
+    }
+
+    @Test
+    void pollOnce_WithRedeliveredId_SkipsDuplicateAndRetriesFailures() {
+        QueueMessage first = new QueueMessage();
+        first.setId("same-id");
+        first.setType("TEST_MESSAGE");
+        QueueMessage redelivered = new QueueMessage();
+        redelivered.setId("same-id");
+        redelivered.setType("TEST_MESSAGE");
+        QueueMessage failing = new QueueMessage();
+        failing.setId("failing-id");
+        failing.setType("TEST_MESSAGE");
+        doThrow(new RuntimeException("Handler failed")).doNothing().when(mockHandler).handle(failing);
+        when(mockQueueClient.poll("test-queue"))
+            .thenReturn(Optional.of(first))
+            .thenReturn(Optional.of(redelivered))
+            .thenReturn(Optional.of(failing))
+            .thenReturn(Optional.of(failing));
+
+        GenericQueuePoller poller = new GenericQueuePoller(mockQueueClient, handlers, Map.of(), false,
+            new InMemoryIdempotencyGuard(100, 60_000));
+        for (int i = 0; i < 4; i++) {
+            poller.pollOnce();
+        }
+
+        verify(mockHandler).handle(first);
+        verify(mockHandler, never()).handle(redelivered);
+        verify(mockHandler, times(2)).handle(failing);
+        poller.close();
+    }
+
+    @Test
+    void pollOnce_WithRedeliveryWhileFirstIsInProgress_RequeuesInsteadOfSkipping() {
+        QueueMessage redelivered = new QueueMessage();
+        redelivered.setId("same-id");
+        redelivered.setType("TEST_MESSAGE");
+        when(mockQueueClient.poll("test-queue")).thenReturn(Optional.of(redelivered));
+        InMemoryIdempotencyGuard guard = new InMemoryIdempotencyGuard(100, 60_000);
+        // Another consumer holds the lease and has not completed the message yet
+        guard.claim("same-id");
+
+        GenericQueuePoller poller = new GenericQueuePoller(mockQueueClient, handlers, Map.of(), false, guard);
+        poller.pollOnce();
+
+        verify(mockHandler, never()).handle(any());
+        verify(mockQueueClient).retry("test-queue", redelivered);
+        verify(mockQueueClient, never()).deadLetter(any(), any(), any());
+        assertEquals(0, redelivered.getAttempts());
+        poller.close();
+    }
+
+    @Test
+    void pollOnce_AfterHandlerSucceeds_MarksMessageCompleted() {
+        QueueMessage message = new QueueMessage();
+        message.setId("done-id");
+        message.setType("TEST_MESSAGE");
+        when(mockQueueClient.poll("test-queue")).thenReturn(Optional.of(message));
+        InMemoryIdempotencyGuard guard = new InMemoryIdempotencyGuard(100, 60_000, 1_000);
+
+        GenericQueuePoller poller = new GenericQueuePoller(mockQueueClient, handlers, Map.of(), false, guard);
+        poller.pollOnce();
+
+        assertEquals(IdempotencyGuard.Claim.COMPLETED, guard.claim("done-id"));
+        poller.close();
+    }
+
+    @Test
+    void pollOnce_WithMultipleDestinations_SharesPollsByWeight() {
+        MessageHandler emailHandler = mock(MessageHandler.class);
+        MessageHandler smsHandler = mock(MessageHandler.class);
+        QueueMessage email = new QueueMessage();
+        email.setType("EMAIL");
+        QueueMessage sms = new QueueMessage();
+        sms.setType("SMS");
+        when(mockQueueClient.poll("email-queue", 0L)).thenReturn(Optional.of(email));
+        when(mockQueueClient.poll("sms-queue", 0L)).thenReturn(Optional.of(sms));
+
+        GenericQueuePoller poller = new GenericQueuePoller(mockQueueClient, List.of(
+            QueueDestination.builder().name("email-queue").handlers(Map.of("EMAIL", emailHandler)).weight(2).build(),
+            QueueDestination.builder().name("sms-queue").handlers(Map.of("SMS", smsHandler)).build()
+        ), false, null);
+        for (int i = 0; i < 30; i++) {
+            poller.pollOnce();
+        }
+
+        assertEquals(List.of("email-queue", "sms-queue"), poller.getDestinations());
+        verify(emailHandler, times(20)).handle(email);
+        verify(smsHandler, times(10)).handle(sms);
+        poller.close();
+    }
+
+    @Test
+    void constructor_WithTypeDestinations_ConsumesMappedDestinationWithItsHandlers() {
+        MessageHandler emailHandler = mock(MessageHandler.class);
+        handlers.put("EMAIL", emailHandler);
+        QueueMessage email = new QueueMessage();
+        email.setType("EMAIL");
+        QueueMessage misrouted = new QueueMessage();
+        misrouted.setType("TEST_MESSAGE");
+        when(mockQueueClient.poll("test-queue", 0L)).thenReturn(Optional.empty());
+        when(mockQueueClient.poll("email-queue", 0L))
+            .thenReturn(Optional.of(email))
+            .thenReturn(Optional.of(misrouted));
+
+        GenericQueuePoller poller = new GenericQueuePoller(mockQueueClient, handlers, Map.of("EMAIL", "email-queue"), false);
+        poller.pollOnce();
+        poller.pollOnce();
+
+        assertEquals(List.of("test-queue", "email-queue"), poller.getDestinations());
+        verify(emailHandler).handle(email);
+        verify(mockHandler, never()).handle(any());
+        poller.close();
+    }
+
+    @Test
+    void pollOnce_WithDestinationConcurrency_SkipsSaturatedDestination() throws Exception {
+        when(mockProperties.getConcurrency()).thenReturn(4);
+        CountDownLatch release = new CountDownLatch(1);
+        MessageHandler slowHandler = mock(MessageHandler.class);
+        doAnswer(invocation -> release.await(2, TimeUnit.SECONDS)).when(slowHandler).handle(any());
+        MessageHandler fastHandler = mock(MessageHandler.class);
+        when(mockQueueClient.poll("slow-queue", 0L)).thenAnswer(invocation -> {
+            QueueMessage message = new QueueMessage();
+            message.setType("SLOW");
+            return Optional.of(message);
+        });
+        when(mockQueueClient.poll("fast-queue", 0L)).thenAnswer(invocation -> {
+            QueueMessage message = new QueueMessage();
+            message.setType("FAST");
+            return Optional.of(message);
+        });
+
+        GenericQueuePoller poller = new GenericQueuePoller(mockQueueClient, List.of(
+            QueueDestination.builder().name("slow-queue").handlers(Map.of("SLOW", slowHandler)).concurrency(1).build(),
+            QueueDestination.builder().name("fast-queue").handlers(Map.of("FAST", fastHandler)).build()
+        ), false, null);
+        for (int i = 0; i < 3; i++) {
+            poller.pollOnce();
+        }
+
+        verify(mockQueueClient, times(1)).poll("slow-queue", 0L);
+        verify(mockQueueClient, times(2)).poll("fast-queue", 0L);
+        release.countDown();
+        poller.close();
+    }
+
+    @Test
+    void pollOnce_WithOpenCircuit_DefersMessagesWithoutUsingAttempts() {
+        CircuitBreakerProperties circuitBreaker = new CircuitBreakerProperties();
+        circuitBreaker.setEnabled(true);
+        circuitBreaker.setFailureThreshold(2);
+        circuitBreaker.setOpenMs(60_000L);
+        when(mockProperties.getCircuitBreaker()).thenReturn(circuitBreaker);
+        when(mockProperties.getRetryCount()).thenReturn(5);
+        doThrow(new RuntimeException("SMTP down")).when(mockHandler).handle(any());
+        when(mockQueueClient.poll("test-queue")).thenAnswer(invocation -> {
+            QueueMessage message = new QueueMessage();
+            message.setType("TEST_MESSAGE");
+            return Optional.of(message);
+        });
+
+        GenericQueuePoller poller = new GenericQueuePoller(mockQueueClient, handlers, Map.of(), false);
+        for (int i = 0; i < 3; i++) {
+            poller.pollOnce();
+        }
+
+        verify(mockHandler, times(2)).handle(any());
+        ArgumentCaptor<QueueMessage> retried = ArgumentCaptor.forClass(QueueMessage.class);
+        verify(mockQueueClient, times(3)).retry(eq("test-queue"), retried.capture());
+        assertEquals(List.of(1, 1, 0), retried.getAllValues().stream().map(QueueMessage::getAttempts).toList());
+        poller.close();
+    }
+
+    @Test
+    void pollOnce_WithOpenCircuitAndDelayedDelivery_SchedulesMessageForEndOfOpenPeriod() {
+        CircuitBreakerProperties circuitBreaker = new CircuitBreakerProperties();
+        circuitBreaker.setEnabled(true);
+        circuitBreaker.setFailureThreshold(1);
+        circuitBreaker.setOpenMs(60_000L);
+        when(mockProperties.getCircuitBreaker()).thenReturn(circuitBreaker);
+        when(mockProperties.getRetryCount()).thenReturn(5);
+        when(mockQueueClient.supportsDelayedDelivery()).thenReturn(true);
+        doThrow(new RuntimeException("SMTP down")).when(mockHandler).handle(any());
+        when(mockQueueClient.poll("test-queue")).thenAnswer(invocation -> {
+            QueueMessage message = new QueueMessage();
+            message.setType("TEST_MESSAGE");
+            return Optional.of(message);
+        });
+
+        GenericQueuePoller poller = new GenericQueuePoller(mockQueueClient, handlers, Map.of(), false);
+        poller.pollOnce();
+        Instant beforeDefer = Instant.now();
+        poller.pollOnce();
+
+        verify(mockHandler, times(1)).handle(any());
+        verify(mockQueueClient, times(1)).retry(eq("test-queue"), any());
+        ArgumentCaptor<QueueMessage> staged = ArgumentCaptor.forClass(QueueMessage.class);
+        verify(mockQueueClient).send(eq("test-queue"), staged.capture());
+        assertEquals(0, staged.getValue().getAttempts());
+        assertTrue(staged.getValue().getNotBefore().isAfter(beforeDefer.plusSeconds(50)));
+        poller.close();
+    }
+}
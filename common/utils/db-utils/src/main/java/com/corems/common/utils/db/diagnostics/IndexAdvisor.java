@@ -0,0 +1,207 @@
+package com.corems.common.utils.db.diagnostics;
+
+import com.corems.common.utils.db.repo.SearchableRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.metamodel.mapping.ModelPart;
+import org.hibernate.metamodel.mapping.PluralAttributeMapping;
+import org.hibernate.metamodel.mapping.SelectableMapping;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.core.ResolvableType;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Cross-checks the filter and sort fields a {@link SearchableRepository} declares against the indexes that exist
+ * in the database. Each field is mapped to its column through the Hibernate mapping model and looked up in the
+ * JDBC index metadata of its table: a column that leads no index makes every listing filtered or sorted by it a
+ * table scan. Only single columns are checked; which composite index fits is a question of the query shapes
+ * actually used, see {@link QueryShapeStats}.
+ */
+public final class IndexAdvisor {
+
+    public enum Status {
+        /** The column is the first column of at least one index. */
+        INDEXED,
+        /** The column is only a later column of composite indexes, which do not help a filter on it alone. */
+        NOT_LEADING,
+        /** No index contains the column. */
+        MISSING,
+        /** The field cannot be checked: a collection, a nested path or not a single mapped column. */
+        SKIPPED
+    }
+
+    public record IndexAdvice(String repository, String table, String field, String column, Status status,
+                              String detail) {
+    }
+
+    private final DataSource dataSource;
+    private final EntityManagerFactory entityManagerFactory;
+
+    public IndexAdvisor(DataSource dataSource, EntityManagerFactory entityManagerFactory) {
+        this.dataSource = dataSource;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    /**
+     * Advice for every declared filter and sort field of the repositories, plus the keyset id field; each field
+     * is reported once per repository.
+     */
+    public List<IndexAdvice> check(Collection<? extends SearchableRepository<?, ?>> repositories) {
+        List<IndexAdvice> advice = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection()) {
+            IndexCatalog catalog = new IndexCatalog(connection.getMetaData());
+            for (SearchableRepository<?, ?> repository : repositories) {
+                advice.addAll(check(repository, catalog));
+            }
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Failed to read index metadata", ex);
+        }
+        return advice;
+    }
+
+    private List<IndexAdvice> check(SearchableRepository<?, ?> repository, IndexCatalog catalog) throws SQLException {
+        Class<?> repositoryInterface = repositoryInterface(repository.getClass());
+        String name = repositoryInterface.getName();
+        Class<?> domainType = ResolvableType.forClass(repositoryInterface).as(SearchableRepository.class).resolveGeneric(0);
+        EntityPersister persister = domainType == null ? null : entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getMappingMetamodel().findEntityDescriptor(domainType);
+
+        Set<String> fields = new LinkedHashSet<>(repository.getAllowedFilterFields());
+        fields.addAll(repository.getAllowedSortFields());
+        fields.add(repository.getKeysetIdField());
+        Map<String, String> aliases = repository.getFieldAliases();
+        List<String> collectionFields = repository.getCollectionFields();
+
+        List<IndexAdvice> advice = new ArrayList<>(fields.size());
+        for (String field : fields) {
+            String attribute = aliases.getOrDefault(field, field);
+            if (persister == null) {
+                advice.add(skipped(name, field, "entity type of the repository cannot be resolved"));
+            } else if (attribute.contains(".") || collectionFields.contains(attribute)) {
+                advice.add(skipped(name, field, "nested or collection path"));
+            } else {
+                advice.add(checkField(name, field, persister.findSubPart(attribute, null), catalog));
+            }
+        }
+        return advice;
+    }
+
+    private static IndexAdvice checkField(String repository, String field, ModelPart part, IndexCatalog catalog)
+            throws SQLException {
+        if (part == null || part instanceof PluralAttributeMapping) {
+            return skipped(repository, field, "not a mapped single-valued attribute");
+        }
+        List<SelectableMapping> columns = new ArrayList<>();
+        part.forEachSelectable((index, selectable) -> columns.add(selectable));
+        if (columns.size() != 1) {
+            return skipped(repository, field, "maps to " + columns.size() + " columns");
+        }
+
+        String table = columns.getFirst().getContainingTableExpression();
+        String column = columns.getFirst().getSelectionExpression();
+        Map<String, Integer> positions = catalog.positions(table, column);
+        if (positions.containsValue(1)) {
+            String index = positions.entrySet().stream().filter(e -> e.getValue() == 1).findFirst().orElseThrow().getKey();
+            return new IndexAdvice(repository, table, field, column, Status.INDEXED, index);
+        }
+        if (!positions.isEmpty()) {
+            return new IndexAdvice(repository, table, field, column, Status.NOT_LEADING,
+                    "only a later column of " + String.join(", ", positions.keySet()));
+        }
+        return new IndexAdvice(repository, table, field, column, Status.MISSING, createIndexStatement(table, column));
+    }
+
+    static String createIndexStatement(String table, String column) {
+        String indexName = (table.substring(table.lastIndexOf('.') + 1) + "_" + column + "_idx").toLowerCase(Locale.ROOT);
+        return "CREATE INDEX " + indexName + " ON " + table + " (" + column + ")";
+    }
+
+    private static IndexAdvice skipped(String repository, String field, String reason) {
+        return new IndexAdvice(repository, null, field, null, Status.SKIPPED, reason);
+    }
+
+    private static Class<?> repositoryInterface(Class<?> repoClass) {
+        for (Class<?> iface : repoClass.getInterfaces()) {
+            if (SearchableRepository.class.isAssignableFrom(iface)) {
+                return iface;
+            }
+        }
+        return repoClass;
+    }
+
+    /**
+     * Index columns per table, read from {@link DatabaseMetaData#getIndexInfo} once per table. Identifiers are
+     * compared case-insensitively, since the mapping uses the names as written and the database may fold them.
+     */
+    private static final class IndexCatalog {
+        private final DatabaseMetaData metaData;
+        // table -> index name -> column -> position within the index
+        private final Map<String, Map<String, Map<String, Integer>>> tables = new HashMap<>();
+
+        IndexCatalog(DatabaseMetaData metaData) {
+            this.metaData = metaData;
+        }
+
+        /**
+         * Indexes that contain {@code column}, with the column's 1-based position in each.
+         */
+        Map<String, Integer> positions(String table, String column) throws SQLException {
+            Map<String, Map<String, Integer>> indexes = tables.get(table);
+            if (indexes == null) {
+                indexes = read(table);
+                tables.put(table, indexes);
+            }
+            Map<String, Integer> positions = new HashMap<>();
+            String key = column.toLowerCase(Locale.ROOT);
+            indexes.forEach((index, columns) -> {
+                Integer position = columns.get(key);
+                if (position != null) {
+                    positions.put(index, position);
+                }
+            });
+            return positions;
+        }
+
+        private Map<String, Map<String, Integer>> read(String table) throws SQLException {
+            int dot = table.lastIndexOf('.');
+            String schema = dot < 0 ? null : identifier(table.substring(0, dot));
+            String name = identifier(table.substring(dot + 1));
+            Map<String, Map<String, Integer>> indexes = new HashMap<>();
+            try (ResultSet rs = metaData.getIndexInfo(null, schema, name, false, true)) {
+                while (rs.next()) {
+                    String index = rs.getString("INDEX_NAME");
+                    String column = rs.getString("COLUMN_NAME");
+                    if (rs.getShort("TYPE") == DatabaseMetaData.tableIndexStatistic || index == null || column == null) {
+                        continue;
+                    }
+                    indexes.computeIfAbsent(index, i -> new HashMap<>())
+                            .put(column.toLowerCase(Locale.ROOT), (int) rs.getShort("ORDINAL_POSITION"));
+                }
+            }
+            return indexes;
+        }
+
+        private String identifier(String name) throws SQLException {
+            if (metaData.storesUpperCaseIdentifiers()) {
+                return name.toUpperCase(Locale.ROOT);
+            }
+            if (metaData.storesLowerCaseIdentifiers()) {
+                return name.toLowerCase(Locale.ROOT);
+            }
+            return name;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.corems.common.utils.db.diagnostics;
+
+import com.corems.common.utils.db.repo.SearchableRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Index advice for the application's {@link SearchableRepository} beans and the slowest listing query shapes
+ * recorded by {@link QueryShapeStats#shared()}.
+ */
+public class QueryDiagnostics {
+    private static final Logger log = LoggerFactory.getLogger(QueryDiagnostics.class);
+
+    private final IndexAdvisor indexAdvisor;
+    private final Supplier<List<SearchableRepository<?, ?>>> repositories;
+    private final QueryShapeStats shapeStats;
+
+    public QueryDiagnostics(IndexAdvisor indexAdvisor, Supplier<List<SearchableRepository<?, ?>>> repositories,
+                            QueryShapeStats shapeStats) {
+        this.indexAdvisor = indexAdvisor;
+        this.repositories = repositories;
+        this.shapeStats = shapeStats;
+    }
+
+    public List<IndexAdvisor.IndexAdvice> indexAdvice() {
+        return indexAdvisor.check(repositories.get());
+    }
+
+    public List<QueryShapeStats.ShapeTiming> slowestShapes(int limit) {
+        return shapeStats.slowest(limit);
+    }
+
+    public long droppedExecutions() {
+        return shapeStats.droppedExecutions();
+    }
+
+    /**
+     * Logs a warning per filter or sort field whose column leads no index. Diagnostics must not break startup,
+     * so a failure to read the metadata is logged as well.
+     */
+    public void logIndexAdvice() {
+        try {
+            for (IndexAdvisor.IndexAdvice advice : indexAdvice()) {
+                if (advice.status() == IndexAdvisor.Status.MISSING) {
+                    log.warn("{}: field '{}' ({}.{}) has no index, listings filtered or sorted by it scan the table; consider: {}",
+                            advice.repository(), advice.field(), advice.table(), advice.column(), advice.detail());
+                } else if (advice.status() == IndexAdvisor.Status.NOT_LEADING) {
+                    log.warn("{}: field '{}' ({}.{}) is {}, which does not serve it alone",
+                            advice.repository(), advice.field(), advice.table(), advice.column(), advice.detail());
+                } else if (advice.status() == IndexAdvisor.Status.SKIPPED) {
+                    log.debug("{}: field '{}' not checked: {}", advice.repository(), advice.field(), advice.detail());
+                }
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Index check of searchable repositories failed", ex);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.corems.common.utils.db.diagnostics;
+
+import com.corems.common.utils.db.repo.SearchableRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Auto-configuration for listing query diagnostics: index advice on startup and, when actuator is present,
+ * the {@link QueryDiagnosticsEndpoint}.
+ */
+@AutoConfiguration(afterName = {
+        "org.springframework.boot.hibernate.autoconfigure.HibernateJpaAutoConfiguration",
+        "org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration"
+})
+@EnableConfigurationProperties(QueryDiagnosticsProperties.class)
+@ConditionalOnProperty(prefix = "corems.db.diagnostics", name = "enabled", matchIfMissing = true)
+@ConditionalOnBean({DataSource.class, EntityManagerFactory.class})
+public class QueryDiagnosticsAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public QueryDiagnostics queryDiagnostics(DataSource dataSource, EntityManagerFactory entityManagerFactory,
+                                             ObjectProvider<SearchableRepository<?, ?>> repositories) {
+        // Repositories are looked up on each check, not when this bean is created
+        return new QueryDiagnostics(new IndexAdvisor(dataSource, entityManagerFactory),
+                () -> repositories.orderedStream().toList(), QueryShapeStats.shared());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "corems.db.diagnostics", name = "check-indexes-on-startup", matchIfMissing = true)
+    public ApplicationListener<ApplicationReadyEvent> queryIndexCheck(ObjectProvider<QueryDiagnostics> diagnostics) {
+        return event -> diagnostics.ifAvailable(QueryDiagnostics::logIndexAdvice);
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "org.springframework.boot.actuate.endpoint.annotation.Endpoint")
+    static class EndpointConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public QueryDiagnosticsEndpoint queryDiagnosticsEndpoint(QueryDiagnostics diagnostics,
+                                                                 QueryDiagnosticsProperties properties) {
+            return new QueryDiagnosticsEndpoint(diagnostics, properties);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.corems.common.utils.db.diagnostics;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@code /actuator/querydiagnostics}: index advice per searchable repository field and the slowest listing
+ * query shapes since startup. Exposed like any other endpoint, through {@code management.endpoints.web.exposure}.
+ */
+@Endpoint(id = "querydiagnostics")
+public class QueryDiagnosticsEndpoint {
+
+    private final QueryDiagnostics diagnostics;
+    private final QueryDiagnosticsProperties properties;
+
+    public QueryDiagnosticsEndpoint(QueryDiagnostics diagnostics, QueryDiagnosticsProperties properties) {
+        this.diagnostics = diagnostics;
+        this.properties = properties;
+    }
+
+    @ReadOperation
+    public Map<String, Object> diagnostics() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("indexes", diagnostics.indexAdvice());
+        result.put("slowestShapes", diagnostics.slowestShapes(properties.getSlowShapes()));
+        result.put("untrackedExecutions", diagnostics.droppedExecutions());
+        return result;
+    }
+}
@@ -0,0 +1,49 @@
+package com.corems.common.utils.db.diagnostics;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties of the listing query diagnostics.
+ */
+@ConfigurationProperties(prefix = "corems.db.diagnostics")
+public class QueryDiagnosticsProperties {
+
+    /**
+     * Enable the diagnostics beans and the actuator endpoint.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Log filter and sort fields without a usable index once the application is ready.
+     */
+    private boolean checkIndexesOnStartup = true;
+
+    /**
+     * Number of slowest query shapes reported by the endpoint.
+     */
+    private int slowShapes = 20;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isCheckIndexesOnStartup() {
+        return checkIndexesOnStartup;
+    }
+
+    public void setCheckIndexesOnStartup(boolean checkIndexesOnStartup) {
+        this.checkIndexesOnStartup = checkIndexesOnStartup;
+    }
+
+    public int getSlowShapes() {
+        return slowShapes;
+    }
+
+    public void setSlowShapes(int slowShapes) {
+        this.slowShapes = slowShapes;
+    }
+}
@@ -0,0 +1,97 @@
+package com.corems.common.utils.db.diagnostics;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Execution times of listing queries per repository and query shape (filter structure, sort and kind of page,
+ * without values), so the slowest shapes can be reported and indexed. Recording is a map lookup and two adders.
+ */
+public final class QueryShapeStats {
+    private static final int DEFAULT_MAX_SHAPES = 1_000;
+    private static final QueryShapeStats SHARED = new QueryShapeStats(DEFAULT_MAX_SHAPES);
+
+    private final Map<Key, Timing> timings = new ConcurrentHashMap<>();
+    private final int maxShapes;
+    private final LongAdder dropped = new LongAdder();
+
+    QueryShapeStats(int maxShapes) {
+        this.maxShapes = maxShapes;
+    }
+
+    public static QueryShapeStats shared() {
+        return SHARED;
+    }
+
+    public void record(String repository, String shape, long nanos) {
+        Key key = new Key(repository, shape);
+        Timing timing = timings.get(key);
+        if (timing == null) {
+            // Shapes come from client filters; past the cap new shapes are only counted
+            if (timings.size() >= maxShapes) {
+                dropped.increment();
+                return;
+            }
+            timing = timings.computeIfAbsent(key, k -> new Timing());
+        }
+        timing.add(nanos);
+    }
+
+    /**
+     * Shapes ordered by mean execution time, slowest first.
+     */
+    public List<ShapeTiming> slowest(int limit) {
+        return timings.entrySet().stream()
+                .map(e -> e.getValue().snapshot(e.getKey()))
+                .filter(t -> t.count() > 0)
+                .sorted(Comparator.comparingDouble(ShapeTiming::meanMillis).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * Executions of shapes that were not tracked because the shape limit was reached.
+     */
+    public long droppedExecutions() {
+        return dropped.sum();
+    }
+
+    public void reset() {
+        timings.clear();
+        dropped.reset();
+    }
+
+    public record ShapeTiming(String repository, String shape, long count, double meanMillis, double maxMillis,
+                              double totalMillis) {
+    }
+
+    private record Key(String repository, String shape) {
+    }
+
+    private static final class Timing {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+        void add(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+        }
+
+        ShapeTiming snapshot(Key key) {
+            long n = count.sum();
+            long total = totalNanos.sum();
+            return new ShapeTiming(key.repository(), key.shape(), n, n == 0 ? 0 : millis(total) / n,
+                    millis(maxNanos.get()), millis(total));
+        }
+
+        private static double millis(long nanos) {
+            return nanos / 1_000_000.0;
+        }
+    }
+}
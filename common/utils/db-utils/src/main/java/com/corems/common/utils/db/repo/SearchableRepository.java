@@ -4,11 +4,21 @@ import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.repository.NoRepositoryBean;
 import org.springframework.data.domain.Page;
+import com.corems.common.utils.db.search.SearchStrategies;
+import com.corems.common.utils.db.search.SearchStrategy;
+import com.corems.common.utils.db.utils.CountMode;
+import com.corems.common.utils.db.utils.CountedPage;
+import com.corems.common.utils.db.utils.CursorPage;
 import com.corems.common.utils.db.utils.QueryParams;
 import com.corems.common.utils.db.utils.PaginatedQueryExecutor;
+import com.corems.common.utils.db.utils.ProjectionPath;
+import jakarta.persistence.EntityManager;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Metadata-driven repository for search, filter, and sort operations.
@@ -75,8 +85,68 @@ public interface SearchableRepository<T, ID> extends JpaRepository<T, ID>, JpaSp
         return List.of();
     }
 
+    /**
+     * Sort fields whose column may be NULL. Cursor pagination seeks with {@code >} / {@code <}, which never match
+     * NULL, and databases disagree on where NULLs sort; so a cursor listing sorted by one of these fields is
+     * rejected up front and offset pages sorted by one carry no next cursor.
+     *
+     * @return nullable sort field names as used in the sort parameter
+     */
+    default List<String> getNullableSortFields() {
+        return List.of();
+    }
+
+    /**
+     * How the search parameter matches {@link #getSearchFields()}. Ranked strategies order results by relevance
+     * when no sort is requested.
+     *
+     * @return search strategy, {@link SearchStrategies#contains()} by default
+     */
+    default SearchStrategy getSearchStrategy() {
+        return SearchStrategies.contains();
+    }
+
+    /**
+     * Unique, non-null attribute appended to the sort as tie-breaker in cursor pagination.
+     *
+     * @return id field name
+     */
+    default String getKeysetIdField() {
+        return "id";
+    }
+
+    /**
+     * How long a total computed for {@link CountMode#CACHED} is reused for the same filters and search.
+     *
+     * @return count cache TTL
+     */
+    default Duration getCountCacheTtl() {
+        return Duration.ofSeconds(30);
+    }
+
+    /**
+     * Rows fetched per database round trip by {@link #streamByQueryParams}.
+     *
+     * @return JDBC fetch size
+     */
+    default int getStreamFetchSize() {
+        return 500;
+    }
+
+    /**
+     * Approximate total for {@link CountMode#ESTIMATED}, e.g. {@code reltuples} from {@code pg_class} or the row
+     * estimate of {@code EXPLAIN}. Empty falls back to a cached exact count.
+     *
+     * @param params query parameters of the listing
+     * @return estimated number of matching rows
+     */
+    default Optional<Long> estimateTotalElements(QueryParams params) {
+        return Optional.empty();
+    }
+
     /**
      * Executes metadata-driven query with search, filter, sort, and pagination.
+     * The total is obtained as requested by {@link QueryParams#countMode()}; see {@link CountedPage}.
      *
      * @param params query parameters
      * @return page of matching entities
@@ -84,4 +154,85 @@ public interface SearchableRepository<T, ID> extends JpaRepository<T, ID>, JpaSp
     default Page<T> findAllByQueryParams(QueryParams params) {
         return PaginatedQueryExecutor.execute(this, params);
     }
+
+    /**
+     * Executes the same query as {@link #findAllByQueryParams(QueryParams)} with keyset pagination:
+     * continues after {@link QueryParams#cursor()} (first page when empty) and skips the count query.
+     *
+     * @param params query parameters; {@code page} is ignored
+     * @return matching entities and the cursor of the next page
+     */
+    default CursorPage<T> findAllByCursor(QueryParams params) {
+        return PaginatedQueryExecutor.executeKeyset(this, params);
+    }
+
+    /**
+     * Executes the same query as {@link #findAllByQueryParams(QueryParams)}, selecting only the columns of a
+     * record instead of loading entities. Components map to entity attributes by name or
+     * {@link ProjectionPath}; collection components are loaded with one {@code IN} query per page.
+     *
+     * @param params        query parameters
+     * @param projection    record type of the rows
+     * @param entityManager entity manager to run the projection query with
+     * @return page of projected rows
+     */
+    default <R> Page<R> findAllByQueryParams(QueryParams params, Class<R> projection, EntityManager entityManager) {
+        return PaginatedQueryExecutor.executeProjection(this, params, projection, entityManager);
+    }
+
+    /**
+     * Keyset variant of {@link #findAllByQueryParams(QueryParams, Class, EntityManager)}. The record must include
+     * the sort fields and {@link #getKeysetIdField()} for the next cursor.
+     */
+    default <R> CursorPage<R> findAllByCursor(QueryParams params, Class<R> projection, EntityManager entityManager) {
+        return PaginatedQueryExecutor.executeKeysetProjection(this, params, projection, entityManager);
+    }
+
+    /**
+     * Streams every entity matching the same filters, search and sort as {@link #findAllByQueryParams(QueryParams)},
+     * without paging or counting. Entities are read through one JDBC cursor and detached as they are consumed, so
+     * exports of any size run in constant memory. Must be consumed and closed inside a (read-only) transaction.
+     *
+     * @param params        query parameters; {@code page}, {@code pageSize}, {@code cursor} and {@code countMode} are ignored
+     * @param entityManager entity manager to run the query with
+     * @return stream of detached entities, to be closed by the caller
+     */
+    default Stream<T> streamByQueryParams(QueryParams params, EntityManager entityManager) {
+        return PaginatedQueryExecutor.executeStream(this, params, entityManager);
+    }
+
+    /**
+     * Variant of {@link #streamByQueryParams(QueryParams, EntityManager)} that reads only the columns of the
+     * {@code projection} record, like {@link #findAllByQueryParams(QueryParams, Class, EntityManager)}. Collection
+     * components are loaded once per {@link #getStreamFetchSize()} rows. Must be consumed and closed inside a
+     * (read-only) transaction.
+     *
+     * @param params        query parameters; {@code page}, {@code pageSize}, {@code cursor} and {@code countMode} are ignored
+     * @param projection    record type to select
+     * @param entityManager entity manager to run the query with
+     * @return stream of records, to be closed by the caller
+     */
+    default <R> Stream<R> streamByQueryParams(QueryParams params, Class<R> projection, EntityManager entityManager) {
+        return PaginatedQueryExecutor.executeStreamProjection(this, params, projection, entityManager);
+    }
+
+    /**
+     * Cursor continuing after the last row of an offset page from this repository; null on the last page, for
+     * relevance-ordered pages and for pages sorted by a {@link #getNullableSortFields() nullable field}.
+     *
+     * @param page offset page returned by {@link #findAllByQueryParams}
+     * @return next cursor, or null
+     */
+    default String nextCursor(Page<?> page) {
+        return PaginatedQueryExecutor.nextCursor(this, page);
+    }
+
+    /**
+     * Validates filters and sort of {@code params} without running a query.
+     *
+     * @param params query parameters
+     */
+    default void validateQueryParams(QueryParams params) {
+        PaginatedQueryExecutor.validate(this, params);
+    }
 }
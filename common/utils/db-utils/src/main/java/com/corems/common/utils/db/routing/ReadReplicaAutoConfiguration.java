@@ -0,0 +1,55 @@
+package com.corems.common.utils.db.routing;
+
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+/**
+ * Auto-configuration for read replica routing: when {@code corems.db.read-replicas.replicas} lists at least one
+ * replica, the application's {@code dataSource} bean is wrapped in a {@link ReadWriteRoutingDataSource}. Services
+ * keep their {@code spring.datasource} as the primary and need no code changes; without replicas nothing is
+ * wrapped.
+ */
+@AutoConfiguration
+@ConditionalOnProperty(prefix = ReadReplicaProperties.PREFIX, name = "enabled", matchIfMissing = true)
+public class ReadReplicaAutoConfiguration {
+
+    @Bean
+    public static BeanPostProcessor readReplicaDataSourcePostProcessor(Environment environment) {
+        // Bound here rather than injected: post-processors are created before configuration properties beans
+        ReadReplicaProperties properties = Binder.get(environment)
+                .bind(ReadReplicaProperties.PREFIX, ReadReplicaProperties.class)
+                .orElseGet(ReadReplicaProperties::new);
+        return new ReadReplicaDataSourcePostProcessor(properties);
+    }
+
+    static final class ReadReplicaDataSourcePostProcessor implements BeanPostProcessor {
+        private static final String DATA_SOURCE_BEAN = "dataSource";
+
+        private final ReadReplicaProperties properties;
+
+        ReadReplicaDataSourcePostProcessor(ReadReplicaProperties properties) {
+            this.properties = properties;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+            if (!DATA_SOURCE_BEAN.equals(beanName) || !(bean instanceof DataSource primary)
+                    || bean instanceof ReadWriteRoutingDataSource || properties.getReplicas().isEmpty()) {
+                return bean;
+            }
+            // The global registry, which Spring Boot links to its own: resolving the MeterRegistry bean here would
+            // cycle back through the DataSource pool metrics binder
+            ReplicaRoutingDataSource replicas = new ReplicaRoutingDataSource(primary, properties, Metrics.globalRegistry);
+            replicas.start();
+            return new ReadWriteRoutingDataSource(primary, replicas);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.corems.common.utils.db.routing;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuration properties of read replica routing ({@code corems.db.read-replicas}). Routing is active only
+ * when at least one replica is configured.
+ */
+public class ReadReplicaProperties {
+
+    static final String PREFIX = "corems.db.read-replicas";
+
+    /**
+     * PostgreSQL replay lag in seconds; 0 on a primary and on a streaming replica that has replayed everything it
+     * received, so an idle primary does not make its replicas look stale. NULL while the replica has no WAL
+     * receiver or it is not streaming: having replayed everything received says nothing about a replica that no
+     * longer receives. The status is only visible with {@code pg_read_all_stats}; without it a running receiver
+     * counts as streaming.
+     */
+    static final String POSTGRES_LAG_QUERY = "SELECT CASE WHEN NOT pg_is_in_recovery() THEN 0"
+            + " WHEN NOT EXISTS (SELECT 1 FROM pg_stat_wal_receiver WHERE coalesce(status, 'streaming') = 'streaming')"
+            + " THEN NULL"
+            + " WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0"
+            + " ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) END";
+
+    /**
+     * Route read-only transactions to the replicas.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Replicas lagging further behind the primary are skipped until they catch up.
+     */
+    private Duration maxLag = Duration.ofSeconds(10);
+
+    /**
+     * How often the lag of every replica is measured.
+     */
+    private Duration lagCheckInterval = Duration.ofSeconds(5);
+
+    /**
+     * Query returning the replica lag in seconds; a failure or NULL marks the replica unavailable.
+     */
+    private String lagQuery = POSTGRES_LAG_QUERY;
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getMaxLag() {
+        return maxLag;
+    }
+
+    public void setMaxLag(Duration maxLag) {
+        this.maxLag = maxLag;
+    }
+
+    public Duration getLagCheckInterval() {
+        return lagCheckInterval;
+    }
+
+    public void setLagCheckInterval(Duration lagCheckInterval) {
+        this.lagCheckInterval = lagCheckInterval;
+    }
+
+    public String getLagQuery() {
+        return lagQuery;
+    }
+
+    public void setLagQuery(String lagQuery) {
+        this.lagQuery = lagQuery;
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    public void setReplicas(List<Replica> replicas) {
+        this.replicas = replicas;
+    }
+
+    /**
+     * One replica. Credentials and the driver default to those of the primary {@code spring.datasource}.
+     */
+    public static class Replica {
+
+        /**
+         * Name used in the pool name and metric tags; defaults to {@code replica-<n>}.
+         */
+        private String name;
+
+        private String url;
+
+        private String username;
+
+        private String password;
+
+        private int maximumPoolSize = 10;
+
+        /**
+         * Wait for a pooled connection; past it the read falls back to the primary instead of queuing.
+         */
+        private Duration connectionTimeout = Duration.ofSeconds(2);
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public void setUsername(String username) {
+            this.username = username;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public void setPassword(String password) {
+            this.password = password;
+        }
+
+        public int getMaximumPoolSize() {
+            return maximumPoolSize;
+        }
+
+        public void setMaximumPoolSize(int maximumPoolSize) {
+            this.maximumPoolSize = maximumPoolSize;
+        }
+
+        public Duration getConnectionTimeout() {
+            return connectionTimeout;
+        }
+
+        public void setConnectionTimeout(Duration connectionTimeout) {
+            this.connectionTimeout = connectionTimeout;
+        }
+    }
+}
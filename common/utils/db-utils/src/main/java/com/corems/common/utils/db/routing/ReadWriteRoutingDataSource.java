@@ -0,0 +1,44 @@
+package com.corems.common.utils.db.routing;
+
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Application {@link DataSource} that sends read-only transactions to the replicas and everything else to the
+ * primary. The physical connection is fetched lazily, on the first statement: by then the transaction manager
+ * has marked the connection read-only for {@code @Transactional(readOnly = true)}, which selects the
+ * {@link ReplicaRoutingDataSource}. A connection keeps its target for the whole transaction, so a read-only
+ * method called inside a read-write transaction still reads from the primary.
+ */
+public class ReadWriteRoutingDataSource extends LazyConnectionDataSourceProxy implements AutoCloseable {
+
+    private final DataSource primary;
+    private final ReplicaRoutingDataSource replicas;
+
+    public ReadWriteRoutingDataSource(DataSource primary, ReplicaRoutingDataSource replicas) {
+        super(primary);
+        this.primary = primary;
+        this.replicas = replicas;
+        setReadOnlyDataSource(replicas);
+    }
+
+    public DataSource getPrimary() {
+        return primary;
+    }
+
+    public ReplicaRoutingDataSource getReplicas() {
+        return replicas;
+    }
+
+    /**
+     * Closes the replica pools and the primary pool; this bean replaces the primary, so its shutdown is ours.
+     */
+    @Override
+    public void close() throws Exception {
+        replicas.close();
+        if (primary instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.corems.common.utils.db.routing;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Read-only side of {@link ReadWriteRoutingDataSource}: hands out connections of the replica pools round-robin,
+ * skipping replicas that are unreachable or lag more than {@code maxLag} behind the primary, and falls back to
+ * the primary when none is usable. Lag is measured in the background every {@code lagCheckInterval}; a replica
+ * counts as unavailable until its first successful check.
+ * <p>
+ * Each replica gets its own Hikari pool reporting {@code hikaricp.*} meters tagged {@code pool=corems-<name>};
+ * routing decisions are counted in {@code corems.db.read.route} (tags {@code route} and {@code reason}) and every
+ * replica reports the {@code corems.db.replica.lag} and {@code corems.db.replica.available} gauges.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+    private static final String PRIMARY = "primary";
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final long maxLagMillis;
+    private final long checkIntervalMillis;
+    private final String lagQuery;
+    private final MeterRegistry registry;
+    private final AtomicInteger next = new AtomicInteger();
+    private ScheduledExecutorService lagChecker;
+
+    public ReplicaRoutingDataSource(DataSource primary, ReadReplicaProperties properties, MeterRegistry registry) {
+        this.primary = primary;
+        this.maxLagMillis = properties.getMaxLag().toMillis();
+        this.checkIntervalMillis = properties.getLagCheckInterval().toMillis();
+        this.lagQuery = properties.getLagQuery();
+        this.registry = registry;
+        this.replicas = new ArrayList<>(properties.getReplicas().size());
+        for (int i = 0; i < properties.getReplicas().size(); i++) {
+            ReadReplicaProperties.Replica config = properties.getReplicas().get(i);
+            String name = config.getName() == null || config.getName().isBlank() ? "replica-" + (i + 1) : config.getName();
+            Replica replica = new Replica(name, pool(name, config, primary, registry));
+            Gauge.builder("corems.db.replica.lag", replica, r -> r.lagMillis < 0 ? Double.NaN : r.lagMillis / 1000.0)
+                    .description("Replication lag of the replica in seconds, NaN until measured")
+                    .tags("replica", name)
+                    .register(registry);
+            Gauge.builder("corems.db.replica.available", replica, r -> r.usable(maxLagMillis) ? 1 : 0)
+                    .description("1 while read-only transactions may use the replica")
+                    .tags("replica", name)
+                    .register(registry);
+            replicas.add(replica);
+        }
+    }
+
+    /**
+     * Starts the background lag checks, the first one immediately.
+     */
+    public synchronized void start() {
+        if (lagChecker != null || replicas.isEmpty()) {
+            return;
+        }
+        lagChecker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "corems-replica-lag");
+            thread.setDaemon(true);
+            return thread;
+        });
+        lagChecker.scheduleWithFixedDelay(this::checkLag, 0, checkIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        boolean lagging = false;
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (!replica.available) {
+                continue;
+            }
+            if (!replica.usable(maxLagMillis)) {
+                lagging = true;
+                continue;
+            }
+            try {
+                Connection connection = replica.pool.getConnection();
+                countRoute(replica.name, "replica");
+                return connection;
+            } catch (SQLException ex) {
+                // Taken out of rotation until the next lag check reaches it again
+                log.warn("Read replica {} is unreachable, routing reads elsewhere: {}", replica.name, ex.getMessage());
+                replica.available = false;
+            }
+        }
+        countRoute(PRIMARY, lagging ? "lagging" : "unavailable");
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        // Pools are created with fixed credentials
+        throw new SQLFeatureNotSupportedException("Read replica pools use the configured credentials");
+    }
+
+    /**
+     * Measures the lag of every replica once.
+     */
+    void checkLag() {
+        for (Replica replica : replicas) {
+            long lag = measureLag(replica);
+            boolean wasUsable = replica.usable(maxLagMillis);
+            replica.lagMillis = lag;
+            replica.available = lag >= 0;
+            boolean usable = replica.usable(maxLagMillis);
+            if (wasUsable != usable) {
+                if (usable) {
+                    log.info("Read replica {} is back in rotation, lag {} ms", replica.name, lag);
+                } else {
+                    log.warn("Read replica {} is out of rotation, lag {} ms (max {} ms)", replica.name,
+                            lag < 0 ? "unknown" : lag, maxLagMillis);
+                }
+            }
+        }
+    }
+
+    private long measureLag(Replica replica) {
+        try (Connection connection = replica.pool.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(checkIntervalMillis)));
+            try (ResultSet rs = statement.executeQuery(lagQuery)) {
+                if (!rs.next()) {
+                    return -1;
+                }
+                double seconds = rs.getDouble(1);
+                return rs.wasNull() ? -1 : Math.max(0, Math.round(seconds * 1000));
+            }
+        } catch (SQLException | RuntimeException ex) {
+            log.debug("Lag check of read replica {} failed", replica.name, ex);
+            return -1;
+        }
+    }
+
+    private void countRoute(String route, String reason) {
+        Counter.builder("corems.db.read.route")
+                .description("Connections handed to read-only transactions, by target and routing reason")
+                .tags("route", route, "reason", reason)
+                .register(registry)
+                .increment();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (lagChecker != null) {
+            lagChecker.shutdownNow();
+            lagChecker = null;
+        }
+        replicas.forEach(replica -> replica.pool.close());
+    }
+
+    private static HikariDataSource pool(String name, ReadReplicaProperties.Replica config, DataSource primary,
+                                         MeterRegistry registry) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setPoolName("corems-" + name);
+        pool.setJdbcUrl(config.getUrl());
+        pool.setMaximumPoolSize(config.getMaximumPoolSize());
+        pool.setConnectionTimeout(config.getConnectionTimeout().toMillis());
+        pool.setReadOnly(true);
+        // A replica that is down at startup must not fail the application; reads use the primary meanwhile
+        pool.setInitializationFailTimeout(-1);
+        pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+        HikariDataSource primaryPool = primary instanceof HikariDataSource hikari ? hikari : null;
+        pool.setUsername(config.getUsername() != null || primaryPool == null ? config.getUsername() : primaryPool.getUsername());
+        pool.setPassword(config.getPassword() != null || primaryPool == null ? config.getPassword() : primaryPool.getPassword());
+        if (primaryPool != null && primaryPool.getDriverClassName() != null) {
+            pool.setDriverClassName(primaryPool.getDriverClassName());
+        }
+        return pool;
+    }
+
+    private static final class Replica {
+        private final String name;
+        private final HikariDataSource pool;
+        // Written by the lag checker, read by every routed connection
+        private volatile long lagMillis = -1;
+        private volatile boolean available;
+
+        Replica(String name, HikariDataSource pool) {
+            this.name = name;
+            this.pool = pool;
+        }
+
+        boolean usable(long maxLagMillis) {
+            return available && lagMillis >= 0 && lagMillis <= maxLagMillis;
+        }
+    }
+}
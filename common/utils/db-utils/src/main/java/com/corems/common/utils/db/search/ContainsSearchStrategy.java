@@ -0,0 +1,73 @@
+package com.corems.common.utils.db.search;
+
+import com.corems.common.exception.ServiceException;
+import com.corems.common.utils.db.spec.ValueCaster;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * One {@code lower(field) LIKE '%term%'} per text field; the prefix and suffix variants are covered by it.
+ * Non-text fields match only when the term is a value of their type, so they compare with {@code =} instead
+ * of casting the column to text.
+ */
+public class ContainsSearchStrategy implements SearchStrategy {
+
+    @Override
+    public Predicate toPredicate(CriteriaBuilder cb, Root<?> root, List<Path<?>> fields, String term) {
+        List<Predicate> predicates = new ArrayList<>(fields.size());
+        for (Path<?> path : fields) {
+            Predicate match = fieldPredicate(cb, path, term);
+            if (match != null) {
+                predicates.add(match);
+            }
+        }
+        return predicates.isEmpty() ? cb.disjunction() : cb.or(predicates.toArray(Predicate[]::new));
+    }
+
+    @Override
+    public Predicate toElementPredicate(CriteriaBuilder cb, Path<?> element, String term) {
+        Predicate match = fieldPredicate(cb, element, term);
+        return match == null ? cb.disjunction() : match;
+    }
+
+    private static Predicate fieldPredicate(CriteriaBuilder cb, Path<?> path, String term) {
+        if (isText(path)) {
+            return cb.like(lower(cb, path), "%" + term.toLowerCase(Locale.ROOT) + "%");
+        }
+        return typedEqual(cb, path, term);
+    }
+
+    protected static boolean isText(Path<?> path) {
+        return String.class.equals(path.getJavaType());
+    }
+
+    /**
+     * {@code lower(column)} without a cast, so the expression matches a {@code lower(column)} index.
+     */
+    @SuppressWarnings("unchecked")
+    protected static Expression<String> lower(CriteriaBuilder cb, Path<?> path) {
+        return cb.lower((Expression<String>) path);
+    }
+
+    protected static Predicate typedEqual(CriteriaBuilder cb, Path<?> path, String term) {
+        Object value;
+        try {
+            value = ValueCaster.cast(path.getJavaType(), "search", term);
+        } catch (ServiceException ex) {
+            return null;
+        }
+        // Lenient parsers (Boolean.valueOf) accept anything; only a value that reads back as the term counts
+        if (value == null || !String.valueOf(value).equalsIgnoreCase(term)) {
+            return null;
+        }
+        return cb.equal(path, value);
+    }
+}
@@ -0,0 +1,59 @@
+package com.corems.common.utils.db.search;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * PostgreSQL full-text search on a {@code tsvector} generated column, ranked with {@code ts_rank}. The entity maps
+ * the column read-only, e.g.
+ * <pre>
+ * &#64;Column(name = "search_vector", insertable = false, updatable = false,
+ *         columnDefinition = "tsvector GENERATED ALWAYS AS (to_tsvector('simple', coalesce(name, ''))) STORED")
+ * private String searchVector;
+ * </pre>
+ * with a GIN index on it. The term is parsed with {@code websearch_to_tsquery}, so quotes, {@code or} and
+ * {@code -} work as in web search. Non-text search fields still match by exact value.
+ */
+public class FullTextSearchStrategy extends ContainsSearchStrategy {
+    private final String vectorField;
+    private final String config;
+
+    public FullTextSearchStrategy(String vectorField, String config) {
+        this.vectorField = vectorField;
+        this.config = config;
+    }
+
+    @Override
+    public Predicate toPredicate(CriteriaBuilder cb, Root<?> root, List<Path<?>> fields, String term) {
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.isTrue(cb.function(SearchFunctionContributor.FTS_MATCH, Boolean.class,
+                root.get(vectorField), cb.literal(config), cb.literal(term))));
+        for (Path<?> path : fields) {
+            if (!isText(path)) {
+                Predicate equal = typedEqual(cb, path, term);
+                if (equal != null) {
+                    predicates.add(equal);
+                }
+            }
+        }
+        return predicates.size() == 1 ? predicates.getFirst() : cb.or(predicates.toArray(Predicate[]::new));
+    }
+
+    @Override
+    public Optional<Expression<? extends Number>> rank(CriteriaBuilder cb, Root<?> root, List<Path<?>> fields, String term) {
+        return Optional.of(cb.function(SearchFunctionContributor.FTS_RANK, Double.class,
+                root.get(vectorField), cb.literal(config), cb.literal(term)));
+    }
+
+    @Override
+    public boolean isRanked() {
+        return true;
+    }
+}
@@ -0,0 +1,27 @@
+package com.corems.common.utils.db.search;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.BasicType;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Registers the functions used by {@link FullTextSearchStrategy}. Criteria has no way to spell the {@code @@}
+ * operator, and {@code ts_match_vq(...)} would not use the GIN index, so the operator is rendered from a pattern.
+ */
+public class SearchFunctionContributor implements FunctionContributor {
+    static final String FTS_MATCH = "corems_fts_match";
+    static final String FTS_RANK = "corems_fts_rank";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        var basicTypes = functionContributions.getTypeConfiguration().getBasicTypeRegistry();
+        BasicType<Boolean> booleanType = basicTypes.resolve(StandardBasicTypes.BOOLEAN);
+        BasicType<Double> doubleType = basicTypes.resolve(StandardBasicTypes.DOUBLE);
+
+        functionContributions.getFunctionRegistry().registerPattern(FTS_MATCH,
+                "(?1 @@ websearch_to_tsquery(cast(?2 as regconfig), ?3))", booleanType);
+        functionContributions.getFunctionRegistry().registerPattern(FTS_RANK,
+                "ts_rank(?1, websearch_to_tsquery(cast(?2 as regconfig), ?3))", doubleType);
+    }
+}
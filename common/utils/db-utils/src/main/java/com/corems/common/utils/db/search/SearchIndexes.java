@@ -0,0 +1,98 @@
+package com.corems.common.utils.db.search;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Creates the PostgreSQL indexes behind {@link SearchStrategies#contains()} and {@link SearchStrategies#trigram()}:
+ * a {@code pg_trgm} GIN index on {@code lower(column)} lets {@code lower(column) LIKE '%term%'} use an index
+ * instead of scanning the table. On other databases this does nothing.
+ * <p>
+ * Indexes are built with {@code CREATE INDEX CONCURRENTLY}, so writes to the table continue while they build; an
+ * index left invalid by an interrupted build is dropped and built again. The database role needs permission to
+ * create the {@code pg_trgm} extension (or it must already exist) and to create indexes on the table. Failures are
+ * logged and do not stop the application: search keeps working, only without the index.
+ */
+public final class SearchIndexes {
+    private static final Logger log = LoggerFactory.getLogger(SearchIndexes.class);
+    private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+    private static final String INDEX_VALID_QUERY = "SELECT i.indisvalid FROM pg_index i"
+            + " JOIN pg_class c ON c.oid = i.indexrelid"
+            + " JOIN pg_namespace n ON n.oid = c.relnamespace"
+            + " WHERE n.nspname = ? AND c.relname = ?";
+
+    private SearchIndexes() {}
+
+    public static void ensureTrigramIndexes(DataSource dataSource, String schema, String table, List<String> columns) {
+        requireIdentifier(schema);
+        requireIdentifier(table);
+        columns.forEach(SearchIndexes::requireIdentifier);
+
+        try (Connection connection = dataSource.getConnection()) {
+            if (!"PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())) {
+                return;
+            }
+            // CREATE INDEX CONCURRENTLY cannot run inside a transaction block
+            connection.setAutoCommit(true);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+            }
+            for (String column : columns) {
+                ensureTrigramIndex(connection, schema, table, column);
+            }
+        } catch (SQLException ex) {
+            log.warn("Search indexes on {}.{} were not created, search will scan the table: {}",
+                    schema, table, ex.getMessage());
+        }
+    }
+
+    static String trigramIndexStatement(String schema, String table, String column) {
+        return "CREATE INDEX CONCURRENTLY IF NOT EXISTS " + indexName(table, column) + " ON " + schema + "." + table
+                + " USING gin (lower(" + column + ") gin_trgm_ops)";
+    }
+
+    private static void ensureTrigramIndex(Connection connection, String schema, String table, String column) {
+        String index = indexName(table, column);
+        try (Statement statement = connection.createStatement()) {
+            if (Boolean.FALSE.equals(isValid(connection, schema, index))) {
+                // IF NOT EXISTS would keep the broken index forever
+                statement.execute("DROP INDEX CONCURRENTLY IF EXISTS " + schema + "." + index);
+            }
+            statement.execute(trigramIndexStatement(schema, table, column));
+        } catch (SQLException ex) {
+            log.warn("Search index {}.{} was not created: {}", schema, index, ex.getMessage());
+        }
+    }
+
+    /**
+     * Whether the index is valid, or null when it does not exist.
+     */
+    private static Boolean isValid(Connection connection, String schema, String index) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(INDEX_VALID_QUERY)) {
+            statement.setString(1, schema);
+            statement.setString(2, index);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() ? rs.getBoolean(1) : null;
+            }
+        }
+    }
+
+    private static String indexName(String table, String column) {
+        return table + "_" + column + "_trgm_idx";
+    }
+
+    private static void requireIdentifier(String name) {
+        if (name == null || !IDENTIFIER.matcher(name).matches()) {
+            throw new IllegalArgumentException("Invalid SQL identifier: " + name);
+        }
+    }
+}
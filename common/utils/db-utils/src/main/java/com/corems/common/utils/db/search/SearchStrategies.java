@@ -0,0 +1,39 @@
+package com.corems.common.utils.db.search;
+
+/**
+ * Built-in {@link SearchStrategy} implementations.
+ */
+public final class SearchStrategies {
+    private static final SearchStrategy CONTAINS = new ContainsSearchStrategy();
+    private static final SearchStrategy TRIGRAM = new TrigramSearchStrategy();
+
+    private SearchStrategies() {}
+
+    /**
+     * Case-insensitive substring match on text fields, exact match on typed fields (UUID, numbers, enums).
+     * Works on every database; on PostgreSQL a {@code pg_trgm} index on {@code lower(column)} serves it.
+     */
+    public static SearchStrategy contains() {
+        return CONTAINS;
+    }
+
+    /**
+     * Same matching as {@link #contains()}, ranked by {@code pg_trgm} similarity. PostgreSQL with {@code pg_trgm}.
+     */
+    public static SearchStrategy trigram() {
+        return TRIGRAM;
+    }
+
+    /**
+     * Full-text match on a {@code tsvector} attribute using the {@code simple} configuration.
+     *
+     * @see FullTextSearchStrategy
+     */
+    public static SearchStrategy fullText(String vectorField) {
+        return new FullTextSearchStrategy(vectorField, "simple");
+    }
+
+    public static SearchStrategy fullText(String vectorField, String config) {
+        return new FullTextSearchStrategy(vectorField, config);
+    }
+}
@@ -0,0 +1,44 @@
+package com.corems.common.utils.db.search;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * How the free-text {@code search} parameter is matched against a repository's search fields.
+ * <p>
+ * Implementations: {@link SearchStrategies#contains()} (default, any database),
+ * {@link SearchStrategies#trigram()} and {@link SearchStrategies#fullText(String)} (PostgreSQL).
+ */
+public interface SearchStrategy {
+
+    /**
+     * Predicate matching a row for the term.
+     *
+     * @param fields non-collection search fields, already resolved against {@code root}
+     * @param term   trimmed, non-empty search term
+     */
+    Predicate toPredicate(CriteriaBuilder cb, Root<?> root, List<Path<?>> fields, String term);
+
+    /**
+     * Predicate for an element of a collection search field; it is evaluated inside an {@code EXISTS} subquery.
+     */
+    Predicate toElementPredicate(CriteriaBuilder cb, Path<?> element, String term);
+
+    /**
+     * Relevance of a row for the term, higher is better, computed from the non-collection fields. Listings
+     * without an explicit sort are ordered by it.
+     */
+    default Optional<Expression<? extends Number>> rank(CriteriaBuilder cb, Root<?> root, List<Path<?>> fields, String term) {
+        return Optional.empty();
+    }
+
+    default boolean isRanked() {
+        return false;
+    }
+}
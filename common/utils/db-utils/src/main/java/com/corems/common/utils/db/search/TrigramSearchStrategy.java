@@ -0,0 +1,36 @@
+package com.corems.common.utils.db.search;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * {@link ContainsSearchStrategy} ranked by the summed {@code pg_trgm} {@code similarity} of the text fields.
+ * Needs the {@code pg_trgm} extension; {@link SearchIndexes#ensureTrigramIndexes} creates it with the indexes.
+ */
+public class TrigramSearchStrategy extends ContainsSearchStrategy {
+
+    @Override
+    public Optional<Expression<? extends Number>> rank(CriteriaBuilder cb, Root<?> root, List<Path<?>> fields, String term) {
+        Expression<String> lowerTerm = cb.literal(term.toLowerCase(Locale.ROOT));
+        Expression<Double> rank = null;
+        for (Path<?> path : fields) {
+            if (!isText(path)) {
+                continue;
+            }
+            Expression<Double> similarity = cb.coalesce(cb.function("similarity", Double.class, lower(cb, path), lowerTerm), 0d);
+            rank = rank == null ? similarity : cb.sum(rank, similarity);
+        }
+        return Optional.ofNullable(rank);
+    }
+
+    @Override
+    public boolean isRanked() {
+        return true;
+    }
+}
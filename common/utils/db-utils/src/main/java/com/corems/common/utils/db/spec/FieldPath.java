@@ -0,0 +1,79 @@
+package com.corems.common.utils.db.spec;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+
+import java.util.Collection;
+import java.util.function.Function;
+
+/**
+ * Entity attribute path split once into its parts, with whether its first part is a collection. Criteria paths
+ * are per query, so {@link #resolve(Path)} still navigates, but without re-parsing. Predicates on collections
+ * go through {@link #exists}, which keeps the outer query at one row per entity.
+ */
+public final class FieldPath {
+    private static final String[] NO_PARTS = new String[0];
+
+    private final String field;
+    private final String[] parts;
+    private final boolean collectionJoin;
+
+    private FieldPath(String field, String[] parts, boolean collectionJoin) {
+        this.field = field;
+        this.parts = parts;
+        this.collectionJoin = collectionJoin;
+    }
+
+    public static FieldPath compile(String field, Collection<String> collectionFields) {
+        if (field == null || field.isBlank()) {
+            return new FieldPath(field, NO_PARTS, false);
+        }
+        String[] parts = field.split("\\.");
+        boolean collection = collectionFields != null && collectionFields.contains(parts[0]);
+        return new FieldPath(field, parts, collection);
+    }
+
+    public String getField() {
+        return field;
+    }
+
+    public boolean isCollection() {
+        return collectionJoin;
+    }
+
+    public Path<?> resolve(Path<?> root) {
+        if (parts.length == 0) return root;
+
+        Path<?> path = root;
+        int next = 0;
+        if (collectionJoin && root instanceof Root<?> rootPath) {
+            // LEFT Join the collection to include entities without collection values
+            path = rootPath.join(parts[0], JoinType.LEFT);
+            next = 1;
+        }
+        for (int i = next; i < parts.length; i++) {
+            path = path.get(parts[i]);
+        }
+        return path;
+    }
+
+    /**
+     * Semi-join for a collection path: {@code EXISTS (select 1 from element where element belongs to root and
+     * condition)}. Unlike a join on the outer query it neither multiplies rows nor adds a join per predicate.
+     */
+    public Predicate exists(Root<?> root, CriteriaQuery<?> query, CriteriaBuilder cb, Function<Path<?>, Predicate> condition) {
+        Subquery<Integer> subquery = query.subquery(Integer.class);
+        Root<?> correlated = subquery.correlate(root);
+        Path<?> path = correlated.join(parts[0]);
+        for (int i = 1; i < parts.length; i++) {
+            path = path.get(parts[i]);
+        }
+        subquery.select(cb.literal(1)).where(condition.apply(path));
+        return cb.exists(subquery);
+    }
+}
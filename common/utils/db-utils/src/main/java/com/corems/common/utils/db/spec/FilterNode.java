@@ -0,0 +1,100 @@
+package com.corems.common.utils.db.spec;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Parsed filter expression: {@link FilterRequest} terms combined with AND, OR and NOT. Produced by
+ * {@code FilterUtil.parseExpression} and turned into a single predicate tree by {@link SpecificationBuilder}.
+ * Nodes are immutable, so a parsed expression can be cached and shared.
+ */
+public sealed interface FilterNode {
+
+    record Term(FilterRequest request) implements FilterNode {}
+
+    record And(List<FilterNode> nodes) implements FilterNode {
+        public And {
+            nodes = List.copyOf(nodes);
+        }
+    }
+
+    record Or(List<FilterNode> nodes) implements FilterNode {
+        public Or {
+            nodes = List.copyOf(nodes);
+        }
+    }
+
+    record Not(FilterNode node) implements FilterNode {}
+
+    /**
+     * Structure of the expression with the values left out, e.g. {@code (status:EQUALS OR sentAt:LT)}: every
+     * request with the same shape runs the same SQL, only with different parameters.
+     */
+    default String shape() {
+        return switch (this) {
+            case Term term -> term.request().field() + ":" + term.request().op();
+            case And and -> "(" + String.join(" AND ", and.nodes().stream().map(FilterNode::shape).toList()) + ")";
+            case Or or -> "(" + String.join(" OR ", or.nodes().stream().map(FilterNode::shape).toList()) + ")";
+            case Not not -> "NOT " + not.node().shape();
+        };
+    }
+
+    /**
+     * AND of {@code nodes}, with nested ANDs flattened into one level.
+     */
+    static FilterNode and(List<FilterNode> nodes) {
+        List<FilterNode> flat = new ArrayList<>(nodes.size());
+        for (FilterNode node : nodes) {
+            if (node instanceof And and) {
+                flat.addAll(and.nodes());
+            } else {
+                flat.add(node);
+            }
+        }
+        return flat.size() == 1 ? flat.getFirst() : new And(flat);
+    }
+
+    /**
+     * OR of {@code nodes}, with nested ORs flattened. Equality terms on the same field are merged into one
+     * {@code IN} term, which the database can answer with a single index scan instead of several OR branches.
+     */
+    static FilterNode or(List<FilterNode> nodes) {
+        List<FilterNode> flat = new ArrayList<>(nodes.size());
+        Map<String, Integer> inTerms = new HashMap<>();
+        for (FilterNode node : nodes) {
+            for (FilterNode child : node instanceof Or or ? or.nodes() : List.of(node)) {
+                if (child instanceof Term term && mergesIntoIn(term.request())) {
+                    FilterRequest request = term.request();
+                    Integer at = inTerms.putIfAbsent(request.field(), flat.size());
+                    if (at != null) {
+                        FilterRequest merged = ((Term) flat.get(at)).request();
+                        flat.set(at, new Term(new FilterRequest(request.field(), FilterOperation.IN,
+                                merged.value() + "," + request.value())));
+                        continue;
+                    }
+                }
+                flat.add(child);
+            }
+        }
+        return flat.size() == 1 ? flat.getFirst() : new Or(flat);
+    }
+
+    /**
+     * Negation of {@code node}; a double negation cancels out.
+     */
+    static FilterNode not(FilterNode node) {
+        return node instanceof Not not ? not.node() : new Not(node);
+    }
+
+    private static boolean mergesIntoIn(FilterRequest request) {
+        String value = request.value();
+        if (value == null || value.isEmpty() || !value.equals(value.trim())) {
+            return false;
+        }
+        // IN splits its value on commas, so an equality value must not contain one
+        return request.op() == FilterOperation.IN
+                || (request.op() == FilterOperation.EQUALS && value.indexOf(',') < 0);
+    }
+}
@@ -10,4 +10,6 @@ public enum FilterOperation {
     LT,
     GTE,
     LTE,
+    IS_NULL,
+    BETWEEN,
 }
@@ -7,34 +7,42 @@ import org.springframework.data.jpa.domain.Specification;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.Expression;
-import jakarta.persistence.criteria.JoinType;
 import jakarta.persistence.criteria.Path;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
 
 import java.util.Arrays;
 import java.util.List;
-import java.time.OffsetDateTime;
-import java.time.format.DateTimeParseException;
-import java.time.Instant;
-import java.util.UUID;
 
 public class GenericSpecification<T> implements Specification<T> {
     private final FilterRequest criteria;
-    private final List<String> collectionFields;
+    private final FieldPath fieldPath;
 
     public GenericSpecification(FilterRequest criteria) {
         this(criteria, List.of());
     }
 
     public GenericSpecification(FilterRequest criteria, List<String> collectionFields) {
+        this(criteria, FieldPath.compile(criteria.field(), collectionFields));
+    }
+
+    /**
+     * Uses an already compiled path for {@code criteria.field()}, e.g. one cached per repository.
+     */
+    public GenericSpecification(FilterRequest criteria, FieldPath fieldPath) {
         this.criteria = criteria;
-        this.collectionFields = collectionFields != null ? collectionFields : List.of();
+        this.fieldPath = fieldPath;
     }
 
     @Override
     public Predicate toPredicate(Root<T> root, CriteriaQuery<?> query, CriteriaBuilder cb) {
-        Path<?> path = resolvePath(root, criteria.field());
+        if (fieldPath.isCollection()) {
+            return fieldPath.exists(root, query, cb, path -> toPredicate(path, cb));
+        }
+        return toPredicate(fieldPath.resolve(root), cb);
+    }
+
+    private Predicate toPredicate(Path<?> path, CriteriaBuilder cb) {
         String raw = criteria.value() == null ? "" : criteria.value();
 
         return switch (criteria.op()) {
@@ -63,6 +71,25 @@ public class GenericSpecification<T> implements Specification<T> {
 
                 yield cb.or(exactMatch, containsInList);
             }
+            case IS_NULL -> {
+                String flag = raw.trim();
+                if (!flag.isEmpty() && !flag.equalsIgnoreCase("true") && !flag.equalsIgnoreCase("false")) {
+                    throw ServiceException.of(DefaultExceptionReasonCodes.PARAMETER_INVALID,
+                        "ISNULL operation expects true or false for field '" + criteria.field() + "'");
+                }
+                yield flag.equalsIgnoreCase("false") ? cb.isNotNull(path) : cb.isNull(path);
+            }
+            case BETWEEN -> {
+                // Inclusive range "from,to"; an empty bound leaves that side open
+                String[] bounds = raw.split(",", -1);
+                if (bounds.length != 2) {
+                    throw ServiceException.of(DefaultExceptionReasonCodes.PARAMETER_INVALID,
+                        "BETWEEN operation expects two comma-separated values for field '" + criteria.field() + "'");
+                }
+                Object lower = bounds[0].isBlank() ? null : castValue(path, bounds[0].trim());
+                Object upper = bounds[1].isBlank() ? null : castValue(path, bounds[1].trim());
+                yield buildBetween(cb, path, lower, upper);
+            }
             case NOT_EQUALS -> {
                 Object casted = castValue(path, raw);
                 yield cb.notEqual(path, casted);
@@ -147,106 +174,20 @@ public class GenericSpecification<T> implements Specification<T> {
         return cb.lessThanOrEqualTo(path.as(String.class), casted.toString());
     }
 
-    private Path<?> resolvePath(Path<?> root, String field) {
-        if (field == null || field.isBlank()) return root;
-
-        // Check if field contains dot notation (e.g., "categories.name")
-        if (field.contains(".")) {
-            String[] parts = field.split("\\.");
-            String basePath = parts[0];
-
-            // Check if base path is a collection field
-            if (collectionFields.contains(basePath)) {
-                if (root instanceof Root<?> rootPath) {
-                    // LEFT Join the collection to include entities without collection values
-                    Path<?> path = rootPath.join(basePath, JoinType.LEFT);
-                    // Navigate to nested fields
-                    for (int i = 1; i < parts.length; i++) {
-                        path = path.get(parts[i]);
-                    }
-                    return path;
-                }
-            }
-            // Regular nested path - navigate normally
-            Path<?> path = root;
-            for (String part : parts) {
-                path = path.get(part);
-            }
-            return path;
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private Predicate buildBetween(CriteriaBuilder cb, Path<?> path, Object lower, Object upper) {
+        if (lower == null || upper == null) {
+            return cb.and(buildGreaterThanOrEqual(cb, path, lower, path.getJavaType()),
+                    buildLessThanOrEqual(cb, path, upper, path.getJavaType()));
         }
-
-        // Simple field - check if it's a collection
-        if (collectionFields.contains(field)) {
-            if (root instanceof Root<?> rootPath) {
-                // Use LEFT JOIN for collection fields
-                return rootPath.join(field, JoinType.LEFT);
-            }
+        if (lower instanceof Comparable lowerBound && upper instanceof Comparable upperBound) {
+            Expression<? extends Comparable> cmpExpr = (Expression<? extends Comparable>) path;
+            return cb.between(cmpExpr, lowerBound, upperBound);
         }
-
-        // Regular field - navigate normally
-        return Arrays.stream(field.split("\\."))
-                .reduce(root, Path::get, (p1, p2) -> p1);
+        return cb.between(path.as(String.class), lower.toString(), upper.toString());
     }
 
     private Object castValue(Path<?> path, String value) {
-        if (value == null) return null;
-        Class<?> javaType = path.getJavaType();
-
-        // Strings
-        if (javaType.equals(String.class)) return value;
-
-        // Booleans
-        if (javaType.equals(Boolean.class) || javaType.equals(boolean.class)) return Boolean.valueOf(value);
-
-        // UUID
-        if (javaType.equals(UUID.class)) {
-            try {
-                return UUID.fromString(value);
-            } catch (IllegalArgumentException ex) {
-                throw ServiceException.of(DefaultExceptionReasonCodes.PARAMETER_INVALID, "Invalid UUID value '" + value + "' for field '" + criteria.field() + "'");
-            }
-        }
-
-        // Date/time
-        if (javaType.equals(OffsetDateTime.class)) {
-            try {
-                return OffsetDateTime.parse(value);
-            } catch (DateTimeParseException ex) {
-                throw ServiceException.of(DefaultExceptionReasonCodes.PARAMETER_INVALID, "Invalid datetime value '" + value + "' for field '" + criteria.field() + "' (expected ISO-8601)");
-            }
-        }
-        if (javaType.equals(Instant.class)) {
-            try {
-                return Instant.parse(value);
-            } catch (DateTimeParseException ex) {
-                throw ServiceException.of(DefaultExceptionReasonCodes.PARAMETER_INVALID, "Invalid instant value '" + value + "' for field '" + criteria.field() + "' (expected ISO-8601)");
-            }
-        }
-
-        // Numbers
-        if (Number.class.isAssignableFrom(javaType) || javaType.isPrimitive()) {
-            try {
-                if (javaType.equals(Integer.class) || javaType.equals(int.class)) return Integer.valueOf(value);
-                if (javaType.equals(Long.class) || javaType.equals(long.class)) return Long.valueOf(value);
-                if (javaType.equals(Double.class) || javaType.equals(double.class)) return Double.valueOf(value);
-                if (javaType.equals(Float.class) || javaType.equals(float.class)) return Float.valueOf(value);
-                if (javaType.equals(java.math.BigDecimal.class)) return new java.math.BigDecimal(value);
-            } catch (NumberFormatException ex) {
-                throw ServiceException.of(DefaultExceptionReasonCodes.PARAMETER_INVALID, "Invalid numeric value '" + value + "' for field '" + criteria.field() + "' (expected " + javaType.getSimpleName() + ")");
-            }
-        }
-
-        // Enums
-        if (javaType.isEnum()) {
-            try {
-                @SuppressWarnings({"unchecked", "rawtypes"})
-                Enum e = Enum.valueOf((Class<? extends Enum>) javaType, value);
-                return e;
-            } catch (Exception ex) {
-                throw ServiceException.of(DefaultExceptionReasonCodes.PARAMETER_INVALID, "Invalid enum value '" + value + "' for field '" + criteria.field() + "'");
-            }
-        }
-
-        return value;
+        return ValueCaster.cast(path.getJavaType(), criteria.field(), value);
     }
 }
@@ -0,0 +1,80 @@
+package com.corems.common.utils.db.spec;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Seek predicate for keyset pagination: rows strictly after the given key values in the given order.
+ * For keys {@code (k1, k2, id)} this is {@code k1 > v1 OR (k1 = v1 AND k2 > v2) OR (k1 = v1 AND k2 = v2 AND id > v3)},
+ * the portable form of a row value comparison that also works with mixed sort directions.
+ * With more than one key the disjunction is wrapped in the redundant bound {@code k1 >= v1 AND (...)}
+ * ({@code <=} for a descending first key): planners cannot derive an index range from an OR of branches, but
+ * they can from that conjunct, so the seek starts at the cursor in an index leading with {@code k1}.
+ * The sort keys must be non-null columns and the last key unique, usually the id.
+ */
+public class KeysetSpecification<T> implements Specification<T> {
+    private final List<Sort.Order> orders;
+    private final List<String> values;
+
+    public KeysetSpecification(Sort sort, List<String> values) {
+        this.orders = sort.toList();
+        this.values = List.copyOf(values);
+        if (orders.size() != this.values.size()) {
+            throw new IllegalArgumentException("Keyset needs one value per sort key");
+        }
+    }
+
+    @Override
+    public Predicate toPredicate(Root<T> root, CriteriaQuery<?> query, CriteriaBuilder cb) {
+        List<Predicate> branches = new ArrayList<>(orders.size());
+        List<Predicate> equalPrefix = new ArrayList<>(orders.size());
+        Predicate leadingBound = null;
+        for (int i = 0; i < orders.size(); i++) {
+            Sort.Order order = orders.get(i);
+            Path<?> path = resolvePath(root, order.getProperty());
+            Object value = ValueCaster.cast(path.getJavaType(), order.getProperty(), values.get(i));
+            if (i == 0) {
+                leadingBound = notBefore(cb, path, value, order.isAscending());
+            }
+
+            List<Predicate> branch = new ArrayList<>(equalPrefix);
+            branch.add(after(cb, path, value, order.isAscending()));
+            branches.add(cb.and(branch.toArray(Predicate[]::new)));
+            equalPrefix.add(cb.equal(path, value));
+        }
+        Predicate seek = cb.or(branches.toArray(Predicate[]::new));
+        return branches.size() > 1 ? cb.and(leadingBound, seek) : seek;
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static Predicate after(CriteriaBuilder cb, Path<?> path, Object value, boolean ascending) {
+        Expression<Comparable> expr = (Expression<Comparable>) path;
+        Comparable comparable = (Comparable) value;
+        return ascending ? cb.greaterThan(expr, comparable) : cb.lessThan(expr, comparable);
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static Predicate notBefore(CriteriaBuilder cb, Path<?> path, Object value, boolean ascending) {
+        Expression<Comparable> expr = (Expression<Comparable>) path;
+        Comparable comparable = (Comparable) value;
+        return ascending ? cb.greaterThanOrEqualTo(expr, comparable) : cb.lessThanOrEqualTo(expr, comparable);
+    }
+
+    private static Path<?> resolvePath(Root<?> root, String field) {
+        Path<?> path = root;
+        for (String part : field.split("\\.")) {
+            path = path.get(part);
+        }
+        return path;
+    }
+}
@@ -8,13 +8,20 @@ import jakarta.persistence.criteria.Expression;
 public final class LikePredicateBuilder {
     private LikePredicateBuilder() {}
 
+    /**
+     * Case-insensitive contains match. The prefix and suffix variants are implied by {@code '%term%'}, so a
+     * single predicate is returned.
+     */
     public static Predicate[] buildLikeVariants(CriteriaBuilder cb, Path<?> path, String raw) {
         String term = raw == null ? "" : raw.toLowerCase();
-        Expression<String> expr = cb.lower(path.as(String.class));
-        Predicate p1 = cb.like(expr, "%" + term + "%");
-        Predicate p2 = cb.like(expr, term + "%");
-        Predicate p3 = cb.like(expr, "%" + term);
-        return new Predicate[] { p1, p2, p3 };
+        return new Predicate[] { cb.like(lower(cb, path), "%" + term + "%") };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Expression<String> lower(CriteriaBuilder cb, Path<?> path) {
+        // Text paths stay uncast so the expression matches a lower(column) index
+        Expression<String> text = String.class.equals(path.getJavaType()) ? (Expression<String>) path : path.as(String.class);
+        return cb.lower(text);
     }
 }
 
@@ -2,7 +2,10 @@ package com.corems.common.utils.db.spec;
 
 import org.springframework.data.jpa.domain.Specification;
 
+import jakarta.persistence.criteria.Predicate;
+
 import java.util.List;
+import java.util.function.Function;
 
 public class SpecificationBuilder {
     public static <T> Specification<T> build(List<FilterRequest> filters) {
@@ -17,5 +20,44 @@ public class SpecificationBuilder {
         }
         return spec;
     }
-}
 
+    public static <T> Specification<T> build(FilterNode filter, List<String> collectionFields) {
+        return build(filter, field -> FieldPath.compile(field, collectionFields));
+    }
+
+    /**
+     * Turns a filter expression into one specification whose predicate mirrors the expression tree (AND, OR
+     * and NOT nodes become the same criteria operators). Term fields are compiled by {@code paths} once, here,
+     * so the result holds no per-request state and can be cached and reused.
+     *
+     * @param filter parsed filter expression
+     * @param paths  resolves a term's field, e.g. through aliases and the allow-list
+     * @return specification of the whole expression, null for a null expression
+     */
+    public static <T> Specification<T> build(FilterNode filter, Function<String, FieldPath> paths) {
+        if (filter == null) return null;
+        return switch (filter) {
+            case FilterNode.Term term -> {
+                FieldPath path = paths.apply(term.request().field());
+                yield new GenericSpecification<>(new FilterRequest(path.getField(), term.request().op(), term.request().value()), path);
+            }
+            case FilterNode.And and -> combine(and.nodes(), paths, false);
+            case FilterNode.Or or -> combine(or.nodes(), paths, true);
+            case FilterNode.Not not -> {
+                Specification<T> negated = build(not.node(), paths);
+                yield (root, query, cb) -> cb.not(negated.toPredicate(root, query, cb));
+            }
+        };
+    }
+
+    private static <T> Specification<T> combine(List<FilterNode> nodes, Function<String, FieldPath> paths, boolean any) {
+        List<Specification<T>> specs = nodes.stream().map(node -> SpecificationBuilder.<T>build(node, paths)).toList();
+        return (root, query, cb) -> {
+            Predicate[] predicates = new Predicate[specs.size()];
+            for (int i = 0; i < predicates.length; i++) {
+                predicates[i] = specs.get(i).toPredicate(root, query, cb);
+            }
+            return any ? cb.or(predicates) : cb.and(predicates);
+        };
+    }
+}
@@ -0,0 +1,116 @@
+package com.corems.common.utils.db.spec;
+
+import com.corems.common.exception.ServiceException;
+import com.corems.common.exception.handler.DefaultExceptionReasonCodes;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Converts raw request values (filters, cursors) to the Java type of the attribute they are compared with.
+ * The parser for a type is picked once and cached per class, so converting a value is a single call.
+ */
+public final class ValueCaster {
+    private static final ClassValue<ValueParser> PARSERS = new ClassValue<>() {
+        @Override
+        protected ValueParser computeValue(Class<?> type) {
+            return parserFor(type);
+        }
+    };
+
+    private ValueCaster() {}
+
+    public static Object cast(Class<?> javaType, String field, String value) {
+        if (value == null) return null;
+        return PARSERS.get(javaType).parse(field, value);
+    }
+
+    /**
+     * Parses a raw value for a field; {@code field} is only used in error messages.
+     */
+    @FunctionalInterface
+    public interface ValueParser {
+        Object parse(String field, String value);
+    }
+
+    private static ValueParser parserFor(Class<?> javaType) {
+        // Strings
+        if (javaType.equals(String.class)) return (field, value) -> value;
+
+        // Booleans
+        if (javaType.equals(Boolean.class) || javaType.equals(boolean.class)) return (field, value) -> Boolean.valueOf(value);
+
+        // UUID
+        if (javaType.equals(UUID.class)) {
+            return (field, value) -> {
+                try {
+                    return UUID.fromString(value);
+                } catch (IllegalArgumentException ex) {
+                    throw ServiceException.of(DefaultExceptionReasonCodes.PARAMETER_INVALID, "Invalid UUID value '" + value + "' for field '" + field + "'");
+                }
+            };
+        }
+
+        // Date/time
+        if (javaType.equals(OffsetDateTime.class)) {
+            return (field, value) -> {
+                try {
+                    return OffsetDateTime.parse(value);
+                } catch (DateTimeParseException ex) {
+                    throw ServiceException.of(DefaultExceptionReasonCodes.PARAMETER_INVALID, "Invalid datetime value '" + value + "' for field '" + field + "' (expected ISO-8601)");
+                }
+            };
+        }
+        if (javaType.equals(Instant.class)) {
+            return (field, value) -> {
+                try {
+                    return Instant.parse(value);
+                } catch (DateTimeParseException ex) {
+                    throw ServiceException.of(DefaultExceptionReasonCodes.PARAMETER_INVALID, "Invalid instant value '" + value + "' for field '" + field + "' (expected ISO-8601)");
+                }
+            };
+        }
+
+        // Numbers
+        if (Number.class.isAssignableFrom(javaType) || javaType.isPrimitive()) {
+            Function<String, Object> number = numberParser(javaType);
+            if (number != null) {
+                return (field, value) -> {
+                    try {
+                        return number.apply(value);
+                    } catch (NumberFormatException ex) {
+                        throw ServiceException.of(DefaultExceptionReasonCodes.PARAMETER_INVALID, "Invalid numeric value '" + value + "' for field '" + field + "' (expected " + javaType.getSimpleName() + ")");
+                    }
+                };
+            }
+        }
+
+        // Enums
+        if (javaType.isEnum()) {
+            return (field, value) -> {
+                try {
+                    @SuppressWarnings({"unchecked", "rawtypes"})
+                    Enum e = Enum.valueOf((Class<? extends Enum>) javaType, value);
+                    return e;
+                } catch (Exception ex) {
+                    throw ServiceException.of(DefaultExceptionReasonCodes.PARAMETER_INVALID, "Invalid enum value '" + value + "' for field '" + field + "'");
+                }
+            };
+        }
+
+        return (field, value) -> value;
+    }
+
+    private static Function<String, Object> numberParser(Class<?> javaType) {
+        if (javaType.equals(Integer.class) || javaType.equals(int.class)) return Integer::valueOf;
+        if (javaType.equals(Long.class) || javaType.equals(long.class)) return Long::valueOf;
+        if (javaType.equals(Double.class) || javaType.equals(double.class)) return Double::valueOf;
+        if (javaType.equals(Float.class) || javaType.equals(float.class)) return Float::valueOf;
+        if (javaType.equals(BigDecimal.class)) return BigDecimal::new;
+        return null;
+    }
+}
@@ -0,0 +1,66 @@
+package com.corems.common.utils.db.utils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Short-lived cache of total counts keyed by repository and normalized filter signature, so paging through one
+ * listing runs its count query once per TTL instead of once per page.
+ */
+public final class CountCache {
+    private static final int DEFAULT_MAX_ENTRIES = 10_000;
+    private static final CountCache SHARED = new CountCache(DEFAULT_MAX_ENTRIES, Clock.systemUTC());
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final int maxEntries;
+    private final Clock clock;
+
+    CountCache(int maxEntries, Clock clock) {
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+    }
+
+    public static CountCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * Cached count for {@code key}, or the result of {@code counter} stored for {@code ttl}.
+     */
+    public Lookup get(String key, Duration ttl, LongSupplier counter) {
+        long now = clock.millis();
+        Entry cached = entries.get(key);
+        if (cached != null && cached.expiresAt() > now) {
+            return new Lookup(cached.count(), true);
+        }
+        long count = counter.getAsLong();
+        if (entries.size() >= maxEntries) {
+            entries.values().removeIf(e -> e.expiresAt() <= now);
+            if (entries.size() >= maxEntries) {
+                entries.clear();
+            }
+        }
+        entries.put(key, new Entry(count, now + ttl.toMillis()));
+        return new Lookup(count, false);
+    }
+
+    /**
+     * Drop cached counts whose key starts with {@code prefix}, e.g. after bulk changes to one repository.
+     */
+    public void invalidate(String prefix) {
+        entries.keySet().removeIf(k -> k.startsWith(prefix));
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    public record Lookup(long count, boolean cached) {
+    }
+
+    private record Entry(long count, long expiresAt) {
+    }
+}
@@ -0,0 +1,31 @@
+package com.corems.common.utils.db.utils;
+
+import com.corems.common.exception.ServiceException;
+import com.corems.common.exception.handler.DefaultExceptionReasonCodes;
+
+import java.util.Locale;
+
+/**
+ * How {@code totalElements} of an offset page is obtained.
+ */
+public enum CountMode {
+    /** Run {@code count(*)} with the same filters on every request. */
+    EXACT,
+    /** Exact count reused for the same filters and search until the repository's count cache TTL expires. */
+    CACHED,
+    /** Estimate from the repository's {@code estimateTotalElements} (e.g. planner statistics), else as CACHED. */
+    ESTIMATED,
+    /** No count; only whether a next page exists (slice semantics). */
+    NONE;
+
+    public static CountMode fromString(String value) {
+        if (value == null || value.isBlank()) {
+            return EXACT;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw ServiceException.of(DefaultExceptionReasonCodes.PARAMETER_INVALID, "Unknown count mode: " + value);
+        }
+    }
+}
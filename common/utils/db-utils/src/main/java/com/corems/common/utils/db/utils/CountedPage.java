@@ -0,0 +1,41 @@
+package com.corems.common.utils.db.utils;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+/**
+ * Page that records how its total was obtained. With {@link CountMode#NONE} the total only reflects the rows
+ * seen so far (plus one when there is a next page) and should not be shown as a count.
+ */
+public class CountedPage<T> extends PageImpl<T> {
+    private final boolean totalKnown;
+    private final boolean totalExact;
+
+    public CountedPage(List<T> content, Pageable pageable, long total, boolean totalKnown, boolean totalExact) {
+        super(content, pageable, total);
+        this.totalKnown = totalKnown;
+        this.totalExact = totalKnown && totalExact;
+    }
+
+    public boolean isTotalKnown() {
+        return totalKnown;
+    }
+
+    public boolean isTotalExact() {
+        return totalExact;
+    }
+
+    /**
+     * Pages not produced by the executor, e.g. plain {@link PageImpl}, carry an exact count.
+     */
+    public static boolean isTotalKnown(Page<?> page) {
+        return !(page instanceof CountedPage<?> counted) || counted.isTotalKnown();
+    }
+
+    public static boolean isTotalExact(Page<?> page) {
+        return !(page instanceof CountedPage<?> counted) || counted.isTotalExact();
+    }
+}
@@ -0,0 +1,13 @@
+package com.corems.common.utils.db.utils;
+
+import java.util.List;
+
+/**
+ * One page of a keyset (cursor) listing. No total is computed; {@code nextCursor} is null on the last page.
+ */
+public record CursorPage<T>(List<T> items, int pageSize, String nextCursor) {
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
@@ -2,6 +2,7 @@ package com.corems.common.utils.db.utils;
 
 import com.corems.common.exception.ServiceException;
 import com.corems.common.exception.handler.DefaultExceptionReasonCodes;
+import com.corems.common.utils.db.spec.FilterNode;
 import com.corems.common.utils.db.spec.FilterOperation;
 import com.corems.common.utils.db.spec.FilterRequest;
 
@@ -12,7 +13,8 @@ import java.util.Map;
 
 /**
  * Utility for parsing and validating filter strings.
- * Backwards compatible parsing is provided by {@link #parse(List)}.
+ * Backwards compatible parsing is provided by {@link #parse(List)}; {@link #parseExpression(String)} also
+ * accepts AND / OR / NOT expressions.
  * New method {@link #parseAndResolve(List, List, Map)} resolves aliases and validates against allowed list.
  */
 public final class FilterUtil {
@@ -23,29 +25,68 @@ public final class FilterUtil {
         if (rawFilters == null) return out;
         for (String raw : rawFilters) {
             if (raw == null || raw.isBlank()) continue;
-            String[] parts = raw.split(":", 3);
-            String field;
-            String opToken;
-            String value;
-            if (parts.length == 1) {
-                // only field provided - no value -> skip
-                continue;
-            } else if (parts.length == 2) {
-                field = parts[0].trim();
-                opToken = "eq";
-                value = parts[1];
-            } else {
-                field = parts[0].trim();
-                opToken = parts[1].trim().toLowerCase(Locale.ROOT);
-                value = parts[2];
+            FilterRequest term = parseTerm(raw);
+            if (term != null) {
+                out.add(term);
             }
-
-            FilterOperation op = mapOp(opToken);
-            out.add(new FilterRequest(field, op, value));
         }
         return out;
     }
 
+    /**
+     * Parses filter strings into one expression, AND-ing the strings like {@link #parse(List)} does.
+     *
+     * @return expression of all filters, or null when there is none
+     */
+    public static FilterNode parseTree(List<String> rawFilters) {
+        if (rawFilters == null) return null;
+        List<FilterNode> nodes = new ArrayList<>(rawFilters.size());
+        for (String raw : rawFilters) {
+            FilterNode node = parseExpression(raw);
+            if (node != null) {
+                nodes.add(node);
+            }
+        }
+        return nodes.isEmpty() ? null : FilterNode.and(nodes);
+    }
+
+    /**
+     * Parses one filter string. A plain {@code field[:op]:value} string is a single term, parsed as before.
+     * A string that starts with {@code (} or {@code NOT} is an expression: terms combined with {@code AND},
+     * {@code OR}, {@code NOT} and parentheses, where AND binds tighter than OR. Operator words elsewhere do not
+     * make an expression, so a plain value such as {@code name:like:Q3 OR Q4 plan} keeps its legacy meaning. Inside an expression a value with spaces or parentheses is double-quoted,
+     * e.g. {@code (status:eq:failed OR sentAt:lt:2024-01-01T00:00:00Z) AND NOT subject:eq:"Daily report"}.
+     *
+     * @return parsed expression, or null for a blank string or a bare field name
+     */
+    public static FilterNode parseExpression(String raw) {
+        if (raw == null || raw.isBlank()) return null;
+        if (!isExpression(raw)) {
+            FilterRequest term = parseTerm(raw);
+            return term == null ? null : new FilterNode.Term(term);
+        }
+        return new ExpressionParser(raw).parse();
+    }
+
+    /**
+     * Legacy {@code field[:op]:value} term; null when only a field is given.
+     */
+    private static FilterRequest parseTerm(String raw) {
+        String[] parts = raw.split(":", 3);
+        if (parts.length == 1) {
+            // only field provided - no value -> skip
+            return null;
+        } else if (parts.length == 2) {
+            return new FilterRequest(parts[0].trim(), FilterOperation.EQUALS, parts[1]);
+        }
+        return new FilterRequest(parts[0].trim(), mapOp(parts[1].trim().toLowerCase(Locale.ROOT)), parts[2]);
+    }
+
+    private static boolean isExpression(String raw) {
+        String trimmed = raw.trim();
+        return trimmed.startsWith("(") || trimmed.startsWith("NOT ") || trimmed.startsWith("NOT(");
+    }
+
     public static List<FilterRequest> parseAndResolve(List<String> rawFilters, List<String> allowed, Map<String,String> aliases) {
         List<FilterRequest> parsed = parse(rawFilters);
         List<String> finalAllowed = allowed == null ? List.of() : List.copyOf(allowed);
@@ -79,7 +120,146 @@ public final class FilterUtil {
             case "lt" -> FilterOperation.LT;
             case "gte" -> FilterOperation.GTE;
             case "lte" -> FilterOperation.LTE;
+            case "isnull" -> FilterOperation.IS_NULL;
+            case "between" -> FilterOperation.BETWEEN;
             default -> throw ServiceException.of(DefaultExceptionReasonCodes.PARAMETER_INVALID, "Unknown filter op: " + token);
         };
     }
+
+    /**
+     * Recursive-descent parser of one filter expression.
+     */
+    private static final class ExpressionParser {
+        // Nesting cap; expressions come from clients
+        private static final int MAX_DEPTH = 16;
+
+        private final String input;
+        private int pos;
+        private int depth;
+
+        ExpressionParser(String input) {
+            this.input = input;
+        }
+
+        FilterNode parse() {
+            FilterNode node = parseOr();
+            skipWhitespace();
+            if (pos < input.length()) {
+                throw invalid("unexpected '" + input.charAt(pos) + "'");
+            }
+            return node;
+        }
+
+        private FilterNode parseOr() {
+            List<FilterNode> nodes = new ArrayList<>();
+            nodes.add(parseAnd());
+            while (acceptKeyword("OR")) {
+                nodes.add(parseAnd());
+            }
+            return FilterNode.or(nodes);
+        }
+
+        private FilterNode parseAnd() {
+            List<FilterNode> nodes = new ArrayList<>();
+            nodes.add(parseUnary());
+            while (acceptKeyword("AND")) {
+                nodes.add(parseUnary());
+            }
+            return FilterNode.and(nodes);
+        }
+
+        private FilterNode parseUnary() {
+            if (++depth > MAX_DEPTH) {
+                throw invalid("nested too deeply");
+            }
+            try {
+                if (acceptKeyword("NOT")) {
+                    return FilterNode.not(parseUnary());
+                }
+                skipWhitespace();
+                if (pos < input.length() && input.charAt(pos) == '(') {
+                    pos++;
+                    FilterNode node = parseOr();
+                    skipWhitespace();
+                    if (pos >= input.length() || input.charAt(pos) != ')') {
+                        throw invalid("missing ')'");
+                    }
+                    pos++;
+                    return node;
+                }
+                return new FilterNode.Term(parseExpressionTerm());
+            } finally {
+                depth--;
+            }
+        }
+
+        private FilterRequest parseExpressionTerm() {
+            int start = pos;
+            boolean quoted = false;
+            while (pos < input.length()) {
+                char c = input.charAt(pos);
+                if (quoted) {
+                    if (c == '\\') {
+                        pos++;
+                    } else if (c == '"') {
+                        quoted = false;
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ')' || Character.isWhitespace(c)) {
+                    break;
+                }
+                pos++;
+            }
+            if (quoted) {
+                throw invalid("unterminated quote");
+            }
+            String text = input.substring(start, pos);
+            if (text.indexOf(':') < 0) {
+                throw invalid(text.isEmpty() ? "expected a filter term" : "expected field:op:value, got '" + text + "'");
+            }
+            FilterRequest term = parseTerm(text);
+            return new FilterRequest(term.field(), term.op(), unquote(term.value()));
+        }
+
+        private boolean acceptKeyword(String keyword) {
+            skipWhitespace();
+            int end = pos + keyword.length();
+            if (!input.startsWith(keyword, pos)) {
+                return false;
+            }
+            if (end < input.length() && !Character.isWhitespace(input.charAt(end)) && input.charAt(end) != '(') {
+                // a field that merely starts with the keyword, e.g. NOTE:eq:x
+                return false;
+            }
+            pos = end;
+            return true;
+        }
+
+        private void skipWhitespace() {
+            while (pos < input.length() && Character.isWhitespace(input.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        private static String unquote(String value) {
+            if (value.length() < 2 || value.charAt(0) != '"' || value.charAt(value.length() - 1) != '"') {
+                return value;
+            }
+            StringBuilder out = new StringBuilder(value.length() - 2);
+            for (int i = 1; i < value.length() - 1; i++) {
+                char c = value.charAt(i);
+                if (c == '\\' && i + 1 < value.length() - 1) {
+                    c = value.charAt(++i);
+                }
+                out.append(c);
+            }
+            return out.toString();
+        }
+
+        private ServiceException invalid(String reason) {
+            return ServiceException.of(DefaultExceptionReasonCodes.PARAMETER_INVALID,
+                    "Invalid filter expression at position " + pos + ": " + reason);
+        }
+    }
 }
@@ -0,0 +1,103 @@
+package com.corems.common.utils.db.utils;
+
+import com.corems.common.exception.ServiceException;
+import com.corems.common.exception.handler.DefaultExceptionReasonCodes;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.data.domain.Sort;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.RecordComponent;
+import java.nio.charset.StandardCharsets;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Position after a row in a keyset listing: the sort it was taken with and the row's value for each sort key,
+ * the id tie-breaker last. Encoded as dot-separated base64url parts so clients treat it as an opaque token.
+ *
+ * @param sort   sort signature, e.g. {@code createdAt:desc,id:desc}; a cursor is only valid for the same sort
+ * @param values raw values of the sort keys, in sort order
+ */
+public record KeysetCursor(String sort, List<String> values) {
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    /**
+     * Cursor pointing after {@code row}; empty when one of its sort keys is null, since a seek predicate
+     * cannot continue from a null key.
+     */
+    public static Optional<KeysetCursor> after(Object row, Sort sort) {
+        Function<String, Object> properties = row instanceof Record record ? recordProperties(record) : new BeanWrapperImpl(row)::getPropertyValue;
+        List<String> values = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            Object value = properties.apply(order.getProperty());
+            if (value == null) {
+                return Optional.empty();
+            }
+            values.add(toRaw(value));
+        }
+        return Optional.of(new KeysetCursor(signature(sort), values));
+    }
+
+    /**
+     * Reads projection records by component name; a sort key the record does not carry reads as null.
+     */
+    private static Function<String, Object> recordProperties(Record record) {
+        return property -> {
+            for (RecordComponent component : record.getClass().getRecordComponents()) {
+                if (component.getName().equals(property)) {
+                    try {
+                        Method accessor = component.getAccessor();
+                        accessor.setAccessible(true);
+                        return accessor.invoke(record);
+                    } catch (ReflectiveOperationException ex) {
+                        throw new IllegalStateException("Cannot read " + property + " of " + record.getClass().getName(), ex);
+                    }
+                }
+            }
+            return null;
+        };
+    }
+
+    public static KeysetCursor decode(String token) {
+        try {
+            String[] parts = token.split("\\.");
+            List<String> values = new ArrayList<>(parts.length - 1);
+            for (int i = 1; i < parts.length; i++) {
+                values.add(new String(DECODER.decode(parts[i]), StandardCharsets.UTF_8));
+            }
+            if (values.isEmpty()) {
+                throw new IllegalArgumentException("No keys");
+            }
+            return new KeysetCursor(new String(DECODER.decode(parts[0]), StandardCharsets.UTF_8), values);
+        } catch (IllegalArgumentException ex) {
+            throw ServiceException.of(DefaultExceptionReasonCodes.PARAMETER_INVALID, "Invalid cursor");
+        }
+    }
+
+    public static String signature(Sort sort) {
+        List<String> parts = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            parts.add(order.getProperty() + ":" + (order.isAscending() ? "asc" : "desc"));
+        }
+        return String.join(",", parts);
+    }
+
+    public String encode() {
+        StringBuilder sb = new StringBuilder(ENCODER.encodeToString(sort.getBytes(StandardCharsets.UTF_8)));
+        for (String value : values) {
+            sb.append('.').append(ENCODER.encodeToString(value.getBytes(StandardCharsets.UTF_8)));
+        }
+        return sb.toString();
+    }
+
+    private static String toRaw(Object value) {
+        if (value instanceof Enum<?> e) return e.name();
+        if (value instanceof TemporalAccessor) return value.toString();
+        return String.valueOf(value);
+    }
+}
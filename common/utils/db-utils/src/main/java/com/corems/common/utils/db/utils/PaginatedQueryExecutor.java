@@ -1,20 +1,34 @@
 package com.corems.common.utils.db.utils;
 
-import com.corems.common.utils.db.spec.FilterRequest;
-import com.corems.common.utils.db.spec.SpecificationBuilder;
-import com.corems.common.utils.db.spec.LikePredicateBuilder;
+import com.corems.common.exception.ServiceException;
+import com.corems.common.exception.handler.DefaultExceptionReasonCodes;
+import com.corems.common.utils.db.diagnostics.QueryShapeStats;
+import com.corems.common.utils.db.search.SearchStrategy;
+import com.corems.common.utils.db.spec.FieldPath;
+import com.corems.common.utils.db.spec.KeysetSpecification;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.hibernate.jpa.HibernateHints;
 
-import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.Path;
 import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
 import com.corems.common.utils.db.repo.SearchableRepository;
 
 public final class PaginatedQueryExecutor {
@@ -24,6 +38,326 @@ public final class PaginatedQueryExecutor {
             JpaSpecificationExecutor<T> specRepo,
             QueryParams params
     ) {
+        SearchableRepository<T, ?> searchableRepo = searchable(specRepo, params);
+        RepositoryQueryMetadata metadata = RepositoryQueryMetadata.of(searchableRepo);
+        long started = System.nanoTime();
+        Sort sort = metadata.keysetSort(params.sort().orElse(null));
+        boolean rankByRelevance = rankByRelevance(metadata, params);
+        ListingSpecification<T> listing = buildSpecification(metadata, params, rankByRelevance);
+        Page<T> page = page(searchableRepo, metadata, params, pageable(params, sort, rankByRelevance), listing.specification());
+        recordTiming(metadata, params, "page", listing.filterShape(), sort, started);
+        return page;
+    }
+
+    private static <T> Page<T> page(SearchableRepository<T, ?> searchableRepo, RepositoryQueryMetadata metadata, QueryParams params,
+                                    Pageable pageable, Specification<T> spec) {
+        CountMode countMode = params.countMode().orElse(CountMode.EXACT);
+        if (countMode == CountMode.EXACT) {
+            if (spec == null) {
+                return searchableRepo.findAll(pageable);
+            }
+            return searchableRepo.findAll(spec, pageable);
+        }
+
+        // Fetch one row past the page to learn whether there is a next one, without the count query
+        Slice<T> slice = searchableRepo.findBy(orAll(spec), q -> q.slice(pageable));
+        return countedPage(slice.getContent(), slice.hasNext(), pageable, countMode, searchableRepo, metadata, params,
+                () -> count(searchableRepo, spec));
+    }
+
+    /**
+     * Same listing as {@link #execute}, but selects only the columns of the {@code projection} record (see
+     * {@link RecordProjection}): no entities are hydrated, EAGER associations are not loaded and collection
+     * components cost one {@code IN} query per page.
+     */
+    public static <T, R> Page<R> executeProjection(
+            JpaSpecificationExecutor<T> specRepo,
+            QueryParams params,
+            Class<R> projection,
+            EntityManager entityManager
+    ) {
+        SearchableRepository<T, ?> searchableRepo = searchable(specRepo, params);
+        RepositoryQueryMetadata metadata = RepositoryQueryMetadata.of(searchableRepo);
+        long started = System.nanoTime();
+        Sort sort = metadata.keysetSort(params.sort().orElse(null));
+        boolean rankByRelevance = rankByRelevance(metadata, params);
+        ListingSpecification<T> listing = buildSpecification(metadata, params, rankByRelevance);
+        Page<R> page = projectionPage(searchableRepo, metadata, params, RecordProjection.of(projection), entityManager,
+                pageable(params, sort, rankByRelevance), listing.specification());
+        recordTiming(metadata, params, "projection page", listing.filterShape(), sort, started);
+        return page;
+    }
+
+    private static <T, R> Page<R> projectionPage(SearchableRepository<T, ?> searchableRepo, RepositoryQueryMetadata metadata,
+                                                 QueryParams params, RecordProjection<R> recordProjection,
+                                                 EntityManager entityManager, Pageable pageable, Specification<T> spec) {
+        Class<T> entityType = metadata.getDomainType();
+        CountMode countMode = params.countMode().orElse(CountMode.EXACT);
+        if (countMode == CountMode.EXACT) {
+            List<R> rows = recordProjection.fetch(entityManager, entityType, metadata.getIdField(), spec,
+                    pageable.getSort(), pageable.getOffset(), pageable.getPageSize());
+            return PageableExecutionUtils.getPage(rows, pageable, () -> count(searchableRepo, spec));
+        }
+
+        List<R> rows = recordProjection.fetch(entityManager, entityType, metadata.getIdField(), spec,
+                pageable.getSort(), pageable.getOffset(), pageable.getPageSize() + 1);
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        List<R> content = hasNext ? List.copyOf(rows.subList(0, pageable.getPageSize())) : rows;
+        return countedPage(content, hasNext, pageable, countMode, searchableRepo, metadata, params,
+                () -> count(searchableRepo, spec));
+    }
+
+    /**
+     * Page with a total from {@code countMode}; {@code content} was fetched without counting.
+     */
+    private static <R> Page<R> countedPage(List<R> content, boolean hasNext, Pageable pageable, CountMode countMode,
+                                           SearchableRepository<?, ?> searchableRepo, RepositoryQueryMetadata metadata,
+                                           QueryParams params, LongSupplier count) {
+        long seen = pageable.getOffset() + content.size();
+        if (!hasNext && (!content.isEmpty() || pageable.getOffset() == 0)) {
+            // Last page: the total is known without counting
+            return new CountedPage<>(content, pageable, seen, true, true);
+        }
+
+        long lowerBound = hasNext ? seen + 1 : seen;
+        if (countMode == CountMode.NONE) {
+            return new CountedPage<>(content, pageable, lowerBound, false, false);
+        }
+        if (countMode == CountMode.ESTIMATED) {
+            Optional<Long> estimate = searchableRepo.estimateTotalElements(params);
+            if (estimate.isPresent()) {
+                return new CountedPage<>(content, pageable, Math.max(estimate.get(), lowerBound), true, false);
+            }
+        }
+        CountCache.Lookup lookup = CountCache.shared().get(countKey(metadata, params), searchableRepo.getCountCacheTtl(), count);
+        // A reused count may be stale; one computed just now is exact
+        return new CountedPage<>(content, pageable, Math.max(lookup.count(), lowerBound), true, !lookup.cached());
+    }
+
+    /**
+     * Cache key for a listing total: the repository interface name followed by the normalized filters and search,
+     * so {@code CountCache.shared().invalidate(MyRepository.class.getName())} drops every total of one repository.
+     */
+    private static String countKey(RepositoryQueryMetadata metadata, QueryParams params) {
+        List<String> filters = params.filters().orElse(List.of()).stream()
+                .filter(Objects::nonNull)
+                .map(String::trim)
+                .filter(f -> !f.isEmpty())
+                .sorted()
+                .toList();
+        return metadata.getRepositoryName() + "|" + String.join("&", filters) + "|" + PaginationUtil.sanitizeSearch(params.search());
+    }
+
+    /**
+     * Keyset (seek) pagination: instead of skipping {@code (page - 1) * size} rows, continues right after the
+     * row encoded in {@link QueryParams#cursor()}, so every page costs the same however deep it is. The sort is
+     * completed with the repository's id field as tie-breaker and no count query is run.
+     */
+    public static <T> CursorPage<T> executeKeyset(
+            JpaSpecificationExecutor<T> specRepo,
+            QueryParams params
+    ) {
+        SearchableRepository<T, ?> searchableRepo = searchable(specRepo, params);
+        RepositoryQueryMetadata metadata = RepositoryQueryMetadata.of(searchableRepo);
+        int pageSize = PaginationUtil.resolvePageSize(params.pageSize());
+        Sort sort = metadata.keysetSort(params.sort().orElse(null));
+        metadata.requireCursorSort(sort);
+
+        // One extra row tells whether there is a next page without counting
+        long started = System.nanoTime();
+        ListingSpecification<T> listing = keysetSpecification(metadata, params, sort);
+        List<T> rows = searchableRepo.findBy(orAll(listing.specification()),
+                q -> q.sortBy(sort).limit(pageSize + 1).all());
+        recordTiming(metadata, params, "cursor", listing.filterShape(), sort, started);
+        return cursorPage(rows, pageSize, sort);
+    }
+
+    /**
+     * {@link #executeKeyset} selecting only the columns of the {@code projection} record. The record needs the
+     * sort fields and the id field as components for the next cursor to be built.
+     */
+    public static <T, R> CursorPage<R> executeKeysetProjection(
+            JpaSpecificationExecutor<T> specRepo,
+            QueryParams params,
+            Class<R> projection,
+            EntityManager entityManager
+    ) {
+        SearchableRepository<T, ?> searchableRepo = searchable(specRepo, params);
+        RepositoryQueryMetadata metadata = RepositoryQueryMetadata.of(searchableRepo);
+        int pageSize = PaginationUtil.resolvePageSize(params.pageSize());
+        Sort sort = metadata.keysetSort(params.sort().orElse(null));
+        metadata.requireCursorSort(sort);
+
+        long started = System.nanoTime();
+        ListingSpecification<T> listing = keysetSpecification(metadata, params, sort);
+        List<R> rows = RecordProjection.of(projection).fetch(entityManager, metadata.<T>getDomainType(), metadata.getIdField(),
+                listing.specification(), sort, 0, pageSize + 1);
+        recordTiming(metadata, params, "projection cursor", listing.filterShape(), sort, started);
+        return cursorPage(rows, pageSize, sort);
+    }
+
+    /**
+     * Every row matching the listing query as one stream instead of pages: rows come from a single open JDBC
+     * cursor, {@link SearchableRepository#getStreamFetchSize()} at a time, in the requested sort completed by the id
+     * tie-breaker (a ranked search is not ordered by relevance here). Each entity is detached as it is handed out, so
+     * the persistence context does not grow with the number of rows read.
+     * <p>
+     * Consume and close the stream inside a transaction; PostgreSQL only honours the fetch size with autocommit off.
+     */
+    public static <T> Stream<T> executeStream(
+            JpaSpecificationExecutor<T> specRepo,
+            QueryParams params,
+            EntityManager entityManager
+    ) {
+        SearchableRepository<T, ?> searchableRepo = searchable(specRepo, params);
+        RepositoryQueryMetadata metadata = RepositoryQueryMetadata.of(searchableRepo);
+        Class<T> entityType = metadata.getDomainType();
+        Sort sort = metadata.keysetSort(params.sort().orElse(null));
+        Specification<T> spec = buildSpecification(metadata, params, false).specification();
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(entityType);
+        Root<T> root = query.from(entityType);
+        query.select(root);
+        if (spec != null) {
+            Predicate predicate = spec.toPredicate(root, query, cb);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, searchableRepo.getStreamFetchSize())
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()
+                .map(entity -> {
+                    entityManager.detach(entity);
+                    return entity;
+                });
+    }
+
+    /**
+     * {@link #executeStream} selecting only the columns of the {@code projection} record instead of entities.
+     * Collection components are loaded with one {@code IN} query per {@link SearchableRepository#getStreamFetchSize()}
+     * rows, so neither the persistence context nor the number of queries grows with every row.
+     * <p>
+     * Consume and close the stream inside a transaction, like {@link #executeStream}.
+     */
+    public static <T, R> Stream<R> executeStreamProjection(
+            JpaSpecificationExecutor<T> specRepo,
+            QueryParams params,
+            Class<R> projection,
+            EntityManager entityManager
+    ) {
+        SearchableRepository<T, ?> searchableRepo = searchable(specRepo, params);
+        RepositoryQueryMetadata metadata = RepositoryQueryMetadata.of(searchableRepo);
+        Sort sort = metadata.keysetSort(params.sort().orElse(null));
+        return RecordProjection.of(projection).stream(entityManager, metadata.<T>getDomainType(), metadata.getIdField(),
+                buildSpecification(metadata, params, false).specification(), sort, searchableRepo.getStreamFetchSize());
+    }
+
+    /**
+     * Checks filters and sort of {@code params} against the repository metadata without querying, throwing the
+     * same {@link ServiceException} the listing would. Lets a streaming response fail before its headers are sent.
+     */
+    public static void validate(JpaSpecificationExecutor<?> specRepo, QueryParams params) {
+        RepositoryQueryMetadata metadata = RepositoryQueryMetadata.of(searchable(specRepo, params));
+        metadata.filterSpecification(params.filters().orElse(List.of()));
+        metadata.keysetSort(params.sort().orElse(null));
+    }
+
+    private static <T> ListingSpecification<T> keysetSpecification(RepositoryQueryMetadata metadata, QueryParams params, Sort sort) {
+        ListingSpecification<T> listing = buildSpecification(metadata, params, false);
+        Specification<T> spec = listing.specification();
+        if (params.cursor().isPresent()) {
+            KeysetCursor cursor = KeysetCursor.decode(params.cursor().get());
+            if (!cursor.sort().equals(KeysetCursor.signature(sort))) {
+                throw ServiceException.of(DefaultExceptionReasonCodes.PARAMETER_INVALID, "Cursor does not match the requested sort");
+            }
+            Specification<T> seek = new KeysetSpecification<>(sort, cursor.values());
+            spec = spec == null ? seek : spec.and(seek);
+        }
+        return new ListingSpecification<>(spec, listing.filterShape());
+    }
+
+    private static <R> CursorPage<R> cursorPage(List<R> rows, int pageSize, Sort sort) {
+        if (rows.size() <= pageSize) {
+            return new CursorPage<>(rows, pageSize, null);
+        }
+        List<R> items = rows.subList(0, pageSize);
+        String next = KeysetCursor.after(items.get(pageSize - 1), sort)
+                .map(KeysetCursor::encode)
+                .orElseThrow(() -> new IllegalStateException("Sort key of the last row is null (sort "
+                        + KeysetCursor.signature(sort) + "); declare the field in getNullableSortFields()"));
+        return new CursorPage<>(List.copyOf(items), pageSize, next);
+    }
+
+    /**
+     * Adds the elapsed time to {@link QueryShapeStats} under the listing's value-free shape: page kind and count
+     * mode, filter structure, sort and whether a search term was given. The filter shape and sort are the ones the
+     * listing already resolved, so timing does not compile the filters again.
+     */
+    private static void recordTiming(RepositoryQueryMetadata metadata, QueryParams params, String kind, String filterShape,
+                                     Sort sort, long started) {
+        long elapsed = System.nanoTime() - started;
+        String countMode = kind.endsWith("page") ? " count=" + params.countMode().orElse(CountMode.EXACT) : "";
+        String search = PaginationUtil.sanitizeSearch(params.search()).isEmpty() ? "" : " search";
+        String shape = kind + countMode
+                + " filter=" + filterShape
+                + " sort=" + KeysetCursor.signature(sort)
+                + search;
+        QueryShapeStats.shared().record(metadata.getRepositoryName(), shape, elapsed);
+    }
+
+    private static boolean rankByRelevance(RepositoryQueryMetadata metadata, QueryParams params) {
+        // Without an explicit sort a ranked search orders by relevance (applied by the search specification)
+        return metadata.getSearchStrategy().isRanked()
+                && params.sort().filter(s -> !s.isBlank()).isEmpty()
+                && !PaginationUtil.sanitizeSearch(params.search()).isEmpty();
+    }
+
+    private static Pageable pageable(QueryParams params, Sort keysetSort, boolean rankByRelevance) {
+        // id tie-breaker keeps rows with equal sort keys in a stable order across pages and lets nextCursor continue from here
+        Sort sort = rankByRelevance ? Sort.unsorted() : keysetSort;
+        return PaginationUtil.buildPageable(params.page(), params.pageSize(), sort);
+    }
+
+    private static <T> Specification<T> orAll(Specification<T> spec) {
+        return spec == null ? (root, query, cb) -> cb.conjunction() : spec;
+    }
+
+    private static <T> long count(SearchableRepository<T, ?> searchableRepo, Specification<T> spec) {
+        return spec == null ? searchableRepo.count() : searchableRepo.count(spec);
+    }
+
+    /**
+     * Cursor continuing after the last row of an offset page, so a listing can switch to keyset pagination
+     * after its first page. Null on the last page, for relevance-ordered pages or when the last row has an empty
+     * sort key.
+     */
+    public static String nextCursor(Page<?> page) {
+        return nextCursor(null, page);
+    }
+
+    /**
+     * {@link #nextCursor(Page)} that also returns null when the page is sorted by one of the repository's
+     * {@link SearchableRepository#getNullableSortFields() nullable sort fields}, which cursor listings reject.
+     */
+    public static String nextCursor(SearchableRepository<?, ?> searchableRepo, Page<?> page) {
+        if (searchableRepo != null && !RepositoryQueryMetadata.of(searchableRepo).supportsCursor(page.getSort())) {
+            return null;
+        }
+        if (!page.hasNext() || page.getContent().isEmpty() || page.getSort().isUnsorted()) {
+            return null;
+        }
+        return KeysetCursor.after(page.getContent().getLast(), page.getSort())
+                .map(KeysetCursor::encode)
+                .orElse(null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> SearchableRepository<T, ?> searchable(JpaSpecificationExecutor<T> specRepo, QueryParams params) {
         Objects.requireNonNull(specRepo);
         Objects.requireNonNull(params);
 
@@ -31,90 +365,49 @@ public final class PaginatedQueryExecutor {
         if (!(specRepo instanceof SearchableRepository<?, ?>)) {
             throw new IllegalArgumentException("Repository must implement SearchableRepository");
         }
+        return (SearchableRepository<T, ?>) specRepo;
+    }
 
-        SearchableRepository<T, ?> searchableRepo = (SearchableRepository<T, ?>) specRepo;
-        List<String> repoSearchFields = searchableRepo.getSearchFields();
-        List<String> repoFilterAllowed = searchableRepo.getAllowedFilterFields();
-        List<String> repoSortAllowed = searchableRepo.getAllowedSortFields();
-        List<String> repoCollectionFields = searchableRepo.getCollectionFields();
-        Map<String, String> aliases = searchableRepo.getFieldAliases();
-
-        // make effectively-final copies for use inside lambdas
-        final List<String> finalSearchFields = List.copyOf(repoSearchFields);
-        final List<String> finalFilterAllowed = List.copyOf(repoFilterAllowed);
-        final List<String> finalCollectionFields = List.copyOf(repoCollectionFields);
-        final Map<String, String> finalAliases = Map.copyOf(aliases);
-
-        // build pageable — PaginationUtil still expects allowed sort fields; pass repoSortAllowed
-        Pageable pageable = PaginationUtil.buildPageable(params.page(), params.pageSize(), params.sort(), repoSortAllowed);
-
-        // parse raw filter strings (controller provides Optional<List<String>>)
-        // validate and resolve filters specification
-        List<FilterRequest> resolvedFilters = FilterUtil.parseAndResolve(
-                params.filters().orElse(List.of()),
-                finalFilterAllowed, finalAliases);
-
-        // build specification from filters (pass collection fields for JOIN support)
-        Specification<T> spec = SpecificationBuilder.build(resolvedFilters, finalCollectionFields);
+    private static <T> ListingSpecification<T> buildSpecification(RepositoryQueryMetadata metadata, QueryParams params, boolean rankByRelevance) {
+        // validate and resolve filters; the filter shape comes out of the same pass for the timing
+        RepositoryQueryMetadata.CompiledFilters<T> filters = metadata.compileFilters(params.filters().orElse(List.of()));
+        Specification<T> spec = filters.specification();
 
         // validate and resolve search specification if applicable
         String searchValue = PaginationUtil.sanitizeSearch(params.search());
-        if (!searchValue.isEmpty() && !finalSearchFields.isEmpty()) {
-            List<String> resolvedSearchFields = finalSearchFields.stream()
-                    .map(f -> finalAliases.getOrDefault(f, f))
-                    .toList();
-
+        List<FieldPath> searchPaths = metadata.getSearchPaths();
+        List<FieldPath> collectionSearchPaths = metadata.getCollectionSearchPaths();
+        if (!searchValue.isEmpty() && !(searchPaths.isEmpty() && collectionSearchPaths.isEmpty())) {
+            SearchStrategy strategy = metadata.getSearchStrategy();
             Specification<T> searchSpec = (root, query, cb) -> {
-                Predicate[] preds = resolvedSearchFields.stream()
-                        .filter(Objects::nonNull)
-                        .map(field -> {
-                            Path<?> path;
-
-                            // Check if field contains dot notation (e.g., "categories.name")
-                            if (field.contains(".")) {
-                                String[] parts = field.split("\\.");
-                                String basePath = parts[0];
-
-                                // Check if base path is a collection field
-                                if (finalCollectionFields.contains(basePath)) {
-                                    // LEFT Join the collection to include entities without collection values
-                                    path = root.join(basePath, JoinType.LEFT);
-                                    // Navigate to nested fields
-                                    for (int i = 1; i < parts.length; i++) {
-                                        path = path.get(parts[i]);
-                                    }
-                                } else {
-                                    // Regular nested path navigation
-                                    path = root;
-                                    for (String part : parts) {
-                                        path = path.get(part);
-                                    }
-                                }
-                            } else if (finalCollectionFields.contains(field)) {
-                                // Simple collection field (no nesting) - use LEFT JOIN
-                                path = root.join(field, JoinType.LEFT);
-                            } else {
-                                // Regular field
-                                path = root;
-                                for (String part : field.split("\\.")) {
-                                    path = path.get(part);
-                                }
-                            }
-
-                            // build per-field OR of variants (contains, startsWith, endsWith)
-                            Predicate[] variants = LikePredicateBuilder.buildLikeVariants(cb, path, searchValue);
-                            return cb.or(variants);
-                        })
-                        .toArray(Predicate[]::new);
+                List<Path<?>> fields = new ArrayList<>(searchPaths.size());
+                for (FieldPath searchPath : searchPaths) {
+                    fields.add(searchPath.resolve(root));
+                }
+                // Count queries have no order; Spring Data clears it, but skip building the rank for them
+                if (rankByRelevance && !Long.class.equals(query.getResultType())) {
+                    strategy.rank(cb, root, fields, searchValue).ifPresent(rank ->
+                            query.orderBy(cb.desc(rank), cb.asc(root.get(metadata.getIdField()))));
+                }
+                if (collectionSearchPaths.isEmpty()) {
+                    return strategy.toPredicate(cb, root, fields, searchValue);
+                }
+                // Collection fields match through EXISTS, so a row with several matching elements is returned once
+                Predicate[] preds = new Predicate[collectionSearchPaths.size() + 1];
+                preds[0] = strategy.toPredicate(cb, root, fields, searchValue);
+                for (int i = 0; i < collectionSearchPaths.size(); i++) {
+                    preds[i + 1] = collectionSearchPaths.get(i).exists(root, query, cb,
+                            element -> strategy.toElementPredicate(cb, element, searchValue));
+                }
                 return cb.or(preds);
             };
             spec = (spec == null) ? searchSpec : spec.and(searchSpec);
         }
-        
-        if (spec == null) {
-            return searchableRepo.findAll(pageable);
-        }
-
-        return searchableRepo.findAll(spec, pageable);
+        return new ListingSpecification<>(spec, filters.shape());
     }
+
+    /**
+     * Specification of a listing together with the value-free shape of its filters.
+     */
+    private record ListingSpecification<T>(Specification<T> specification, String filterShape) {}
 }
@@ -14,11 +14,18 @@ public class PaginationUtil {
     private static final int MAX_SIZE = 1000;
 
     public static Pageable buildPageable(Optional<Integer> page, Optional<Integer> size, Optional<String> sort, List<String> allowedFields) {
+        return buildPageable(page, size, parseSort(sort.orElse(null), allowedFields));
+    }
+
+    public static Pageable buildPageable(Optional<Integer> page, Optional<Integer> size, Sort sort) {
         int pageOneBased = page.orElse(DEFAULT_PAGE);
         if (pageOneBased < 1) pageOneBased = DEFAULT_PAGE;
-        int pageSize = Math.min(Math.max(size.orElse(DEFAULT_SIZE), 1), MAX_SIZE);
-        Sort sortObj = parseSort(sort.orElse(null), allowedFields);
-        return PageRequest.of(pageOneBased - 1, pageSize, sortObj);
+        int pageSize = resolvePageSize(size);
+        return PageRequest.of(pageOneBased - 1, pageSize, sort);
+    }
+
+    public static int resolvePageSize(Optional<Integer> size) {
+        return Math.min(Math.max(size.orElse(DEFAULT_SIZE), 1), MAX_SIZE);
     }
 
     public static Sort parseSort(String sortParam, List<String> allowedFields) {
@@ -0,0 +1,16 @@
+package com.corems.common.utils.db.utils;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Entity attribute path a projection record component is read from, when it differs from the component name,
+ * e.g. {@code @ProjectionPath("roles.name") List<String> roles}.
+ */
+@Target(ElementType.RECORD_COMPONENT)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ProjectionPath {
+    String value();
+}
@@ -3,10 +3,34 @@ package com.corems.common.utils.db.utils;
 import java.util.List;
 import java.util.Optional;
 
+/**
+ * @param cursor    opaque position returned as {@code nextCursor} by a previous cursor page; used by
+ *                  {@code findAllByCursor} instead of {@code page}
+ * @param countMode how the total of an offset page is obtained, {@link CountMode#EXACT} when empty
+ */
 public record QueryParams(
         Optional<Integer> page,
         Optional<Integer> pageSize,
         Optional<String> search,
         Optional<String> sort,
-        Optional<List<String>> filters
-) {}
+        Optional<List<String>> filters,
+        Optional<String> cursor,
+        Optional<CountMode> countMode
+) {
+    public QueryParams(Optional<Integer> page,
+                       Optional<Integer> pageSize,
+                       Optional<String> search,
+                       Optional<String> sort,
+                       Optional<List<String>> filters) {
+        this(page, pageSize, search, sort, filters, Optional.empty(), Optional.empty());
+    }
+
+    public QueryParams(Optional<Integer> page,
+                       Optional<Integer> pageSize,
+                       Optional<String> search,
+                       Optional<String> sort,
+                       Optional<List<String>> filters,
+                       Optional<String> cursor) {
+        this(page, pageSize, search, sort, filters, cursor, Optional.empty());
+    }
+}
@@ -0,0 +1,207 @@
+package com.corems.common.utils.db.utils;
+
+import com.corems.common.utils.db.spec.FieldPath;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.RecordComponent;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Listing query that selects only the columns of a record instead of loading entities. Each component is read
+ * from the entity attribute of the same name, or from its {@link ProjectionPath}. Collection components are
+ * filled by one extra {@code IN} query per collection for the whole page, or per batch of rows when streaming.
+ * Results are plain records, so nothing is managed or dirty-checked.
+ */
+final class RecordProjection<R> {
+    private static final ClassValue<RecordProjection<?>> CACHE = new ClassValue<>() {
+        @Override
+        protected RecordProjection<?> computeValue(Class<?> type) {
+            return new RecordProjection<>(type);
+        }
+    };
+
+    private final Class<R> type;
+    private final Constructor<R> constructor;
+    private final List<Component> components;
+
+    private RecordProjection(Class<R> type) {
+        if (!type.isRecord()) {
+            throw new IllegalArgumentException("Projection type must be a record: " + type.getName());
+        }
+        this.type = type;
+        RecordComponent[] recordComponents = type.getRecordComponents();
+        Class<?>[] parameterTypes = new Class<?>[recordComponents.length];
+        List<Component> compiled = new ArrayList<>(recordComponents.length);
+        for (int i = 0; i < recordComponents.length; i++) {
+            RecordComponent rc = recordComponents[i];
+            parameterTypes[i] = rc.getType();
+            ProjectionPath annotation = rc.getAnnotation(ProjectionPath.class);
+            String attribute = annotation == null ? rc.getName() : annotation.value();
+            boolean collection = Collection.class.isAssignableFrom(rc.getType());
+            List<String> collectionFields = collection ? List.of(attribute.split("\\.")[0]) : List.of();
+            compiled.add(new Component(FieldPath.compile(attribute, collectionFields), collection, Set.class.isAssignableFrom(rc.getType())));
+        }
+        try {
+            this.constructor = type.getDeclaredConstructor(parameterTypes);
+            this.constructor.setAccessible(true);
+        } catch (NoSuchMethodException ex) {
+            throw new IllegalArgumentException("Projection record has no canonical constructor: " + type.getName(), ex);
+        }
+        this.components = List.copyOf(compiled);
+    }
+
+    @SuppressWarnings("unchecked")
+    static <R> RecordProjection<R> of(Class<R> type) {
+        return (RecordProjection<R>) CACHE.get(type);
+    }
+
+    <T> List<R> fetch(EntityManager em, Class<T> entityType, String idField, Specification<T> spec, Sort sort, long offset, int limit) {
+        List<Tuple> rows = em.createQuery(query(em, entityType, idField, spec, sort))
+                .setFirstResult(Math.toIntExact(offset))
+                .setMaxResults(limit)
+                .getResultList();
+        return toRecords(em, entityType, idField, rows);
+    }
+
+    /**
+     * Every matching row as a stream read through one JDBC cursor, {@code batchSize} rows at a time; collection
+     * components are loaded once per batch. The stream must be closed to release the cursor.
+     */
+    <T> Stream<R> stream(EntityManager em, Class<T> entityType, String idField, Specification<T> spec, Sort sort, int batchSize) {
+        Stream<Tuple> rows = em.createQuery(query(em, entityType, idField, spec, sort))
+                .setHint(HibernateHints.HINT_FETCH_SIZE, batchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+        Iterator<Tuple> cursor = rows.iterator();
+        Iterator<List<R>> batches = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return cursor.hasNext();
+            }
+
+            @Override
+            public List<R> next() {
+                if (!cursor.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                List<Tuple> batch = new ArrayList<>(batchSize);
+                while (batch.size() < batchSize && cursor.hasNext()) {
+                    batch.add(cursor.next());
+                }
+                return toRecords(em, entityType, idField, batch);
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(batches, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .flatMap(List::stream)
+                .onClose(rows::close);
+    }
+
+    private <T> CriteriaQuery<Tuple> query(EntityManager em, Class<T> entityType, String idField, Specification<T> spec, Sort sort) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<T> root = query.from(entityType);
+
+        List<Selection<?>> selections = new ArrayList<>(components.size() + 1);
+        selections.add(root.get(idField));
+        for (Component component : components) {
+            if (!component.collection()) {
+                selections.add(component.path().resolve(root));
+            }
+        }
+        query.multiselect(selections);
+        if (spec != null) {
+            Predicate predicate = spec.toPredicate(root, query, cb);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+        if (sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        }
+        return query;
+    }
+
+    private <T> List<R> toRecords(EntityManager em, Class<T> entityType, String idField, List<Tuple> rows) {
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+
+        List<Object> ids = rows.stream().map(row -> row.get(0)).toList();
+        List<Map<Object, Collection<Object>>> collections = new ArrayList<>(components.size());
+        for (Component component : components) {
+            collections.add(component.collection() ? fetchCollection(em, entityType, idField, component, ids) : null);
+        }
+
+        List<R> out = new ArrayList<>(rows.size());
+        for (Tuple row : rows) {
+            Object id = row.get(0);
+            Object[] args = new Object[components.size()];
+            int column = 1;
+            for (int i = 0; i < args.length; i++) {
+                Component component = components.get(i);
+                if (component.collection()) {
+                    Collection<Object> values = collections.get(i).get(id);
+                    args[i] = values != null ? values : (component.set() ? Set.of() : List.of());
+                } else {
+                    args[i] = row.get(column++);
+                }
+            }
+            out.add(instantiate(args));
+        }
+        return out;
+    }
+
+    private <T> Map<Object, Collection<Object>> fetchCollection(EntityManager em, Class<T> entityType, String idField,
+                                                              Component component, List<Object> ids) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<T> root = query.from(entityType);
+        Path<?> id = root.get(idField);
+        Path<?> value = component.path().resolve(root);
+        query.multiselect(id, value).where(id.in(ids));
+
+        Map<Object, Collection<Object>> byId = new LinkedHashMap<>();
+        for (Tuple row : em.createQuery(query).getResultList()) {
+            Object element = row.get(1);
+            if (element != null) {
+                byId.computeIfAbsent(row.get(0), k -> component.set() ? new LinkedHashSet<>() : new ArrayList<>()).add(element);
+            }
+        }
+        return byId;
+    }
+
+    private R instantiate(Object[] args) {
+        try {
+            return constructor.newInstance(args);
+        } catch (ReflectiveOperationException | IllegalArgumentException ex) {
+            throw new IllegalStateException("Cannot create projection " + type.getName()
+                    + "; component types must match the entity attribute types", ex);
+        }
+    }
+
+    private record Component(FieldPath path, boolean collection, boolean set) {}
+}
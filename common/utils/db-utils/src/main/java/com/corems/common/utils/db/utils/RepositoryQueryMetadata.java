@@ -0,0 +1,267 @@
+package com.corems.common.utils.db.utils;
+
+import com.corems.common.exception.ServiceException;
+import com.corems.common.exception.handler.DefaultExceptionReasonCodes;
+import com.corems.common.utils.db.repo.SearchableRepository;
+import com.corems.common.utils.db.search.SearchStrategy;
+import com.corems.common.utils.db.spec.FieldPath;
+import com.corems.common.utils.db.spec.FilterNode;
+import com.corems.common.utils.db.spec.SpecificationBuilder;
+import org.springframework.core.ResolvableType;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Query metadata of one {@link SearchableRepository}, read from its getters once and reused by every listing:
+ * alias and allow-lists as hash lookups, compiled {@link FieldPath}s for search (split into plain and collection
+ * fields), the parsed filter per distinct filter string, the resolved filter fields per filter shape and the parsed
+ * sort per distinct sort parameter. Repository getters are expected to return constant values.
+ */
+final class RepositoryQueryMetadata {
+    // Caps the per-repository shape caches; filter expressions and sort strings come from clients
+    static final int MAX_SHAPES = 256;
+    // Parsed filters carry their values, so there are more distinct ones than shapes
+    static final int MAX_PARSED_FILTERS = 1024;
+
+    private static final ConcurrentMap<Class<?>, RepositoryQueryMetadata> CACHE = new ConcurrentHashMap<>();
+
+    private final Class<?> repositoryInterface;
+    private final Class<?> domainType;
+    private final Set<String> allowedFilters;
+    private final List<String> allowedSort;
+    private final Set<String> nullableSort;
+    private final Map<String, String> aliases;
+    private final List<String> collectionFields;
+    private final String idField;
+    private final List<FieldPath> searchPaths;
+    private final List<FieldPath> collectionSearchPaths;
+    private final SearchStrategy searchStrategy;
+    private final ConcurrentMap<String, FilterNode> parsedFilters = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Map<String, FieldPath>> filterShapes = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Sort> sorts = new ConcurrentHashMap<>();
+
+    private RepositoryQueryMetadata(SearchableRepository<?, ?> repo) {
+        this.repositoryInterface = repositoryInterface(repo.getClass());
+        this.domainType = ResolvableType.forClass(repositoryInterface).as(SearchableRepository.class).resolveGeneric(0);
+        this.allowedFilters = Set.copyOf(repo.getAllowedFilterFields());
+        this.allowedSort = List.copyOf(repo.getAllowedSortFields());
+        this.nullableSort = Set.copyOf(repo.getNullableSortFields());
+        this.aliases = Map.copyOf(repo.getFieldAliases());
+        this.collectionFields = List.copyOf(repo.getCollectionFields());
+        this.idField = repo.getKeysetIdField();
+        List<FieldPath> compiledSearchPaths = repo.getSearchFields().stream()
+                .filter(Objects::nonNull)
+                .map(f -> FieldPath.compile(aliases.getOrDefault(f, f), collectionFields))
+                .toList();
+        this.searchPaths = compiledSearchPaths.stream().filter(p -> !p.isCollection()).toList();
+        this.collectionSearchPaths = compiledSearchPaths.stream().filter(FieldPath::isCollection).toList();
+        this.searchStrategy = repo.getSearchStrategy();
+    }
+
+    static RepositoryQueryMetadata of(SearchableRepository<?, ?> repo) {
+        return CACHE.computeIfAbsent(repo.getClass(), c -> new RepositoryQueryMetadata(repo));
+    }
+
+    /**
+     * The application's repository interface (the proxy class name is generated).
+     */
+    String getRepositoryName() {
+        return repositoryInterface.getName();
+    }
+
+    @SuppressWarnings("unchecked")
+    <T> Class<T> getDomainType() {
+        if (domainType == null) {
+            throw new IllegalStateException("Cannot resolve the entity type of " + repositoryInterface.getName());
+        }
+        return (Class<T>) domainType;
+    }
+
+    List<String> getAllowedSortFields() {
+        return allowedSort;
+    }
+
+    List<FieldPath> getSearchPaths() {
+        return searchPaths;
+    }
+
+    List<FieldPath> getCollectionSearchPaths() {
+        return collectionSearchPaths;
+    }
+
+    SearchStrategy getSearchStrategy() {
+        return searchStrategy;
+    }
+
+    String getIdField() {
+        return idField;
+    }
+
+    /**
+     * Specification of the raw filters, AND-ed together. Parsed filters are cached per raw string up to
+     * {@link #MAX_PARSED_FILTERS}; past that, new strings are parsed per request. The values are bound into a fresh
+     * specification each time, and the fields are resolved through the aliases and the allow-list once per
+     * {@link FilterNode#shape() shape}, so filters that differ only in their values (e.g. per-user ids) share one
+     * shape entry.
+     *
+     * @return combined specification, or null when there are no filters
+     */
+    <T> Specification<T> filterSpecification(List<String> rawFilters) {
+        return this.<T>compileFilters(rawFilters).specification();
+    }
+
+    /**
+     * Value-free shape of the raw filters (see {@link FilterNode#shape()}), in a stable order.
+     */
+    String filterShape(List<String> rawFilters) {
+        return compileFilters(rawFilters).shape();
+    }
+
+    /**
+     * {@link #filterSpecification} and {@link #filterShape} of the raw filters, from one compilation.
+     */
+    <T> CompiledFilters<T> compileFilters(List<String> rawFilters) {
+        Specification<T> spec = null;
+        List<String> shapes = new ArrayList<>(rawFilters.size());
+        for (String raw : rawFilters) {
+            CompiledFilter filter = compileFilter(raw);
+            if (filter != null) {
+                @SuppressWarnings("unchecked")
+                Specification<T> filterSpec = (Specification<T>) filter.specification();
+                spec = spec == null ? filterSpec : spec.and(filterSpec);
+                shapes.add(filter.shape());
+            }
+        }
+        shapes.sort(null);
+        return new CompiledFilters<>(spec, String.join(" AND ", shapes));
+    }
+
+    /**
+     * Sort for the parameter with the id tie-breaker appended, which keeps rows with equal sort keys in a stable
+     * order across pages and is what keyset cursors are encoded against.
+     */
+    Sort keysetSort(String sortParam) {
+        String key = sortParam == null ? "" : sortParam;
+        Sort cached = sorts.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        Sort sort = withIdTieBreaker(PaginationUtil.parseSort(sortParam, allowedSort));
+        if (sorts.size() < MAX_SHAPES) {
+            sorts.putIfAbsent(key, sort);
+        }
+        return sort;
+    }
+
+    /**
+     * Whether keyset pagination can continue on {@code sort}, i.e. none of its fields is nullable.
+     */
+    boolean supportsCursor(Sort sort) {
+        return sort.stream().noneMatch(order -> nullableSort.contains(order.getProperty()));
+    }
+
+    /**
+     * Rejects a cursor listing sorted by a nullable field before it runs: rows with a NULL key would be skipped.
+     */
+    void requireCursorSort(Sort sort) {
+        sort.stream()
+                .filter(order -> nullableSort.contains(order.getProperty()))
+                .findFirst()
+                .ifPresent(order -> {
+                    throw ServiceException.of(DefaultExceptionReasonCodes.PARAMETER_INVALID,
+                            "Cursor pagination cannot sort by nullable field: " + order.getProperty());
+                });
+    }
+
+    int cachedShapes() {
+        return filterShapes.size() + sorts.size();
+    }
+
+    int cachedFilters() {
+        return parsedFilters.size();
+    }
+
+    private static Class<?> repositoryInterface(Class<?> repoClass) {
+        for (Class<?> iface : repoClass.getInterfaces()) {
+            if (SearchableRepository.class.isAssignableFrom(iface)) {
+                return iface;
+            }
+        }
+        return repoClass;
+    }
+
+    private CompiledFilter compileFilter(String raw) {
+        if (raw == null || raw.isBlank()) {
+            return null;
+        }
+        FilterNode filter = parseFilter(raw);
+        if (filter == null) {
+            return null;
+        }
+        String shape = filter.shape();
+        Map<String, FieldPath> paths = filterShapes.get(shape);
+        if (paths == null) {
+            paths = Map.copyOf(resolveFields(filter, new HashMap<>()));
+            if (filterShapes.size() < MAX_SHAPES) {
+                filterShapes.putIfAbsent(shape, paths);
+            }
+        }
+        return new CompiledFilter(SpecificationBuilder.build(filter, paths::get), shape);
+    }
+
+    private FilterNode parseFilter(String raw) {
+        FilterNode cached = parsedFilters.get(raw);
+        if (cached != null) {
+            return cached;
+        }
+        FilterNode filter = FilterUtil.parseExpression(raw);
+        if (filter != null && parsedFilters.size() < MAX_PARSED_FILTERS) {
+            parsedFilters.putIfAbsent(raw, filter);
+        }
+        return filter;
+    }
+
+    private Map<String, FieldPath> resolveFields(FilterNode node, Map<String, FieldPath> paths) {
+        switch (node) {
+            case FilterNode.Term term -> paths.computeIfAbsent(term.request().field(), this::filterPath);
+            case FilterNode.And and -> and.nodes().forEach(n -> resolveFields(n, paths));
+            case FilterNode.Or or -> or.nodes().forEach(n -> resolveFields(n, paths));
+            case FilterNode.Not not -> resolveFields(not.node(), paths);
+        }
+        return paths;
+    }
+
+    private FieldPath filterPath(String apiField) {
+        String resolved = aliases.getOrDefault(apiField, apiField);
+        if (!allowedFilters.isEmpty() && !(allowedFilters.contains(apiField) || allowedFilters.contains(resolved))) {
+            throw ServiceException.of(DefaultExceptionReasonCodes.PROVIDED_VALUE_INVALID, "Invalid filter field: " + apiField);
+        }
+        return FieldPath.compile(resolved, collectionFields);
+    }
+
+    private Sort withIdTieBreaker(Sort sort) {
+        if (sort.getOrderFor(idField) != null) {
+            return sort;
+        }
+        Sort.Direction direction = sort.stream().reduce((first, second) -> second)
+                .map(Sort.Order::getDirection)
+                .orElse(Sort.Direction.ASC);
+        return sort.and(Sort.by(direction, idField));
+    }
+
+    private record CompiledFilter(Specification<?> specification, String shape) {}
+
+    /**
+     * Filters of one listing: the combined specification (null without filters) and their sorted shape.
+     */
+    record CompiledFilters<T>(Specification<T> specification, String shape) {}
+}
@@ -3,7 +3,10 @@ package com.corems.common.utils.db;
 import com.corems.common.utils.db.entity.TestCategoryEntity;
 import com.corems.common.utils.db.entity.TestProductEntity;
 import com.corems.common.utils.db.repo.TestProductRepository;
+import com.corems.common.utils.db.utils.CursorPage;
+import com.corems.common.utils.db.utils.ProjectionPath;
 import com.corems.common.utils.db.utils.QueryParams;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -16,6 +19,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -34,6 +38,9 @@ public class NestedCollectionSearchTest {
     @Autowired
     private TestProductRepository productRepo;
 
+    @Autowired
+    private EntityManager entityManager;
+
     private TestCategoryEntity electronics;
     private TestCategoryEntity computers;
     private TestCategoryEntity accessories;
@@ -325,5 +332,93 @@ public class NestedCollectionSearchTest {
         Page<TestProductEntity> page2 = productRepo.findAllByQueryParams(params2);
         assertThat(page2.getContent()).hasSize(1);
     }
-}
 
+    @Test
+    void searchMatchingSeveralElements_ReturnsEachProductOnce() {
+        // "o" matches several categories and tags of every product; rows must not be multiplied per element
+        QueryParams params = new QueryParams(
+                Optional.of(1),
+                Optional.of(3),
+                Optional.of("o"),
+                Optional.empty(),
+                Optional.empty()
+        );
+
+        Page<TestProductEntity> page = productRepo.findAllByQueryParams(params);
+
+        assertThat(page.getTotalElements()).isEqualTo(4);
+        assertThat(page.getContent()).hasSize(3);
+        assertThat(page.getContent()).extracting(TestProductEntity::getName).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void filterBySeveralTagsAndSearch_MatchesProductsHavingAllTags() {
+        QueryParams params = new QueryParams(
+                Optional.of(1),
+                Optional.of(10),
+                Optional.of("electronics"),
+                Optional.empty(),
+                Optional.of(List.of("tags:eq:business", "tags:eq:portable"))
+        );
+
+        Page<TestProductEntity> page = productRepo.findAllByQueryParams(params);
+
+        assertThat(page.getTotalElements()).isEqualTo(1);
+        assertThat(page.getContent()).extracting(TestProductEntity::getName).containsExactly("Laptop Pro");
+    }
+
+    record ProductRow(Long id, String name, BigDecimal price, Set<String> tags,
+                      @ProjectionPath("categories.name") List<String> categoryNames) {}
+
+    @Test
+    void projectionWithCollections_LoadsOnlyRecordColumns() {
+        QueryParams params = new QueryParams(
+                Optional.of(1),
+                Optional.of(10),
+                Optional.empty(),
+                Optional.of("name:asc"),
+                Optional.of(List.of("categories.name:eq:Computers"))
+        );
+
+        Page<ProductRow> page = productRepo.findAllByQueryParams(params, ProductRow.class, entityManager);
+
+        assertThat(page.getTotalElements()).isEqualTo(2);
+        assertThat(page.getContent()).extracting(ProductRow::name).containsExactly("Desktop PC", "Laptop Pro");
+        ProductRow laptop = page.getContent().get(1);
+        assertThat(laptop.tags()).containsExactlyInAnyOrder("business", "portable");
+        assertThat(laptop.categoryNames()).containsExactlyInAnyOrder("Electronics", "Computers");
+        assertThat(laptop.price()).isEqualByComparingTo("1299.99");
+    }
+
+    @Test
+    void streamProjection_ReturnsEveryRowWithCollections() {
+        QueryParams params = new QueryParams(Optional.empty(), Optional.empty(), Optional.empty(), Optional.of("name:asc"),
+                Optional.empty());
+
+        List<ProductRow> rows;
+        try (var stream = productRepo.streamByQueryParams(params, ProductRow.class, entityManager)) {
+            rows = stream.toList();
+        }
+
+        assertThat(rows).extracting(ProductRow::name)
+                .containsExactly("Desktop PC", "Laptop Pro", "Mechanical Keyboard", "Wireless Mouse");
+        assertThat(rows.get(1).tags()).containsExactlyInAnyOrder("business", "portable");
+        assertThat(rows.get(1).categoryNames()).containsExactlyInAnyOrder("Electronics", "Computers");
+    }
+
+    @Test
+    void projectionWithCursor_ContinuesAfterLastRow() {
+        QueryParams first = new QueryParams(Optional.empty(), Optional.of(2), Optional.empty(), Optional.of("name:asc"),
+                Optional.empty(), Optional.empty());
+
+        CursorPage<ProductRow> page1 = productRepo.findAllByCursor(first, ProductRow.class, entityManager);
+        assertThat(page1.items()).extracting(ProductRow::name).containsExactly("Desktop PC", "Laptop Pro");
+        assertThat(page1.nextCursor()).isNotNull();
+
+        QueryParams next = new QueryParams(Optional.empty(), Optional.of(2), Optional.empty(), Optional.of("name:asc"),
+                Optional.empty(), Optional.of(page1.nextCursor()));
+        CursorPage<ProductRow> page2 = productRepo.findAllByCursor(next, ProductRow.class, entityManager);
+        assertThat(page2.items()).extracting(ProductRow::name).containsExactly("Mechanical Keyboard", "Wireless Mouse");
+        assertThat(page2.items().getFirst().tags()).containsExactlyInAnyOrder("mechanical", "gaming");
+    }
+}
@@ -3,6 +3,11 @@ package com.corems.common.utils.db;
 import com.corems.common.exception.ServiceException;
 import com.corems.common.utils.db.entity.TestEntity;
 import com.corems.common.utils.db.repo.TestEntityRepository;
+import com.corems.common.utils.db.utils.CountCache;
+import com.corems.common.utils.db.utils.CountMode;
+import com.corems.common.utils.db.utils.CountedPage;
+import com.corems.common.utils.db.utils.CursorPage;
+import com.corems.common.utils.db.utils.PaginatedQueryExecutor;
 import com.corems.common.utils.db.utils.QueryParams;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -11,10 +16,13 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 import org.springframework.transaction.annotation.Transactional;
+import jakarta.persistence.EntityManager;
 import java.util.Optional;
 import java.util.List;
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpStatus;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 
@@ -29,6 +37,9 @@ class SearchableRepositoryTest {
     @Autowired
     private TestEntityRepository repo;
 
+    @Autowired
+    private EntityManager entityManager;
+
     @BeforeEach
     void setUp() {
         repo.deleteAll();
@@ -52,6 +63,16 @@ class SearchableRepositoryTest {
          assertThat(page.getContent().get(0).getEmail()).isEqualTo("alice@example.com");
      }
 
+    @Test
+    void searchByFreeText_MatchesAnyPositionCaseInsensitively() {
+        // prefix, middle and suffix of a value all match the single contains predicate
+        for (String term : List.of("ALI", "onde", "example.com")) {
+            QueryParams params = new QueryParams(Optional.of(1), Optional.of(10), Optional.of(term), Optional.empty(), Optional.empty());
+            Page<TestEntity> page = repo.findAllByQueryParams(params);
+            assertThat(page.getContent()).extracting(TestEntity::getEmail).contains("alice@example.com");
+        }
+    }
+
      @Test
      void filterByAllowedField() {
         QueryParams params = new QueryParams(
@@ -104,6 +125,23 @@ class SearchableRepositoryTest {
         assertThat(page.getTotalElements()).isEqualTo(1);
     }
 
+    @Test
+    void filterExpressionWithOrNotAndRanges() {
+        assertThat(emailsFor("(provider:eq:oauth OR balance:gt:150)")).containsExactly("bob@example.com", "carol@example.com");
+        assertThat(emailsFor("NOT provider:eq:local")).containsExactly("bob@example.com");
+        assertThat(emailsFor("(provider:eq:local AND NOT isActive:eq:false) OR firstName:eq:Bob"))
+                .containsExactly("alice@example.com", "bob@example.com", "carol@example.com");
+        assertThat(emailsFor("balance:between:50,101")).containsExactly("alice@example.com", "bob@example.com");
+        assertThat(emailsFor("createdAt:between:2024-06-01T00:00:00Z,")).containsExactly("bob@example.com", "carol@example.com");
+        assertThat(emailsFor("firstName:isnull:true")).isEmpty();
+        assertThat(emailsFor("firstName:isnull:false")).hasSize(3);
+    }
+
+    private List<String> emailsFor(String filter) {
+        QueryParams params = new QueryParams(Optional.of(1), Optional.of(10), Optional.empty(), Optional.of("email:asc"), Optional.of(List.of(filter)));
+        return repo.findAllByQueryParams(params).getContent().stream().map(TestEntity::getEmail).toList();
+    }
+
      @Test
      void rejectUnknownFilterField() {
         QueryParams params = new QueryParams(
@@ -120,4 +158,124 @@ class SearchableRepositoryTest {
              assertThat(ex.getMessage()).contains("Provided value is invalid");
          }
      }
+
+    @Test
+    void cursorPaginationWalksAllRowsInSortOrder() {
+        // add a row with the same createdAt as bob so the id tie-breaker is exercised
+        repo.save(new TestEntity("dave@example.com","Dave","Diver","local", OffsetDateTime.of(2024,6,1,0,0,0,0, ZoneOffset.UTC).toInstant(), 10.0, true));
+
+        List<String> emails = new java.util.ArrayList<>();
+        Optional<String> cursor = Optional.empty();
+        int pages = 0;
+        do {
+            QueryParams params = new QueryParams(Optional.empty(), Optional.of(2), Optional.empty(), Optional.of("createdAt:desc"), Optional.empty(), cursor);
+            CursorPage<TestEntity> page = repo.findAllByCursor(params);
+            page.items().forEach(e -> emails.add(e.getEmail()));
+            cursor = Optional.ofNullable(page.nextCursor());
+            pages++;
+        } while (cursor.isPresent());
+
+        assertThat(pages).isEqualTo(2);
+        assertThat(emails).containsExactly("carol@example.com", "dave@example.com", "bob@example.com", "alice@example.com");
+    }
+
+    @Test
+    void cursorPaginationAppliesFilters() {
+        QueryParams params = new QueryParams(Optional.empty(), Optional.of(1), Optional.empty(), Optional.of("balance:asc"), Optional.of(List.of("provider:eq:local")), Optional.empty());
+        CursorPage<TestEntity> first = repo.findAllByCursor(params);
+        assertThat(first.items()).extracting(TestEntity::getEmail).containsExactly("alice@example.com");
+
+        params = new QueryParams(Optional.empty(), Optional.of(1), Optional.empty(), Optional.of("balance:asc"), Optional.of(List.of("provider:eq:local")), Optional.of(first.nextCursor()));
+        CursorPage<TestEntity> second = repo.findAllByCursor(params);
+        assertThat(second.items()).extracting(TestEntity::getEmail).containsExactly("carol@example.com");
+        assertThat(second.hasNext()).isFalse();
+    }
+
+    @Test
+    void offsetPageProvidesCursorForNextPage() {
+        Page<TestEntity> first = repo.findAllByQueryParams(new QueryParams(Optional.of(1), Optional.of(2), Optional.empty(), Optional.of("createdAt:asc"), Optional.empty()));
+        String cursor = PaginatedQueryExecutor.nextCursor(first);
+        assertThat(cursor).isNotNull();
+
+        CursorPage<TestEntity> next = repo.findAllByCursor(new QueryParams(Optional.empty(), Optional.of(2), Optional.empty(), Optional.of("createdAt:asc"), Optional.empty(), Optional.of(cursor)));
+        assertThat(next.items()).extracting(TestEntity::getEmail).containsExactly("carol@example.com");
+        assertThat(next.nextCursor()).isNull();
+    }
+
+    @Test
+    void cursorOnNullableSortFieldIsRejected() {
+        QueryParams params = new QueryParams(Optional.empty(), Optional.of(1), Optional.empty(), Optional.of("lastName:desc"), Optional.empty(), Optional.empty());
+
+        assertThatThrownBy(() -> repo.findAllByCursor(params))
+                .isInstanceOf(ServiceException.class)
+                .hasFieldOrPropertyWithValue("httpStatusCode", HttpStatus.BAD_REQUEST);
+
+        Page<TestEntity> offset = repo.findAllByQueryParams(new QueryParams(Optional.of(1), Optional.of(1), Optional.empty(), Optional.of("lastName:asc"), Optional.empty()));
+        assertThat(offset.hasNext()).isTrue();
+        assertThat(repo.nextCursor(offset)).isNull();
+    }
+
+    @Test
+    void cursorFromDifferentSortIsRejected() {
+        CursorPage<TestEntity> first = repo.findAllByCursor(new QueryParams(Optional.empty(), Optional.of(1), Optional.empty(), Optional.of("createdAt:desc"), Optional.empty(), Optional.empty()));
+
+        QueryParams params = new QueryParams(Optional.empty(), Optional.of(1), Optional.empty(), Optional.of("email:asc"), Optional.empty(), Optional.of(first.nextCursor()));
+        assertThatThrownBy(() -> repo.findAllByCursor(params)).isInstanceOf(ServiceException.class);
+        assertThatThrownBy(() -> repo.findAllByCursor(new QueryParams(Optional.empty(), Optional.of(1), Optional.empty(), Optional.empty(), Optional.empty(), Optional.of("not a cursor!"))))
+                .isInstanceOf(ServiceException.class);
+    }
+
+    @Test
+    void countModeNoneSkipsTotal() {
+        QueryParams params = new QueryParams(Optional.of(1), Optional.of(2), Optional.empty(), Optional.of("email:asc"), Optional.empty(), Optional.empty(), Optional.of(CountMode.NONE));
+        Page<TestEntity> page = repo.findAllByQueryParams(params);
+
+        assertThat(page.getContent()).hasSize(2);
+        assertThat(page.hasNext()).isTrue();
+        assertThat(CountedPage.isTotalKnown(page)).isFalse();
+
+        // The last page knows its total without counting
+        params = new QueryParams(Optional.of(2), Optional.of(2), Optional.empty(), Optional.of("email:asc"), Optional.empty(), Optional.empty(), Optional.of(CountMode.NONE));
+        page = repo.findAllByQueryParams(params);
+        assertThat(page.getContent()).extracting(TestEntity::getEmail).containsExactly("carol@example.com");
+        assertThat(page.getTotalElements()).isEqualTo(3);
+        assertThat(CountedPage.isTotalExact(page)).isTrue();
+    }
+
+    @Test
+    void countModeCachedReusesTotalForSameFilters() {
+        CountCache.shared().invalidate(TestEntityRepository.class.getName());
+        QueryParams params = new QueryParams(Optional.of(1), Optional.of(1), Optional.empty(), Optional.empty(), Optional.of(List.of("provider:eq:local")), Optional.empty(), Optional.of(CountMode.CACHED));
+
+        Page<TestEntity> first = repo.findAllByQueryParams(params);
+        assertThat(first.getTotalElements()).isEqualTo(2);
+        assertThat(CountedPage.isTotalExact(first)).isTrue();
+
+        repo.save(new TestEntity("dave@example.com","Dave","Diver","local", OffsetDateTime.of(2024,3,1,0,0,0,0, ZoneOffset.UTC).toInstant(), 10.0, true));
+        Page<TestEntity> second = repo.findAllByQueryParams(params);
+        assertThat(second.getTotalElements()).isEqualTo(2);
+        assertThat(CountedPage.isTotalExact(second)).isFalse();
+        assertThat(CountedPage.isTotalKnown(second)).isTrue();
+    }
+
+    @Test
+    void streamByQueryParams_FiltersSortsAndDetachesRows() {
+        QueryParams params = new QueryParams(Optional.of(1), Optional.of(1), Optional.empty(), Optional.of("balance:desc"), Optional.of(List.of("provider:eq:local")));
+
+        // page and pageSize do not limit the stream
+        List<TestEntity> rows;
+        try (var stream = repo.streamByQueryParams(params, entityManager)) {
+            rows = stream.toList();
+        }
+
+        assertThat(rows).extracting(TestEntity::getEmail).containsExactly("carol@example.com", "alice@example.com");
+        assertThat(rows).noneMatch(entityManager::contains);
+    }
+
+    @Test
+    void validateQueryParams_UnknownFilterField_ThrowsWithoutQuerying() {
+        QueryParams params = new QueryParams(Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(), Optional.of(List.of("password:eq:x")));
+
+        assertThatThrownBy(() -> repo.validateQueryParams(params)).isInstanceOf(ServiceException.class);
+    }
  }
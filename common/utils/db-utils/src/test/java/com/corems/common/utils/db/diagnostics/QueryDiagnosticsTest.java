@@ -0,0 +1,62 @@
+package com.corems.common.utils.db.diagnostics;
+
+import com.corems.common.utils.db.entity.TestEntity;
+import com.corems.common.utils.db.repo.TestEntityRepository;
+import com.corems.common.utils.db.utils.QueryParams;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(classes = QueryDiagnosticsTest.TestConfig.class)
+class QueryDiagnosticsTest {
+
+    @SpringBootApplication(scanBasePackageClasses = TestEntity.class)
+    @EnableJpaRepositories(basePackageClasses = TestEntityRepository.class)
+    static class TestConfig {}
+
+    @Autowired
+    private QueryDiagnostics diagnostics;
+
+    @Autowired
+    private TestEntityRepository repo;
+
+    @Test
+    void indexAdvice_DeclaredFields_ReportsIndexStatusPerColumn() {
+        Map<String, IndexAdvisor.IndexAdvice> advice = diagnostics.indexAdvice().stream()
+                .filter(a -> a.repository().equals(TestEntityRepository.class.getName()))
+                .collect(Collectors.toMap(IndexAdvisor.IndexAdvice::field, Function.identity()));
+
+        assertThat(advice).containsKeys("email", "firstName", "provider", "createdAt", "balance", "id");
+        assertThat(advice.get("id").status()).isEqualTo(IndexAdvisor.Status.INDEXED);
+        assertThat(advice.get("provider").status()).isEqualTo(IndexAdvisor.Status.INDEXED);
+        assertThat(advice.get("email").status()).isEqualTo(IndexAdvisor.Status.NOT_LEADING);
+        IndexAdvisor.IndexAdvice firstName = advice.get("firstName");
+        assertThat(firstName.status()).isEqualTo(IndexAdvisor.Status.MISSING);
+        assertThat(firstName.column()).isEqualToIgnoringCase("first_name");
+        assertThat(firstName.detail()).isEqualToIgnoringCase("CREATE INDEX test_entity_first_name_idx ON test_entity (first_name)");
+    }
+
+    @Test
+    void slowestShapes_AfterListing_ContainsValueFreeShape() {
+        QueryShapeStats.shared().reset();
+
+        repo.findAllByQueryParams(new QueryParams(Optional.of(1), Optional.of(10), Optional.empty(),
+                Optional.of("balance:desc"), Optional.of(List.of("provider:eq:local"))));
+
+        assertThat(diagnostics.slowestShapes(10)).singleElement().satisfies(timing -> {
+            assertThat(timing.repository()).isEqualTo(TestEntityRepository.class.getName());
+            assertThat(timing.shape()).isEqualTo("page count=EXACT filter=provider:EQUALS sort=balance:desc,id:asc");
+            assertThat(timing.count()).isEqualTo(1);
+        });
+    }
+}
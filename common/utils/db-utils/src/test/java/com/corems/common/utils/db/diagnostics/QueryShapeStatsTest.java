@@ -0,0 +1,52 @@
+package com.corems.common.utils.db.diagnostics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QueryShapeStatsTest {
+
+    @Test
+    void slowest_RecordedShapes_OrdersByMeanTime() {
+        QueryShapeStats stats = new QueryShapeStats(10);
+
+        stats.record("repo", "fast", 1_000_000);
+        stats.record("repo", "fast", 3_000_000);
+        stats.record("repo", "slow", 10_000_000);
+
+        List<QueryShapeStats.ShapeTiming> slowest = stats.slowest(10);
+
+        assertThat(slowest).extracting(QueryShapeStats.ShapeTiming::shape).containsExactly("slow", "fast");
+        QueryShapeStats.ShapeTiming fast = slowest.get(1);
+        assertThat(fast.count()).isEqualTo(2);
+        assertThat(fast.meanMillis()).isEqualTo(2.0);
+        assertThat(fast.maxMillis()).isEqualTo(3.0);
+        assertThat(fast.totalMillis()).isEqualTo(4.0);
+    }
+
+    @Test
+    void record_WhenFull_CountsNewShapesAsDropped() {
+        QueryShapeStats stats = new QueryShapeStats(1);
+
+        stats.record("repo", "a", 1);
+        stats.record("repo", "b", 1);
+        stats.record("repo", "a", 1);
+
+        assertThat(stats.slowest(10)).singleElement().satisfies(t -> assertThat(t.count()).isEqualTo(2));
+        assertThat(stats.droppedExecutions()).isEqualTo(1);
+    }
+
+    @Test
+    void reset_ClearsShapesAndDroppedCount() {
+        QueryShapeStats stats = new QueryShapeStats(1);
+        stats.record("repo", "a", 1);
+        stats.record("repo", "b", 1);
+
+        stats.reset();
+
+        assertThat(stats.slowest(10)).isEmpty();
+        assertThat(stats.droppedExecutions()).isZero();
+    }
+}
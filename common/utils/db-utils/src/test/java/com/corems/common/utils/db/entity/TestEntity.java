@@ -4,10 +4,13 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
 
 import java.time.Instant;
 
 @Entity
+@Table(indexes = @Index(name = "test_entity_provider_email_idx", columnList = "provider, email"))
 public class TestEntity {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
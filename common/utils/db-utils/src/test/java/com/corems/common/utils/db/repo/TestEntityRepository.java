@@ -14,4 +14,7 @@ public interface TestEntityRepository extends SearchableRepository<TestEntity, L
     @Override
     default List<String> getAllowedSortFields() { return List.of("email", "firstName", "lastName", "createdAt", "balance"); }
 
+    @Override
+    default List<String> getNullableSortFields() { return List.of("lastName"); }
+
 }
@@ -0,0 +1,119 @@
+package com.corems.common.utils.db.routing;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReadWriteRoutingDataSourceTest {
+
+    private static final String PRIMARY_URL = "jdbc:h2:mem:routing_primary;DB_CLOSE_DELAY=-1";
+    private static final String REPLICA_URL = "jdbc:h2:mem:routing_replica;DB_CLOSE_DELAY=-1";
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private HikariDataSource primary;
+    private ReadWriteRoutingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        primary = pool(PRIMARY_URL);
+        nodeTable(primary, "primary");
+        try (HikariDataSource replica = pool(REPLICA_URL)) {
+            nodeTable(replica, "replica");
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (dataSource != null) {
+            dataSource.close();
+        } else {
+            primary.close();
+        }
+    }
+
+    @Test
+    void readOnlyTransaction_ReplicaInRotation_ReadsFromReplica() {
+        dataSource = routing(properties(REPLICA_URL, "SELECT 0"));
+        dataSource.getReplicas().checkLag();
+
+        assertThat(node(true)).isEqualTo("replica");
+        assertThat(node(false)).isEqualTo("primary");
+        assertThat(registry.get("corems.db.read.route").tags("route", "replica-1", "reason", "replica").counter().count())
+                .isEqualTo(1);
+        assertThat(registry.get("corems.db.replica.lag").tag("replica", "replica-1").gauge().value()).isZero();
+    }
+
+    @Test
+    void readOnlyTransaction_BeforeFirstLagCheck_ReadsFromPrimary() {
+        dataSource = routing(properties(REPLICA_URL, "SELECT 0"));
+
+        assertThat(node(true)).isEqualTo("primary");
+    }
+
+    @Test
+    void readOnlyTransaction_ReplicaLagging_FallsBackToPrimary() {
+        dataSource = routing(properties(REPLICA_URL, "SELECT 60"));
+        dataSource.getReplicas().checkLag();
+
+        assertThat(node(true)).isEqualTo("primary");
+        assertThat(registry.get("corems.db.read.route").tags("route", "primary", "reason", "lagging").counter().count())
+                .isEqualTo(1);
+        assertThat(registry.get("corems.db.replica.available").tag("replica", "replica-1").gauge().value()).isZero();
+    }
+
+    @Test
+    void readOnlyTransaction_ReplicaUnreachable_FallsBackToPrimary() {
+        dataSource = routing(properties("jdbc:h2:tcp://localhost:1/unreachable", "SELECT 0"));
+        dataSource.getReplicas().checkLag();
+
+        assertThat(node(true)).isEqualTo("primary");
+        assertThat(registry.get("corems.db.read.route").tags("route", "primary", "reason", "unavailable").counter().count())
+                .isEqualTo(1);
+    }
+
+    private ReadWriteRoutingDataSource routing(ReadReplicaProperties properties) {
+        return new ReadWriteRoutingDataSource(primary, new ReplicaRoutingDataSource(primary, properties, registry));
+    }
+
+    private String node(boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status -> new JdbcTemplate(dataSource).queryForObject("SELECT name FROM node", String.class));
+    }
+
+    private static ReadReplicaProperties properties(String url, String lagQuery) {
+        ReadReplicaProperties.Replica replica = new ReadReplicaProperties.Replica();
+        replica.setUrl(url);
+        replica.setConnectionTimeout(Duration.ofMillis(250));
+        ReadReplicaProperties properties = new ReadReplicaProperties();
+        properties.setLagQuery(lagQuery);
+        properties.setMaxLag(Duration.ofSeconds(10));
+        properties.setReplicas(List.of(replica));
+        return properties;
+    }
+
+    private static HikariDataSource pool(String url) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setJdbcUrl(url);
+        pool.setUsername("sa");
+        pool.setPassword("");
+        return pool;
+    }
+
+    private static void nodeTable(HikariDataSource dataSource, String name) {
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(16))");
+        jdbc.update("DELETE FROM node");
+        jdbc.update("INSERT INTO node (name) VALUES (?)", name);
+    }
+}
@@ -0,0 +1,41 @@
+package com.corems.common.utils.db.search;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class SearchIndexesTest {
+
+    @Test
+    void trigramIndexStatement_IndexesLowerColumn() {
+        assertThat(SearchIndexes.trigramIndexStatement("document_ms", "document", "name"))
+                .isEqualTo("CREATE INDEX CONCURRENTLY IF NOT EXISTS document_name_trgm_idx ON document_ms.document USING gin (lower(name) gin_trgm_ops)");
+    }
+
+    @Test
+    void ensureTrigramIndexes_InvalidIdentifier_ThrowsBeforeConnecting() {
+        DataSource dataSource = mock(DataSource.class);
+
+        assertThatThrownBy(() -> SearchIndexes.ensureTrigramIndexes(dataSource, "public", "users; drop table x", List.of("email")))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(dataSource);
+    }
+
+    @Test
+    void ensureTrigramIndexes_DatabaseUnavailable_DoesNotThrow() throws Exception {
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenThrow(new SQLException("permission denied"));
+
+        assertThatCode(() -> SearchIndexes.ensureTrigramIndexes(dataSource, "public", "users", List.of("email")))
+                .doesNotThrowAnyException();
+    }
+}
@@ -0,0 +1,93 @@
+package com.corems.common.utils.db.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CountCacheTest {
+
+    @Test
+    void get_WithinTtl_ReusesCount() {
+        MutableClock clock = new MutableClock();
+        CountCache cache = new CountCache(100, clock);
+        AtomicInteger counted = new AtomicInteger();
+
+        CountCache.Lookup first = cache.get("repo|a", Duration.ofSeconds(30), () -> 10 + counted.incrementAndGet());
+        CountCache.Lookup second = cache.get("repo|a", Duration.ofSeconds(30), () -> 10 + counted.incrementAndGet());
+
+        assertEquals(11, first.count());
+        assertFalse(first.cached());
+        assertEquals(11, second.count());
+        assertTrue(second.cached());
+        assertEquals(1, counted.get());
+    }
+
+    @Test
+    void get_AfterTtl_CountsAgain() {
+        MutableClock clock = new MutableClock();
+        CountCache cache = new CountCache(100, clock);
+
+        cache.get("repo|a", Duration.ofSeconds(30), () -> 1);
+        clock.advance(Duration.ofSeconds(31));
+        CountCache.Lookup lookup = cache.get("repo|a", Duration.ofSeconds(30), () -> 2);
+
+        assertEquals(2, lookup.count());
+        assertFalse(lookup.cached());
+    }
+
+    @Test
+    void get_WhenFull_EvictsExpiredEntries() {
+        MutableClock clock = new MutableClock();
+        CountCache cache = new CountCache(2, clock);
+
+        cache.get("repo|a", Duration.ofSeconds(1), () -> 1);
+        cache.get("repo|b", Duration.ofSeconds(60), () -> 1);
+        clock.advance(Duration.ofSeconds(2));
+        cache.get("repo|c", Duration.ofSeconds(60), () -> 1);
+
+        assertEquals(2, cache.size());
+        assertTrue(cache.get("repo|b", Duration.ofSeconds(60), () -> 5).cached());
+    }
+
+    @Test
+    void invalidate_RemovesEntriesWithPrefix() {
+        CountCache cache = new CountCache(100, new MutableClock());
+        cache.get("orders|a", Duration.ofSeconds(30), () -> 1);
+        cache.get("users|a", Duration.ofSeconds(30), () -> 1);
+
+        cache.invalidate("orders");
+
+        assertEquals(1, cache.size());
+        assertFalse(cache.get("orders|a", Duration.ofSeconds(30), () -> 1).cached());
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.corems.common.utils.db.utils;
 
 import com.corems.common.exception.ServiceException;
+import com.corems.common.utils.db.spec.FilterNode;
 import com.corems.common.utils.db.spec.FilterOperation;
 import com.corems.common.utils.db.spec.FilterRequest;
 import org.junit.jupiter.api.Test;
@@ -265,4 +266,79 @@ class FilterUtilTest {
     void validate_WithNullAllowedList_DoesNotThrow() {
         assertDoesNotThrow(() -> FilterUtil.validate("anyField", "anyField", null));
     }
-}
\ No newline at end of file
+
+    @Test
+    void parseExpression_WithPlainTerm_ParsesLikeLegacyFilter() {
+        FilterNode result = FilterUtil.parseExpression("url:eq:http://example.com:8080");
+
+        assertEquals(new FilterNode.Term(new FilterRequest("url", FilterOperation.EQUALS, "http://example.com:8080")), result);
+        assertNull(FilterUtil.parseExpression("fieldonly"));
+    }
+
+    @Test
+    void parseExpression_WithOperatorWordsInPlainValue_KeepsLegacyTerm() {
+        assertEquals(new FilterNode.Term(new FilterRequest("name", FilterOperation.LIKE, "Q3 OR Q4 plan")),
+            FilterUtil.parseExpression("name:like:Q3 OR Q4 plan"));
+        assertEquals(new FilterNode.Term(new FilterRequest("subject", FilterOperation.EQUALS, "Terms AND conditions")),
+            FilterUtil.parseExpression("subject:Terms AND conditions"));
+    }
+
+    @Test
+    void parseExpression_WithOrAndNot_BuildsTreeWithAndBindingTighter() {
+        FilterNode result = FilterUtil.parseExpression("(status:eq:failed OR sentAt:lt:2024-01-01T00:00:00Z AND NOT type:eq:sms)");
+
+        FilterNode.Or or = assertInstanceOf(FilterNode.Or.class, result);
+        assertEquals(2, or.nodes().size());
+        assertEquals(new FilterNode.Term(new FilterRequest("status", FilterOperation.EQUALS, "failed")), or.nodes().get(0));
+        FilterNode.And and = assertInstanceOf(FilterNode.And.class, or.nodes().get(1));
+        assertEquals(new FilterRequest("sentAt", FilterOperation.LT, "2024-01-01T00:00:00Z"),
+            assertInstanceOf(FilterNode.Term.class, and.nodes().get(0)).request());
+        assertInstanceOf(FilterNode.Not.class, and.nodes().get(1));
+    }
+
+    @Test
+    void parseExpression_WithGroupsAndQuotedValue_ParsesValueVerbatim() {
+        FilterNode result = FilterUtil.parseExpression("(subject:eq:\"Daily (EU) report\" OR subject:like:\"say \\\"hi\\\"\") AND NOT NOT deletedAt:isnull:true");
+
+        FilterNode.And and = assertInstanceOf(FilterNode.And.class, result);
+        FilterNode.Or or = assertInstanceOf(FilterNode.Or.class, and.nodes().get(0));
+        assertEquals("Daily (EU) report", assertInstanceOf(FilterNode.Term.class, or.nodes().get(0)).request().value());
+        assertEquals("say \"hi\"", assertInstanceOf(FilterNode.Term.class, or.nodes().get(1)).request().value());
+        // double negation cancels out
+        assertEquals(new FilterNode.Term(new FilterRequest("deletedAt", FilterOperation.IS_NULL, "true")), and.nodes().get(1));
+    }
+
+    @Test
+    void parseExpression_WithEqualsOnSameFieldInOr_MergesIntoIn() {
+        FilterNode result = FilterUtil.parseExpression("(status:eq:failed OR status:eq:bounced OR status:in:queued,sent)");
+
+        assertEquals(new FilterNode.Term(new FilterRequest("status", FilterOperation.IN, "failed,bounced,queued,sent")), result);
+    }
+
+    @Test
+    void parseExpression_WithBetween_ParsesRange() {
+        FilterNode result = FilterUtil.parseExpression("(createdAt:between:2024-01-01T00:00:00Z,2024-02-01T00:00:00Z)");
+
+        assertEquals(new FilterNode.Term(new FilterRequest("createdAt", FilterOperation.BETWEEN, "2024-01-01T00:00:00Z,2024-02-01T00:00:00Z")), result);
+    }
+
+    @Test
+    void parseExpression_WithMalformedExpression_ThrowsServiceException() {
+        assertThrows(ServiceException.class, () -> FilterUtil.parseExpression("(status:eq:failed OR type:eq:sms"));
+        assertThrows(ServiceException.class, () -> FilterUtil.parseExpression("(status:eq:failed OR)"));
+        assertThrows(ServiceException.class, () -> FilterUtil.parseExpression("(status:eq:failed OR bare)"));
+        assertThrows(ServiceException.class, () -> FilterUtil.parseExpression("(status:eq:\"open)"));
+        assertThrows(ServiceException.class, () -> FilterUtil.parseExpression("(status:eq:a) x"));
+        assertThrows(ServiceException.class, () -> FilterUtil.parseExpression("(".repeat(40) + "a:eq:b" + ")".repeat(40)));
+    }
+
+    @Test
+    void parseTree_WithSeveralStrings_AndsThem() {
+        FilterNode result = FilterUtil.parseTree(List.of("provider:local", "(balance:gt:10 OR isActive:eq:false)", " "));
+
+        FilterNode.And and = assertInstanceOf(FilterNode.And.class, result);
+        assertEquals(2, and.nodes().size());
+        assertInstanceOf(FilterNode.Or.class, and.nodes().get(1));
+        assertNull(FilterUtil.parseTree(List.of()));
+    }
+}
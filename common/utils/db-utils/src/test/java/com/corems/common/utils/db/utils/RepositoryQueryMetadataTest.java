@@ -0,0 +1,100 @@
+package com.corems.common.utils.db.utils;
+
+import com.corems.common.exception.ServiceException;
+import com.corems.common.utils.db.repo.TestEntityRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RepositoryQueryMetadataTest {
+
+    private final TestEntityRepository repo = Mockito.mock(TestEntityRepository.class, Mockito.CALLS_REAL_METHODS);
+
+    @Test
+    void of_SameRepositoryClass_ReturnsCachedMetadata() {
+        assertThat(RepositoryQueryMetadata.of(repo)).isSameAs(RepositoryQueryMetadata.of(repo));
+    }
+
+    @Test
+    void keysetSort_RepeatedParam_ReusesSortWithIdTieBreaker() {
+        RepositoryQueryMetadata metadata = RepositoryQueryMetadata.of(repo);
+
+        Sort sort = metadata.keysetSort("email:asc,password:desc");
+
+        assertThat(sort).isSameAs(metadata.keysetSort("email:asc,password:desc"));
+        assertThat(sort.toList()).containsExactly(Sort.Order.asc("email"), Sort.Order.asc("id"));
+    }
+
+    @Test
+    void filterSpecification_RepeatedFilter_BuildsSpecificationPerRequest() {
+        RepositoryQueryMetadata metadata = RepositoryQueryMetadata.of(repo);
+
+        Specification<Object> first = metadata.filterSpecification(List.of("(balance:gte:100 OR provider:eq:local)"));
+        Specification<Object> second = metadata.filterSpecification(List.of("(balance:gte:100 OR provider:eq:local)"));
+
+        assertThat(first).isNotNull();
+        assertThat(second).isNotNull().isNotSameAs(first);
+    }
+
+    @Test
+    void filterSpecification_ManyDistinctValues_CachesOneShape() {
+        RepositoryQueryMetadata metadata = RepositoryQueryMetadata.of(repo);
+        metadata.filterSpecification(List.of("email:eq:user-0@example.com"));
+        int cached = metadata.cachedShapes();
+
+        for (int i = 1; i < RepositoryQueryMetadata.MAX_SHAPES * 2; i++) {
+            assertThat(metadata.<Object>filterSpecification(List.of("email:eq:user-" + i + "@example.com"))).isNotNull();
+        }
+
+        assertThat(metadata.cachedShapes()).isEqualTo(cached);
+    }
+
+    @Test
+    void filterShape_DifferentValues_ReturnsSameSortedShape() {
+        RepositoryQueryMetadata metadata = RepositoryQueryMetadata.of(repo);
+
+        String shape = metadata.filterShape(List.of("provider:eq:local", "(balance:gte:100 OR NOT email:like:x)"));
+
+        assertThat(shape).isEqualTo("(balance:GTE OR NOT email:LIKE) AND provider:EQUALS");
+        assertThat(metadata.filterShape(List.of("provider:eq:oauth", "(balance:gte:5 OR NOT email:like:y)"))).isEqualTo(shape);
+    }
+
+    @Test
+    void filterSpecification_UnknownField_Throws() {
+        RepositoryQueryMetadata metadata = RepositoryQueryMetadata.of(repo);
+
+        assertThatThrownBy(() -> metadata.filterSpecification(List.of("password:eq:x")))
+                .isInstanceOf(ServiceException.class);
+        // fields inside groups are checked against the allow-list too
+        assertThatThrownBy(() -> metadata.filterSpecification(List.of("(provider:eq:local OR NOT password:eq:x)")))
+                .isInstanceOf(ServiceException.class);
+    }
+
+    @Test
+    void keysetSort_ManyDistinctParams_KeepsCacheBounded() {
+        RepositoryQueryMetadata metadata = RepositoryQueryMetadata.of(repo);
+
+        for (int i = 0; i < RepositoryQueryMetadata.MAX_SHAPES * 2; i++) {
+            metadata.keysetSort("email:asc,x" + i);
+        }
+
+        assertThat(metadata.cachedShapes()).isLessThan(RepositoryQueryMetadata.MAX_SHAPES * 2);
+    }
+
+    @Test
+    void filterSpecification_ManyDistinctFilters_KeepsParsedCacheBounded() {
+        RepositoryQueryMetadata metadata = RepositoryQueryMetadata.of(repo);
+
+        for (int i = 0; i < RepositoryQueryMetadata.MAX_PARSED_FILTERS * 2; i++) {
+            assertThat(metadata.<Object>filterSpecification(List.of("provider:eq:p" + i))).isNotNull();
+        }
+
+        assertThat(metadata.cachedFilters()).isLessThanOrEqualTo(RepositoryQueryMetadata.MAX_PARSED_FILTERS);
+    }
+}
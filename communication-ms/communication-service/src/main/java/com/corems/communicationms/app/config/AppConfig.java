@@ -1,5 +1,8 @@
 package com.corems.communicationms.app.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -7,7 +10,7 @@ import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.JavaMailSenderImpl;
 
 @Configuration
-@EnableConfigurationProperties({MailConfig.class, SlackConfig.class, SmsConfig.class})
+@EnableConfigurationProperties({MailConfig.class, SlackConfig.class, SmsConfig.class, OutboxConfig.class})
 public class AppConfig {
 
     public final MailConfig mailConfig;
@@ -26,4 +29,15 @@ public class AppConfig {
         mailSender.setJavaMailProperties(mailConfig.getProperties());
         return mailSender;
     }
+
+    /**
+     * Mapper for outbox payloads, shared by the dispatcher writing them and the relay reading them back.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public ObjectMapper objectMapper() {
+        return new ObjectMapper()
+                .findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
 }
@@ -0,0 +1,33 @@
+package com.corems.communicationms.app.config;
+
+import com.corems.communicationms.app.model.MessageType;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @param channelQueues optional queue per channel; messages of a mapped channel are published to and consumed from
+ *                      that queue instead of the priority lanes, so a slow channel does not hold up the others
+ */
+@ConfigurationProperties(prefix = "outbox")
+public record OutboxConfig(Integer batchSize, Long pollIntervalMs, Integer maxAttempts, Long retryBackoffMs,
+                           Long maxRetryBackoffMs, Long claimTimeoutMs, Map<MessageType, String> channelQueues) {
+
+    public OutboxConfig {
+        channelQueues = channelQueues == null ? Map.of() : Map.copyOf(channelQueues);
+    }
+
+    /**
+     * Queue of each mapped channel keyed by queue message type, as consumed by the queue poller.
+     */
+    public Map<String, String> typeDestinations() {
+        Map<String, String> destinations = new HashMap<>();
+        channelQueues.forEach((type, queue) -> {
+            if (queue != null && !queue.isBlank()) {
+                destinations.put(type.toString(), queue);
+            }
+        });
+        return destinations;
+    }
+}
@@ -0,0 +1,19 @@
+package com.corems.communicationms.app.config;
+
+import com.corems.communicationms.app.util.StreamResponseHelper;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers a DisposableBean that gracefully shuts down StreamResponseHelper's writer executor
+ * when the Spring application context is closing.
+ */
+@Configuration
+public class StreamShutdownConfig {
+
+    @Bean
+    public DisposableBean streamResponseHelperShutdown() {
+        return StreamResponseHelper::shutdown;
+    }
+}
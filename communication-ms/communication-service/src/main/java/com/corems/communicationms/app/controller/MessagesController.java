@@ -4,17 +4,22 @@ import com.corems.common.security.CoreMsRoles;
 import com.corems.common.security.RequireRoles;
 import com.corems.common.security.SecurityUtils;
 import com.corems.common.security.UserPrincipal;
+import com.corems.common.utils.db.utils.CountMode;
+import com.corems.common.utils.db.utils.QueryParams;
 import com.corems.communicationms.api.MessagesApi;
 import com.corems.communicationms.api.model.EmailMessageRequest;
 import com.corems.communicationms.api.model.MessageListResponse;
 import com.corems.communicationms.api.model.MessageResponse;
 import com.corems.communicationms.api.model.SmsMessageRequest;
+import com.corems.communicationms.app.model.MessageExportFormat;
 import com.corems.communicationms.app.service.EmailService;
 import com.corems.communicationms.app.service.MessagingService;
 import com.corems.communicationms.app.service.SmsService;
+import com.corems.communicationms.app.util.StreamResponseHelper;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
@@ -38,7 +43,9 @@ public class MessagesController implements MessagesApi {
             Optional<Integer> pageSize,
             Optional<String> sort,
             Optional<String> search,
-            Optional<List<String>> filter) {
+            Optional<List<String>> filter,
+            Optional<String> cursor,
+            Optional<String> count) {
 
         UserPrincipal userPrincipal = SecurityUtils.getUserPrincipal();
 
@@ -63,12 +70,26 @@ public class MessagesController implements MessagesApi {
                 pageSize,
                 sort,
                 search,
-                filter
+                filter,
+                cursor,
+                count.map(CountMode::fromString)
         );
 
         return ResponseEntity.ok(resp);
     }
 
+    @Override
+    @RequireRoles(CoreMsRoles.COMMUNICATION_MS_ADMIN)
+    public ResponseEntity<Resource> exportMessages(Optional<String> format,
+                                                   Optional<String> sort,
+                                                   Optional<String> search,
+                                                   Optional<List<String>> filter) {
+        MessageExportFormat exportFormat = MessageExportFormat.fromString(format.orElse(null));
+        QueryParams params = messagingService.prepareExport(search, sort, filter);
+        return StreamResponseHelper.buildWriterResponse(out -> messagingService.exportMessages(params, exportFormat, out),
+                exportFormat.getContentType(), "messages." + exportFormat.getExtension());
+    }
+
     @Override
     @RequireRoles(CoreMsRoles.COMMUNICATION_MS_ADMIN)
     public ResponseEntity<MessageResponse> sendSmsMessage(@Valid SmsMessageRequest smsMessageRequest) {
@@ -12,8 +12,10 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Inheritance;
 import jakarta.persistence.InheritanceType;
+import jakarta.persistence.Table;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.Setter;
@@ -24,6 +26,12 @@ import java.time.Instant;
 import java.util.UUID;
 
 @Entity(name = "message")
+@Table(name = "message", indexes = {
+        // Search matches the UUID fields by value, filters and listings narrow by user; the trailing keys
+        // serve the newest-first keyset listing of a user's messages straight from the index
+        @Index(name = "message_user_id_created_at_id_idx", columnList = "userId, createdAt, id"),
+        @Index(name = "message_sent_by_id_idx", columnList = "sentById")
+})
 @Inheritance(strategy = InheritanceType.JOINED)
 @DiscriminatorColumn(name = "type", discriminatorType = DiscriminatorType.STRING)
 @Getter
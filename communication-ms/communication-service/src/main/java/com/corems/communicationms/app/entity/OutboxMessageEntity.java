@@ -0,0 +1,70 @@
+package com.corems.communicationms.app.entity;
+
+import com.corems.common.queue.QueuePriority;
+import com.corems.communicationms.app.model.MessageType;
+import com.corems.communicationms.app.model.OutboxStatus;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Message waiting to be published to the queue. Rows are written in the same transaction as the message
+ * itself and removed by the outbox relay once the broker confirms them. Rows the relay keeps failing on are
+ * parked and left for an operator.
+ */
+@Entity
+@Table(name = "outbox_message", indexes = @Index(name = "outbox_message_due_idx", columnList = "status, nextAttemptAt, id"))
+@Getter
+@Setter
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class OutboxMessageEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @EqualsAndHashCode.Include
+    private Long id;
+
+    @Column(nullable = false, length = 36)
+    private UUID messageUuid;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private MessageType messageType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private QueuePriority priority = QueuePriority.NORMAL;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OutboxStatus status = OutboxStatus.pending;
+
+    // When the relay may pick the row up; pushed forward while a relay publishes it and after failed attempts
+    @Column(nullable = false)
+    private Instant nextAttemptAt = Instant.now();
+
+    private Instant notBefore;
+
+    private String lastError;
+
+    @CreationTimestamp
+    private Instant createdAt;
+}
@@ -0,0 +1,34 @@
+package com.corems.communicationms.app.model;
+
+import com.corems.common.exception.ServiceException;
+import com.corems.common.exception.handler.DefaultExceptionReasonCodes;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Locale;
+
+/**
+ * Output format of a message export.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum MessageExportFormat {
+    /** One JSON message per line. */
+    NDJSON("application/x-ndjson", "ndjson"),
+    /** Header row followed by one row per message. */
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String extension;
+
+    public static MessageExportFormat fromString(String value) {
+        if (value == null || value.isBlank()) {
+            return NDJSON;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw ServiceException.of(DefaultExceptionReasonCodes.PARAMETER_INVALID, "Unknown export format: " + value);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.corems.communicationms.app.model;
+
+import lombok.Getter;
+
+@Getter
+public enum OutboxStatus {
+    pending,
+    parked
+}
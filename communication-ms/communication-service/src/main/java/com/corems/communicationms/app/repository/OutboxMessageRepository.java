@@ -0,0 +1,40 @@
+package com.corems.communicationms.app.repository;
+
+import com.corems.communicationms.app.entity.OutboxMessageEntity;
+import com.corems.communicationms.app.model.OutboxStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface OutboxMessageRepository extends JpaRepository<OutboxMessageEntity, Long> {
+
+    /**
+     * Pending rows that are due, oldest first, locked for the current transaction. Rows locked by another relay
+     * instance are skipped (lock timeout -2 is SKIP LOCKED), so instances claim disjoint batches.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select o from OutboxMessageEntity o where o.status = :status and o.nextAttemptAt <= :now order by o.nextAttemptAt, o.id")
+    List<OutboxMessageEntity> findDue(@Param("status") OutboxStatus status, @Param("now") Instant now, Pageable pageable);
+
+    /**
+     * Record a failed publish. A bulk update rather than a merge, so a row another relay already published and
+     * deleted after this relay's claim ran out is not written back.
+     */
+    @Modifying
+    @Query("update OutboxMessageEntity o set o.status = :status, o.attempts = :attempts, o.nextAttemptAt = :nextAttemptAt, "
+            + "o.lastError = :lastError where o.id = :id")
+    int updateAfterFailure(@Param("id") Long id, @Param("status") OutboxStatus status, @Param("attempts") int attempts,
+                           @Param("nextAttemptAt") Instant nextAttemptAt, @Param("lastError") String lastError);
+}
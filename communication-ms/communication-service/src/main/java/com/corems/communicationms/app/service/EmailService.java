@@ -21,6 +21,7 @@ import com.corems.documentms.api.model.DocumentResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.time.ZoneOffset;
@@ -43,6 +44,8 @@ public class EmailService {
     private final MessageDispatcher messageDispatcher;
     private final DocumentApi documentApi;
 
+    // Entity and outbox row commit together; a failed synchronous send still keeps the message as failed
+    @Transactional(noRollbackFor = ServiceException.class)
     public MessageResponse sendMessage(EmailMessageRequest emailRequest) {
         EmailMessageEntity emailEntity = createEntity(emailRequest);
         EmailPayload payload = getPayload(emailRequest);
@@ -58,7 +61,7 @@ public class EmailService {
         }
 
         try {
-            MessageStatus status = messageDispatcher.dispatchMessage(emailServiceProvider, emailEntity.getUuid(), payload);
+            MessageStatus status = messageDispatcher.dispatchMessage(emailServiceProvider, emailEntity.getUuid(), payload, emailRequest.getPriority(), emailRequest.getSendAt());
             emailEntity.setStatus(status);
         } catch (ServiceException exception) {
             log.error("Failed to send email message: ", exception);
@@ -93,7 +96,7 @@ public class EmailService {
                 validateAttachments(payload.getDocumentUuids());
             }
 
-            MessageStatus status = messageDispatcher.dispatchMessage(emailServiceProvider, UUID.randomUUID(), payload);
+            MessageStatus status = messageDispatcher.dispatchMessage(emailServiceProvider, UUID.randomUUID(), payload, emailRequest.getPriority(), emailRequest.getSendAt());
 
             NotificationResponse response = new NotificationResponse();
             response.setStatus(SendStatus.fromValue(status.toString()));
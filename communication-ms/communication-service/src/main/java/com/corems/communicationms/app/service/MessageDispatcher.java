@@ -1,34 +1,73 @@
 package com.corems.communicationms.app.service;
 
 import com.corems.common.exception.ServiceException;
-import com.corems.common.queue.QueueClient;
-import com.corems.common.queue.QueueMessage;
+import com.corems.common.exception.handler.DefaultExceptionReasonCodes;
+import com.corems.common.queue.QueuePriority;
 import com.corems.common.queue.QueueProvider;
+import com.corems.communicationms.api.model.MessagePriority;
+import com.corems.communicationms.app.entity.OutboxMessageEntity;
 import com.corems.communicationms.app.model.MessageStatus;
+import com.corems.communicationms.app.repository.OutboxMessageRepository;
 import com.corems.communicationms.app.service.provider.ChannelProvider;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
+import java.time.OffsetDateTime;
 import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
 public class MessageDispatcher {
     private final QueueProvider queueProvider;
+    private final OutboxMessageRepository outboxMessageRepository;
+    private final ObjectMapper objectMapper;
 
+    /**
+     * With queueing enabled the message is written to the outbox in the caller's transaction and published
+     * later by {@link OutboxRelay}, so the request never waits on the broker. Otherwise it is sent right away.
+     */
     public <T> MessageStatus dispatchMessage(ChannelProvider<T> channelProvider, UUID messageId, T payload) throws ServiceException {
-        if (queueProvider.isEnabled()) {
-            QueueClient queueClient = queueProvider.getDefaultClient();
+        return dispatchMessage(channelProvider, messageId, payload, null, null);
+    }
 
-            QueueMessage qm = new QueueMessage();
-            qm.setId(messageId.toString());
-            qm.setType(channelProvider.getMessageType().toString());
-            qm.setPayload(payload);
-            queueClient.send(qm);
+    /**
+     * @param sendAt earliest delivery time; the queue holds the message until then, so scheduling needs queueing
+     *               enabled on a client that supports delayed delivery
+     */
+    public <T> MessageStatus dispatchMessage(ChannelProvider<T> channelProvider, UUID messageId, T payload,
+                                             MessagePriority priority, OffsetDateTime sendAt) throws ServiceException {
+        Instant notBefore = sendAt == null ? null : sendAt.toInstant();
+        boolean scheduled = notBefore != null && notBefore.isAfter(Instant.now());
+        if (queueProvider.isEnabled()) {
+            if (scheduled && !queueProvider.getDefaultClient().supportsDelayedDelivery()) {
+                throw ServiceException.of(DefaultExceptionReasonCodes.PARAMETER_INVALID,
+                        "Scheduled sending requires a queue with delayed delivery configured.");
+            }
+            OutboxMessageEntity outbox = new OutboxMessageEntity();
+            outbox.setMessageUuid(messageId);
+            outbox.setMessageType(channelProvider.getMessageType());
+            outbox.setPriority(QueuePriority.fromString(priority == null ? null : priority.getValue()));
+            outbox.setNotBefore(notBefore);
+            outbox.setPayload(writePayload(payload));
+            outboxMessageRepository.save(outbox);
             return MessageStatus.enqueued;
         }
 
+        if (scheduled) {
+            throw ServiceException.of(DefaultExceptionReasonCodes.PARAMETER_INVALID, "Scheduled sending requires queueing to be enabled.");
+        }
         channelProvider.send(payload);
         return MessageStatus.sent;
     }
+
+    private String writePayload(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw ServiceException.of(DefaultExceptionReasonCodes.SERVER_ERROR, "Unable to serialize message payload.");
+        }
+    }
 }
@@ -1,8 +1,13 @@
 package com.corems.communicationms.app.service;
 
+import com.corems.common.queue.QueueClient;
 import com.corems.common.queue.QueueProvider;
+import com.corems.common.queue.config.ConsumerMode;
+import com.corems.common.queue.converter.QueuePayloadTypeRegistry;
+import com.corems.common.queue.idempotency.IdempotencyGuard;
 import com.corems.common.queue.poller.GenericQueuePoller;
 import com.corems.common.queue.poller.MessageHandler;
+import com.corems.communicationms.app.config.OutboxConfig;
 import com.corems.communicationms.app.entity.MessageEntity;
 import com.corems.communicationms.app.model.MessageStatus;
 import com.corems.communicationms.app.repository.MessageRepository;
@@ -26,13 +31,25 @@ import java.util.stream.Collectors;
 public class MessageQueuePoller {
     private final MessageRepository messageRepository;
     private final GenericQueuePoller genericPoller;
+    private final ConsumerMode consumerMode;
 
     public MessageQueuePoller(QueueProvider queueProvider,
+                              QueuePayloadTypeRegistry payloadTypeRegistry,
+                              IdempotencyGuard idempotencyGuard,
                               MessageRepository messageRepository,
-                              Map<String, ChannelProvider<?>> channelProviders) {
+                              Map<String, ChannelProvider<?>> channelProviders,
+                              OutboxConfig outboxConfig) {
 
         this.messageRepository = messageRepository;
-        this.genericPoller = new GenericQueuePoller(queueProvider.getDefaultClient(), getQueueHandlers(channelProviders));
+        // Lets the queue converter bind payloads straight to EmailPayload/SmsPayload/SlackPayload
+        channelProviders.values().forEach(cp -> payloadTypeRegistry.register(cp.getMessageType().toString(), cp.getPayloadType()));
+        QueueClient queueClient = queueProvider.getDefaultClient();
+        // queue.providers.<provider>.consumerMode switches between receive polling and broker push delivery
+        this.consumerMode = queueClient.getProperties().getConsumerMode();
+        // queue.idempotency keeps a redelivered message id from sending the same email or sms twice;
+        // outbox.channelQueues moves a channel to its own queue, consumed next to the default queue and its lanes
+        this.genericPoller = new GenericQueuePoller(queueClient, getQueueHandlers(channelProviders),
+                outboxConfig.typeDestinations(), true, idempotencyGuard);
     }
 
     private Map<String, MessageHandler> getQueueHandlers(Map<String, ChannelProvider<?>> channelProviders) {
@@ -68,7 +85,7 @@ public class MessageQueuePoller {
 
     @PostConstruct
     public void start() {
-        log.info("MessageQueuePoller initialized and delegated to GenericQueuePoller");
+        log.info("MessageQueuePoller initialized and delegated to GenericQueuePoller (consumerMode={})", consumerMode);
     }
 
     @PreDestroy
@@ -9,17 +9,28 @@ import com.corems.communicationms.app.entity.MessageEntity;
 import com.corems.communicationms.api.model.MessageResponse;
 import com.corems.communicationms.api.model.MessageListResponse;
 import com.corems.communicationms.app.entity.SMSMessageEntity;
+import com.corems.communicationms.app.model.MessageExportFormat;
 import com.corems.communicationms.app.repository.MessageRepository;
+import com.corems.communicationms.app.util.MessageExportWriter;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.data.domain.Page;
+import com.corems.common.utils.db.utils.CountMode;
+import com.corems.common.utils.db.utils.CountedPage;
+import com.corems.common.utils.db.utils.CursorPage;
 import com.corems.common.utils.db.utils.QueryParams;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
@@ -27,6 +38,7 @@ import java.util.UUID;
 public class MessagingService {
 
     private final MessageRepository messageRepository;
+    private final EntityManager entityManager;
 
     public MessageListResponse listMessages(
             UUID userId,
@@ -35,6 +47,25 @@ public class MessagingService {
             Optional<String> sort,
             Optional<String> search,
             Optional<List<String>> filter
+    ) {
+        return listMessages(userId, page, pageSize, sort, search, filter, Optional.empty(), Optional.empty());
+    }
+
+    /**
+     * With a cursor the list continues after the cursor row using keyset pagination, without totals.
+     * Otherwise {@code countMode} decides how the total is obtained. Payloads live in the subclass tables, so rows
+     * are loaded as entities, in a read-only transaction to skip dirty-checking snapshots.
+     */
+    @Transactional(readOnly = true)
+    public MessageListResponse listMessages(
+            UUID userId,
+            Optional<Integer> page,
+            Optional<Integer> pageSize,
+            Optional<String> sort,
+            Optional<String> search,
+            Optional<List<String>> filter,
+            Optional<String> cursor,
+            Optional<CountMode> countMode
     ) {
         // Merge userId constraint into filters so the executor will scope to this user
         List<String> mergedFilters = new java.util.ArrayList<>();
@@ -46,7 +77,15 @@ public class MessagingService {
         // If no sort provided, default to createdAt desc
         sort = sort.or(() -> Optional.of("createdAt:desc"));
 
-        QueryParams params = new QueryParams(page, pageSize, search, sort, Optional.of(mergedFilters));
+        QueryParams params = new QueryParams(page, pageSize, search, sort, Optional.of(mergedFilters), cursor, countMode);
+        if (cursor.isPresent()) {
+            CursorPage<MessageEntity> slice = messageRepository.findAllByCursor(params);
+            MessageListResponse response = new MessageListResponse(page.orElse(1), slice.pageSize());
+            response.setItems(slice.items().stream().map(this::mapToMessageResponse).toList());
+            response.setNextCursor(slice.nextCursor());
+            return response;
+        }
+
         Page<MessageEntity> result = messageRepository.findAllByQueryParams(params);
 
         List<MessageResponse> items = result.getContent().stream()
@@ -55,12 +94,39 @@ public class MessagingService {
 
         MessageListResponse response = new MessageListResponse(result.getNumber() + 1, result.getSize());
         response.setItems(items);
-        response.setTotalPages(result.getTotalPages());
-        response.setTotalElements(result.getTotalElements());
+        if (CountedPage.isTotalKnown(result)) {
+            response.setTotalPages(result.getTotalPages());
+            response.setTotalElements(result.getTotalElements());
+            response.setTotalExact(CountedPage.isTotalExact(result));
+        }
+        response.setNextCursor(messageRepository.nextCursor(result));
 
         return response;
     }
 
+    /**
+     * Query of an admin export: the same search, filters and sort as the list, validated here so a bad filter
+     * fails before the response starts streaming.
+     */
+    public QueryParams prepareExport(Optional<String> search, Optional<String> sort, Optional<List<String>> filter) {
+        QueryParams params = new QueryParams(Optional.empty(), Optional.empty(), search,
+                sort.or(() -> Optional.of("createdAt:desc")), Optional.of(new ArrayList<>(filter.orElse(List.of()))));
+        messageRepository.validateQueryParams(params);
+        return params;
+    }
+
+    /**
+     * Writes every message matching {@code params} to {@code out}. Payloads live in the subclass tables, so rows are
+     * streamed from one database cursor as entities and detached as they are written; memory use does not grow with
+     * the number of messages.
+     */
+    @Transactional(readOnly = true)
+    public void exportMessages(QueryParams params, MessageExportFormat format, OutputStream out) throws IOException {
+        try (Stream<MessageEntity> messages = messageRepository.streamByQueryParams(params, entityManager)) {
+            MessageExportWriter.write(messages.map(this::mapToMessageResponse).iterator(), format, out);
+        }
+    }
+
     private MessageResponse mapToMessageResponse(MessageEntity entity) {
         MessageResponse mr = new MessageResponse();
         mr.setUuid(entity.getUuid());
@@ -0,0 +1,203 @@
+package com.corems.communicationms.app.service;
+
+import com.corems.common.queue.BatchSendResult;
+import com.corems.common.queue.QueueClient;
+import com.corems.common.queue.QueueMessage;
+import com.corems.common.queue.QueuePriority;
+import com.corems.common.queue.QueueProvider;
+import com.corems.common.queue.SendResult;
+import com.corems.communicationms.app.config.OutboxConfig;
+import com.corems.communicationms.app.entity.OutboxMessageEntity;
+import com.corems.communicationms.app.model.MessageType;
+import com.corems.communicationms.app.model.OutboxStatus;
+import com.corems.communicationms.app.repository.OutboxMessageRepository;
+import com.corems.communicationms.app.service.provider.ChannelProvider;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Publishes outbox rows to the queue in batches. A batch is claimed in a short transaction that moves the rows'
+ * {@code nextAttemptAt} past the claim timeout, so other relay instances skip them without a lock being held
+ * while the broker confirms. The claimed rows are then sent with publisher confirms and, in a second short
+ * transaction, confirmed rows are deleted and the rest rescheduled with exponential backoff. A row that fails
+ * {@code maxAttempts} times, or whose payload cannot be read, is parked so it no longer holds up the outbox.
+ * If the relay dies mid-batch, its rows become due again once the claim times out and are published again.
+ * Rows are split by destination: a channel with its own queue ({@code outbox.channelQueues}) is published there,
+ * every other row lands on its configured priority lane.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "queue.enabled", havingValue = "true")
+public class OutboxRelay {
+    private static final int DEFAULT_BATCH_SIZE = 100;
+    private static final int DEFAULT_MAX_ATTEMPTS = 10;
+    private static final long DEFAULT_RETRY_BACKOFF_MS = 1_000;
+    private static final long DEFAULT_MAX_RETRY_BACKOFF_MS = 300_000;
+    private static final long DEFAULT_CLAIM_TIMEOUT_MS = 60_000;
+    private static final int MAX_ERROR_LENGTH = 255;
+
+    private final OutboxMessageRepository outboxMessageRepository;
+    private final QueueClient queueClient;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<MessageType, Class<?>> payloadTypes;
+    private final Map<String, String> typeDestinations;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long retryBackoffMs;
+    private final long maxRetryBackoffMs;
+    private final long claimTimeoutMs;
+    private final ObjectMapper objectMapper;
+
+    public OutboxRelay(OutboxMessageRepository outboxMessageRepository,
+                       QueueProvider queueProvider,
+                       TransactionTemplate transactionTemplate,
+                       Map<String, ChannelProvider<?>> channelProviders,
+                       OutboxConfig config,
+                       ObjectMapper objectMapper) {
+        this.outboxMessageRepository = outboxMessageRepository;
+        this.objectMapper = objectMapper;
+        this.queueClient = queueProvider.getDefaultClient();
+        this.transactionTemplate = transactionTemplate;
+        this.payloadTypes = channelProviders.values().stream()
+                .collect(Collectors.toMap(ChannelProvider::getMessageType, ChannelProvider::getPayloadType));
+        this.typeDestinations = config.typeDestinations();
+        this.batchSize = config.batchSize() == null || config.batchSize() <= 0 ? DEFAULT_BATCH_SIZE : config.batchSize();
+        this.maxAttempts = config.maxAttempts() == null || config.maxAttempts() <= 0 ? DEFAULT_MAX_ATTEMPTS : config.maxAttempts();
+        this.retryBackoffMs = config.retryBackoffMs() == null || config.retryBackoffMs() <= 0
+                ? DEFAULT_RETRY_BACKOFF_MS : config.retryBackoffMs();
+        this.maxRetryBackoffMs = config.maxRetryBackoffMs() == null || config.maxRetryBackoffMs() <= 0
+                ? DEFAULT_MAX_RETRY_BACKOFF_MS : Math.max(config.maxRetryBackoffMs(), retryBackoffMs);
+        this.claimTimeoutMs = config.claimTimeoutMs() == null || config.claimTimeoutMs() <= 0
+                ? DEFAULT_CLAIM_TIMEOUT_MS : config.claimTimeoutMs();
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.pollIntervalMs:500}")
+    public void relay() {
+        int relayed;
+        do {
+            relayed = relayBatch();
+        } while (relayed == batchSize);
+    }
+
+    /**
+     * Publish one batch. Returns how many rows were confirmed and removed from the outbox.
+     */
+    public int relayBatch() {
+        List<OutboxMessageEntity> batch = claimBatch();
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        Map<String, OutboxMessageEntity> byMessageId = new HashMap<>();
+        Map<String, List<QueueMessage>> byDestination = new LinkedHashMap<>();
+        Map<OutboxMessageEntity, String> poisoned = new LinkedHashMap<>();
+        for (OutboxMessageEntity row : batch) {
+            try {
+                QueueMessage qm = toQueueMessage(row);
+                byDestination.computeIfAbsent(destination(qm), d -> new ArrayList<>()).add(qm);
+                byMessageId.put(row.getMessageUuid().toString(), row);
+            } catch (Exception e) {
+                poisoned.put(row, "Unreadable payload: " + e.getMessage());
+            }
+        }
+
+        // Published outside any transaction: the claim keeps other relays away while confirms arrive
+        List<Long> published = new ArrayList<>();
+        Map<OutboxMessageEntity, String> failed = new LinkedHashMap<>();
+        byDestination.forEach((destination, messages) -> {
+            try {
+                BatchSendResult result = queueClient.sendBatch(destination, messages);
+                for (SendResult sendResult : result.results()) {
+                    OutboxMessageEntity row = byMessageId.get(sendResult.message().getId());
+                    if (sendResult.acked()) {
+                        published.add(row.getId());
+                    } else {
+                        failed.put(row, sendResult.reason());
+                    }
+                }
+            } catch (Exception e) {
+                messages.forEach(qm -> failed.put(byMessageId.get(qm.getId()), e.getMessage()));
+            }
+        });
+
+        transactionTemplate.executeWithoutResult(status -> {
+            outboxMessageRepository.deleteAllByIdInBatch(published);
+            poisoned.forEach(this::park);
+            failed.forEach(this::reschedule);
+        });
+
+        if (published.size() < batch.size()) {
+            log.warn("Outbox relay published {} of {} messages, {} rescheduled, {} unreadable",
+                    published.size(), batch.size(), failed.size(), poisoned.size());
+        } else {
+            log.debug("Outbox relay published {} messages", published.size());
+        }
+        return published.size();
+    }
+
+    /**
+     * Lock the next due rows and move them out of the due window for the claim timeout. The lock is only held
+     * for this short transaction.
+     */
+    private List<OutboxMessageEntity> claimBatch() {
+        List<OutboxMessageEntity> claimed = transactionTemplate.execute(status -> {
+            Instant now = Instant.now();
+            List<OutboxMessageEntity> due = outboxMessageRepository.findDue(OutboxStatus.pending, now, PageRequest.of(0, batchSize));
+            Instant claimedUntil = now.plusMillis(claimTimeoutMs);
+            due.forEach(row -> row.setNextAttemptAt(claimedUntil));
+            return due;
+        });
+        return claimed == null ? List.of() : claimed;
+    }
+
+    private void reschedule(OutboxMessageEntity row, String reason) {
+        int attempts = row.getAttempts() + 1;
+        if (attempts >= maxAttempts) {
+            log.error("Parking outbox message {} after {} failed publish attempts: {}", row.getMessageUuid(), attempts, reason);
+            outboxMessageRepository.updateAfterFailure(row.getId(), OutboxStatus.parked, attempts, row.getNextAttemptAt(), truncate(reason));
+            return;
+        }
+        long backoffMs = Math.min(retryBackoffMs << Math.min(attempts - 1, 30), maxRetryBackoffMs);
+        outboxMessageRepository.updateAfterFailure(row.getId(), OutboxStatus.pending, attempts,
+                Instant.now().plusMillis(backoffMs), truncate(reason));
+    }
+
+    private void park(OutboxMessageEntity row, String reason) {
+        log.error("Parking outbox message {}: {}", row.getMessageUuid(), reason);
+        outboxMessageRepository.updateAfterFailure(row.getId(), OutboxStatus.parked, row.getAttempts() + 1,
+                row.getNextAttemptAt(), truncate(reason));
+    }
+
+    private String destination(QueueMessage qm) {
+        String channelQueue = typeDestinations.get(qm.getType());
+        return channelQueue != null ? channelQueue : queueClient.getProperties().getPriorityDestination(qm.getPriority());
+    }
+
+    private QueueMessage toQueueMessage(OutboxMessageEntity row) throws Exception {
+        Class<?> payloadType = payloadTypes.getOrDefault(row.getMessageType(), Object.class);
+        QueueMessage qm = new QueueMessage();
+        qm.setId(row.getMessageUuid().toString());
+        qm.setType(row.getMessageType().toString());
+        qm.setPriority(row.getPriority() == null ? QueuePriority.NORMAL : row.getPriority());
+        qm.setNotBefore(row.getNotBefore());
+        qm.setPayload(objectMapper.readValue(row.getPayload(), payloadType));
+        return qm;
+    }
+
+    private static String truncate(String reason) {
+        return reason == null || reason.length() <= MAX_ERROR_LENGTH ? reason : reason.substring(0, MAX_ERROR_LENGTH);
+    }
+}
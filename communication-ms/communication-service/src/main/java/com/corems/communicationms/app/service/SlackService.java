@@ -34,7 +34,7 @@ public class SlackService {
     public NotificationResponse sendNotification(SlackNotificationRequest slackRequest) {
         try {
             SlackPayload payload = getPayload(slackRequest);
-            MessageStatus status = messageDispatcher.dispatchMessage(slackServiceProvider, UUID.randomUUID(), payload);
+            MessageStatus status = messageDispatcher.dispatchMessage(slackServiceProvider, UUID.randomUUID(), payload, slackRequest.getPriority(), slackRequest.getSendAt());
 
             NotificationResponse response = new NotificationResponse();
             response.setStatus(SendStatus.fromValue(status.toString()));
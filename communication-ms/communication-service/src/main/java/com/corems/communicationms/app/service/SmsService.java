@@ -18,6 +18,7 @@ import com.corems.common.security.UserPrincipal;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.time.ZoneOffset;
@@ -33,11 +34,12 @@ public class SmsService {
     private final SmsServiceProvider smsServiceProvider;
     private final MessageDispatcher messageDispatcher;
 
+    @Transactional(noRollbackFor = ServiceException.class)
     public MessageResponse sendMessage(SmsMessageRequest smsRequest) {
         SMSMessageEntity smsEntity = createEntity(smsRequest);
         SmsPayload payload = getPayload(smsRequest);
         try {
-            MessageStatus status = messageDispatcher.dispatchMessage(smsServiceProvider, smsEntity.getUuid(), payload);
+            MessageStatus status = messageDispatcher.dispatchMessage(smsServiceProvider, smsEntity.getUuid(), payload, smsRequest.getPriority(), smsRequest.getSendAt());
             smsEntity.setStatus(status);
             messageRepository.save(smsEntity);
         } catch (ServiceException exception) {
@@ -67,7 +69,7 @@ public class SmsService {
     public NotificationResponse sendNotification(SmsNotificationRequest smsRequest) {
         try {
             SmsPayload payload = getPayload(smsRequest);
-            MessageStatus status = messageDispatcher.dispatchMessage(smsServiceProvider, UUID.randomUUID(), payload);
+            MessageStatus status = messageDispatcher.dispatchMessage(smsServiceProvider, UUID.randomUUID(), payload, smsRequest.getPriority(), smsRequest.getSendAt());
 
             NotificationResponse response = new NotificationResponse();
             response.setStatus(SendStatus.fromValue(status.toString()));
@@ -5,6 +5,7 @@ import com.corems.communicationms.app.model.MessageType;
 
 public interface ChannelProvider<T> {
     public MessageType getMessageType();
+    Class<T> getPayloadType();
     void send(T message) throws ServiceException;
     void convertAndSend(Object message) throws ServiceException;
 }
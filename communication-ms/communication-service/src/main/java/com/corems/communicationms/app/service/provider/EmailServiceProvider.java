@@ -31,9 +31,15 @@ public class EmailServiceProvider implements ChannelProvider<EmailPayload> {
         return MessageType.email;
     }
 
+    @Override
+    public Class<EmailPayload> getPayloadType() {
+        return EmailPayload.class;
+    }
+
     @Override
     public void convertAndSend(Object payload) {
-        send(objectMapper.convertValue(payload, EmailPayload.class));
+        // Queue payloads arrive already typed when the message type is registered with the queue converter
+        send(payload instanceof EmailPayload emailPayload ? emailPayload : objectMapper.convertValue(payload, EmailPayload.class));
     }
 
     @Override
@@ -33,9 +33,14 @@ public class SlackServiceProvider implements ChannelProvider<SlackPayload> {
         return MessageType.slack;
     }
 
+    @Override
+    public Class<SlackPayload> getPayloadType() {
+        return SlackPayload.class;
+    }
+
     @Override
     public void convertAndSend(Object payload) {
-        send(objectMapper.convertValue(payload, SlackPayload.class));
+        send(payload instanceof SlackPayload slackPayload ? slackPayload : objectMapper.convertValue(payload, SlackPayload.class));
     }
 
     @Override
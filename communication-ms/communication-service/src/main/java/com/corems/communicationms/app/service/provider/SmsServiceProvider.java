@@ -32,9 +32,14 @@ public class SmsServiceProvider implements ChannelProvider<SmsPayload> {
         return MessageType.sms;
     }
 
+    @Override
+    public Class<SmsPayload> getPayloadType() {
+        return SmsPayload.class;
+    }
+
     @Override
     public void convertAndSend(Object payload) {
-        send(objectMapper.convertValue(payload, SmsPayload.class));
+        send(payload instanceof SmsPayload smsPayload ? smsPayload : objectMapper.convertValue(payload, SmsPayload.class));
     }
 
     @Override
@@ -0,0 +1,108 @@
+package com.corems.communicationms.app.util;
+
+import com.corems.communicationms.api.model.EmailPayload;
+import com.corems.communicationms.api.model.MessageResponse;
+import com.corems.communicationms.api.model.SmsPayload;
+import com.corems.communicationms.app.model.MessageExportFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Writes message responses one by one as NDJSON or CSV, so an export never holds more than one row.
+ */
+public final class MessageExportWriter {
+
+    private static final ObjectMapper JSON = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .setSerializationInclusion(JsonInclude.Include.NON_NULL);
+
+    // Leading characters that make spreadsheet applications treat a cell as a formula
+    private static final String FORMULA_PREFIXES = "=+-@\t\r";
+
+    private static final Map<String, Function<MessageResponse, Object>> CSV_COLUMNS = new LinkedHashMap<>();
+
+    static {
+        CSV_COLUMNS.put("uuid", MessageResponse::getUuid);
+        CSV_COLUMNS.put("type", MessageResponse::getType);
+        CSV_COLUMNS.put("status", MessageResponse::getStatus);
+        CSV_COLUMNS.put("userId", MessageResponse::getUserId);
+        CSV_COLUMNS.put("sentByType", MessageResponse::getSentByType);
+        CSV_COLUMNS.put("sentById", MessageResponse::getSentById);
+        CSV_COLUMNS.put("createdAt", MessageResponse::getCreatedAt);
+        // Email and SMS payloads share the recipient and body columns
+        CSV_COLUMNS.put("recipient", message -> switch ((Object) message.getPayload()) {
+            case EmailPayload email -> email.getRecipient();
+            case SmsPayload sms -> sms.getPhoneNumber();
+            case null, default -> null;
+        });
+        CSV_COLUMNS.put("subject", message -> message.getPayload() instanceof EmailPayload email ? email.getSubject() : null);
+        CSV_COLUMNS.put("body", message -> switch ((Object) message.getPayload()) {
+            case EmailPayload email -> email.getBody();
+            case SmsPayload sms -> sms.getMessage();
+            case null, default -> null;
+        });
+    }
+
+    private MessageExportWriter() {
+        // utility
+    }
+
+    public static void write(Iterator<MessageResponse> messages, MessageExportFormat format, OutputStream out) throws IOException {
+        // The writer is flushed but not closed: the caller owns the output stream
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == MessageExportFormat.CSV) {
+            writeCsvRow(writer, CSV_COLUMNS.keySet());
+        }
+        while (messages.hasNext()) {
+            MessageResponse message = messages.next();
+            if (format == MessageExportFormat.CSV) {
+                writeCsvRow(writer, CSV_COLUMNS.values().stream().map(column -> column.apply(message)).toList());
+            } else {
+                writer.write(JSON.writeValueAsString(message));
+                writer.write('\n');
+            }
+        }
+        writer.flush();
+    }
+
+    private static void writeCsvRow(Writer writer, Iterable<?> values) throws IOException {
+        boolean first = true;
+        for (Object value : values) {
+            if (!first) {
+                writer.write(',');
+            }
+            first = false;
+            writer.write(csvField(value));
+        }
+        writer.write("\r\n");
+    }
+
+    static String csvField(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (!text.isEmpty() && FORMULA_PREFIXES.indexOf(text.charAt(0)) >= 0) {
+            // Spreadsheets evaluate such cells as formulas; the quote makes them plain text
+            text = "'" + text;
+        }
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,127 @@
+package com.corems.communicationms.app.util;
+
+import com.corems.common.exception.ServiceException;
+import com.corems.common.exception.handler.DefaultExceptionReasonCodes;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Utility to build streaming HTTP responses for exports.
+ */
+@Slf4j
+public final class StreamResponseHelper {
+
+    // Every response being streamed holds one writer thread and a database connection
+    static final int MAX_WRITER_THREADS = 16;
+    private static final int BUFFER_SIZE = 8192;
+
+    private static final ExecutorService writerExecutor = new ThreadPoolExecutor(0, MAX_WRITER_THREADS,
+            60L, TimeUnit.SECONDS, new SynchronousQueue<>(), new ThreadFactory() {
+        private final ThreadFactory defaultFactory = Executors.defaultThreadFactory();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread t = defaultFactory.newThread(r);
+            t.setDaemon(true);
+            t.setName("stream-write-" + t.threadId());
+            return t;
+        }
+    });
+
+    private StreamResponseHelper() {
+        // utility
+    }
+
+    /**
+     * Produces the body of a response while it is being sent: {@code writer} runs on a writer thread and writes
+     * into a pipe that the MVC infrastructure reads from, so the content is never held in memory. The writer runs
+     * outside the request thread; anything request-scoped (principal, validation) must be resolved beforehand.
+     */
+    public static ResponseEntity<Resource> buildWriterResponse(ContentWriter writer, String contentType, String filename) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType(contentType));
+        headers.setContentDisposition(ContentDisposition.attachment()
+                .filename(filename, StandardCharsets.UTF_8)
+                .build());
+        headers.setCacheControl("no-cache, no-store, must-revalidate");
+
+        try {
+            final PipedInputStream pipedIn = new PipedInputStream(BUFFER_SIZE);
+            final PipedOutputStream pipedOut = new PipedOutputStream(pipedIn);
+            submitWriter(pipedIn, () -> {
+                try (OutputStream out = new BufferedOutputStream(pipedOut, BUFFER_SIZE)) {
+                    writer.writeTo(out);
+                } catch (IOException ex) {
+                    // client likely disconnected; stop writing
+                    log.debug("Streaming {} stopped: {}", filename, ex.getMessage());
+                } catch (RuntimeException ex) {
+                    // headers are already sent, the client sees a truncated body
+                    log.error("Streaming {} failed", filename, ex);
+                }
+            }, filename);
+
+            InputStreamResource resource = new InputStreamResource(pipedIn) {
+                @Override
+                public long contentLength() {
+                    return -1;
+                }
+            };
+            return ResponseEntity.ok()
+                    .headers(headers)
+                    .body(resource);
+        } catch (IOException e) {
+            throw ServiceException.of(DefaultExceptionReasonCodes.SERVER_ERROR, "Failed to open response stream: " + e.getMessage());
+        }
+    }
+
+    private static void submitWriter(PipedInputStream pipedIn, Runnable task, String filename) throws IOException {
+        try {
+            writerExecutor.submit(task);
+        } catch (RejectedExecutionException ex) {
+            pipedIn.close();
+            log.warn("Streaming {} rejected, {} responses are already streaming", filename, MAX_WRITER_THREADS);
+            throw ServiceException.of(DefaultExceptionReasonCodes.SERVER_ERROR,
+                    "Too many responses are being streamed, try again later");
+        }
+    }
+
+    /**
+     * Body producer for {@link #buildWriterResponse}.
+     */
+    @FunctionalInterface
+    public interface ContentWriter {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    // Should be called on application shutdown to try to terminate writer threads gracefully.
+    public static void shutdown() {
+        writerExecutor.shutdown();
+        try {
+            if (!writerExecutor.awaitTermination(2, TimeUnit.SECONDS)) {
+                writerExecutor.shutdownNow();
+            }
+        } catch (InterruptedException ignored) {
+            writerExecutor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
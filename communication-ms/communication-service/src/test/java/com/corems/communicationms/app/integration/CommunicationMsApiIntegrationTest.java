@@ -201,7 +201,7 @@ class CommunicationMsApiIntegrationTest {
         emailRequest.setBody("Test Body");
         messagesApi.sendEmailMessage(emailRequest);
 
-        MessageListResponse response = messagesApi.getMessages(1, 10, null, null, null);
+        MessageListResponse response = messagesApi.getMessages(1, 10, null, null, null, null, null);
 
         assertThat(response).isNotNull();
         assertThat(response.getItems()).isNotEmpty();
@@ -221,12 +221,12 @@ class CommunicationMsApiIntegrationTest {
             messagesApi.sendEmailMessage(request);
         }
 
-        MessageListResponse page1 = messagesApi.getMessages(1, 2, null, null, null);
+        MessageListResponse page1 = messagesApi.getMessages(1, 2, null, null, null, null, null);
         assertThat(page1.getItems()).hasSize(2);
         assertThat(page1.getPage()).isEqualTo(1);
         assertThat(page1.getPageSize()).isEqualTo(2);
 
-        MessageListResponse page2 = messagesApi.getMessages(2, 2, null, null, null);
+        MessageListResponse page2 = messagesApi.getMessages(2, 2, null, null, null, null, null);
         assertThat(page2.getItems()).hasSize(2);
         assertThat(page2.getPage()).isEqualTo(2);
     }
@@ -341,7 +341,7 @@ class CommunicationMsApiIntegrationTest {
 
         // User should see their own messages
         authenticateAsUser();
-        MessageListResponse response = messagesApi.getMessages(1, 10, null, null, null);
+        MessageListResponse response = messagesApi.getMessages(1, 10, null, null, null, null, null);
 
         assertThat(response).isNotNull();
         assertThat(response.getItems()).isNotEmpty();
@@ -0,0 +1,129 @@
+package com.corems.communicationms.app.service;
+
+import com.corems.common.exception.ServiceException;
+import com.corems.common.queue.QueueClient;
+import com.corems.common.queue.QueuePriority;
+import com.corems.common.queue.QueueProvider;
+import com.corems.communicationms.api.model.MessagePriority;
+import com.corems.communicationms.app.entity.OutboxMessageEntity;
+import com.corems.communicationms.app.model.MessageStatus;
+import com.corems.communicationms.app.model.MessageType;
+import com.corems.communicationms.app.model.OutboxStatus;
+import com.corems.communicationms.app.repository.OutboxMessageRepository;
+import com.corems.communicationms.app.service.provider.ChannelProvider;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.OffsetDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MessageDispatcherTest {
+
+    private QueueProvider queueProvider;
+    private QueueClient queueClient;
+    private OutboxMessageRepository outboxMessageRepository;
+    private ChannelProvider<Map<String, String>> channelProvider;
+    private MessageDispatcher dispatcher;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        queueProvider = mock(QueueProvider.class);
+        queueClient = mock(QueueClient.class);
+        when(queueClient.supportsDelayedDelivery()).thenReturn(true);
+        when(queueProvider.getDefaultClient()).thenReturn(queueClient);
+        outboxMessageRepository = mock(OutboxMessageRepository.class);
+        channelProvider = mock(ChannelProvider.class);
+        when(channelProvider.getMessageType()).thenReturn(MessageType.email);
+        dispatcher = new MessageDispatcher(queueProvider, outboxMessageRepository, new ObjectMapper());
+    }
+
+    @Test
+    void dispatchMessage_WithQueueEnabled_WritesOutboxRowWithPriorityAndSchedule() {
+        when(queueProvider.isEnabled()).thenReturn(true);
+        UUID messageId = UUID.randomUUID();
+        OffsetDateTime sendAt = OffsetDateTime.now().plusHours(1);
+
+        MessageStatus status = dispatcher.dispatchMessage(channelProvider, messageId, Map.of("subject", "Hi"),
+                MessagePriority.TRANSACTIONAL, sendAt);
+
+        ArgumentCaptor<OutboxMessageEntity> saved = ArgumentCaptor.forClass(OutboxMessageEntity.class);
+        verify(outboxMessageRepository).save(saved.capture());
+        assertThat(status).isEqualTo(MessageStatus.enqueued);
+        assertThat(saved.getValue().getMessageUuid()).isEqualTo(messageId);
+        assertThat(saved.getValue().getMessageType()).isEqualTo(MessageType.email);
+        assertThat(saved.getValue().getPriority()).isEqualTo(QueuePriority.TRANSACTIONAL);
+        assertThat(saved.getValue().getNotBefore()).isEqualTo(sendAt.toInstant());
+        assertThat(saved.getValue().getStatus()).isEqualTo(OutboxStatus.pending);
+        assertThat(saved.getValue().getPayload()).isEqualTo("{\"subject\":\"Hi\"}");
+        verify(channelProvider, never()).send(any());
+    }
+
+    @Test
+    void dispatchMessage_WithQueueEnabledAndNoPriority_UsesNormalPriority() {
+        when(queueProvider.isEnabled()).thenReturn(true);
+
+        dispatcher.dispatchMessage(channelProvider, UUID.randomUUID(), Map.of());
+
+        ArgumentCaptor<OutboxMessageEntity> saved = ArgumentCaptor.forClass(OutboxMessageEntity.class);
+        verify(outboxMessageRepository).save(saved.capture());
+        assertThat(saved.getValue().getPriority()).isEqualTo(QueuePriority.NORMAL);
+        assertThat(saved.getValue().getNotBefore()).isNull();
+    }
+
+    @Test
+    void dispatchMessage_WithQueueDisabled_SendsRightAway() {
+        when(queueProvider.isEnabled()).thenReturn(false);
+        Map<String, String> payload = Map.of("subject", "Hi");
+
+        MessageStatus status = dispatcher.dispatchMessage(channelProvider, UUID.randomUUID(), payload);
+
+        assertThat(status).isEqualTo(MessageStatus.sent);
+        verify(channelProvider).send(payload);
+        verify(outboxMessageRepository, never()).save(any());
+    }
+
+    @Test
+    void dispatchMessage_WithQueueDisabledAndFutureSendAt_ThrowsServiceException() {
+        when(queueProvider.isEnabled()).thenReturn(false);
+
+        assertThatThrownBy(() -> dispatcher.dispatchMessage(channelProvider, UUID.randomUUID(), Map.of(),
+                null, OffsetDateTime.now().plusMinutes(5)))
+                .isInstanceOf(ServiceException.class);
+        verify(channelProvider, never()).send(any());
+    }
+
+    @Test
+    void dispatchMessage_WithFutureSendAtAndNoDelayedDelivery_ThrowsServiceException() {
+        when(queueProvider.isEnabled()).thenReturn(true);
+        when(queueClient.supportsDelayedDelivery()).thenReturn(false);
+
+        assertThatThrownBy(() -> dispatcher.dispatchMessage(channelProvider, UUID.randomUUID(), Map.of(),
+                null, OffsetDateTime.now().plusMinutes(5)))
+                .isInstanceOf(ServiceException.class);
+        verify(outboxMessageRepository, never()).save(any());
+    }
+
+    @Test
+    void dispatchMessage_WithPastSendAtAndNoDelayedDelivery_WritesOutboxRow() {
+        when(queueProvider.isEnabled()).thenReturn(true);
+        when(queueClient.supportsDelayedDelivery()).thenReturn(false);
+
+        MessageStatus status = dispatcher.dispatchMessage(channelProvider, UUID.randomUUID(), Map.of(),
+                null, OffsetDateTime.now().minusMinutes(5));
+
+        assertThat(status).isEqualTo(MessageStatus.enqueued);
+        verify(outboxMessageRepository).save(any());
+    }
+}
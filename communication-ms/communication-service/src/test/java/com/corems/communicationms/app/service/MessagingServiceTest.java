@@ -1,9 +1,13 @@
 package com.corems.communicationms.app.service;
 
+import com.corems.common.exception.ServiceException;
+import com.corems.common.utils.db.utils.CountMode;
+import com.corems.common.utils.db.utils.QueryParams;
 import com.corems.communicationms.api.model.MessageListResponse;
 import com.corems.communicationms.api.model.MessageResponse;
 import com.corems.communicationms.app.entity.EmailMessageEntity;
 import com.corems.communicationms.app.entity.SMSMessageEntity;
+import com.corems.communicationms.app.model.MessageExportFormat;
 import com.corems.communicationms.app.model.MessageSenderType;
 import com.corems.communicationms.app.model.MessageStatus;
 import com.corems.communicationms.app.repository.MessageRepository;
@@ -14,12 +18,15 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @SpringBootTest
 @ActiveProfiles("test")
@@ -98,6 +105,40 @@ class MessagingServiceTest {
         );
     }
 
+    @Test
+    void listMessages_WithCursor_ContinuesAfterPreviousPageWithoutTotals() {
+        messageRepository.save(testEmailMessage);
+        messageRepository.save(testSmsMessage);
+
+        MessageListResponse first = messagingService.listMessages(
+            testUserId, Optional.of(1), Optional.of(1), Optional.of("createdAt:desc"), Optional.empty(), Optional.empty());
+        assertThat(first.getNextCursor()).isNotNull();
+
+        MessageListResponse second = messagingService.listMessages(
+            testUserId, Optional.empty(), Optional.of(1), Optional.of("createdAt:desc"), Optional.empty(), Optional.empty(),
+            Optional.of(first.getNextCursor()), Optional.empty());
+
+        assertThat(second.getItems()).hasSize(1);
+        assertThat(second.getItems().get(0).getUuid()).isNotEqualTo(first.getItems().get(0).getUuid());
+        assertThat(second.getNextCursor()).isNull();
+        assertThat(second.getTotalElements()).isNull();
+    }
+
+    @Test
+    void listMessages_WithCountModeNone_OmitsTotals() {
+        messageRepository.save(testEmailMessage);
+        messageRepository.save(testSmsMessage);
+
+        MessageListResponse response = messagingService.listMessages(
+            testUserId, Optional.of(1), Optional.of(1), Optional.empty(), Optional.empty(), Optional.empty(),
+            Optional.empty(), Optional.of(CountMode.NONE));
+
+        assertThat(response.getItems()).hasSize(1);
+        assertThat(response.getTotalElements()).isNull();
+        assertThat(response.getTotalExact()).isNull();
+        assertThat(response.getNextCursor()).isNotNull();
+    }
+
     @Test
     void listMessages_WhenFilterByMessageType_ReturnsFilteredResults() {
         // Given - save test messages
@@ -250,4 +291,42 @@ class MessagingServiceTest {
         assertThat(response.getItems()).isEmpty();
         assertThat(response.getTotalElements()).isEqualTo(0);
     }
-}
\ No newline at end of file
+
+    @Test
+    void exportMessages_AsNdjson_WritesOneLinePerMessage() throws Exception {
+        messageRepository.save(testEmailMessage);
+        messageRepository.save(testSmsMessage);
+        QueryParams params = messagingService.prepareExport(Optional.empty(), Optional.empty(),
+                Optional.of(List.of("userId:eq:" + testUserId)));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        messagingService.exportMessages(params, MessageExportFormat.NDJSON, out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(lines).hasSize(2);
+        assertThat(lines).anySatisfy(line -> assertThat(line).contains(testEmailMessage.getUuid().toString(), "Test Subject"));
+        assertThat(lines).anySatisfy(line -> assertThat(line).contains(testSmsMessage.getUuid().toString(), "+1234567890"));
+    }
+
+    @Test
+    void exportMessages_AsCsv_WritesHeaderAndPayloadColumns() throws Exception {
+        messageRepository.save(testSmsMessage);
+        QueryParams params = messagingService.prepareExport(Optional.empty(), Optional.empty(), Optional.empty());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        messagingService.exportMessages(params, MessageExportFormat.CSV, out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(lines).hasSize(2);
+        assertThat(lines.get(0)).isEqualTo("uuid,type,status,userId,sentByType,sentById,createdAt,recipient,subject,body");
+        // The leading '+' of the phone number would be read as a formula by spreadsheets
+        assertThat(lines.get(1)).contains(testSmsMessage.getUuid().toString(), "'+1234567890", "Test SMS body");
+    }
+
+    @Test
+    void prepareExport_WithUnknownFilterField_ThrowsBeforeStreaming() {
+        assertThatThrownBy(() -> messagingService.prepareExport(Optional.empty(), Optional.empty(),
+                Optional.of(List.of("recipient:eq:someone"))))
+                .isInstanceOf(ServiceException.class);
+    }
+}
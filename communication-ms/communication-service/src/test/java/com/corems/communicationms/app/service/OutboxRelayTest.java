@@ -0,0 +1,255 @@
+package com.corems.communicationms.app.service;
+
+import com.corems.common.queue.BatchSendResult;
+import com.corems.common.queue.QueueClient;
+import com.corems.common.queue.QueueMessage;
+import com.corems.common.queue.QueuePriority;
+import com.corems.common.queue.QueueProvider;
+import com.corems.common.queue.SendResult;
+import com.corems.common.queue.config.QueueProperties;
+import com.corems.communicationms.app.config.OutboxConfig;
+import com.corems.communicationms.app.entity.OutboxMessageEntity;
+import com.corems.communicationms.app.model.MessageType;
+import com.corems.communicationms.app.model.OutboxStatus;
+import com.corems.communicationms.app.repository.OutboxMessageRepository;
+import com.corems.communicationms.app.service.provider.ChannelProvider;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class OutboxRelayTest {
+
+    @Autowired
+    private OutboxMessageRepository outboxMessageRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private QueueClient queueClient;
+    private QueueProvider queueProvider;
+    private Map<String, ChannelProvider<?>> channelProviders;
+
+    @BeforeEach
+    void setUp() {
+        outboxMessageRepository.deleteAll();
+
+        QueueProperties.RabbitMqProperties properties = new QueueProperties.RabbitMqProperties();
+        properties.setDefaultQueue("communication_queue");
+        properties.getPriorityQueues().put(QueuePriority.TRANSACTIONAL, "communication_transactional");
+        queueClient = mock(QueueClient.class);
+        when(queueClient.getProperties()).thenReturn(properties);
+        when(queueClient.sendBatch(anyString(), anyList())).thenAnswer(invocation -> ackAll(invocation.getArgument(1)));
+        queueProvider = mock(QueueProvider.class);
+        when(queueProvider.getDefaultClient()).thenReturn(queueClient);
+
+        ChannelProvider<?> emailProvider = mock(ChannelProvider.class);
+        when(emailProvider.getMessageType()).thenReturn(MessageType.email);
+        doReturn(Map.class).when(emailProvider).getPayloadType();
+        channelProviders = Map.of("emailServiceProvider", emailProvider);
+    }
+
+    @Test
+    void relayBatch_WhenBrokerAcks_DeletesRows() {
+        saveRow("{\"subject\":\"a\"}", QueuePriority.NORMAL);
+        saveRow("{\"subject\":\"b\"}", QueuePriority.NORMAL);
+
+        int relayed = relay(3).relayBatch();
+
+        assertThat(relayed).isEqualTo(2);
+        assertThat(outboxMessageRepository.count()).isZero();
+    }
+
+    @Test
+    void relayBatch_WithPriorities_SendsEachRowToItsLane() {
+        OutboxMessageEntity urgent = saveRow("{}", QueuePriority.TRANSACTIONAL);
+        OutboxMessageEntity normal = saveRow("{}", QueuePriority.NORMAL);
+        Instant notBefore = Instant.now().plusSeconds(120).truncatedTo(ChronoUnit.MILLIS);
+        normal.setNotBefore(notBefore);
+        outboxMessageRepository.save(normal);
+        List<String> destinations = new ArrayList<>();
+        List<QueueMessage> sent = new ArrayList<>();
+        when(queueClient.sendBatch(anyString(), anyList())).thenAnswer(invocation -> {
+            destinations.add(invocation.getArgument(0));
+            sent.addAll(invocation.getArgument(1));
+            return ackAll(invocation.getArgument(1));
+        });
+
+        relay(3).relayBatch();
+
+        assertThat(destinations).containsExactlyInAnyOrder("communication_transactional", "communication_queue");
+        assertThat(sent).extracting(QueueMessage::getId)
+                .containsExactlyInAnyOrder(urgent.getMessageUuid().toString(), normal.getMessageUuid().toString());
+        assertThat(sent).filteredOn(qm -> qm.getPriority() == QueuePriority.NORMAL)
+                .singleElement().extracting(QueueMessage::getNotBefore).isEqualTo(notBefore);
+    }
+
+    @Test
+    void relayBatch_WhenBrokerNacks_ReschedulesRowWithBackoff() {
+        OutboxMessageEntity row = saveRow("{}", QueuePriority.NORMAL);
+        when(queueClient.sendBatch(anyString(), anyList())).thenAnswer(invocation -> nackAll(invocation.getArgument(1), "nack"));
+        Instant beforeRelay = Instant.now();
+
+        int relayed = relay(3).relayBatch();
+
+        OutboxMessageEntity stored = outboxMessageRepository.findById(row.getId()).orElseThrow();
+        assertThat(relayed).isZero();
+        assertThat(stored.getStatus()).isEqualTo(OutboxStatus.pending);
+        assertThat(stored.getAttempts()).isEqualTo(1);
+        assertThat(stored.getLastError()).isEqualTo("nack");
+        assertThat(stored.getNextAttemptAt()).isAfter(beforeRelay.plusMillis(500));
+    }
+
+    @Test
+    void relayBatch_WhileRowWaitsForBackoff_DoesNotPublishItAgain() {
+        saveRow("{}", QueuePriority.NORMAL);
+        when(queueClient.sendBatch(anyString(), anyList())).thenAnswer(invocation -> nackAll(invocation.getArgument(1), "nack"));
+        OutboxRelay relay = relay(3);
+        relay.relayBatch();
+
+        int relayed = relay.relayBatch();
+
+        assertThat(relayed).isZero();
+        verify(queueClient).sendBatch(anyString(), anyList());
+    }
+
+    @Test
+    void relayBatch_AfterMaxAttempts_ParksRowAndRelaysTheRest() {
+        OutboxMessageEntity failing = saveRow("{}", QueuePriority.NORMAL);
+        failing.setAttempts(2);
+        outboxMessageRepository.save(failing);
+        when(queueClient.sendBatch(eq("communication_queue"), anyList())).thenAnswer(invocation -> nackAll(invocation.getArgument(1), "no route"));
+
+        relay(3).relayBatch();
+
+        OutboxMessageEntity stored = outboxMessageRepository.findById(failing.getId()).orElseThrow();
+        assertThat(stored.getStatus()).isEqualTo(OutboxStatus.parked);
+        assertThat(stored.getAttempts()).isEqualTo(3);
+
+        OutboxMessageEntity next = saveRow("{}", QueuePriority.NORMAL);
+        when(queueClient.sendBatch(anyString(), anyList())).thenAnswer(invocation -> ackAll(invocation.getArgument(1)));
+        relay(3).relayBatch();
+
+        assertThat(outboxMessageRepository.findById(next.getId())).isEmpty();
+        assertThat(outboxMessageRepository.findById(failing.getId())).isPresent();
+    }
+
+    @Test
+    void relayBatch_WithUnreadablePayload_ParksRowAndPublishesTheRest() {
+        OutboxMessageEntity poison = saveRow("not json", QueuePriority.NORMAL);
+        saveRow("{}", QueuePriority.NORMAL);
+
+        int relayed = relay(3).relayBatch();
+
+        assertThat(relayed).isEqualTo(1);
+        OutboxMessageEntity stored = outboxMessageRepository.findById(poison.getId()).orElseThrow();
+        assertThat(stored.getStatus()).isEqualTo(OutboxStatus.parked);
+        assertThat(stored.getLastError()).startsWith("Unreadable payload");
+    }
+
+    @Test
+    void relayBatch_WhenSendFails_ReschedulesRowsInsteadOfLosingThem() {
+        OutboxMessageEntity row = saveRow("{}", QueuePriority.NORMAL);
+        when(queueClient.sendBatch(anyString(), anyList())).thenThrow(new IllegalStateException("connection refused"));
+
+        relay(3).relayBatch();
+
+        OutboxMessageEntity stored = outboxMessageRepository.findById(row.getId()).orElseThrow();
+        assertThat(stored.getAttempts()).isEqualTo(1);
+        assertThat(stored.getLastError()).isEqualTo("connection refused");
+    }
+
+    @Test
+    void relayBatch_WhileAnotherInstanceIsPublishing_SkipsClaimedRows() {
+        saveRow("{}", QueuePriority.NORMAL);
+        OutboxRelay first = relay(3);
+        OutboxRelay second = relay(3);
+        List<Integer> relayedBySecond = new ArrayList<>();
+        when(queueClient.sendBatch(anyString(), anyList())).thenAnswer(invocation -> {
+            // The first instance is waiting for confirms; its claim is committed and no lock is held
+            if (relayedBySecond.isEmpty()) {
+                relayedBySecond.add(second.relayBatch());
+            }
+            return ackAll(invocation.getArgument(1));
+        });
+
+        int relayedByFirst = first.relayBatch();
+
+        assertThat(relayedByFirst).isEqualTo(1);
+        assertThat(relayedBySecond).containsExactly(0);
+        verify(queueClient).sendBatch(anyString(), anyList());
+        assertThat(outboxMessageRepository.count()).isZero();
+    }
+
+    @Test
+    void relayBatch_WithRowScheduledForLater_LeavesItAlone() {
+        OutboxMessageEntity row = saveRow("{}", QueuePriority.NORMAL);
+        row.setNextAttemptAt(Instant.now().plusSeconds(60));
+        outboxMessageRepository.save(row);
+
+        int relayed = relay(3).relayBatch();
+
+        assertThat(relayed).isZero();
+        verify(queueClient, never()).sendBatch(anyString(), anyList());
+    }
+
+    @Test
+    void relayBatch_WithChannelQueue_PublishesChannelToItsOwnQueue() {
+        saveRow("{}", QueuePriority.TRANSACTIONAL);
+        OutboxRelay relay = new OutboxRelay(outboxMessageRepository, queueProvider, transactionTemplate, channelProviders,
+                new OutboxConfig(10, 500L, 3, 1_000L, 60_000L, 60_000L, Map.of(MessageType.email, "communication_email")), objectMapper);
+
+        int relayed = relay.relayBatch();
+
+        assertThat(relayed).isEqualTo(1);
+        verify(queueClient).sendBatch(eq("communication_email"), anyList());
+        verify(queueClient, never()).sendBatch(eq("communication_transactional"), anyList());
+    }
+
+    private OutboxRelay relay(int maxAttempts) {
+        return new OutboxRelay(outboxMessageRepository, queueProvider, transactionTemplate, channelProviders,
+                new OutboxConfig(10, 500L, maxAttempts, 1_000L, 60_000L, 60_000L, null), objectMapper);
+    }
+
+    private OutboxMessageEntity saveRow(String payload, QueuePriority priority) {
+        OutboxMessageEntity row = new OutboxMessageEntity();
+        row.setMessageUuid(UUID.randomUUID());
+        row.setMessageType(MessageType.email);
+        row.setPriority(priority);
+        row.setPayload(payload);
+        return outboxMessageRepository.save(row);
+    }
+
+    private static BatchSendResult ackAll(List<QueueMessage> messages) {
+        return new BatchSendResult(messages.stream().map(SendResult::ack).toList());
+    }
+
+    private static BatchSendResult nackAll(List<QueueMessage> messages, String reason) {
+        return new BatchSendResult(messages.stream().map(qm -> SendResult.nack(qm, reason)).toList());
+    }
+}
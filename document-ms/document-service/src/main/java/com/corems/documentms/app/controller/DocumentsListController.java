@@ -1,12 +1,20 @@
 package com.corems.documentms.app.controller;
 
+import com.corems.common.security.CoreMsRoles;
+import com.corems.common.security.RequireRoles;
+import com.corems.common.utils.db.utils.CountMode;
+import com.corems.common.utils.db.utils.QueryParams;
 import com.corems.documentms.api.DocumentsListApi;
 import com.corems.documentms.api.model.DocumentResponse;
 import com.corems.documentms.api.model.DocumentUploadMetadata;
 import com.corems.documentms.api.model.UploadBase64Request;
 import com.corems.documentms.api.model.PaginatedDocumentList;
 import com.corems.documentms.api.model.Visibility;
+import com.corems.documentms.app.config.DocumentConfig;
+import com.corems.documentms.app.model.DocumentExportFormat;
 import com.corems.documentms.app.service.DocumentService;
+import com.corems.documentms.app.util.StreamResponseHelper;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestController;
@@ -19,9 +27,11 @@ import java.util.UUID;
 public class DocumentsListController implements DocumentsListApi {
 
     private final DocumentService service;
+    private final DocumentConfig documentConfig;
 
-    public DocumentsListController(DocumentService service) {
+    public DocumentsListController(DocumentService service, DocumentConfig documentConfig) {
         this.service = service;
+        this.documentConfig = documentConfig;
     }
 
     @Override
@@ -54,7 +64,23 @@ public class DocumentsListController implements DocumentsListApi {
                                                                 Optional<String> sort,
                                                                 Optional<String> search,
                                                                 Optional<List<String>> filters,
-                                                                Optional<Boolean> includeDeleted) {
-        return ResponseEntity.ok(service.getDocumentList(page, pageSize, search, sort, filters, includeDeleted));
+                                                                Optional<Boolean> includeDeleted,
+                                                                Optional<String> cursor,
+                                                                Optional<String> count) {
+        return ResponseEntity.ok(service.getDocumentList(page, pageSize, search, sort, filters, includeDeleted, cursor,
+                count.map(CountMode::fromString)));
+    }
+
+    @Override
+    @RequireRoles(CoreMsRoles.DOCUMENT_MS_ADMIN)
+    public ResponseEntity<Resource> exportDocuments(Optional<String> format,
+                                                    Optional<String> sort,
+                                                    Optional<String> search,
+                                                    Optional<List<String>> filter,
+                                                    Optional<Boolean> includeDeleted) {
+        DocumentExportFormat exportFormat = DocumentExportFormat.fromString(format.orElse(null));
+        QueryParams params = service.prepareExport(search, sort, filter, includeDeleted);
+        return StreamResponseHelper.buildWriterResponse(out -> service.exportDocuments(params, exportFormat, out),
+                exportFormat.getContentType(), "documents." + exportFormat.getExtension(), documentConfig);
     }
 }
@@ -10,6 +10,7 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.Table;
 import jakarta.persistence.Version;
@@ -32,7 +33,10 @@ import java.util.LinkedHashSet;
 @NoArgsConstructor
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
 @Entity
-@Table(name = "document")
+@Table(name = "document", indexes = {
+        // Keyset listings sort by createdAt with id as the tiebreaker
+        @Index(name = "document_created_at_id_idx", columnList = "createdAt, id")
+})
 public class DocumentEntity {
 
     public enum Visibility {
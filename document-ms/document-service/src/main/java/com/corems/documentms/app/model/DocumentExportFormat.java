@@ -0,0 +1,34 @@
+package com.corems.documentms.app.model;
+
+import com.corems.common.exception.ServiceException;
+import com.corems.common.exception.handler.DefaultExceptionReasonCodes;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Locale;
+
+/**
+ * Output format of a document export.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum DocumentExportFormat {
+    /** One JSON document per line. */
+    NDJSON("application/x-ndjson", "ndjson"),
+    /** Header row followed by one row per document. */
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String extension;
+
+    public static DocumentExportFormat fromString(String value) {
+        if (value == null || value.isBlank()) {
+            return NDJSON;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw ServiceException.of(DefaultExceptionReasonCodes.PARAMETER_INVALID, "Unknown export format: " + value);
+        }
+    }
+}
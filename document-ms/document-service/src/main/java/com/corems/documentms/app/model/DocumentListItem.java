@@ -0,0 +1,42 @@
+package com.corems.documentms.app.model;
+
+import com.corems.documentms.app.entity.DocumentEntity;
+
+import java.time.Instant;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Columns of a document needed for its API response. Listings select it directly instead of loading
+ * {@link DocumentEntity}s; {@code id} is kept for the next-page cursor.
+ */
+public record DocumentListItem(
+        Long id,
+        UUID uuid,
+        UUID userId,
+        String name,
+        String originalFilename,
+        Long size,
+        String extension,
+        String contentType,
+        String bucket,
+        String objectKey,
+        DocumentEntity.Visibility visibility,
+        UUID uploadedById,
+        DocumentEntity.UploadedByType uploadedByType,
+        Instant createdAt,
+        Instant updatedAt,
+        String checksum,
+        String description,
+        Set<String> tags,
+        Boolean deleted,
+        UUID deletedBy,
+        Instant deletedAt
+) {
+    public static DocumentListItem from(DocumentEntity e) {
+        return new DocumentListItem(e.getId(), e.getUuid(), e.getUserId(), e.getName(), e.getOriginalFilename(),
+                e.getSize(), e.getExtension(), e.getContentType(), e.getBucket(), e.getObjectKey(), e.getVisibility(),
+                e.getUploadedById(), e.getUploadedByType(), e.getCreatedAt(), e.getUpdatedAt(), e.getChecksum(),
+                e.getDescription(), e.getTags(), e.getDeleted(), e.getDeletedBy(), e.getDeletedAt());
+    }
+}
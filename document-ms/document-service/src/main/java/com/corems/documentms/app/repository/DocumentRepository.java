@@ -2,6 +2,8 @@ package com.corems.documentms.app.repository;
 
 import com.corems.documentms.app.entity.DocumentEntity;
 import com.corems.common.utils.db.repo.SearchableRepository;
+import com.corems.common.utils.db.search.SearchStrategies;
+import com.corems.common.utils.db.search.SearchStrategy;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -26,6 +28,11 @@ public interface DocumentRepository extends SearchableRepository<DocumentEntity,
         return List.of("name", "originalFilename", "description", "tags");
     }
 
+    @Override
+    default SearchStrategy getSearchStrategy() {
+        return SearchStrategies.trigram();
+    }
+
     @Override
     default List<String> getAllowedFilterFields() {
         return List.of("userId", "visibility", "extension", "uploadedById", "tags", "deleted");
@@ -36,6 +43,11 @@ public interface DocumentRepository extends SearchableRepository<DocumentEntity,
         return List.of("createdAt", "updatedAt", "size", "name");
     }
 
+    @Override
+    default List<String> getNullableSortFields() {
+        return List.of("updatedAt", "size");
+    }
+
     @Override
     default Map<String, String> getFieldAliases() {
         return Map.of(
@@ -3,6 +3,8 @@ package com.corems.documentms.app.service;
 import com.corems.common.exception.ServiceException;
 import com.corems.common.exception.handler.DefaultExceptionReasonCodes;
 import com.corems.common.security.CoreMsRoles;
+import com.corems.common.utils.db.utils.CountMode;
+import com.corems.common.utils.db.utils.CountedPage;
 import com.corems.common.utils.db.utils.QueryParams;
 import com.corems.documentms.api.model.DocumentResponse;
 import com.corems.documentms.api.model.DocumentUpdateRequest;
@@ -18,13 +20,17 @@ import com.corems.documentms.app.config.DocumentConfig;
 import com.corems.documentms.app.config.StorageConfig;
 import com.corems.documentms.app.entity.DocumentAccessTokenEntity;
 import com.corems.documentms.app.entity.DocumentEntity;
+import com.corems.documentms.app.model.DocumentExportFormat;
+import com.corems.documentms.app.model.DocumentListItem;
 import com.corems.documentms.app.model.DocumentStreamResult;
 import com.corems.documentms.app.repository.DocumentAccessTokenRepository;
 import com.corems.documentms.app.repository.DocumentRepository;
+import com.corems.documentms.app.util.DocumentExportWriter;
 import com.corems.documentms.app.util.InMemoryMultipartFile;
 import com.corems.common.security.SecurityUtils;
 import com.corems.common.security.service.TokenProvider;
 import com.corems.common.security.UserPrincipal;
+import jakarta.persistence.EntityManager;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
@@ -32,6 +38,7 @@ import org.springframework.web.multipart.MultipartFile;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
@@ -46,6 +53,7 @@ import java.util.LinkedHashSet;
 import java.util.UUID;
 import java.util.Base64;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import java.util.Arrays;
 
 @Service
@@ -57,19 +65,22 @@ public class DocumentService {
     private final StorageConfig storageConfig;
     private final DocumentConfig documentConfig;
     private final TokenProvider tokenProvider;
+    private final EntityManager entityManager;
 
     public DocumentService(DocumentRepository repository,
                            DocumentAccessTokenRepository tokenRepository,
                            S3StorageService storage,
                            StorageConfig storageConfig,
                            DocumentConfig documentConfig,
-                           TokenProvider tokenProvider) {
+                           TokenProvider tokenProvider,
+                           EntityManager entityManager) {
         this.repository = repository;
         this.tokenRepository = tokenRepository;
         this.storage = storage;
         this.storageConfig = storageConfig;
         this.documentConfig = documentConfig;
         this.tokenProvider = tokenProvider;
+        this.entityManager = entityManager;
     }
 
     @Transactional
@@ -389,11 +400,30 @@ public class DocumentService {
             Optional<String> sort,
             Optional<List<String>> filters,
             Optional<Boolean> includeDeleted) {
+        return getDocumentList(page, pageSize, search, sort, filters, includeDeleted, Optional.empty(), Optional.empty());
+    }
+
+    /**
+     * With a cursor the list continues after the cursor row using keyset pagination, without totals.
+     * Otherwise {@code countMode} decides how the total is obtained. Rows are read as {@link DocumentListItem}
+     * projections, so no entities are loaded.
+     */
+    @Transactional(readOnly = true)
+    public PaginatedDocumentList getDocumentList(
+            Optional<Integer> page,
+            Optional<Integer> pageSize,
+            Optional<String> search,
+            Optional<String> sort,
+            Optional<List<String>> filters,
+            Optional<Boolean> includeDeleted,
+            Optional<String> cursor,
+            Optional<CountMode> countMode) {
 
         UserPrincipal principal = SecurityUtils.getUserPrincipal();
         boolean isAdmin = SecurityUtils.hasRole(CoreMsRoles.DOCUMENT_MS_ADMIN);
 
-        if (sort.isEmpty()) {
+        // A search without an explicit sort is ordered by relevance
+        if (sort.isEmpty() && search.filter(s -> !s.isBlank()).isEmpty()) {
             sort = Optional.of("createdAt:desc");
         }
 
@@ -408,20 +438,62 @@ public class DocumentService {
             filterList.add("uploadedById:" + principal.getUserId());
         }
 
-        QueryParams params = new QueryParams(page, pageSize, search, sort, Optional.of(filterList));
-        var pageResult = repository.findAllByQueryParams(params);
+        QueryParams params = new QueryParams(page, pageSize, search, sort, Optional.of(filterList), cursor, countMode);
+        if (cursor.isPresent()) {
+            var cursorPage = repository.findAllByCursor(params, DocumentListItem.class, entityManager);
+            PaginatedDocumentList pl = new PaginatedDocumentList(page.orElse(1), cursorPage.pageSize());
+            pl.setItems(cursorPage.items().stream().map(this::toResponse).toList());
+            pl.setNextCursor(cursorPage.nextCursor());
+            return pl;
+        }
+
+        var pageResult = repository.findAllByQueryParams(params, DocumentListItem.class, entityManager);
 
         PaginatedDocumentList pl = new PaginatedDocumentList(page.orElse(1), pageSize.orElse(10));
         List<DocumentResponse> items = pageResult.getContent().stream()
                 .map(this::toResponse)
                 .toList();
         pl.setItems(items);
-        pl.setTotalElements(pageResult.getTotalElements());
-        pl.setTotalPages(pageResult.getTotalPages());
+        if (CountedPage.isTotalKnown(pageResult)) {
+            pl.setTotalElements(pageResult.getTotalElements());
+            pl.setTotalPages(pageResult.getTotalPages());
+            pl.setTotalExact(CountedPage.isTotalExact(pageResult));
+        }
+        pl.setNextCursor(repository.nextCursor(pageResult));
 
         return pl;
     }
 
+    /**
+     * Query of an admin export: the same search, filters and sort as the list, validated here so a bad filter
+     * fails before the response starts streaming.
+     */
+    public QueryParams prepareExport(Optional<String> search,
+                                     Optional<String> sort,
+                                     Optional<List<String>> filters,
+                                     Optional<Boolean> includeDeleted) {
+        List<String> filterList = new ArrayList<>(filters.orElse(new ArrayList<>()));
+        if (!includeDeleted.orElse(false)) {
+            filterList.add("deleted:false");
+        }
+        QueryParams params = new QueryParams(Optional.empty(), Optional.empty(), search,
+                sort.or(() -> Optional.of("createdAt:desc")), Optional.of(filterList));
+        repository.validateQueryParams(params);
+        return params;
+    }
+
+    /**
+     * Writes every document matching {@code params} to {@code out}. Rows are streamed from one database cursor as
+     * {@link DocumentListItem} projections, with tags loaded once per fetch-size batch, so memory use and the
+     * number of queries do not grow with every document.
+     */
+    @Transactional(readOnly = true)
+    public void exportDocuments(QueryParams params, DocumentExportFormat format, OutputStream out) throws IOException {
+        try (Stream<DocumentListItem> documents = repository.streamByQueryParams(params, DocumentListItem.class, entityManager)) {
+            DocumentExportWriter.write(documents.map(this::toResponse).iterator(), format, out);
+        }
+    }
+
     @Transactional
     public DocumentResponse updateMetadata(UUID uuid, DocumentUpdateRequest req) {
         DocumentEntity entity = repository.findByUuid(uuid)
@@ -542,34 +614,38 @@ public class DocumentService {
     }
 
     private DocumentResponse toResponse(DocumentEntity e) {
+        return toResponse(DocumentListItem.from(e));
+    }
+
+    private DocumentResponse toResponse(DocumentListItem e) {
         DocumentResponse r = new DocumentResponse();
-        r.setUuid(e.getUuid());
-        r.setUserId(e.getUserId());
-        r.setName(e.getName());
-        r.setOriginalFilename(e.getOriginalFilename());
-        r.setSize(e.getSize() == null ? null : e.getSize().intValue());
-        r.setExtension(e.getExtension());
-        r.setContentType(e.getContentType());
-        r.setBucket(e.getBucket());
-        r.setObjectKey(e.getObjectKey());
-        r.setVisibility(Visibility.valueOf(e.getVisibility().name()));
-        r.setUploadedById(e.getUploadedById());
-        r.setUploadedByType(UploadedByType.valueOf(e.getUploadedByType().name()));
-        r.setCreatedAt(e.getCreatedAt() == null ? null : OffsetDateTime.ofInstant(e.getCreatedAt(), ZoneOffset.UTC));
-        r.setUpdatedAt(e.getUpdatedAt() == null ? null : OffsetDateTime.ofInstant(e.getUpdatedAt(), ZoneOffset.UTC));
-        r.setChecksum(e.getChecksum());
-        r.setDescription(e.getDescription());
+        r.setUuid(e.uuid());
+        r.setUserId(e.userId());
+        r.setName(e.name());
+        r.setOriginalFilename(e.originalFilename());
+        r.setSize(e.size() == null ? null : e.size().intValue());
+        r.setExtension(e.extension());
+        r.setContentType(e.contentType());
+        r.setBucket(e.bucket());
+        r.setObjectKey(e.objectKey());
+        r.setVisibility(Visibility.valueOf(e.visibility().name()));
+        r.setUploadedById(e.uploadedById());
+        r.setUploadedByType(UploadedByType.valueOf(e.uploadedByType().name()));
+        r.setCreatedAt(e.createdAt() == null ? null : OffsetDateTime.ofInstant(e.createdAt(), ZoneOffset.UTC));
+        r.setUpdatedAt(e.updatedAt() == null ? null : OffsetDateTime.ofInstant(e.updatedAt(), ZoneOffset.UTC));
+        r.setChecksum(e.checksum());
+        r.setDescription(e.description());
         // API expects tags as a comma-separated string; join normalized tag set preserving insertion order
-        if (e.getTags() == null || e.getTags().isEmpty()) {
+        if (e.tags() == null || e.tags().isEmpty()) {
             r.setTags(null);
         } else {
-            r.setTags(String.join(",", e.getTags()));
+            r.setTags(String.join(",", e.tags()));
         }
 
-        if (e.getDeleted() != null && e.getDeleted()) {
+        if (e.deleted() != null && e.deleted()) {
             r.setDeleted(true);
-            r.setDeletedBy(e.getDeletedBy());
-            r.setDeletedAt(e.getDeletedAt() == null ? null : OffsetDateTime.ofInstant(e.getDeletedAt(), ZoneOffset.UTC));
+            r.setDeletedBy(e.deletedBy());
+            r.setDeletedAt(e.deletedAt() == null ? null : OffsetDateTime.ofInstant(e.deletedAt(), ZoneOffset.UTC));
         }
 
         return r;
@@ -0,0 +1,107 @@
+package com.corems.documentms.app.util;
+
+import com.corems.documentms.api.model.DocumentResponse;
+import com.corems.documentms.app.model.DocumentExportFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Writes document responses one by one as NDJSON or CSV, so an export never holds more than one row.
+ */
+public final class DocumentExportWriter {
+
+    private static final ObjectMapper JSON = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .setSerializationInclusion(JsonInclude.Include.NON_NULL);
+
+    // Leading characters that make spreadsheet applications treat a cell as a formula
+    private static final String FORMULA_PREFIXES = "=+-@\t\r";
+
+    private static final Map<String, Function<DocumentResponse, Object>> CSV_COLUMNS = new LinkedHashMap<>();
+
+    static {
+        CSV_COLUMNS.put("uuid", DocumentResponse::getUuid);
+        CSV_COLUMNS.put("userId", DocumentResponse::getUserId);
+        CSV_COLUMNS.put("name", DocumentResponse::getName);
+        CSV_COLUMNS.put("originalFilename", DocumentResponse::getOriginalFilename);
+        CSV_COLUMNS.put("size", DocumentResponse::getSize);
+        CSV_COLUMNS.put("extension", DocumentResponse::getExtension);
+        CSV_COLUMNS.put("contentType", DocumentResponse::getContentType);
+        CSV_COLUMNS.put("bucket", DocumentResponse::getBucket);
+        CSV_COLUMNS.put("objectKey", DocumentResponse::getObjectKey);
+        CSV_COLUMNS.put("visibility", DocumentResponse::getVisibility);
+        CSV_COLUMNS.put("uploadedById", DocumentResponse::getUploadedById);
+        CSV_COLUMNS.put("uploadedByType", DocumentResponse::getUploadedByType);
+        CSV_COLUMNS.put("checksum", DocumentResponse::getChecksum);
+        CSV_COLUMNS.put("description", DocumentResponse::getDescription);
+        CSV_COLUMNS.put("tags", DocumentResponse::getTags);
+        CSV_COLUMNS.put("createdAt", DocumentResponse::getCreatedAt);
+        CSV_COLUMNS.put("updatedAt", DocumentResponse::getUpdatedAt);
+        CSV_COLUMNS.put("deleted", DocumentResponse::getDeleted);
+        CSV_COLUMNS.put("deletedBy", DocumentResponse::getDeletedBy);
+        CSV_COLUMNS.put("deletedAt", DocumentResponse::getDeletedAt);
+    }
+
+    private DocumentExportWriter() {
+        // utility
+    }
+
+    public static void write(Iterator<DocumentResponse> documents, DocumentExportFormat format, OutputStream out) throws IOException {
+        // The writer is flushed but not closed: the caller owns the output stream
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == DocumentExportFormat.CSV) {
+            writeCsvRow(writer, CSV_COLUMNS.keySet());
+        }
+        while (documents.hasNext()) {
+            DocumentResponse document = documents.next();
+            if (format == DocumentExportFormat.CSV) {
+                writeCsvRow(writer, CSV_COLUMNS.values().stream().map(column -> column.apply(document)).toList());
+            } else {
+                writer.write(JSON.writeValueAsString(document));
+                writer.write('\n');
+            }
+        }
+        writer.flush();
+    }
+
+    private static void writeCsvRow(Writer writer, Iterable<?> values) throws IOException {
+        boolean first = true;
+        for (Object value : values) {
+            if (!first) {
+                writer.write(',');
+            }
+            first = false;
+            writer.write(csvField(value));
+        }
+        writer.write("\r\n");
+    }
+
+    static String csvField(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (!text.isEmpty() && FORMULA_PREFIXES.indexOf(text.charAt(0)) >= 0) {
+            // Spreadsheets evaluate such cells as formulas; the quote makes them plain text
+            text = "'" + text;
+        }
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
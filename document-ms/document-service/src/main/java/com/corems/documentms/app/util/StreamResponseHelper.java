@@ -1,5 +1,7 @@
 package com.corems.documentms.app.util;
 
+import com.corems.common.exception.ServiceException;
+import com.corems.common.exception.handler.DefaultExceptionReasonCodes;
 import com.corems.documentms.app.config.DocumentConfig;
 import com.corems.documentms.app.model.DocumentStreamResult;
 import org.springframework.core.io.InputStreamResource;
@@ -9,23 +11,35 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 
+import lombok.extern.slf4j.Slf4j;
+
 import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.io.PipedInputStream;
 import java.io.PipedOutputStream;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
 /**
  * Utility to build streaming HTTP responses for document content.
  */
+@Slf4j
 public final class StreamResponseHelper {
 
-    private static final ExecutorService copierExecutor = Executors.newCachedThreadPool(new ThreadFactory() {
+    // Every response being streamed holds one copier thread (and, for exports, a database connection)
+    static final int MAX_COPIER_THREADS = 64;
+
+    private static final ExecutorService copierExecutor = new ThreadPoolExecutor(0, MAX_COPIER_THREADS,
+            60L, TimeUnit.SECONDS, new SynchronousQueue<>(), new ThreadFactory() {
         private final ThreadFactory defaultFactory = Executors.defaultThreadFactory();
 
         @Override
@@ -66,7 +80,13 @@ public final class StreamResponseHelper {
             final PipedInputStream pipedIn = new PipedInputStream(pipedOut, Math.max(bufferSize, 1024));
 
             // Start copier in background to stream data from the original InputStream into the pipe.
-            startPipeCopier(streamResult, pipedOut, bufferSize);
+            try {
+                startPipeCopier(streamResult, pipedOut, bufferSize);
+            } catch (RejectedExecutionException ex) {
+                // All copier threads are busy: let the request thread read the source directly
+                pipedIn.close();
+                throw new IOException("No copier thread available", ex);
+            }
 
             InputStreamResource resource = new InputStreamResource(pipedIn) {
                 @Override
@@ -88,6 +108,73 @@ public final class StreamResponseHelper {
         }
     }
 
+    /**
+     * Produces the body of a response while it is being sent: {@code writer} runs on a copier thread and writes
+     * into a pipe that the MVC infrastructure reads from, so the content is never held in memory. The writer runs
+     * outside the request thread; anything request-scoped (principal, validation) must be resolved beforehand.
+     */
+    public static ResponseEntity<Resource> buildWriterResponse(ContentWriter writer,
+                                                               String contentType,
+                                                               String filename,
+                                                               DocumentConfig documentConfig) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType(contentType));
+        headers.setContentDisposition(ContentDisposition.attachment()
+                .filename(filename, StandardCharsets.UTF_8)
+                .build());
+        headers.setCacheControl("no-cache, no-store, must-revalidate");
+
+        int bufferSize = documentConfig != null && documentConfig.getStream() != null
+                ? documentConfig.getStream().getBufferSize()
+                : 8192;
+        try {
+            final PipedInputStream pipedIn = new PipedInputStream(Math.max(bufferSize, 1024));
+            final PipedOutputStream pipedOut = new PipedOutputStream(pipedIn);
+            submitWriter(pipedIn, () -> {
+                try (OutputStream out = new BufferedOutputStream(pipedOut, bufferSize)) {
+                    writer.writeTo(out);
+                } catch (IOException ex) {
+                    // client likely disconnected; stop writing
+                    log.debug("Streaming {} stopped: {}", filename, ex.getMessage());
+                } catch (RuntimeException ex) {
+                    // headers are already sent, the client sees a truncated body
+                    log.error("Streaming {} failed", filename, ex);
+                }
+            }, filename);
+
+            InputStreamResource resource = new InputStreamResource(pipedIn) {
+                @Override
+                public long contentLength() {
+                    return -1;
+                }
+            };
+            return ResponseEntity.ok()
+                    .headers(headers)
+                    .body(resource);
+        } catch (IOException e) {
+            throw ServiceException.of(DefaultExceptionReasonCodes.SERVER_ERROR, "Failed to open response stream: " + e.getMessage());
+        }
+    }
+
+    private static void submitWriter(PipedInputStream pipedIn, Runnable task, String filename) throws IOException {
+        try {
+            copierExecutor.submit(task);
+        } catch (RejectedExecutionException ex) {
+            pipedIn.close();
+            log.warn("Streaming {} rejected, {} responses are already streaming", filename, MAX_COPIER_THREADS);
+            throw ServiceException.of(DefaultExceptionReasonCodes.SERVER_ERROR,
+                    "Too many responses are being streamed, try again later");
+        }
+    }
+
+    /**
+     * Body producer for {@link #buildWriterResponse}.
+     */
+    @FunctionalInterface
+    public interface ContentWriter {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
     // Extracted copier logic into a dedicated method for clarity and testability.
     private static void startPipeCopier(DocumentStreamResult streamResult, PipedOutputStream pipedOut, int bufferSize) {
         copierExecutor.submit(() -> {
@@ -81,7 +81,7 @@ class DocumentMsApiIntegrationTest {
     @Order(10)
     void listDocuments_ShouldReturnEmptyListWhenNoDocuments() {
         // listDocuments endpoint is publicly accessible and returns empty list
-        PaginatedDocumentList response = documentsListApi.listDocuments(1, 10, null, null, null, false);
+        PaginatedDocumentList response = documentsListApi.listDocuments(1, 10, null, null, null, false, null, null);
         assertThat(response).isNotNull();
         assertThat(response.getItems()).isNotNull();
     }
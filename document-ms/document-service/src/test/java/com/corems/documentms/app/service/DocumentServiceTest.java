@@ -16,6 +16,8 @@ import com.corems.documentms.app.config.DocumentConfig;
 import com.corems.documentms.app.config.StorageConfig;
 import com.corems.documentms.app.entity.DocumentAccessTokenEntity;
 import com.corems.documentms.app.entity.DocumentEntity;
+import com.corems.common.utils.db.utils.QueryParams;
+import com.corems.documentms.app.model.DocumentExportFormat;
 import com.corems.documentms.app.model.DocumentStreamResult;
 import com.corems.documentms.app.repository.DocumentAccessTokenRepository;
 import com.corems.documentms.app.repository.DocumentRepository;
@@ -34,7 +36,9 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
@@ -332,6 +336,75 @@ class DocumentServiceTest {
         assertThat(documentNames).containsExactlyInAnyOrder("Document 1", "Document 2");
     }
 
+    @Test
+    void exportDocuments_WhenCsv_WritesHeaderAndNonDeletedRows() throws Exception {
+        // Given - one live document with characters that need quoting and one soft-deleted document
+        testDocument.setDescription("Quarterly, \"final\"");
+        repository.save(testDocument);
+        DocumentEntity deleted = new DocumentEntity();
+        deleted.setUuid(UUID.randomUUID());
+        deleted.setUserId(userId);
+        deleted.setName("deleted.pdf");
+        deleted.setOriginalFilename("deleted.pdf");
+        deleted.setSize(10L);
+        deleted.setContentType("application/pdf");
+        deleted.setExtension("pdf");
+        deleted.setBucket("test-bucket");
+        deleted.setObjectKey("documents/deleted");
+        deleted.setVisibility(DocumentEntity.Visibility.PRIVATE);
+        deleted.setUploadedByType(DocumentEntity.UploadedByType.USER);
+        deleted.setUploadedById(userId);
+        deleted.setChecksum("checksum-deleted");
+        deleted.setDeleted(true);
+        repository.save(deleted);
+
+        // When
+        QueryParams params = documentService.prepareExport(Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        documentService.exportDocuments(params, DocumentExportFormat.CSV, out);
+
+        // Then
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(lines).hasSize(2);
+        assertThat(lines.get(0)).startsWith("uuid,userId,name,");
+        assertThat(lines.get(1)).startsWith(testUuid + ",").contains("\"Quarterly, \"\"final\"\"\"");
+    }
+
+    @Test
+    void exportDocuments_WhenCsvValueStartsWithFormula_WritesItAsText() throws Exception {
+        // Given
+        testDocument.setDescription("=HYPERLINK(\"http://example.com\")");
+        repository.save(testDocument);
+
+        // When
+        QueryParams params = documentService.prepareExport(Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        documentService.exportDocuments(params, DocumentExportFormat.CSV, out);
+
+        // Then
+        assertThat(out.toString(StandardCharsets.UTF_8)).contains(",\"'=HYPERLINK(\"\"http://example.com\"\")\",");
+    }
+
+    @Test
+    void exportDocuments_WhenNdjson_WritesOneJsonObjectPerDocument() throws Exception {
+        repository.save(testDocument);
+
+        QueryParams params = documentService.prepareExport(Optional.empty(), Optional.empty(), Optional.empty(), Optional.of(true));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        documentService.exportDocuments(params, DocumentExportFormat.NDJSON, out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(lines).hasSize(1);
+        assertThat(lines.get(0)).startsWith("{").contains("\"uuid\":\"" + testUuid + "\"");
+    }
+
+    @Test
+    void prepareExport_WhenUnknownFilterField_ThrowsBeforeStreaming() {
+        assertThatThrownBy(() -> documentService.prepareExport(Optional.empty(), Optional.empty(),
+                Optional.of(List.of("secret:eq:x")), Optional.empty()))
+                .isInstanceOf(ServiceException.class);
+    }
+
     @Test
     void prepareStreamResponse_WhenValidUuid_ReturnsStream() {
         // Given - save document to database
@@ -0,0 +1,27 @@
+package com.corems.userms.app.config;
+
+import com.corems.common.utils.db.search.SearchIndexes;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Creates the trigram indexes used by user search once Hibernate has created the tables (PostgreSQL only).
+ * Off by default: enable {@code corems.db.search-indexes.create-on-startup} where the service's database role may
+ * create indexes, otherwise create them with a migration.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "corems.db.search-indexes", name = "create-on-startup", havingValue = "true")
+public class SearchIndexConfig {
+
+    @Bean
+    public ApplicationRunner userSearchIndexes(DataSource dataSource,
+                                               @Value("${spring.jpa.properties.hibernate.default_schema:user_ms}") String schema) {
+        return args -> SearchIndexes.ensureTrigramIndexes(dataSource, schema, "app_user", List.of("email", "first_name", "last_name"));
+    }
+}
@@ -0,0 +1,35 @@
+package com.corems.userms.app.model;
+
+import com.corems.common.utils.db.utils.ProjectionPath;
+import com.corems.userms.app.entity.RoleEntity;
+import com.corems.userms.app.entity.UserEntity;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Columns of a user shown in {@code UserInfo}. The user listing selects it directly, so neither the entity nor
+ * its EAGER roles are loaded; role names come from one batched query per page.
+ */
+public record UserListItem(
+        Integer id,
+        UUID uuid,
+        String email,
+        String firstName,
+        String lastName,
+        String phoneNumber,
+        String imageUrl,
+        String provider,
+        @ProjectionPath("roles.name") List<String> roles,
+        Instant lastLoginAt,
+        Instant createdAt,
+        Instant updatedAt
+) {
+    public static UserListItem from(UserEntity user) {
+        return new UserListItem(user.getId(), user.getUuid(), user.getEmail(), user.getFirstName(), user.getLastName(),
+                user.getPhoneNumber(), user.getImageUrl(), user.getProvider(),
+                user.getRoles().stream().map(RoleEntity::getName).toList(),
+                user.getLastLoginAt(), user.getCreatedAt(), user.getUpdatedAt());
+    }
+}
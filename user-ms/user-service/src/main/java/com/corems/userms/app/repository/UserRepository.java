@@ -2,6 +2,8 @@ package com.corems.userms.app.repository;
 
 import com.corems.userms.app.entity.UserEntity;
 import com.corems.common.utils.db.repo.SearchableRepository;
+import com.corems.common.utils.db.search.SearchStrategies;
+import com.corems.common.utils.db.search.SearchStrategy;
 import org.springframework.stereotype.Repository;
 
 import java.util.Map;
@@ -20,6 +22,11 @@ public interface UserRepository extends SearchableRepository<UserEntity, String>
         return List.of("email", "firstName", "lastName");
     }
 
+    @Override
+    default SearchStrategy getSearchStrategy() {
+        return SearchStrategies.trigram();
+    }
+
     @Override
     default List<String> getAllowedFilterFields() {
         return List.of("provider", "userId");
@@ -30,6 +37,11 @@ public interface UserRepository extends SearchableRepository<UserEntity, String>
         return List.of("email", "provider", "firstName", "lastName", "lastLoginAt", "createdAt");
     }
 
+    @Override
+    default List<String> getNullableSortFields() {
+        return List.of("firstName", "lastName", "lastLoginAt");
+    }
+
     @Override
     default Map<String, String> getFieldAliases() {
         return Map.of(
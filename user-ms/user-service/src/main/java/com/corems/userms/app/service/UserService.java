@@ -4,7 +4,6 @@ import com.corems.common.exception.ServiceException;
 import com.corems.common.security.CoreMsRoles;
 import com.corems.common.security.SecurityUtils;
 import com.corems.userms.app.entity.UserEntity;
-import com.corems.userms.app.entity.RoleEntity;
 import com.corems.userms.app.exception.UserServiceExceptionReasonCodes;
 import com.corems.userms.api.model.AdminSetPasswordRequest;
 import com.corems.userms.api.model.ChangeEmailRequest;
@@ -12,16 +11,19 @@ import com.corems.userms.api.model.CreateUserRequest;
 import com.corems.userms.api.model.SuccessfulResponse;
 import com.corems.userms.api.model.UserInfo;
 import com.corems.userms.api.model.UsersPagedResponse;
+import com.corems.userms.app.model.UserListItem;
 import com.corems.userms.app.model.enums.AuthProvider;
 import com.corems.userms.app.model.exception.AuthExceptionReasonCodes;
 import com.corems.userms.app.model.exception.AuthServiceException;
 import com.corems.userms.app.repository.UserRepository;
 import com.corems.common.utils.db.utils.QueryParams;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.ZoneOffset;
 import java.util.List;
@@ -38,6 +40,7 @@ public class UserService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final RoleService roleService;
+    private final EntityManager entityManager;
 
     public UserInfo getUserById(UUID userId) {
         UserEntity user = userRepository.findByUuid(userId)
@@ -120,16 +123,18 @@ public class UserService {
         return new SuccessfulResponse().result(true);
     }
 
+    @Transactional(readOnly = true)
     public UsersPagedResponse getAllUsers(Optional<Integer> page,
                                           Optional<Integer> pageSize,
                                           Optional<String> search,
                                           Optional<String> sort,
                                           Optional<List<String>> filters) {
-        if (sort.isEmpty()) {
+        // A search without an explicit sort is ordered by relevance
+        if (sort.isEmpty() && search.filter(s -> !s.isBlank()).isEmpty()) {
             sort = Optional.of("createdAt:desc");
         }
         QueryParams params = new QueryParams(page, pageSize, search, sort, filters);
-        Page<UserEntity> userPage = userRepository.findAllByQueryParams(params);
+        Page<UserListItem> userPage = userRepository.findAllByQueryParams(params, UserListItem.class, entityManager);
         List<UserInfo> items = userPage.getContent().stream()
                 .map(this::mapToUserInfo)
                 .toList();
@@ -142,21 +147,25 @@ public class UserService {
     }
 
     private UserInfo mapToUserInfo(UserEntity user) {
+        return mapToUserInfo(UserListItem.from(user));
+    }
+
+    private UserInfo mapToUserInfo(UserListItem user) {
         UserInfo userInfo = new UserInfo()
-                .firstName(user.getFirstName())
-                .lastName(user.getLastName())
-                .email(user.getEmail())
-                .phoneNumber(user.getPhoneNumber())
-                .imageUrl(user.getImageUrl());
+                .firstName(user.firstName())
+                .lastName(user.lastName())
+                .email(user.email())
+                .phoneNumber(user.phoneNumber())
+                .imageUrl(user.imageUrl());
 
         if (SecurityUtils.hasRole(CoreMsRoles.USER_MS_ADMIN)) {
             userInfo
-                    .userId(user.getUuid())
-                    .provider(user.getProvider())
-                    .roles(user.getRoles().stream().map(RoleEntity::getName).toList())
-                    .lastLoginAt((user.getLastLoginAt() != null) ? user.getLastLoginAt().atOffset(ZoneOffset.UTC) : null)
-                    .createdAt(user.getCreatedAt().atOffset(ZoneOffset.UTC))
-                    .updatedAt(user.getUpdatedAt().atOffset(ZoneOffset.UTC));
+                    .userId(user.uuid())
+                    .provider(user.provider())
+                    .roles(user.roles())
+                    .lastLoginAt((user.lastLoginAt() != null) ? user.lastLoginAt().atOffset(ZoneOffset.UTC) : null)
+                    .createdAt(user.createdAt().atOffset(ZoneOffset.UTC))
+                    .updatedAt(user.updatedAt().atOffset(ZoneOffset.UTC));
 
         }
 